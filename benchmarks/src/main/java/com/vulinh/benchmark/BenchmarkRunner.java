@@ -0,0 +1,31 @@
+package com.vulinh.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run all benchmarks with the GC profiler, reporting allocation rate next to throughput, and write results to <code>jmh-result.json</code>. Usage:
+ * <code>java -cp target/benchmarks.jar com.vulinh.benchmark.BenchmarkRunner [include regex]</code>. For ad-hoc runs, <code>java -jar
+ * target/benchmarks.jar -prof gc</code> accepts every usual JMH option.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new UnsupportedOperationException("Cannot instantiate utility class!");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*")
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("jmh-result.json")
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.vulinh.benchmark;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.data.BuiltQuery;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the single-threaded build paths for every filter type.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BuildQueryBenchmark {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    @Param
+    private FilterType filterType;
+
+    private QueryBuilder queryBuilder;
+    private Object       filter;
+
+    @Setup
+    public void setUp() {
+        queryBuilder = new QueryBuilder();
+        filter = filterType.create();
+    }
+
+    @Benchmark
+    public StringBuilder buildQuery() {
+        return queryBuilder.buildQuery(filter, PRESET_HQL);
+    }
+
+    @Benchmark
+    public String buildQueryString() {
+        return queryBuilder.buildQueryString(filter, PRESET_HQL);
+    }
+
+    @Benchmark
+    public BuiltQuery build() {
+        return queryBuilder.build(filter, PRESET_HQL);
+    }
+}
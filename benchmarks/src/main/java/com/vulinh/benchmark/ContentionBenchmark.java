@@ -0,0 +1,80 @@
+package com.vulinh.benchmark;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.benchmark.model.WideFilter;
+import com.vulinh.data.BuiltQuery;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Many threads sharing one builder, and therefore its plan and shape caches, as behind a high-QPS endpoint.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class ContentionBenchmark {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final int SHAPES = 64;
+
+    @State(Scope.Benchmark)
+    public static class SharedBuilder {
+
+        QueryBuilder queryBuilder;
+
+        @Setup
+        public void setUp() {
+            queryBuilder = new QueryBuilder();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Filters {
+
+        final Object[]     mixed = new Object[FilterType.values().length];
+        final WideFilter[] wide  = new WideFilter[SHAPES];
+
+        @Setup
+        public void setUp() {
+            for (FilterType filterType : FilterType.values()) {
+                mixed[filterType.ordinal()] = filterType.create();
+            }
+
+            // Wide filters of many different shapes, so threads hit different shape cache entries
+            for (int i = 0; i < SHAPES; i++) {
+                wide[i] = WideFilter.sparse();
+                wide[i].setField01(i % 2 == 0 ? (long) i : null);
+                wide[i].setField02(i % 4 < 2 ? (long) i : null);
+                wide[i].setField03(i % 8 < 4 ? "value" : null);
+                wide[i].setField05(i % 16 < 8 ? "value" : null);
+                wide[i].setField06(i % 32 < 16 ? (long) i : null);
+                wide[i].setField07(i < 32 ? (long) i : null);
+            }
+        }
+    }
+
+    @Benchmark
+    public BuiltQuery mixedClasses(SharedBuilder shared, Filters filters) {
+        return shared.queryBuilder.build(filters.mixed[ThreadLocalRandom.current().nextInt(filters.mixed.length)], PRESET_HQL);
+    }
+
+    @Benchmark
+    public String manyShapes(SharedBuilder shared, Filters filters) {
+        return shared.queryBuilder.buildQueryString(filters.wide[ThreadLocalRandom.current().nextInt(SHAPES)], PRESET_HQL);
+    }
+}
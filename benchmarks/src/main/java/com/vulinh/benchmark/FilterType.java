@@ -0,0 +1,38 @@
+package com.vulinh.benchmark;
+
+import com.vulinh.benchmark.model.BetweenFilter;
+import com.vulinh.benchmark.model.InRangeFilter;
+import com.vulinh.benchmark.model.NarrowFilter;
+import com.vulinh.benchmark.model.OutRangeFilter;
+import com.vulinh.benchmark.model.WideFilter;
+import com.vulinh.benchmark.model.WrapAliasFilter;
+import java.util.function.Supplier;
+
+/**
+ * Filters covered by benchmarks, from narrow to wide, sparse to dense, and one per range and column manipulation annotation.
+ */
+public enum FilterType {
+    NARROW_SPARSE(NarrowFilter::sparse),
+    NARROW_DENSE(NarrowFilter::dense),
+    WIDE_SPARSE(WideFilter::sparse),
+    WIDE_DENSE(WideFilter::dense),
+    BETWEEN(BetweenFilter::dense),
+    IN_RANGE(InRangeFilter::dense),
+    OUT_RANGE(OutRangeFilter::dense),
+    WRAP_ALIAS(WrapAliasFilter::dense);
+
+    private final Supplier<Object> factory;
+
+    FilterType(Supplier<Object> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Create a new filter of this type.
+     *
+     * @return New filter.
+     */
+    public Object create() {
+        return factory.get();
+    }
+}
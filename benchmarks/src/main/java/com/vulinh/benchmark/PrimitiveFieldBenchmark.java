@@ -0,0 +1,67 @@
+package com.vulinh.benchmark;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.benchmark.model.NumericFilter;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.plan.QueryPlan;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Presence checks of primitive fields with <code>@AbsentWhen</code>. Run with <code>-prof gc</code> to check that presence masks, fingerprints and cache
+ * keys of dense numeric filters make no allocation, as primitive values are read without boxing; building still boxes the bound values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitiveFieldBenchmark {
+
+    private static final String PRESET_HQL = "select o from Order o where 1 = 1";
+
+    @Param({"dense", "sparse"})
+    private String density;
+
+    private QueryBuilder  queryBuilder;
+    private QueryPlan     plan;
+    private NumericFilter filter;
+
+    @Setup
+    public void setUp() {
+        queryBuilder = new QueryBuilder();
+        plan = QueryPlan.of(NumericFilter.class);
+        filter = "dense".equals(density) ? NumericFilter.dense() : NumericFilter.sparse();
+    }
+
+    @Benchmark
+    public long presenceMask() {
+        return plan.presenceMask(filter);
+    }
+
+    @Benchmark
+    public long fingerprint() {
+        return queryBuilder.fingerprint(filter, PRESET_HQL);
+    }
+
+    @Benchmark
+    public long cacheKey() {
+        return queryBuilder.cacheKey(filter, PRESET_HQL);
+    }
+
+    @Benchmark
+    public BuiltQuery build() {
+        return queryBuilder.build(filter, PRESET_HQL);
+    }
+}
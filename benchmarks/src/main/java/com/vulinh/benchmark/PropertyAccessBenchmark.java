@@ -0,0 +1,81 @@
+package com.vulinh.benchmark;
+
+import com.vulinh.accessor.LambdaAccessorFactory;
+import com.vulinh.accessor.MethodHandleAccessorFactory;
+import com.vulinh.accessor.PropertyAccessor;
+import com.vulinh.util.RetrospectionUtils;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-field cost of checking value presence: the former <code>PropertyDescriptor</code> based check against the cached accessors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyAccessBenchmark {
+
+    private Bean             bean;
+    private Field            field;
+    private PropertyAccessor methodHandleAccessor;
+    private PropertyAccessor lambdaAccessor;
+
+    @Setup
+    public void setUp() throws Exception {
+        bean = new Bean();
+        bean.setName("name");
+
+        field = Bean.class.getDeclaredField("name");
+        methodHandleAccessor = MethodHandleAccessorFactory.INSTANCE.create(Bean.class.getMethod("getName"));
+        lambdaAccessor = LambdaAccessorFactory.INSTANCE.create(Bean.class.getMethod("getName"));
+    }
+
+    @Benchmark
+    public boolean propertyDescriptor() throws Exception {
+        // Former implementation of RetrospectionUtils.isValuePresent
+        PropertyDescriptor descriptor = new PropertyDescriptor(field.getName(), bean.getClass());
+        return descriptor.getReadMethod().invoke(bean) != null;
+    }
+
+    @Benchmark
+    public boolean isValuePresent() {
+        return RetrospectionUtils.isValuePresent(field, bean);
+    }
+
+    @Benchmark
+    public Object methodHandleAccessor() {
+        return methodHandleAccessor.get(bean);
+    }
+
+    @Benchmark
+    public Object lambdaAccessor() {
+        return lambdaAccessor.get(bean);
+    }
+
+    public static class Bean {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
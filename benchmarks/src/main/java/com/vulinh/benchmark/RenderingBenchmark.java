@@ -0,0 +1,57 @@
+package com.vulinh.benchmark;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.benchmark.model.SearchFilter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering into fresh and reused buffers. Run with <code>-prof gc</code> to check that rendering into a reused buffer makes no allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderingBenchmark {
+
+    private static final String PRESET_HQL = "select o from Order o where 1 = 1";
+
+    private QueryBuilder  queryBuilder;
+    private SearchFilter  filter;
+    private StringBuilder buffer;
+
+    @Setup
+    public void setUp() {
+        queryBuilder = new QueryBuilder();
+        filter = SearchFilter.dense();
+        buffer = new StringBuilder(512);
+    }
+
+    @Benchmark
+    public StringBuilder buildQuery() {
+        return queryBuilder.buildQuery(filter, PRESET_HQL);
+    }
+
+    @Benchmark
+    public String buildQueryString() {
+        return queryBuilder.buildQueryString(filter, PRESET_HQL);
+    }
+
+    @Benchmark
+    public StringBuilder buildQueryIntoReusedBuffer() {
+        buffer.setLength(0);
+
+        return queryBuilder.buildQuery(filter, PRESET_HQL, buffer);
+    }
+}
@@ -0,0 +1,164 @@
+package com.vulinh.benchmark;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.benchmark.model.WideFilter;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.CacheStatistics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency stress harness for a single shared query builder. Many threads are released at once on a builder with cold caches, so that plan compilation
+ * and shape caching race as well, and every result is checked against the result of a builder used by a single thread. Runs on platform threads, then on
+ * virtual threads when the JDK supports them. Exits with status 1 if any result is corrupted. Usage:
+ * <code>java -cp target/benchmarks.jar com.vulinh.benchmark.StressRunner [threads] [iterations per thread]</code>.
+ */
+public final class StressRunner {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final int SHAPES = 64;
+
+    private StressRunner() {
+        throw new UnsupportedOperationException("Cannot instantiate utility class!");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        List<Object> filters = filters();
+        List<BuiltQuery> expected = new ArrayList<>();
+
+        // Expected results come from a builder that never sees concurrent access
+        QueryBuilder reference = QueryBuilder.builder().build();
+
+        for (Object filter : filters) {
+            expected.add(reference.build(filter, PRESET_HQL));
+        }
+
+        boolean corrupted = run("platform", Executors.newFixedThreadPool(threads), threads, iterations, filters, expected);
+
+        ExecutorService virtualThreads = virtualThreadExecutor();
+
+        if (virtualThreads != null) {
+            corrupted |= run("virtual", virtualThreads, threads, iterations, filters, expected);
+        } else {
+            System.out.println("virtual: skipped, virtual threads need JDK 21 or later");
+        }
+
+        if (corrupted) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(String name, ExecutorService executor, int threads, int iterations, List<Object> filters, List<BuiltQuery> expected)
+        throws InterruptedException, ExecutionException {
+        QueryBuilder shared = QueryBuilder.builder().build();
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        LongAdder mismatches = new LongAdder();
+        LongAdder nonCanonical = new LongAdder();
+        AtomicReferenceArray<String> canonicalQueries = new AtomicReferenceArray<>(filters.size());
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < iterations; i++) {
+                    int index = random.nextInt(filters.size());
+                    Object filter = filters.get(index);
+
+                    if ((i & 1) == 0) {
+                        BuiltQuery builtQuery = shared.build(filter, PRESET_HQL);
+
+                        if (!builtQuery.query().equals(expected.get(index).query())
+                            || !builtQuery.parameters().equals(expected.get(index).parameters())) {
+                            mismatches.increment();
+                        }
+                    } else {
+                        String query = shared.buildQueryString(filter, PRESET_HQL);
+
+                        if (!query.equals(expected.get(index).query())) {
+                            mismatches.increment();
+                        }
+
+                        // Every thread must get the identical cached instance of a shape
+                        if (!canonicalQueries.compareAndSet(index, null, query) && canonicalQueries.get(index) != query) {
+                            nonCanonical.increment();
+                        }
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+
+        startGate.countDown();
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        long operations = (long) threads * iterations;
+        CacheStatistics statistics = shared.cacheStatistics();
+
+        System.out.printf("%s: %d threads, %d operations in %d ms (%.0f ops/ms), %d mismatches, %d non-canonical queries, %s%n",
+                          name, threads, operations, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), operations * 1e6 / elapsedNanos,
+                          mismatches.sum(), nonCanonical.sum(), statistics);
+
+        return mismatches.sum() != 0 || nonCanonical.sum() != 0;
+    }
+
+    private static List<Object> filters() {
+        List<Object> filters = new ArrayList<>();
+
+        for (FilterType filterType : FilterType.values()) {
+            filters.add(filterType.create());
+        }
+
+        // Wide filters of many different shapes, so threads race to cache different shapes
+        for (int i = 0; i < SHAPES; i++) {
+            WideFilter filter = WideFilter.sparse();
+
+            filter.setField01(i % 2 == 0 ? (long) i : null);
+            filter.setField02(i % 4 < 2 ? (long) i : null);
+            filter.setField03(i % 8 < 4 ? "value" : null);
+            filter.setField05(i % 16 < 8 ? "value" : null);
+            filter.setField06(i % 32 < 16 ? (long) i : null);
+            filter.setField07(i < 32 ? (long) i : null);
+
+            filters.add(filter);
+        }
+
+        return filters;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        // This module targets Java 8, so virtual threads are only reachable reflectively
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+}
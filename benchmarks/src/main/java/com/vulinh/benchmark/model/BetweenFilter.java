@@ -0,0 +1,48 @@
+package com.vulinh.benchmark.model;
+
+import com.vulinh.annotation.comparison.Between;
+
+/**
+ * Filter with a <code>@Between</code> field.
+ */
+public class BetweenFilter {
+
+    @Between
+    private Long amount;
+
+    private Long fromValue;
+
+    private Long toValue;
+
+    public static BetweenFilter dense() {
+        BetweenFilter filter = new BetweenFilter();
+        filter.setAmount(0L);
+        filter.setFromValue(10L);
+        filter.setToValue(100L);
+        return filter;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Long amount) {
+        this.amount = amount;
+    }
+
+    public Long getFromValue() {
+        return fromValue;
+    }
+
+    public void setFromValue(Long fromValue) {
+        this.fromValue = fromValue;
+    }
+
+    public Long getToValue() {
+        return toValue;
+    }
+
+    public void setToValue(Long toValue) {
+        this.toValue = toValue;
+    }
+}
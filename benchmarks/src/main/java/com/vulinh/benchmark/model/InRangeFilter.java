@@ -0,0 +1,53 @@
+package com.vulinh.benchmark.model;
+
+import com.vulinh.annotation.IgnoreField;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.annotation.comparison.InRange;
+
+/**
+ * Filter with an <code>@InRange</code> field.
+ */
+public class InRangeFilter {
+
+    @InRange(inclusivity = true)
+    @UseTableAlias("r")
+    private Long amount;
+
+    @IgnoreField
+    private Long fromValue;
+
+    @IgnoreField
+    private Long toValue;
+
+    public static InRangeFilter dense() {
+        InRangeFilter filter = new InRangeFilter();
+        filter.setAmount(0L);
+        filter.setFromValue(10L);
+        filter.setToValue(100L);
+        return filter;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Long amount) {
+        this.amount = amount;
+    }
+
+    public Long getFromValue() {
+        return fromValue;
+    }
+
+    public void setFromValue(Long fromValue) {
+        this.fromValue = fromValue;
+    }
+
+    public Long getToValue() {
+        return toValue;
+    }
+
+    public void setToValue(Long toValue) {
+        this.toValue = toValue;
+    }
+}
@@ -0,0 +1,40 @@
+package com.vulinh.benchmark.model;
+
+/**
+ * Narrow filter with two plain fields.
+ */
+public class NarrowFilter {
+
+    private Long id;
+
+    private String status;
+
+    public static NarrowFilter dense() {
+        NarrowFilter filter = new NarrowFilter();
+        filter.setId(1L);
+        filter.setStatus("ACTIVE");
+        return filter;
+    }
+
+    public static NarrowFilter sparse() {
+        NarrowFilter filter = new NarrowFilter();
+        filter.setId(1L);
+        return filter;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
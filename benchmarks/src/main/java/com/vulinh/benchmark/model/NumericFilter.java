@@ -0,0 +1,87 @@
+package com.vulinh.benchmark.model;
+
+import com.vulinh.annotation.AbsentWhen;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.annotation.comparison.LessThan;
+import com.vulinh.annotation.comparison.LessThanOrEqualTo;
+
+/**
+ * Numeric filter with primitive fields only, absent when holding <code>-1</code>.
+ */
+public class NumericFilter {
+
+    @AbsentWhen(-1)
+    private long customerId = -1;
+
+    @AbsentWhen(-1)
+    private int storeId = -1;
+
+    @AbsentWhen(-1)
+    @GreaterThanOrEqualTo
+    private int minQuantity = -1;
+
+    @AbsentWhen(-1)
+    @LessThanOrEqualTo
+    private long maxTotalCents = -1;
+
+    @AbsentWhen(-1)
+    @LessThan
+    private double maxDiscount = -1;
+
+    public static NumericFilter dense() {
+        NumericFilter filter = new NumericFilter();
+        // Values outside of the Integer cache, so that boxing them would allocate
+        filter.setCustomerId(1_000_001L);
+        filter.setStoreId(4_242);
+        filter.setMinQuantity(1_000);
+        filter.setMaxTotalCents(5_000_000L);
+        filter.setMaxDiscount(0.25);
+        return filter;
+    }
+
+    public static NumericFilter sparse() {
+        NumericFilter filter = new NumericFilter();
+        filter.setCustomerId(1_000_001L);
+        return filter;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(long customerId) {
+        this.customerId = customerId;
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(int storeId) {
+        this.storeId = storeId;
+    }
+
+    public int getMinQuantity() {
+        return minQuantity;
+    }
+
+    public void setMinQuantity(int minQuantity) {
+        this.minQuantity = minQuantity;
+    }
+
+    public long getMaxTotalCents() {
+        return maxTotalCents;
+    }
+
+    public void setMaxTotalCents(long maxTotalCents) {
+        this.maxTotalCents = maxTotalCents;
+    }
+
+    public double getMaxDiscount() {
+        return maxDiscount;
+    }
+
+    public void setMaxDiscount(double maxDiscount) {
+        this.maxDiscount = maxDiscount;
+    }
+}
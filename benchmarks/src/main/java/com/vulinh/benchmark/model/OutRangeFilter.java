@@ -0,0 +1,53 @@
+package com.vulinh.benchmark.model;
+
+import com.vulinh.annotation.IgnoreField;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.annotation.comparison.OutRange;
+
+/**
+ * Filter with an <code>@OutRange</code> field.
+ */
+public class OutRangeFilter {
+
+    @OutRange(fromField = "low", toField = "high")
+    @UseTableAlias("r")
+    private Long amount;
+
+    @IgnoreField
+    private Long low;
+
+    @IgnoreField
+    private Long high;
+
+    public static OutRangeFilter dense() {
+        OutRangeFilter filter = new OutRangeFilter();
+        filter.setAmount(0L);
+        filter.setLow(10L);
+        filter.setHigh(100L);
+        return filter;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Long amount) {
+        this.amount = amount;
+    }
+
+    public Long getLow() {
+        return low;
+    }
+
+    public void setLow(Long low) {
+        this.low = low;
+    }
+
+    public Long getHigh() {
+        return high;
+    }
+
+    public void setHigh(Long high) {
+        this.high = high;
+    }
+}
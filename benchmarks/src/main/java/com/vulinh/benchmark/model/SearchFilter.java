@@ -0,0 +1,105 @@
+package com.vulinh.benchmark.model;
+
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.annotation.UseWrapMethod;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.annotation.comparison.InRange;
+import com.vulinh.annotation.comparison.Like;
+import java.time.LocalDate;
+
+/**
+ * Typical search filter used by benchmarks.
+ */
+public class SearchFilter {
+
+    @UseTableAlias("o")
+    private Long id;
+
+    @Like
+    @UseTableAlias("o")
+    private String name;
+
+    @UseTableAlias("o")
+    private String status;
+
+    @GreaterThanOrEqualTo
+    @UseWrapMethod("date")
+    @UseTableAlias("o")
+    private LocalDate createdDate;
+
+    @InRange(inclusivity = true)
+    @UseTableAlias("o")
+    private Long amount;
+
+    private Long fromValue;
+
+    private Long toValue;
+
+    public static SearchFilter dense() {
+        SearchFilter filter = new SearchFilter();
+        filter.setId(1L);
+        filter.setName("%name%");
+        filter.setStatus("ACTIVE");
+        filter.setCreatedDate(LocalDate.of(2024, 1, 1));
+        filter.setAmount(0L);
+        filter.setFromValue(10L);
+        filter.setToValue(1000L);
+        return filter;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDate createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Long amount) {
+        this.amount = amount;
+    }
+
+    public Long getFromValue() {
+        return fromValue;
+    }
+
+    public void setFromValue(Long fromValue) {
+        this.fromValue = fromValue;
+    }
+
+    public Long getToValue() {
+        return toValue;
+    }
+
+    public void setToValue(Long toValue) {
+        this.toValue = toValue;
+    }
+}
@@ -0,0 +1,437 @@
+package com.vulinh.benchmark.model;
+
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.annotation.comparison.GreaterThan;
+import com.vulinh.annotation.comparison.LessThanOrEqualTo;
+import com.vulinh.annotation.comparison.Like;
+import com.vulinh.annotation.comparison.NotEqual;
+
+/**
+ * Wide filter with 32 fields.
+ */
+public class WideFilter {
+
+    @Like
+    @UseTableAlias("w")
+    private String field00;
+
+    @GreaterThan
+    @UseTableAlias("w")
+    private Long field01;
+
+    @LessThanOrEqualTo
+    @UseTableAlias("w")
+    private Long field02;
+
+    @NotEqual
+    @UseTableAlias("w")
+    private String field03;
+
+    @UseTableAlias("w")
+    private Long field04;
+
+    @Like
+    @UseTableAlias("w")
+    private String field05;
+
+    @GreaterThan
+    @UseTableAlias("w")
+    private Long field06;
+
+    @LessThanOrEqualTo
+    @UseTableAlias("w")
+    private Long field07;
+
+    @NotEqual
+    @UseTableAlias("w")
+    private String field08;
+
+    @UseTableAlias("w")
+    private Long field09;
+
+    @Like
+    @UseTableAlias("w")
+    private String field10;
+
+    @GreaterThan
+    @UseTableAlias("w")
+    private Long field11;
+
+    @LessThanOrEqualTo
+    @UseTableAlias("w")
+    private Long field12;
+
+    @NotEqual
+    @UseTableAlias("w")
+    private String field13;
+
+    @UseTableAlias("w")
+    private Long field14;
+
+    @Like
+    @UseTableAlias("w")
+    private String field15;
+
+    @GreaterThan
+    @UseTableAlias("w")
+    private Long field16;
+
+    @LessThanOrEqualTo
+    @UseTableAlias("w")
+    private Long field17;
+
+    @NotEqual
+    @UseTableAlias("w")
+    private String field18;
+
+    @UseTableAlias("w")
+    private Long field19;
+
+    @Like
+    @UseTableAlias("w")
+    private String field20;
+
+    @GreaterThan
+    @UseTableAlias("w")
+    private Long field21;
+
+    @LessThanOrEqualTo
+    @UseTableAlias("w")
+    private Long field22;
+
+    @NotEqual
+    @UseTableAlias("w")
+    private String field23;
+
+    @UseTableAlias("w")
+    private Long field24;
+
+    @Like
+    @UseTableAlias("w")
+    private String field25;
+
+    @GreaterThan
+    @UseTableAlias("w")
+    private Long field26;
+
+    @LessThanOrEqualTo
+    @UseTableAlias("w")
+    private Long field27;
+
+    @NotEqual
+    @UseTableAlias("w")
+    private String field28;
+
+    @UseTableAlias("w")
+    private Long field29;
+
+    @Like
+    @UseTableAlias("w")
+    private String field30;
+
+    @GreaterThan
+    @UseTableAlias("w")
+    private Long field31;
+
+    public static WideFilter dense() {
+        WideFilter filter = new WideFilter();
+        filter.setField00("value");
+        filter.setField01(1L);
+        filter.setField02(2L);
+        filter.setField03("value");
+        filter.setField04(4L);
+        filter.setField05("value");
+        filter.setField06(6L);
+        filter.setField07(7L);
+        filter.setField08("value");
+        filter.setField09(9L);
+        filter.setField10("value");
+        filter.setField11(11L);
+        filter.setField12(12L);
+        filter.setField13("value");
+        filter.setField14(14L);
+        filter.setField15("value");
+        filter.setField16(16L);
+        filter.setField17(17L);
+        filter.setField18("value");
+        filter.setField19(19L);
+        filter.setField20("value");
+        filter.setField21(21L);
+        filter.setField22(22L);
+        filter.setField23("value");
+        filter.setField24(24L);
+        filter.setField25("value");
+        filter.setField26(26L);
+        filter.setField27(27L);
+        filter.setField28("value");
+        filter.setField29(29L);
+        filter.setField30("value");
+        filter.setField31(31L);
+        return filter;
+    }
+
+    public static WideFilter sparse() {
+        WideFilter filter = new WideFilter();
+        filter.setField00("value");
+        filter.setField08("value");
+        filter.setField16(16L);
+        filter.setField24(24L);
+        return filter;
+    }
+
+    public String getField00() {
+        return field00;
+    }
+
+    public void setField00(String field00) {
+        this.field00 = field00;
+    }
+
+    public Long getField01() {
+        return field01;
+    }
+
+    public void setField01(Long field01) {
+        this.field01 = field01;
+    }
+
+    public Long getField02() {
+        return field02;
+    }
+
+    public void setField02(Long field02) {
+        this.field02 = field02;
+    }
+
+    public String getField03() {
+        return field03;
+    }
+
+    public void setField03(String field03) {
+        this.field03 = field03;
+    }
+
+    public Long getField04() {
+        return field04;
+    }
+
+    public void setField04(Long field04) {
+        this.field04 = field04;
+    }
+
+    public String getField05() {
+        return field05;
+    }
+
+    public void setField05(String field05) {
+        this.field05 = field05;
+    }
+
+    public Long getField06() {
+        return field06;
+    }
+
+    public void setField06(Long field06) {
+        this.field06 = field06;
+    }
+
+    public Long getField07() {
+        return field07;
+    }
+
+    public void setField07(Long field07) {
+        this.field07 = field07;
+    }
+
+    public String getField08() {
+        return field08;
+    }
+
+    public void setField08(String field08) {
+        this.field08 = field08;
+    }
+
+    public Long getField09() {
+        return field09;
+    }
+
+    public void setField09(Long field09) {
+        this.field09 = field09;
+    }
+
+    public String getField10() {
+        return field10;
+    }
+
+    public void setField10(String field10) {
+        this.field10 = field10;
+    }
+
+    public Long getField11() {
+        return field11;
+    }
+
+    public void setField11(Long field11) {
+        this.field11 = field11;
+    }
+
+    public Long getField12() {
+        return field12;
+    }
+
+    public void setField12(Long field12) {
+        this.field12 = field12;
+    }
+
+    public String getField13() {
+        return field13;
+    }
+
+    public void setField13(String field13) {
+        this.field13 = field13;
+    }
+
+    public Long getField14() {
+        return field14;
+    }
+
+    public void setField14(Long field14) {
+        this.field14 = field14;
+    }
+
+    public String getField15() {
+        return field15;
+    }
+
+    public void setField15(String field15) {
+        this.field15 = field15;
+    }
+
+    public Long getField16() {
+        return field16;
+    }
+
+    public void setField16(Long field16) {
+        this.field16 = field16;
+    }
+
+    public Long getField17() {
+        return field17;
+    }
+
+    public void setField17(Long field17) {
+        this.field17 = field17;
+    }
+
+    public String getField18() {
+        return field18;
+    }
+
+    public void setField18(String field18) {
+        this.field18 = field18;
+    }
+
+    public Long getField19() {
+        return field19;
+    }
+
+    public void setField19(Long field19) {
+        this.field19 = field19;
+    }
+
+    public String getField20() {
+        return field20;
+    }
+
+    public void setField20(String field20) {
+        this.field20 = field20;
+    }
+
+    public Long getField21() {
+        return field21;
+    }
+
+    public void setField21(Long field21) {
+        this.field21 = field21;
+    }
+
+    public Long getField22() {
+        return field22;
+    }
+
+    public void setField22(Long field22) {
+        this.field22 = field22;
+    }
+
+    public String getField23() {
+        return field23;
+    }
+
+    public void setField23(String field23) {
+        this.field23 = field23;
+    }
+
+    public Long getField24() {
+        return field24;
+    }
+
+    public void setField24(Long field24) {
+        this.field24 = field24;
+    }
+
+    public String getField25() {
+        return field25;
+    }
+
+    public void setField25(String field25) {
+        this.field25 = field25;
+    }
+
+    public Long getField26() {
+        return field26;
+    }
+
+    public void setField26(Long field26) {
+        this.field26 = field26;
+    }
+
+    public Long getField27() {
+        return field27;
+    }
+
+    public void setField27(Long field27) {
+        this.field27 = field27;
+    }
+
+    public String getField28() {
+        return field28;
+    }
+
+    public void setField28(String field28) {
+        this.field28 = field28;
+    }
+
+    public Long getField29() {
+        return field29;
+    }
+
+    public void setField29(Long field29) {
+        this.field29 = field29;
+    }
+
+    public String getField30() {
+        return field30;
+    }
+
+    public void setField30(String field30) {
+        this.field30 = field30;
+    }
+
+    public Long getField31() {
+        return field31;
+    }
+
+    public void setField31(Long field31) {
+        this.field31 = field31;
+    }
+}
@@ -0,0 +1,70 @@
+package com.vulinh.benchmark.model;
+
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.annotation.UseWrapMethod;
+import com.vulinh.annotation.comparison.Like;
+
+/**
+ * Filter combining <code>@UseWrapMethod</code>, <code>@UseTableAlias</code> and <code>@UseCustomName</code>.
+ */
+public class WrapAliasFilter {
+
+    @UseWrapMethod("date")
+    @UseTableAlias("o")
+    private String createdDate;
+
+    @UseWrapMethod(value = "cast", after = "as string")
+    @UseTableAlias("o")
+    @UseCustomName("code")
+    private Long orderCode;
+
+    @Like
+    @UseWrapMethod("lower")
+    @UseTableAlias("c")
+    private String customerName;
+
+    @UseTableAlias("c")
+    private String country;
+
+    public static WrapAliasFilter dense() {
+        WrapAliasFilter filter = new WrapAliasFilter();
+        filter.setCreatedDate("2024-01-01");
+        filter.setOrderCode(42L);
+        filter.setCustomerName("%john%");
+        filter.setCountry("VN");
+        return filter;
+    }
+
+    public String getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(String createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Long getOrderCode() {
+        return orderCode;
+    }
+
+    public void setOrderCode(Long orderCode) {
+        this.orderCode = orderCode;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+}
@@ -0,0 +1,353 @@
+package com.vulinh.processor;
+
+import static java.lang.String.format;
+
+import com.vulinh.annotation.AbsentWhen;
+import com.vulinh.annotation.IgnoreField;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.data.BuilderException;
+import com.vulinh.data.InvalidAnnotationCombinationException;
+import com.vulinh.data.QueryHint;
+import com.vulinh.plan.FieldDefinition;
+import com.vulinh.util.AnnotationUtils;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * Annotation processor generating a reflection-free <code>FooQueryBuilder</code> for each class <code>Foo</code> that has fields annotated by this library.
+ * The generated <code>buildQuery</code> method calls getters directly and appends constant fragments, producing the same query as
+ * <code>QueryBuilder.buildQuery</code>. Invalid annotation combinations and missing getters are reported as compile errors.
+ */
+@SupportedAnnotationTypes({"com.vulinh.annotation.*", "com.vulinh.annotation.comparison.*"})
+public class QueryBuilderProcessor extends AbstractProcessor {
+
+    private static final String GENERATED_SUFFIX = "QueryBuilder";
+
+    private static final Set<String> OPTIONAL_TYPES = new HashSet<>(Arrays.asList(
+        "java.util.Optional",
+        "java.util.OptionalInt",
+        "java.util.OptionalLong",
+        "java.util.OptionalDouble"
+    ));
+
+    private final Set<String> processedTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> types = new LinkedHashSet<>();
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.FIELD) {
+                    types.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        for (TypeElement type : types) {
+            if (processedTypes.add(type.getQualifiedName().toString())) {
+                processType(type);
+            }
+        }
+
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            error(type, format("Class %s must not be private to generate its query builder", type));
+
+            return;
+        }
+
+        List<VariableElement> declaredFields = new ArrayList<>(ElementFilter.fieldsIn(type.getEnclosedElements()));
+
+        // Same canonical predicate order as runtime plans, source elements being in declaration order already
+        try {
+            AnnotationUtils.sortByPredicateOrder(declaredFields, field -> field::getAnnotation);
+        } catch (BuilderException ex) {
+            error(type, ex.getMessage());
+
+            return;
+        }
+
+        List<GeneratedField> fields = new ArrayList<>();
+        Set<String> presenceFlags = AnnotationUtils.findPresenceFlags(declaredFields, field -> field::getAnnotation);
+        boolean valid = true;
+
+        for (VariableElement field : declaredFields) {
+            // Static fields, fields marked as @IgnoreField and presence flags never take part in query building
+            if (field.getModifiers().contains(Modifier.STATIC) || field.getAnnotation(IgnoreField.class) != null
+                || presenceFlags.contains(field.getSimpleName().toString())) {
+                continue;
+            }
+
+            FieldDefinition definition = FieldDefinition.of(field.getSimpleName().toString(), field::getAnnotation);
+
+            try {
+                definition.checkInvalidAnnotationCombination(format("%s.%s", type, field.getSimpleName()));
+            } catch (InvalidAnnotationCombinationException ex) {
+                error(field, ex.getMessage());
+                valid = false;
+
+                continue;
+            }
+
+            // Padded lists render a different fragment per list size, which a constant fragment cannot express
+            if (definition.isPadded()) {
+                error(field, format("Field %s.%s uses padded IN list, which is not supported by generated query builders, use mode = ARRAY instead",
+                                    type, field.getSimpleName()));
+                valid = false;
+
+                continue;
+            }
+
+            // Range bounds are computed from the field value, which generated builders do not bind
+            if (definition.isSargable()) {
+                error(field, format("Field %s.%s is rewritten into a range (sargable = true), which is not supported by generated query builders",
+                                    type, field.getSimpleName()));
+                valid = false;
+
+                continue;
+            }
+
+            ExecutableElement getter = findGetter(type, field);
+
+            if (getter == null) {
+                error(field, format("Either class %s is not a valid bean or getter method not present for field %s", type, field));
+                valid = false;
+
+                continue;
+            }
+
+            String presenceCondition;
+
+            try {
+                presenceCondition = presenceCondition(type, field, getter, definition);
+            } catch (BuilderException ex) {
+                error(field, ex.getMessage());
+                valid = false;
+
+                continue;
+            }
+
+            // Empty @In lists are still present, but render a predicate matching no row
+            String emptyCondition = definition.matchesNothingWhenEmpty() ? "object." + getter.getSimpleName() + "().isEmpty()" : null;
+
+            // Index hints of a field belong to the table of said field, unless they name their own
+            UseTableAlias useTableAlias = field.getAnnotation(UseTableAlias.class);
+            List<QueryHint> hints = AnnotationUtils.findQueryHints(field::getAnnotation, useTableAlias != null ? useTableAlias.value() : "");
+
+            fields.add(new GeneratedField(definition, presenceCondition, emptyCondition, hints));
+        }
+
+        if (valid) {
+            writeSource(type, AnnotationUtils.findQueryHints(type::getAnnotation, ""), fields);
+        }
+    }
+
+    /**
+     * Render the condition under which a field is present, with the same rules as runtime plans: not <code>null</code> (and not empty for <code>@NotIn</code>
+     * comparisons), or as told by <code>@AbsentWhen</code>, or present <code>Optional</code> values.
+     *
+     * @return Java expression of said condition, or <code>null</code> if said field is always present.
+     */
+    private String presenceCondition(TypeElement type, VariableElement field, ExecutableElement getter, FieldDefinition definition) {
+        String value = "object." + getter.getSimpleName() + "()";
+        TypeKind kind = getter.getReturnType().getKind();
+        AbsentWhen absentWhen = field.getAnnotation(AbsentWhen.class);
+
+        if (absentWhen != null && !absentWhen.flag().isEmpty()) {
+            ExecutableElement flagGetter = findGetter(type, absentWhen.flag(), null);
+
+            if (flagGetter == null || flagGetter.getReturnType().getKind() != TypeKind.BOOLEAN) {
+                throw new BuilderException(format("Property %s of class %s must be a boolean", absentWhen.flag(), type));
+            }
+
+            String flag = "object." + flagGetter.getSimpleName() + "()";
+
+            return kind.isPrimitive() ? flag : flag + " && " + notNullCondition(value, definition);
+        }
+
+        if (absentWhen != null) {
+            switch (kind) {
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                    return value + " != " + absentWhen.value() + "L";
+                case FLOAT:
+                case DOUBLE:
+                    return value + " != " + (double) absentWhen.value();
+                default:
+                    throw new BuilderException(
+                        format("Field %s.%s is not a numeric primitive, it cannot be absent when holding a sentinel value", type, field)
+                    );
+            }
+        }
+
+        // Primitive values are never null, so they are always present
+        if (kind.isPrimitive()) {
+            return null;
+        }
+
+        String erasure = processingEnv.getTypeUtils().erasure(getter.getReturnType()).toString();
+
+        if (OPTIONAL_TYPES.contains(erasure)) {
+            return value + " != null && " + value + ".isPresent()";
+        }
+
+        return notNullCondition(value, definition);
+    }
+
+    private static String notNullCondition(String value, FieldDefinition definition) {
+        // Empty @NotIn lists are treated as absent, as they exclude no row
+        return definition.isListComparison() && !definition.matchesNothingWhenEmpty() ? value + " != null && !" + value + ".isEmpty()" : value + " != null";
+    }
+
+    private ExecutableElement findGetter(TypeElement type, VariableElement field) {
+        return findGetter(type, field.getSimpleName().toString(), field.asType());
+    }
+
+    // Same rules as the runtime: 'is' methods only read boolean properties, getters of fields return the type of said field, and a setter is required
+    private ExecutableElement findGetter(TypeElement type, String name, TypeMirror propertyType) {
+        String capitalizedName = name.substring(0, 1).toUpperCase(Locale.ENGLISH) + name.substring(1);
+
+        ExecutableElement getter = findPublicMethod(type, "is" + capitalizedName);
+
+        if (getter == null || getter.getReturnType().getKind() != TypeKind.BOOLEAN || propertyType != null && propertyType.getKind() != TypeKind.BOOLEAN) {
+            getter = findPublicMethod(type, "get" + capitalizedName);
+        }
+
+        if (getter == null || getter.getReturnType().getKind() == TypeKind.VOID
+            || propertyType != null && !isSameErasure(getter.getReturnType(), propertyType)) {
+            return null;
+        }
+
+        return findPublicMethod(type, "set" + capitalizedName, getter.getReturnType()) != null ? getter : null;
+    }
+
+    private ExecutableElement findPublicMethod(TypeElement type, String name, TypeMirror... parameterTypes) {
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(name)
+                && hasParameterTypes(method, parameterTypes)
+                && method.getModifiers().contains(Modifier.PUBLIC)
+                && !method.getModifiers().contains(Modifier.STATIC)) {
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean hasParameterTypes(ExecutableElement method, TypeMirror... parameterTypes) {
+        List<? extends VariableElement> parameters = method.getParameters();
+
+        if (parameters.size() != parameterTypes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!isSameErasure(parameters.get(i).asType(), parameterTypes[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isSameErasure(TypeMirror type, TypeMirror other) {
+        // The runtime compares classes, so generic arguments do not matter
+        Types types = processingEnv.getTypeUtils();
+
+        return types.isSameType(types.erasure(type), types.erasure(other));
+    }
+
+    private void writeSource(TypeElement type, List<QueryHint> typeHints, List<GeneratedField> fields) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = generatedSimpleName(type);
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(new QueryBuilderSource(packageName, simpleName, beanTypeName(type), typeHints, fields).render());
+        } catch (IOException ex) {
+            error(type, format("Cannot write query builder %s: %s", qualifiedName, ex.getMessage()));
+        }
+    }
+
+    private static String generatedSimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+
+        // Nested classes are flattened, Outer.Inner becomes Outer_InnerQueryBuilder
+        for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, enclosing.getSimpleName());
+        }
+
+        return name.append(GENERATED_SUFFIX).toString();
+    }
+
+    private static String beanTypeName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getQualifiedName());
+
+        if (!type.getTypeParameters().isEmpty()) {
+            name.append('<');
+
+            for (int i = 0; i < type.getTypeParameters().size(); i++) {
+                name.append(i == 0 ? "?" : ", ?");
+            }
+
+            name.append('>');
+        }
+
+        return name.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+    }
+
+    /**
+     * A field taking part in the generated query builder.
+     */
+    static final class GeneratedField {
+
+        final FieldDefinition definition;
+        final String          presenceCondition;
+        final String          emptyCondition;
+        final List<QueryHint> hints;
+
+        GeneratedField(FieldDefinition definition, String presenceCondition, String emptyCondition, List<QueryHint> hints) {
+            this.definition = definition;
+            this.presenceCondition = presenceCondition;
+            this.emptyCondition = emptyCondition;
+            this.hints = hints;
+        }
+    }
+}
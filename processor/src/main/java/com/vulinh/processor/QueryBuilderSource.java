@@ -0,0 +1,203 @@
+package com.vulinh.processor;
+
+import com.vulinh.data.QueryHint;
+import com.vulinh.plan.FieldDefinition;
+import com.vulinh.processor.QueryBuilderProcessor.GeneratedField;
+import java.util.List;
+
+/**
+ * Source code of a generated query builder.
+ */
+final class QueryBuilderSource {
+
+    private static final String INDENT = "    ";
+
+    private final String               packageName;
+    private final String               simpleName;
+    private final String               beanTypeName;
+    private final List<QueryHint>      typeHints;
+    private final List<GeneratedField> fields;
+
+    QueryBuilderSource(String packageName, String simpleName, String beanTypeName, List<QueryHint> typeHints, List<GeneratedField> fields) {
+        this.packageName = packageName;
+        this.simpleName = simpleName;
+        this.beanTypeName = beanTypeName;
+        this.typeHints = typeHints;
+        this.fields = fields;
+    }
+
+    String render() {
+        StringBuilder source = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("import static com.vulinh.util.StringUtils.isNotBlank;\n\n")
+              .append("/**\n")
+              .append(" * Query builder for {@link ").append(beanTypeName.replaceAll("<.*>$", "")).append("}, generated by query-builder-processor. Do not edit.\n")
+              .append(" */\n")
+              .append("public final class ").append(simpleName).append(" {\n\n")
+              .append(INDENT).append("private ").append(simpleName).append("() {\n")
+              .append(INDENT).append(INDENT).append("throw new UnsupportedOperationException(\"Cannot instantiate utility class!\");\n")
+              .append(INDENT).append("}\n\n")
+              .append(INDENT).append("/**\n")
+              .append(INDENT).append(" * Create 'search' query from a given object.\n")
+              .append(INDENT).append(" *\n")
+              .append(INDENT).append(" * @param object    Input object.\n")
+              .append(INDENT).append(" * @param presetHql Pre-built query to concatenate with result.\n")
+              .append(INDENT).append(" * @return A 'search' query generated from provided object.\n")
+              .append(INDENT).append(" */\n")
+              .append(INDENT).append("public static StringBuilder buildQuery(").append(beanTypeName).append(" object, String presetHql) {\n");
+
+        if (isHinted()) {
+            // Like the default dialect, HQL/JPQL queries are not hinted unless asked to
+            indent(source, 2).append("return buildQuery(object, presetHql, com.vulinh.dialect.HintStyle.NONE);\n");
+            source.append(INDENT).append("}\n\n")
+                  .append(INDENT).append("/**\n")
+                  .append(INDENT).append(" * Create 'search' query from a given object, rendering optimizer hints of the class and of present fields\n")
+                  .append(INDENT).append(" * into the preset query.\n")
+                  .append(INDENT).append(" *\n")
+                  .append(INDENT).append(" * @param object    Input object.\n")
+                  .append(INDENT).append(" * @param presetHql Pre-built query to concatenate with result.\n")
+                  .append(INDENT).append(" * @param hintStyle How to render optimizer hints.\n")
+                  .append(INDENT).append(" * @return A 'search' query generated from provided object.\n")
+                  .append(INDENT).append(" */\n")
+                  .append(INDENT).append("public static StringBuilder buildQuery(").append(beanTypeName)
+                  .append(" object, String presetHql, com.vulinh.dialect.HintStyle hintStyle) {\n");
+        }
+
+        indent(source, 2).append("StringBuilder query = new StringBuilder();\n");
+
+        String preset = "presetHql";
+
+        if (isHinted()) {
+            preset = "hintedHql";
+            renderHints(source);
+        }
+
+        source.append('\n');
+        indent(source, 2).append("if (isNotBlank(").append(preset).append(")) {\n");
+        indent(source, 3).append("query.append(").append(preset).append(");\n");
+        indent(source, 2).append("}\n\n");
+
+        for (GeneratedField field : fields) {
+            String fragment = literal(field.definition.fragment());
+            String append = field.emptyCondition == null
+                            ? "query.append(" + fragment + ");\n"
+                            : "query.append(" + field.emptyCondition + " ? " + literal(FieldDefinition.EMPTY_IN_FRAGMENT) + " : " + fragment + ");\n";
+
+            // Fields without condition, such as primitive fields, are always present
+            if (field.presenceCondition == null) {
+                indent(source, 2).append(append).append('\n');
+
+                continue;
+            }
+
+            indent(source, 2).append("if (").append(field.presenceCondition).append(") {\n");
+            indent(source, 3).append(append);
+            indent(source, 2).append("}\n\n");
+        }
+
+        indent(source, 2).append("return query;\n");
+        source.append(INDENT).append("}\n")
+              .append("}\n");
+
+        return source.toString();
+    }
+
+    private boolean isHinted() {
+        return !typeHints.isEmpty() || fields.stream().anyMatch(field -> !field.hints.isEmpty());
+    }
+
+    private void renderHints(StringBuilder source) {
+        // Same hints as runtime plans: those of the class, then those of each present field, without duplicates
+        source.append('\n');
+        indent(source, 2).append("java.util.Set<com.vulinh.data.QueryHint> hints = new java.util.LinkedHashSet<>();\n");
+
+        for (QueryHint hint : typeHints) {
+            indent(source, 2).append("hints.add(").append(hint(hint)).append(");\n");
+        }
+
+        for (GeneratedField field : fields) {
+            if (field.hints.isEmpty()) {
+                continue;
+            }
+
+            int level = 2;
+
+            source.append('\n');
+
+            if (field.presenceCondition != null) {
+                indent(source, level++).append("if (").append(field.presenceCondition).append(") {\n");
+            }
+
+            for (QueryHint hint : field.hints) {
+                indent(source, level).append("hints.add(").append(hint(hint)).append(");\n");
+            }
+
+            if (field.presenceCondition != null) {
+                indent(source, 2).append("}\n");
+            }
+        }
+
+        source.append('\n');
+        indent(source, 2).append("String hintedHql = hintStyle.apply(presetHql, hints);\n");
+    }
+
+    private static String hint(QueryHint hint) {
+        if (!hint.isIndexHint()) {
+            return "com.vulinh.data.QueryHint.optimizer(" + literal(hint.text()) + ")";
+        }
+
+        StringBuilder expression = new StringBuilder("com.vulinh.data.QueryHint.index(").append(literal(hint.table()));
+
+        for (String index : hint.indexes()) {
+            expression.append(", ").append(literal(index));
+        }
+
+        return expression.append(')').toString();
+    }
+
+    private static StringBuilder indent(StringBuilder source, int level) {
+        for (int i = 0; i < level; i++) {
+            source.append(INDENT);
+        }
+
+        return source;
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+}
@@ -1,31 +1,105 @@
 package com.vulinh;
 
-import static com.vulinh.data.ComparisonType.*;
-import static com.vulinh.util.AnnotationUtils.checkInvalidAnnotationCombination;
-import static com.vulinh.util.RetrospectionUtils.isValuePresent;
-import static com.vulinh.util.StringUtils.CLOSE_PARENTHESIS;
-import static com.vulinh.util.StringUtils.COLON;
-import static com.vulinh.util.StringUtils.DOT;
-import static com.vulinh.util.StringUtils.OPEN_PARENTHESIS;
-import static com.vulinh.util.StringUtils.SPACE;
-import static com.vulinh.util.StringUtils.SPACED_AND;
-import static com.vulinh.util.StringUtils.SPACED_OR;
-import static com.vulinh.util.StringUtils.isNotBlank;
-import static java.lang.reflect.Modifier.isStatic;
-
-import com.vulinh.annotation.IgnoreField;
-import com.vulinh.annotation.UseCustomName;
-import com.vulinh.annotation.UseTableAlias;
-import com.vulinh.annotation.UseWrapMethod;
-import com.vulinh.annotation.comparison.*;
-import com.vulinh.data.ComparisonType;
-import java.lang.reflect.Field;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+import com.vulinh.accessor.AccessorFactory;
+import com.vulinh.annotation.SeekKey;
+import com.vulinh.data.BuilderException;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.CacheStatistics;
+import com.vulinh.data.PrewarmReport;
+import com.vulinh.data.QueryKind;
+import com.vulinh.dialect.JdbcDialect;
+import com.vulinh.dialect.QueryDialect;
+import com.vulinh.metrics.LoggingQueryBuilderListener;
+import com.vulinh.metrics.QueryBuilderListener;
+import com.vulinh.metrics.QueryBuilderMetrics;
+import com.vulinh.plan.AnyOfQueries;
+import com.vulinh.plan.Capture;
+import com.vulinh.plan.FilterPredicate;
+import com.vulinh.plan.QueryPlan;
+import com.vulinh.plan.QueryPlanCache;
+import com.vulinh.plan.QueryTemplate;
+import com.vulinh.util.ClassScanUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
 
 /**
  * Main class for this library.
+ * <p>
+ * A query builder is immutable and thread-safe: a single instance is meant to be shared by all threads of an application, so that its caches are shared
+ * too. Query plans live in a <code>ClassValue</code>, rendered queries in per-class concurrent maps whose lookups never lock, and counters in
+ * <code>LongAdder</code>s. The only lock is taken when a new shape is added to the cache of a class and preset query, so writers of different classes never
+ * contend, and readers never wait. Configure an instance through {@link #builder()}.
  */
 public class QueryBuilder {
 
+    private final QueryPlanCache       planCache;
+    private final QueryBuilderListener listener;
+
+    /**
+     * Create a query builder sharing the default plan cache.
+     */
+    public QueryBuilder() {
+        this(QueryPlanCache.defaultCache());
+    }
+
+    /**
+     * Create a query builder with its own plan cache, reading field values through accessors made by the provided factory.
+     *
+     * @param accessorFactory The factory creating field accessors.
+     */
+    public QueryBuilder(AccessorFactory accessorFactory) {
+        this(new QueryPlanCache(accessorFactory));
+    }
+
+    /**
+     * Create a query builder with its own plan cache, rendering queries in the provided dialect, for example {@link JdbcDialect#ANSI} for plain JDBC.
+     *
+     * @param dialect The dialect to render queries in.
+     */
+    public QueryBuilder(QueryDialect dialect) {
+        this(new QueryPlanCache(AccessorFactory.defaultFactory(), dialect, QueryPlanCache.DEFAULT_MAX_SHAPES, null));
+    }
+
+    /**
+     * Create a query builder with its own plan cache, reporting build and cache events to a listener. See {@link QueryBuilderMetrics} and
+     * {@link LoggingQueryBuilderListener} for ready-made listeners.
+     *
+     * @param listener The listener to report to.
+     */
+    public QueryBuilder(QueryBuilderListener listener) {
+        this(new QueryPlanCache(AccessorFactory.defaultFactory(), QueryPlanCache.DEFAULT_MAX_SHAPES, requireNonNull(listener, "listener")));
+    }
+
+    /**
+     * Create a query builder using the provided plan cache, reporting to the listener of said cache if any.
+     *
+     * @param planCache The plan cache to use.
+     */
+    public QueryBuilder(QueryPlanCache planCache) {
+        this.planCache = requireNonNull(planCache, "planCache");
+        this.listener = planCache.listener();
+    }
+
+    /**
+     * Create a builder of configured query builders.
+     *
+     * @return A new builder, with default options.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     /**
      * Create 'search' query from a given object.
      *
@@ -35,227 +109,589 @@ public class QueryBuilder {
      * @return A 'search' query generated from provided object.
      */
     public <T> StringBuilder buildQuery(T object, String presetHql) {
-        StringBuilder query = new StringBuilder();
+        // Without listener, the clock is not even read
+        if (listener == null) {
+            return renderQuery(object, presetHql, null);
+        }
 
-        checkEmptyAndStartSpace(query, presetHql);
+        long start = System.nanoTime();
+        StringBuilder query = renderQuery(object, presetHql, null);
 
-        for (Field field : object.getClass().getDeclaredFields()) {
-            if (isIgnorableField(object, field)) {
-                continue;
-            }
+        reportQueryBuilt(object, start, query.length());
+
+        return query;
+    }
 
-            // Check single comparison annotation
-            checkInvalidAnnotationCombination(field);
+    /**
+     * Create 'search' query from a given object into a caller-supplied buffer, for example a reused one. Once the query shape is cached, this makes no
+     * intermediate allocation.
+     *
+     * @param object    Input object.
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param query     The buffer to append query to.
+     * @param <T>       Object type.
+     * @return The same buffer.
+     */
+    public <T> StringBuilder buildQuery(T object, String presetHql, StringBuilder query) {
+        if (listener == null) {
+            return renderQuery(object, presetHql, query);
+        }
+
+        long start = System.nanoTime();
+        int initialLength = query.length();
+
+        renderQuery(object, presetHql, query);
+        reportQueryBuilt(object, start, query.length() - initialLength);
+
+        return query;
+    }
+
+    /**
+     * Create 'search' query from a given object into a caller-supplied <code>Appendable</code>, for example a <code>Writer</code>.
+     *
+     * @param object    Input object.
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param out       The appendable to append query to.
+     * @param <T>       Object type.
+     * @param <A>       Appendable type.
+     * @return The same appendable.
+     * @throws IOException If appending fails.
+     */
+    public <T, A extends Appendable> A buildQuery(T object, String presetHql, A out) throws IOException {
+        if (listener == null) {
+            out.append(renderQueryString(object, presetHql));
 
-            query.append(SPACED_AND);
+            return out;
+        }
 
-            query.append(OPEN_PARENTHESIS);
+        long start = System.nanoTime();
+        String query = renderQueryString(object, presetHql);
 
-            // Field manipulations
-            realizeFieldManipulation(query, field);
+        out.append(query);
+        reportQueryBuilt(object, start, query.length());
 
-            // Comparisons
-            realizeComparisonType(query, field);
+        return out;
+    }
 
-            query.append(CLOSE_PARENTHESIS);
+    /**
+     * Create 'search' query from a given object. Queries are cached by shape (which fields are present), so objects of the same shape get the identical
+     * <code>String</code> instance back.
+     *
+     * @param object    Input object.
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param <T>       Object type.
+     * @return A 'search' query generated from provided object.
+     */
+    public <T> String buildQueryString(T object, String presetHql) {
+        if (listener == null) {
+            return renderQueryString(object, presetHql);
         }
 
+        long start = System.nanoTime();
+        String query = renderQueryString(object, presetHql);
+
+        reportQueryBuilt(object, start, query.length());
+
         return query;
     }
 
-    private static <T> boolean isIgnorableField(T object, Field field) {
-        // Check if a field is marked as @IgnoreField or value not present (null); static field will also be ignored
-        return isStatic(field.getModifiers()) || field.isAnnotationPresent(IgnoreField.class) || !isValuePresent(field, object);
+    /**
+     * Create 'search' query from a given object, together with the parameters it uses. Parameter values are captured in the same pass that checks which
+     * fields are present: binary comparisons bind the field value, while range comparisons bind the bean properties named by their 'from' and 'to'
+     * parameters (<code>fromValue</code> and <code>toValue</code> by default).
+     *
+     * @param object    Input object.
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param <T>       Object type.
+     * @return A 'search' query generated from provided object, with its parameters.
+     */
+    public <T> BuiltQuery build(T object, String presetHql) {
+        return build(object, presetHql, QueryKind.SELECT);
     }
 
-    private static void realizeFieldManipulation(StringBuilder query, Field field) {
-        String fieldName = field.getName();
+    /**
+     * Create 'count' query from a given object, with the same predicates and parameters as {@link #build(Object, String)}. Count queries have their own
+     * shape cache, so they cost no more than data queries and do not evict them.
+     *
+     * @param object         Input object.
+     * @param countPresetHql Pre-built count query to concatenate with result, for example <code>select count(e) from Entity e where 1 = 1</code>.
+     * @param <T>            Object type.
+     * @return A 'count' query generated from provided object, with its parameters.
+     */
+    public <T> BuiltQuery buildCountQuery(T object, String countPresetHql) {
+        return build(object, countPresetHql, QueryKind.COUNT);
+    }
 
-        // Opening method wrap
-        if (field.isAnnotationPresent(UseWrapMethod.class)) {
-            query.append(field.getAnnotation(UseWrapMethod.class).value())
-                 .append(OPEN_PARENTHESIS);
+    /**
+     * Create 'exists' query from a given object, with the same predicates and parameters as {@link #build(Object, String)}, limited to one row by the
+     * dialect (for example <code>limit 1</code>) so that the database can stop at the first match. HQL/JPQL has no portable row limit, so HQL queries must be
+     * limited with <code>setMaxResults(1)</code>. Exists queries have their own shape cache.
+     *
+     * @param object          Input object.
+     * @param selectPresetHql Pre-built select query to concatenate with result, for example <code>select e.id from Entity e where 1 = 1</code>.
+     * @param <T>             Object type.
+     * @return An 'exists' query generated from provided object, with its parameters: any returned row means a match exists.
+     */
+    public <T> BuiltQuery buildExistsQuery(T object, String selectPresetHql) {
+        return build(object, selectPresetHql, QueryKind.EXISTS);
+    }
+
+    private <T> BuiltQuery build(T object, String presetHql, QueryKind kind) {
+        if (listener == null) {
+            return planCache.get(object.getClass()).build(presetHql, object, kind);
         }
 
-        // Table alias
-        actuallyBuildFieldName(field, fieldName, query);
+        long start = System.nanoTime();
+        BuiltQuery builtQuery = planCache.get(object.getClass()).build(presetHql, object, kind);
 
-        // Closing method wrap
-        if (field.isAnnotationPresent(UseWrapMethod.class)) {
-            String afterWrapMethod = field.getAnnotation(UseWrapMethod.class).after();
+        reportQueryBuilt(object, start, builtQuery.query().length());
 
-            if (isNotBlank(afterWrapMethod)) {
-                query.append(SPACE)
-                     .append(afterWrapMethod);
-            }
+        return builtQuery;
+    }
 
-            query.append(CLOSE_PARENTHESIS);
-        }
+    /**
+     * Compute the 64-bit fingerprint of the shape of a given object: which fields are present, together with the class and the preset query. Fingerprints
+     * are stable across JVMs and restarts, and cost a single pass over the fields, rendering nothing.
+     *
+     * @param object    Input object.
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param <T>       Object type.
+     * @return Fingerprint of the 'search' query of said object.
+     */
+    public <T> long fingerprint(T object, String presetHql) {
+        return fingerprint(object, presetHql, QueryKind.SELECT);
     }
 
-    private static void realizeComparisonType(StringBuilder query, Field field) {
-        String fieldName = field.getName();
+    /**
+     * Compute the 64-bit fingerprint of the shape of a given object for some kind of query, see {@link #fingerprint(Object, String)}.
+     *
+     * @param object    Input object.
+     * @param presetHql Pre-built query of said kind to concatenate with result.
+     * @param kind      The kind of query.
+     * @param <T>       Object type.
+     * @return Fingerprint of the query of said object.
+     */
+    public <T> long fingerprint(T object, String presetHql, QueryKind kind) {
+        return planCache.get(object.getClass()).fingerprint(presetHql, object, kind);
+    }
 
-        if (isNullComparison(query, field)) {
-            return;
-        }
+    /**
+     * Compute a value-aware key of the query of a given object: its shape fingerprint combined with hashes of its non-null field values. Objects of equal
+     * keys build queries returning the same rows, so the key can be used directly in a result cache, such as Caffeine, without building any string. Being a
+     * hash, different queries may share a key, however unlikely.
+     *
+     * @param object    Input object.
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param <T>       Object type.
+     * @return Value-aware key of the 'search' query of said object.
+     */
+    public <T> long cacheKey(T object, String presetHql) {
+        return cacheKey(object, presetHql, QueryKind.SELECT);
+    }
+
+    /**
+     * Compute a value-aware key of the query of a given object for some kind of query, see {@link #cacheKey(Object, String)}.
+     *
+     * @param object    Input object.
+     * @param presetHql Pre-built query of said kind to concatenate with result.
+     * @param kind      The kind of query.
+     * @param <T>       Object type.
+     * @return Value-aware key of the query of said object.
+     */
+    public <T> long cacheKey(T object, String presetHql, QueryKind kind) {
+        return planCache.get(object.getClass()).cacheKey(presetHql, object, kind);
+    }
 
-        if (isRangeComparison(query, field, fieldName)) {
-            return;
+    /**
+     * Create 'search' query of a page using keyset (seek) pagination, which stays fast however deep the page is, unlike <code>OFFSET</code>. The filter
+     * query is followed by a predicate selecting rows after the last seen row, and an order by clause on the sort keys, which are the fields of the cursor
+     * class marked by <code>@SeekKey</code>. Limit the number of rows of the page on the query itself, for example with <code>setMaxResults</code>.
+     *
+     * @param filter     Input object.
+     * @param presetHql  Pre-built query to concatenate with result.
+     * @param cursorType Cursor class declaring the sort keys, which may be the class of the filter.
+     * @param lastSeen   The last seen row of the previous page, or <code>null</code> for the first page.
+     * @param <T>        Object type.
+     * @param <C>        Cursor type.
+     * @return A paged 'search' query generated from provided object, with its parameters.
+     */
+    public <T, C> BuiltQuery buildSeekQuery(T filter, String presetHql, Class<C> cursorType, C lastSeen) {
+        if (listener == null) {
+            return planCache.seekPlan(cursorType).append(planCache.get(filter.getClass()).build(presetHql, filter), lastSeen);
         }
 
-        processBinaryComparison(query, field);
+        long start = System.nanoTime();
+        BuiltQuery builtQuery = planCache.seekPlan(cursorType).append(planCache.get(filter.getClass()).build(presetHql, filter), lastSeen);
+
+        reportQueryBuilt(filter, start, builtQuery.query().length());
+
+        return builtQuery;
     }
 
-    private static void processBinaryComparison(StringBuilder query, Field field) {
-        if (field.isAnnotationPresent(GreaterThan.class)) {
-            fillBinaryOperator(query, field, GREATER_THAN);
+    /**
+     * Create 'search' queries for many objects at once, as {@link #build(Object, String)} would. See {@link #buildQueries(Collection, String, boolean)}.
+     *
+     * @param objects   Input objects.
+     * @param presetHql Pre-built query to concatenate with results.
+     * @param <T>       Object type.
+     * @return Queries with their parameters, in the same order as input objects.
+     */
+    public <T> List<BuiltQuery> buildQueries(Collection<T> objects, String presetHql) {
+        return buildQueries(objects, presetHql, false);
+    }
 
-            return;
+    /**
+     * Create 'search' queries for many objects at once, as {@link #build(Object, String)} would. Objects are grouped by class and shape (which fields are
+     * present), so that each distinct shape is rendered only once, even if it does not fit into the shape cache. Objects may be of different classes.
+     *
+     * @param objects   Input objects.
+     * @param presetHql Pre-built query to concatenate with results.
+     * @param parallel  Whether to read field values of objects in parallel, using the common <code>ForkJoinPool</code>. Output order stays the same.
+     * @param <T>       Object type.
+     * @return Queries with their parameters, in the same order as input objects.
+     */
+    public <T> List<BuiltQuery> buildQueries(Collection<T> objects, String presetHql, boolean parallel) {
+        if (listener == null) {
+            return buildAll(objects, presetHql, parallel);
         }
 
-        if (field.isAnnotationPresent(GreaterThanOrEqualTo.class)) {
-            fillBinaryOperator(query, field, GREATER_THAN_OR_EQUAL_TO);
+        long start = System.nanoTime();
+        List<BuiltQuery> builtQueries = buildAll(objects, presetHql, parallel);
 
-            return;
-        }
+        listener.onBatchBuilt(builtQueries.size(), System.nanoTime() - start);
 
-        if (field.isAnnotationPresent(LessThan.class)) {
-            fillBinaryOperator(query, field, LESS_THAN);
+        return builtQueries;
+    }
 
-            return;
+    private <T> List<BuiltQuery> buildAll(Collection<T> objects, String presetHql, boolean parallel) {
+        Object[] inputs = objects.toArray();
+        Capture[] captures = new Capture[inputs.length];
+
+        IntStream indexes = IntStream.range(0, inputs.length);
+
+        if (parallel) {
+            indexes = indexes.parallel();
         }
 
-        if (field.isAnnotationPresent(LessThanOrEqualTo.class)) {
-            fillBinaryOperator(query, field, LESS_THAN_OR_EQUAL_TO);
+        // Each task only writes its own slot, and the terminal operation publishes all of them
+        indexes.forEach(i -> captures[i] = planCache.get(inputs[i].getClass()).capture(presetHql, inputs[i]));
+
+        Map<QueryPlan, Map<Long, String>> shapes = new HashMap<>();
+        List<BuiltQuery> builtQueries = new ArrayList<>(inputs.length);
 
-            return;
+        for (Capture capture : captures) {
+            String query = capture.renderedQuery();
+
+            if (query == null) {
+                Map<Long, String> planShapes = shapes.computeIfAbsent(capture.plan(), plan -> new HashMap<>());
+
+                query = planShapes.get(capture.presenceMask());
+
+                if (query == null) {
+                    query = capture.plan().shapeCache().get(presetHql, capture.presenceMask());
+                    planShapes.put(capture.presenceMask(), query);
+                }
+            }
+
+            builtQueries.add(capture.toBuiltQuery(query));
         }
 
-        if (field.isAnnotationPresent(NotEqual.class)) {
-            fillBinaryOperator(query, field, NOT_EQUAL);
+        return builtQueries;
+    }
+
+    /**
+     * Create a single 'search' query matching any of the given objects: the predicates of each object are grouped in parentheses and joined by OR, with
+     * parameter names suffixed by the index of their object, for example <code>:name__3</code>. Objects of the same shape compared only by equality collapse
+     * into one IN list, using row values when the dialect supports them. Queries are split to bind at most {@link AnyOfQueries#DEFAULT_MAX_PARAMETERS}
+     * parameters each.
+     *
+     * @param objects   Input objects, may be of different classes.
+     * @param presetHql Pre-built query to concatenate with results.
+     * @param <T>       Object type.
+     * @return Queries with their parameters, each matching some of the input objects; empty if there is no input object. Objects known to match no row
+     * are left out, see {@link Builder#detectContradictions(boolean)}.
+     */
+    public <T> List<BuiltQuery> buildAnyOf(List<T> objects, String presetHql) {
+        return buildAnyOf(objects, presetHql, AnyOfQueries.DEFAULT_MAX_PARAMETERS);
+    }
 
-            return;
+    /**
+     * Create 'search' queries matching any of the given objects, as {@link #buildAnyOf(List, String)} would, binding at most the given number of parameters
+     * per query. Parameters of the preset query are not counted.
+     *
+     * @param objects       Input objects, may be of different classes.
+     * @param presetHql     Pre-built query to concatenate with results.
+     * @param maxParameters Maximum number of parameters bound by a single query, for example 2100 for SQL Server or 32767 for PostgreSQL.
+     * @param <T>           Object type.
+     * @return Queries with their parameters, each matching some of the input objects; empty if there is no input object. Objects known to match no row
+     * are left out, see {@link Builder#detectContradictions(boolean)}.
+     */
+    public <T> List<BuiltQuery> buildAnyOf(List<T> objects, String presetHql, int maxParameters) {
+        if (listener == null) {
+            return AnyOfQueries.build(planCache, objects, presetHql, maxParameters);
         }
 
-        if (field.isAnnotationPresent(Like.class)) {
-            fillBinaryOperator(query, field, LIKE);
+        long start = System.nanoTime();
+        List<BuiltQuery> builtQueries = AnyOfQueries.build(planCache, objects, presetHql, maxParameters);
+
+        listener.onBatchBuilt(builtQueries.size(), System.nanoTime() - start);
+
+        return builtQueries;
+    }
+
+    /**
+     * Compile the in-memory equivalent of the queries built from a filter class, to filter entities that are already loaded (for example from a local cache)
+     * without a database round trip. See {@link FilterPredicate} for the supported annotations.
+     *
+     * @param filterType The filter class.
+     * @param entityType The entity class, whose properties are compared.
+     * @param <F>        Filter type.
+     * @param <E>        Entity type.
+     * @return Compiled predicate, to bind to filter objects.
+     */
+    public <F, E> FilterPredicate<F, E> compilePredicate(Class<F> filterType, Class<E> entityType) {
+        return FilterPredicate.compile(planCache, filterType, entityType);
+    }
+
+    /**
+     * Compile the 'search' query template of a class for a fixed preset query, typically once at startup. Rendering from the template only looks up or
+     * appends the predicates of the present fields, without resolving the plan or the preset query again. See {@link QueryTemplate}.
+     *
+     * @param type      The class whose objects are rendered.
+     * @param presetHql Pre-built query to concatenate with results.
+     * @param <T>       Object type.
+     * @return Immutable, thread-safe template.
+     */
+    public <T> QueryTemplate<T> compile(Class<T> type, String presetHql) {
+        return compile(type, presetHql, QueryKind.SELECT);
+    }
+
+    /**
+     * Compile the query template of a class for a fixed preset query of some kind, see {@link #compile(Class, String)}.
+     *
+     * @param type      The class whose objects are rendered.
+     * @param presetHql Pre-built query of said kind to concatenate with results.
+     * @param kind      The kind of query.
+     * @param <T>       Object type.
+     * @return Immutable, thread-safe template.
+     */
+    public <T> QueryTemplate<T> compile(Class<T> type, String presetHql, QueryKind kind) {
+        return QueryTemplate.compile(planCache, type, presetHql, kind);
+    }
+
+    private <T> StringBuilder renderQuery(T object, String presetHql, StringBuilder query) {
+        QueryPlan plan = planCache.get(object.getClass());
 
-            return;
+        if (!plan.isMaskable()) {
+            return plan.render(presetHql, object, query != null ? query : new StringBuilder());
         }
 
-        if (field.isAnnotationPresent(NotLike.class)) {
-            fillBinaryOperator(query, field, NOT_LIKE);
+        String shape = plan.shapeCache().get(presetHql, plan.presenceMask(object));
 
-            return;
+        return query != null ? query.append(shape) : new StringBuilder(shape);
+    }
+
+    private <T> String renderQueryString(T object, String presetHql) {
+        QueryPlan plan = planCache.get(object.getClass());
+
+        if (!plan.isMaskable()) {
+            return plan.render(presetHql, object, new StringBuilder()).toString();
         }
 
-        fillBinaryOperator(query, field, EQUAL_TO);
+        return plan.shapeCache().get(presetHql, plan.presenceMask(object));
     }
 
-    private static boolean isNullComparison(StringBuilder query, Field field) {
-        if (field.isAnnotationPresent(IsNull.class)) {
-            query.append(SPACE)
-                 .append(IS_NULL.sign());
+    private void reportQueryBuilt(Object object, long start, int queryLength) {
+        long durationNanos = System.nanoTime() - start;
+        Class<?> type = object.getClass();
+
+        listener.onQueryBuilt(type, durationNanos, planCache.get(type).fields().size(), queryLength);
+    }
 
-            return true;
+    /**
+     * Eagerly compile and validate classes, so that invalid annotation combinations and missing getters fail fast, for example at application startup,
+     * instead of on first build. Building queries of validated classes does no validation work at all.
+     *
+     * @param types The classes to validate.
+     */
+    public void validate(Class<?>... types) {
+        for (Class<?> type : types) {
+            planCache.get(type);
         }
+    }
 
-        if (field.isAnnotationPresent(IsNotNull.class)) {
-            query.append(SPACE)
-                 .append(IS_NOT_NULL.sign());
+    /**
+     * Compile and validate classes ahead of time, in parallel, so that the first query of each class does not pay for reflection and validation. Unlike
+     * {@link #validate(Class[])}, every class is compiled even if some are invalid; failures are thrown together afterwards.
+     *
+     * @param types The classes to compile.
+     * @return Compiled classes and time taken.
+     */
+    public PrewarmReport prewarm(Class<?>... types) {
+        return prewarm(System.nanoTime(), Arrays.asList(types));
+    }
+
+    /**
+     * Find classes that use annotations of this library in packages and their sub-packages, then compile and validate them ahead of time as
+     * {@link #prewarm(Class[])} would. Classes are looked up with the context class loader of the current thread.
+     *
+     * @param basePackages The packages to scan, for example <code>com.example.dto</code>.
+     * @return Compiled classes and time taken, scanning included.
+     */
+    public PrewarmReport prewarm(String... basePackages) {
+        long start = System.nanoTime();
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
 
-            return true;
+        if (classLoader == null) {
+            classLoader = QueryBuilder.class.getClassLoader();
         }
-        return false;
-    }
-
-    private static boolean isRangeComparison(StringBuilder query, Field field, String fieldName) {
-        if (field.isAnnotationPresent(Between.class)) {
-            Between betweenAnnotation = field.getAnnotation(Between.class);
-            query.append(SPACE)
-                 .append(BETWEEN.sign())
-                 .append(SPACE)
-                 .append(COLON)
-                 .append(betweenAnnotation.fromInclusive())
-                 .append(SPACED_AND)
-                 .append(COLON)
-                 .append(betweenAnnotation.toInclusive());
-
-            return true;
+
+        List<Class<?>> types = new ArrayList<>();
+
+        for (String basePackage : basePackages) {
+            for (String className : ClassScanUtils.findAnnotatedClassNames(classLoader, basePackage)) {
+                try {
+                    types.add(Class.forName(className, false, classLoader));
+                } catch (ClassNotFoundException ex) {
+                    throw new BuilderException(format("Cannot load class %s", className), ex);
+                }
+            }
         }
 
-        if (field.isAnnotationPresent(InRange.class)) {
-            InRange inRangeAnnotation = field.getAnnotation(InRange.class);
-
-            query.append(SPACE)
-                 .append(inRangeAnnotation.inclusivity() ? GREATER_THAN_OR_EQUAL_TO.sign() : GREATER_THAN.sign())
-                 .append(SPACE)
-                 .append(COLON)
-                 .append(inRangeAnnotation.fromField())
-                 .append(SPACED_AND)
-                 .append(getActualFieldNameForRangeComparison(field, fieldName))
-                 .append(SPACE)
-                 .append(inRangeAnnotation.inclusivity() ? LESS_THAN_OR_EQUAL_TO.sign() : LESS_THAN.sign())
-                 .append(SPACE)
-                 .append(COLON)
-                 .append(inRangeAnnotation.toField());
-
-            return true;
+        return prewarm(start, types);
+    }
+
+    private PrewarmReport prewarm(long start, List<Class<?>> types) {
+        Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+
+        types.parallelStream().forEach(type -> {
+            try {
+                planCache.get(type);
+
+                if (Arrays.stream(type.getDeclaredFields()).anyMatch(field -> field.isAnnotationPresent(SeekKey.class))) {
+                    planCache.seekPlan(type);
+                }
+            } catch (RuntimeException ex) {
+                failures.add(ex);
+            }
+        });
+
+        if (!failures.isEmpty()) {
+            BuilderException exception = new BuilderException(format("%d of %d classes failed to compile", failures.size(), types.size()), failures.poll());
+
+            failures.forEach(exception::addSuppressed);
+
+            throw exception;
         }
 
-        if (field.isAnnotationPresent(OutRange.class)) {
-            OutRange inRangeAnnotation = field.getAnnotation(OutRange.class);
-
-            query.append(SPACE)
-                 .append(inRangeAnnotation.inclusivity() ? LESS_THAN_OR_EQUAL_TO.sign() : LESS_THAN.sign())
-                 .append(SPACE)
-                 .append(COLON)
-                 .append(inRangeAnnotation.fromField())
-                 .append(SPACED_OR)
-                 .append(getActualFieldNameForRangeComparison(field, fieldName))
-                 .append(SPACE)
-                 .append(inRangeAnnotation.inclusivity() ? GREATER_THAN_OR_EQUAL_TO.sign() : GREATER_THAN.sign())
-                 .append(SPACE)
-                 .append(COLON)
-                 .append(inRangeAnnotation.toField());
-
-            return true;
+        long durationNanos = System.nanoTime() - start;
+
+        if (listener != null) {
+            listener.onPrewarm(types.size(), durationNanos);
         }
 
-        return false;
+        return new PrewarmReport(new ArrayList<>(types), durationNanos);
     }
 
-    private static String getActualFieldNameForRangeComparison(Field field, String fieldName) {
-        return actuallyBuildFieldName(field, fieldName, new StringBuilder()).toString();
+    /**
+     * Hit and miss counts of the rendered query cache of this builder.
+     *
+     * @return Snapshot of cache statistics.
+     */
+    public CacheStatistics cacheStatistics() {
+        return planCache.statistics();
     }
 
-    private static StringBuilder actuallyBuildFieldName(Field field, String fieldName, StringBuilder fieldNameBuilder) {
-        if (field.isAnnotationPresent(UseTableAlias.class)) {
-            fieldNameBuilder.append(field.getAnnotation(UseTableAlias.class).value())
-                            .append(DOT);
+    /**
+     * Builder of configured query builders. A builder is not thread-safe, but the query builders it creates are. Each built query builder has its own
+     * caches.
+     */
+    public static final class Builder {
+
+        private AccessorFactory      accessorFactory = AccessorFactory.defaultFactory();
+        private QueryDialect         dialect         = QueryDialect.defaultDialect();
+        private int                  maxShapes       = QueryPlanCache.DEFAULT_MAX_SHAPES;
+        private QueryBuilderListener listener;
+        private boolean              detectContradictions;
+
+        private Builder() {
         }
 
-        if (field.isAnnotationPresent(UseCustomName.class)) {
-            fieldNameBuilder.append(field.getAnnotation(UseCustomName.class).value());
-        } else {
-            fieldNameBuilder.append(fieldName);
+        /**
+         * Set the factory creating field accessors.
+         *
+         * @param accessorFactory The factory creating field accessors.
+         * @return This builder.
+         */
+        public Builder accessorFactory(AccessorFactory accessorFactory) {
+            this.accessorFactory = requireNonNull(accessorFactory, "accessorFactory");
+
+            return this;
         }
 
-        return fieldNameBuilder;
-    }
+        /**
+         * Set the dialect to render queries in, {@link QueryDialect#defaultDialect()} by default.
+         *
+         * @param dialect The dialect to render queries in.
+         * @return This builder.
+         */
+        public Builder dialect(QueryDialect dialect) {
+            this.dialect = requireNonNull(dialect, "dialect");
 
-    private static void fillBinaryOperator(StringBuilder query, Field field, ComparisonType comparisonType) {
-        query.append(SPACE)
-             .append(comparisonType.sign())
-             .append(SPACE)
-             .append(COLON)
-             .append(field.getName());
-    }
+            return this;
+        }
+
+        /**
+         * Set the maximum number of rendered queries cached per class, {@link QueryPlanCache#DEFAULT_MAX_SHAPES} by default.
+         *
+         * @param maxShapes Maximum number of rendered queries cached per class, <code>0</code> to disable caching of rendered queries.
+         * @return This builder.
+         */
+        public Builder maxShapes(int maxShapes) {
+            if (maxShapes < 0) {
+                throw new IllegalArgumentException("maxShapes must not be negative");
+            }
+
+            this.maxShapes = maxShapes;
+
+            return this;
+        }
+
+        /**
+         * Set the listener to report build and cache events to, none by default.
+         *
+         * @param listener The listener to report to, or <code>null</code> for none.
+         * @return This builder.
+         */
+        public Builder listener(QueryBuilderListener listener) {
+            this.listener = listener;
+
+            return this;
+        }
+
+        /**
+         * Set whether built queries are checked for filters that cannot match any row, disabled by default. When enabled, values captured while building
+         * are checked against their comparison: inverted or <code>null</code> bounds of <code>@Between</code> and <code>@InRange</code>, both
+         * <code>null</code> bounds of <code>@OutRange</code>, and empty <code>@In</code> lists. Such queries are still built, but report
+         * {@link BuiltQuery#isAlwaysEmpty()} so that callers can skip the database round trip.
+         *
+         * @param detectContradictions Whether contradictions are detected.
+         * @return This builder.
+         */
+        public Builder detectContradictions(boolean detectContradictions) {
+            this.detectContradictions = detectContradictions;
+
+            return this;
+        }
 
-    private static void checkEmptyAndStartSpace(StringBuilder query, String presetQuery) {
-        if (isNotBlank(presetQuery)) {
-            query.append(presetQuery);
+        /**
+         * Create a query builder with the configured options and its own caches.
+         *
+         * @return A new query builder.
+         */
+        public QueryBuilder build() {
+            return new QueryBuilder(new QueryPlanCache(accessorFactory, dialect, maxShapes, listener, detectContradictions));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.vulinh.accessor;
+
+import java.lang.reflect.Method;
+
+/**
+ * Factory that turns a getter method into a fast {@link PropertyAccessor}. Implement this interface to plug a different accessor strategy into
+ * <code>QueryBuilder</code>.
+ */
+public interface AccessorFactory {
+
+    /**
+     * Create an accessor that invokes the given getter.
+     *
+     * @param getter The getter method, already verified to be public and without parameter.
+     * @return Accessor invoking said getter.
+     * @throws ReflectiveOperationException If the accessor cannot be created.
+     */
+    PropertyAccessor create(Method getter) throws ReflectiveOperationException;
+
+    /**
+     * Create an accessor that invokes the given getter of an integral primitive type, widened to <code>long</code> without boxing. Factories that do not
+     * override this method read through a <code>MethodHandle</code>.
+     *
+     * @param getter The getter method, already verified to be public, without parameter and returning <code>byte</code>, <code>short</code>,
+     *               <code>char</code>, <code>int</code> or <code>long</code>.
+     * @return Accessor invoking said getter.
+     * @throws ReflectiveOperationException If the accessor cannot be created.
+     */
+    default LongPropertyAccessor createLong(Method getter) throws ReflectiveOperationException {
+        return MethodHandleAccessorFactory.INSTANCE.createLong(getter);
+    }
+
+    /**
+     * Create an accessor that invokes the given getter of a floating point primitive type, widened to <code>double</code> without boxing. Factories that do
+     * not override this method read through a <code>MethodHandle</code>.
+     *
+     * @param getter The getter method, already verified to be public, without parameter and returning <code>float</code> or <code>double</code>.
+     * @return Accessor invoking said getter.
+     * @throws ReflectiveOperationException If the accessor cannot be created.
+     */
+    default DoublePropertyAccessor createDouble(Method getter) throws ReflectiveOperationException {
+        return MethodHandleAccessorFactory.INSTANCE.createDouble(getter);
+    }
+
+    /**
+     * Create an accessor that invokes the given <code>boolean</code> getter without boxing. Factories that do not override this method read through a
+     * <code>MethodHandle</code>.
+     *
+     * @param getter The getter method, already verified to be public, without parameter and returning <code>boolean</code>.
+     * @return Accessor invoking said getter.
+     * @throws ReflectiveOperationException If the accessor cannot be created.
+     */
+    default BooleanPropertyAccessor createBoolean(Method getter) throws ReflectiveOperationException {
+        return MethodHandleAccessorFactory.INSTANCE.createBoolean(getter);
+    }
+
+    /**
+     * Default accessor factory used by this library, which generates accessors with <code>LambdaMetafactory</code> and falls back to
+     * <code>MethodHandle</code> when that is not possible.
+     *
+     * @return Default accessor factory.
+     */
+    static AccessorFactory defaultFactory() {
+        return LambdaAccessorFactory.INSTANCE;
+    }
+}
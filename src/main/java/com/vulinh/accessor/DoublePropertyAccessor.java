@@ -0,0 +1,17 @@
+package com.vulinh.accessor;
+
+/**
+ * Resolved getter of a single <code>double</code> bean property, or of a <code>float</code> property widened to <code>double</code>, read without
+ * boxing. Accessors are created once per property by an {@link AccessorFactory} and then reused for every read.
+ */
+@FunctionalInterface
+public interface DoublePropertyAccessor {
+
+    /**
+     * Read the property value from a bean.
+     *
+     * @param bean The bean to read from.
+     * @return Property value.
+     */
+    double getAsDouble(Object bean);
+}
@@ -0,0 +1,105 @@
+package com.vulinh.accessor;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Accessor factory that spins a {@link PropertyAccessor} implementation per getter through <code>LambdaMetafactory</code>, so reading a property is a plain
+ * interface call that the JIT can inline. Getters that cannot be linked this way (non-public classes, or classes not visible from the class loader of this
+ * library) fall back to {@link MethodHandleAccessorFactory}.
+ */
+public final class LambdaAccessorFactory implements AccessorFactory {
+
+    public static final LambdaAccessorFactory INSTANCE = new LambdaAccessorFactory();
+
+    private static final MethodType ACCESSOR_TYPE         = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType LONG_ACCESSOR_TYPE    = MethodType.methodType(long.class, Object.class);
+    private static final MethodType DOUBLE_ACCESSOR_TYPE  = MethodType.methodType(double.class, Object.class);
+    private static final MethodType BOOLEAN_ACCESSOR_TYPE = MethodType.methodType(boolean.class, Object.class);
+
+    private LambdaAccessorFactory() {
+    }
+
+    @Override
+    public PropertyAccessor create(Method getter) throws ReflectiveOperationException {
+        PropertyAccessor accessor = spin(getter, PropertyAccessor.class, "get", ACCESSOR_TYPE);
+
+        return accessor != null ? accessor : MethodHandleAccessorFactory.INSTANCE.create(getter);
+    }
+
+    @Override
+    public LongPropertyAccessor createLong(Method getter) throws ReflectiveOperationException {
+        LongPropertyAccessor accessor = spin(getter, LongPropertyAccessor.class, "getAsLong", LONG_ACCESSOR_TYPE);
+
+        return accessor != null ? accessor : MethodHandleAccessorFactory.INSTANCE.createLong(getter);
+    }
+
+    @Override
+    public DoublePropertyAccessor createDouble(Method getter) throws ReflectiveOperationException {
+        DoublePropertyAccessor accessor = spin(getter, DoublePropertyAccessor.class, "getAsDouble", DOUBLE_ACCESSOR_TYPE);
+
+        return accessor != null ? accessor : MethodHandleAccessorFactory.INSTANCE.createDouble(getter);
+    }
+
+    @Override
+    public BooleanPropertyAccessor createBoolean(Method getter) throws ReflectiveOperationException {
+        BooleanPropertyAccessor accessor = spin(getter, BooleanPropertyAccessor.class, "getAsBoolean", BOOLEAN_ACCESSOR_TYPE);
+
+        return accessor != null ? accessor : MethodHandleAccessorFactory.INSTANCE.createBoolean(getter);
+    }
+
+    /**
+     * Spin an implementation of a functional accessor interface invoking a getter. Primitive return values are widened, never boxed, when the erased
+     * accessor type returns a primitive.
+     *
+     * @return Accessor invoking said getter, or <code>null</code> if said getter cannot be linked this way.
+     */
+    private static <A> A spin(Method getter, Class<A> accessorType, String methodName, MethodType erasedType) throws ReflectiveOperationException {
+        if (!isLinkable(getter.getDeclaringClass())) {
+            return null;
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            MethodHandle handle = lookup.unreflect(getter);
+            Class<?> returnType = erasedType.returnType().isPrimitive() ? handle.type().returnType() : handle.type().wrap().returnType();
+
+            CallSite callSite = LambdaMetafactory.metafactory(
+                lookup,
+                methodName,
+                MethodType.methodType(accessorType),
+                erasedType,
+                handle,
+                MethodType.methodType(returnType, getter.getDeclaringClass())
+            );
+
+            return accessorType.cast(callSite.getTarget().invoke());
+        } catch (IllegalAccessException | LambdaConversionException ex) {
+            return null;
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new ReflectiveOperationException(ex);
+        }
+    }
+
+    private static boolean isLinkable(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+
+        // Generated class lives in the class loader of this library, so the bean class must be visible from there
+        try {
+            return Class.forName(type.getName(), false, LambdaAccessorFactory.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+}
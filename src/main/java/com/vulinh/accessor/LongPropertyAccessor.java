@@ -0,0 +1,17 @@
+package com.vulinh.accessor;
+
+/**
+ * Resolved getter of a single <code>long</code> bean property, or of any integral property widened to <code>long</code>, read without boxing.
+ * Accessors are created once per property by an {@link AccessorFactory} and then reused for every read.
+ */
+@FunctionalInterface
+public interface LongPropertyAccessor {
+
+    /**
+     * Read the property value from a bean.
+     *
+     * @param bean The bean to read from.
+     * @return Property value.
+     */
+    long getAsLong(Object bean);
+}
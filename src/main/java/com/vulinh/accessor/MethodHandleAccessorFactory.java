@@ -0,0 +1,114 @@
+package com.vulinh.accessor;
+
+import com.vulinh.data.BuilderException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Accessor factory that resolves each getter into a <code>MethodHandle</code>, adapted to <code>(Object)Object</code> so it can be invoked exactly.
+ */
+public final class MethodHandleAccessorFactory implements AccessorFactory {
+
+    public static final MethodHandleAccessorFactory INSTANCE = new MethodHandleAccessorFactory();
+
+    private static final MethodType GENERIC_GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType LONG_GETTER    = MethodType.methodType(long.class, Object.class);
+    private static final MethodType DOUBLE_GETTER  = MethodType.methodType(double.class, Object.class);
+    private static final MethodType BOOLEAN_GETTER = MethodType.methodType(boolean.class, Object.class);
+
+    private MethodHandleAccessorFactory() {
+    }
+
+    @Override
+    public PropertyAccessor create(Method getter) throws ReflectiveOperationException {
+        return new MethodHandleAccessor(unreflect(getter).asType(GENERIC_GETTER));
+    }
+
+    @Override
+    public LongPropertyAccessor createLong(Method getter) throws ReflectiveOperationException {
+        MethodHandle handle = unreflect(getter).asType(LONG_GETTER);
+
+        return bean -> {
+            try {
+                return (long) handle.invokeExact(bean);
+            } catch (Throwable ex) {
+                throw invocationFailure(ex);
+            }
+        };
+    }
+
+    @Override
+    public DoublePropertyAccessor createDouble(Method getter) throws ReflectiveOperationException {
+        MethodHandle handle = unreflect(getter).asType(DOUBLE_GETTER);
+
+        return bean -> {
+            try {
+                return (double) handle.invokeExact(bean);
+            } catch (Throwable ex) {
+                throw invocationFailure(ex);
+            }
+        };
+    }
+
+    @Override
+    public BooleanPropertyAccessor createBoolean(Method getter) throws ReflectiveOperationException {
+        MethodHandle handle = unreflect(getter).asType(BOOLEAN_GETTER);
+
+        return bean -> {
+            try {
+                return (boolean) handle.invokeExact(bean);
+            } catch (Throwable ex) {
+                throw invocationFailure(ex);
+            }
+        };
+    }
+
+    private static RuntimeException invocationFailure(Throwable ex) {
+        if (ex instanceof RuntimeException) {
+            return (RuntimeException) ex;
+        }
+
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+
+        return new BuilderException("Getter invocation failed", (Exception) ex);
+    }
+
+    /**
+     * Unreflect a getter, suppressing access checks when the declaring class itself is not public.
+     *
+     * @param getter The getter method.
+     * @return Method handle of said getter.
+     * @throws IllegalAccessException If the getter is not accessible.
+     */
+    static MethodHandle unreflect(Method getter) throws IllegalAccessException {
+        try {
+            getter.setAccessible(true);
+        } catch (RuntimeException ex) {
+            // Keep going with regular access checks
+        }
+
+        return MethodHandles.lookup().unreflect(getter);
+    }
+
+    private static final class MethodHandleAccessor implements PropertyAccessor {
+
+        private final MethodHandle handle;
+
+        MethodHandleAccessor(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object get(Object bean) {
+            try {
+                return (Object) handle.invokeExact(bean);
+            } catch (Throwable ex) {
+                throw invocationFailure(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.vulinh.accessor;
+
+/**
+ * Resolved getter of a single bean property. Accessors are created once per property by an {@link AccessorFactory} and then reused for every read.
+ */
+@FunctionalInterface
+public interface PropertyAccessor {
+
+    /**
+     * Read the property value from a bean.
+     *
+     * @param bean The bean to read from.
+     * @return Property value, can be <code>null</code>.
+     */
+    Object get(Object bean);
+}
@@ -0,0 +1,30 @@
+package com.vulinh.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Denote when a field counts as absent, as primitive fields are never <code>null</code>. A numeric primitive field is absent when it holds the sentinel
+ * value, for example <code>@AbsentWhen(-1) private int minAge;</code>. Alternatively, any field is absent when a companion boolean property is
+ * <code>false</code>, for example <code>@AbsentWhen(flag = "minAgeSet")</code>. Presence is checked without boxing primitive values.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface AbsentWhen {
+
+    /**
+     * Sentinel value meaning absent, compared as a <code>double</code> for floating point fields. Ignored if {@link #flag()} is set.
+     *
+     * @return Sentinel value meaning absent.
+     */
+    long value() default 0L;
+
+    /**
+     * Name of a boolean bean property telling whether this field is present. Reference fields are still absent when <code>null</code>.
+     *
+     * @return Name of said property, or empty to use {@link #value()} instead.
+     */
+    String flag() default "";
+}
@@ -0,0 +1,29 @@
+package com.vulinh.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Suggest indexes to the optimizer. On a class, the hint is always rendered; on a field, it is rendered only when said field is present. Hints are rendered
+ * by the dialect (see <code>HintStyle</code>), HQL/JPQL ignores them.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD})
+public @interface IndexHint {
+
+    /**
+     * Names of the suggested indexes.
+     *
+     * @return Names of the suggested indexes.
+     */
+    String[] value();
+
+    /**
+     * Alias of the table owning said indexes. Field hints default to the table alias of the field (<code>@UseTableAlias</code>).
+     *
+     * @return Alias of the table owning said indexes.
+     */
+    String table() default "";
+}
@@ -0,0 +1,23 @@
+package com.vulinh.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pass raw hints to the optimizer, for example <code>Leading(e o)</code> for pg_hint_plan or <code>NO_INDEX_MERGE(e)</code> for MySQL. On a class, the
+ * hints are always rendered; on a field, they are rendered only when said field is present. Hints are rendered by the dialect (see <code>HintStyle</code>),
+ * HQL/JPQL ignores them.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD})
+public @interface OptimizerHint {
+
+    /**
+     * Raw hints, rendered as is inside the hint comment.
+     *
+     * @return Raw hints.
+     */
+    String[] value();
+}
@@ -0,0 +1,22 @@
+package com.vulinh.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Denote the position of the predicate of this field in built queries, lower comes first. Fields without this annotation come after ordered ones, see
+ * <code>@Selectivity</code> for how they are ordered.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Order {
+
+    /**
+     * Position of the predicate of this field.
+     *
+     * @return Position of the predicate of this field.
+     */
+    int value();
+}
@@ -0,0 +1,31 @@
+package com.vulinh.annotation;
+
+import com.vulinh.data.SortDirection;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Denote that this field is a sort key of keyset (seek) pagination, holding the value of the last seen row. Table alias (<code>@UseTableAlias</code>),
+ * custom name (<code>@UseCustomName</code>) and method wrap (<code>@UseWrapMethod</code>) are applied to its column. When the cursor class is also used
+ * as a filter, seek keys filter like any other field; mark them with <code>@IgnoreField</code> as well to keep them out of the filter.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface SeekKey {
+
+    /**
+     * Position of this key in sort order, lower comes first. Must be unique within a class.
+     *
+     * @return Position of this key.
+     */
+    int order();
+
+    /**
+     * Sort direction of this key.
+     *
+     * @return Sort direction of this key.
+     */
+    SortDirection direction() default SortDirection.ASC;
+}
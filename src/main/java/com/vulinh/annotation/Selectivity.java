@@ -0,0 +1,23 @@
+package com.vulinh.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Estimated fraction of rows matched by the predicate of this field, between <code>0</code> and <code>1</code>. Among fields of the same
+ * <code>@Order</code>, the most selective predicates (lowest fractions) come first, so that databases evaluating predicates left to right can short-circuit
+ * early. Fields without this annotation are assumed to match every row, and keep their declaration order.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Selectivity {
+
+    /**
+     * Estimated fraction of rows matched by the predicate of this field.
+     *
+     * @return Estimated fraction of matched rows.
+     */
+    double value();
+}
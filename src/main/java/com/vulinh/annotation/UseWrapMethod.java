@@ -7,7 +7,8 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Denote that this field must be wrapped by either an SQL or an HQL method, for example: date(), cast().
+ * Denote that this field must be wrapped by either an SQL or an HQL method, for example: date(), cast(). Wrapping a column prevents the database from using
+ * its index, see {@link #sargable()} for truncation methods.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
@@ -26,4 +27,14 @@ public @interface UseWrapMethod {
      * @return Additional info for wrap method. By default, this field is empty.
      */
     String after() default StringUtils.EMPTY;
+
+    /**
+     * Rewrite comparisons against a truncation method (<code>date</code>, <code>trunc</code> or <code>year</code>, without additional info) into an
+     * equivalent half-open range on the bare column, which can use its index. For example, <code>date(created) = :created</code> becomes
+     * <code>created &gt;= :createdStart and created &lt; :createdEnd</code>, whose bounds are computed from the field value when building. Only '=', '!=',
+     * '&lt;', '&lt;=', '&gt;' and '&gt;=' comparisons can be rewritten.
+     *
+     * @return Whether to rewrite comparisons into ranges. By default, comparisons are not rewritten.
+     */
+    boolean sargable() default false;
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.vulinh.annotation.comparison;
+
+import com.vulinh.data.InListMode;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Denote that the field in question, which must be a <code>Collection</code>, must be compared using IN operator. An empty collection matches no row,
+ * rendered as <code>1 = 0</code>.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface In {
+
+    /**
+     * How values of the collection are bound.
+     *
+     * @return Binding mode.
+     */
+    public InListMode mode() default InListMode.PADDING;
+
+    /**
+     * Maximum number of parameters in a single IN list, in padding mode. Larger lists are split into chunks joined by OR.
+     *
+     * @return Maximum number of parameters per list.
+     */
+    public int maxParameters() default 1000;
+}
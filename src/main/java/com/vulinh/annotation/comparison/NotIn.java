@@ -0,0 +1,30 @@
+package com.vulinh.annotation.comparison;
+
+import com.vulinh.data.InListMode;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Denote that the field in question, which must be a <code>Collection</code>, must be compared using NOT IN operator. An empty collection is treated as
+ * absent, as it excludes no row.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface NotIn {
+
+    /**
+     * How values of the collection are bound.
+     *
+     * @return Binding mode.
+     */
+    public InListMode mode() default InListMode.PADDING;
+
+    /**
+     * Maximum number of parameters in a single NOT IN list, in padding mode. Larger lists are split into chunks joined by AND.
+     *
+     * @return Maximum number of parameters per list.
+     */
+    public int maxParameters() default 1000;
+}
@@ -0,0 +1,203 @@
+package com.vulinh.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable result of building a query: the query text together with the parameters it uses, captured while building so that no further reflection is
+ * needed to bind them.
+ */
+public final class BuiltQuery {
+
+    /**
+     * Largest number of parameters deduplicated by comparing each name with the previous ones, which is cheaper than hashing for short lists.
+     */
+    private static final int SCAN_LIMIT = 8;
+
+    private final String   query;
+    private final String[] parameterNames;
+    private final Object[] parameterValues;
+    private final int      parameterCount;
+    private final boolean  alwaysEmpty;
+
+    private volatile long[] repeatedOccurrences;
+
+    /**
+     * Create a built query. Parameter arrays are used as is and must not be modified afterwards.
+     *
+     * @param query           Query text.
+     * @param parameterNames  Parameter names, in order of appearance in query text.
+     * @param parameterValues Parameter values, matching parameter names.
+     * @param parameterCount  Number of parameters actually used in said arrays.
+     */
+    public BuiltQuery(String query, String[] parameterNames, Object[] parameterValues, int parameterCount) {
+        this(query, parameterNames, parameterValues, parameterCount, false);
+    }
+
+    /**
+     * Create a built query, possibly known to match no row. Parameter arrays are used as is and must not be modified afterwards.
+     *
+     * @param query           Query text.
+     * @param parameterNames  Parameter names, in order of appearance in query text.
+     * @param parameterValues Parameter values, matching parameter names.
+     * @param parameterCount  Number of parameters actually used in said arrays.
+     * @param alwaysEmpty     Whether said query is known to match no row.
+     */
+    public BuiltQuery(String query, String[] parameterNames, Object[] parameterValues, int parameterCount, boolean alwaysEmpty) {
+        this.query = query;
+        this.parameterNames = parameterNames;
+        this.parameterValues = parameterValues;
+        this.parameterCount = parameterCount;
+        this.alwaysEmpty = alwaysEmpty;
+    }
+
+    /**
+     * Query text.
+     *
+     * @return Query text.
+     */
+    public String query() {
+        return query;
+    }
+
+    /**
+     * Check if this query is known to match no row, because its parameters contradict each other, for example a range whose lower bound is greater than its
+     * upper bound. Such queries need not be run at all: callers can return an empty result right away. Only detected when enabled, see
+     * <code>QueryBuilder.Builder#detectContradictions</code>; <code>false</code> does not mean the query matches some row.
+     *
+     * @return <code>true</code> if this query is known to match no row; <code>false</code> if otherwise.
+     */
+    public boolean isAlwaysEmpty() {
+        return alwaysEmpty;
+    }
+
+    /**
+     * Number of parameter occurrences in query text. A parameter used more than once is counted every time.
+     *
+     * @return Number of parameter occurrences.
+     */
+    public int parameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Parameter names, in order of appearance in query text. A parameter used more than once is listed every time.
+     *
+     * @return Unmodifiable list of parameter names.
+     */
+    public List<String> parameterNames() {
+        return Collections.unmodifiableList(Arrays.asList(parameterNames).subList(0, parameterCount));
+    }
+
+    /**
+     * Parameter values, matching {@link #parameterNames()}.
+     *
+     * @return Unmodifiable list of parameter values.
+     */
+    public List<Object> parameterValues() {
+        return Collections.unmodifiableList(Arrays.asList(parameterValues).subList(0, parameterCount));
+    }
+
+    /**
+     * Name of a parameter occurrence.
+     *
+     * @param index Zero-based index of the occurrence, less than {@link #parameterCount()}.
+     * @return Parameter name.
+     */
+    public String parameterName(int index) {
+        if (index < 0 || index >= parameterCount) {
+            throw new IndexOutOfBoundsException("Parameter index " + index + " out of " + parameterCount);
+        }
+
+        return parameterNames[index];
+    }
+
+    /**
+     * Value of a parameter occurrence, for binding positional parameters without wrapping values in a list.
+     *
+     * @param index Zero-based index of the occurrence, less than {@link #parameterCount()}.
+     * @return Parameter value.
+     */
+    public Object parameterValue(int index) {
+        if (index < 0 || index >= parameterCount) {
+            throw new IndexOutOfBoundsException("Parameter index " + index + " out of " + parameterCount);
+        }
+
+        return parameterValues[index];
+    }
+
+    /**
+     * Parameters by name, in order of first appearance in query text.
+     *
+     * @return Unmodifiable map of parameters.
+     */
+    public Map<String, Object> parameters() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        bind(parameters::put);
+
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Bind each named parameter once, for example <code>builtQuery.bind(query::setParameter)</code>.
+     *
+     * @param binder The action binding a parameter value by name.
+     */
+    public void bind(BiConsumer<String, Object> binder) {
+        long[] repeated = parameterCount > SCAN_LIMIT ? repeatedOccurrences() : null;
+
+        for (int i = 0; i < parameterCount; i++) {
+            boolean boundBefore = repeated == null ? isBoundBefore(i) : (repeated[i >>> 6] & 1L << i) != 0;
+
+            if (!boundBefore) {
+                binder.accept(parameterNames[i], parameterValues[i]);
+            }
+        }
+    }
+
+    private long[] repeatedOccurrences() {
+        long[] repeated = repeatedOccurrences;
+
+        // Computed once per query in linear time, as padded lists and any-of queries may have thousands of parameters; computing twice on a race is harmless
+        if (repeated == null) {
+            repeated = new long[(parameterCount + Long.SIZE - 1) / Long.SIZE];
+            Set<String> names = new HashSet<>(parameterCount * 2);
+
+            for (int i = 0; i < parameterCount; i++) {
+                if (!names.add(parameterNames[i])) {
+                    repeated[i >>> 6] |= 1L << i;
+                }
+            }
+
+            repeatedOccurrences = repeated;
+        }
+
+        return repeated;
+    }
+
+    private boolean isBoundBefore(int index) {
+        for (int i = 0; i < index; i++) {
+            if (parameterNames[i].equals(parameterNames[index])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "BuiltQuery{" +
+            "query='" + query + '\'' +
+            ", parameters=" + parameters() +
+            (alwaysEmpty ? ", alwaysEmpty=true" : "") +
+            '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.vulinh.data;
+
+/**
+ * Immutable snapshot of cache hit and miss counts.
+ */
+public final class CacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+
+    public CacheStatistics(long hitCount, long missCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+    }
+
+    /**
+     * Number of lookups answered from cache.
+     *
+     * @return Number of cache hits.
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of lookups that were not answered from cache.
+     *
+     * @return Number of cache misses.
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Ratio of hits over all lookups.
+     *
+     * @return Hit rate between <code>0</code> and <code>1</code>; <code>1</code> if there was no lookup at all.
+     */
+    public double hitRate() {
+        long requestCount = hitCount + missCount;
+
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+            "hitCount=" + hitCount +
+            ", missCount=" + missCount +
+            '}';
+    }
+}
@@ -14,7 +14,11 @@ public enum ComparisonType {
     IS_NOT_NULL("is not null"),
     BETWEEN("between"),
     LIKE("like"),
-    NOT_LIKE("not like");
+    NOT_LIKE("not like"),
+    IN("in"),
+    NOT_IN("not in"),
+    ANY("any"),
+    ALL("all");
 
     private final String sign;
 
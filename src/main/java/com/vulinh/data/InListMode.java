@@ -0,0 +1,19 @@
+package com.vulinh.data;
+
+/**
+ * How <code>@In</code> and <code>@NotIn</code> bind the values of a collection.
+ */
+public enum InListMode {
+
+    /**
+     * Bind one parameter per value, padding the list up to the next power of two by repeating its last value. A list of any size then renders to one of
+     * a few query strings, which keeps the plan cache of Hibernate and the database small.
+     */
+    PADDING,
+
+    /**
+     * Bind the whole list as a single array parameter, using <code>= any(:values)</code> (or <code>!= all(:values)</code>). Only supported by databases
+     * with array parameters, such as PostgreSQL.
+     */
+    ARRAY
+}
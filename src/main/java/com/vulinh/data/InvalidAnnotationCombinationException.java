@@ -1,12 +1,10 @@
 package com.vulinh.data;
 
-import java.lang.reflect.Field;
-
 public class InvalidAnnotationCombinationException extends BuilderException {
 
     private static final long serialVersionUID = -8463838637366319754L;
 
-    public InvalidAnnotationCombinationException(Field field, Object annotation1, Object annotation2) {
+    public InvalidAnnotationCombinationException(Object field, Object annotation1, Object annotation2) {
         super(String.format("Field [%s] contained invalid annotation combination: [%s] and [%s]", field, annotation1, annotation2));
     }
 }
\ No newline at end of file
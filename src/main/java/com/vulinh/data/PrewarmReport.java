@@ -0,0 +1,83 @@
+package com.vulinh.data;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable result of pre-warming: which classes were compiled ahead of time, and how long it took.
+ */
+public final class PrewarmReport {
+
+    private final List<Class<?>> types;
+    private final long           durationNanos;
+
+    public PrewarmReport(List<Class<?>> types, long durationNanos) {
+        this.types = Collections.unmodifiableList(types);
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Classes compiled ahead of time.
+     *
+     * @return Unmodifiable list of compiled classes.
+     */
+    public List<Class<?>> types() {
+        return types;
+    }
+
+    /**
+     * Time taken to scan (if any), compile and validate all classes.
+     *
+     * @return Duration of pre-warming.
+     */
+    public Duration duration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
+    /**
+     * Write a GraalVM native image <code>reflect-config.json</code> registering the compiled classes, so their fields and getters can be reflected on at
+     * run time of a native image.
+     *
+     * @param writer The writer to write to.
+     * @throws IOException If writing fails.
+     */
+    public void writeReflectConfig(Writer writer) throws IOException {
+        writer.write("[\n");
+
+        for (int i = 0; i < types.size(); i++) {
+            writer.write("  {\n");
+            writer.write("    \"name\": \"" + types.get(i).getName() + "\",\n");
+            writer.write("    \"allDeclaredFields\": true,\n");
+            writer.write("    \"allPublicMethods\": true\n");
+            writer.write(i < types.size() - 1 ? "  },\n" : "  }\n");
+        }
+
+        writer.write("]\n");
+    }
+
+    /**
+     * Write a GraalVM native image <code>reflect-config.json</code> to a file, see {@link #writeReflectConfig(Writer)}.
+     *
+     * @param file The file to write to, usually <code>META-INF/native-image/&lt;group&gt;/&lt;artifact&gt;/reflect-config.json</code>.
+     * @throws IOException If writing fails.
+     */
+    public void writeReflectConfig(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeReflectConfig(writer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PrewarmReport{" +
+            "classCount=" + types.size() +
+            ", duration=" + duration() +
+            '}';
+    }
+}
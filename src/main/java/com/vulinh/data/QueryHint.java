@@ -0,0 +1,104 @@
+package com.vulinh.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable hint to the optimizer: either suggested indexes of a table (<code>@IndexHint</code>) or a raw hint (<code>@OptimizerHint</code>).
+ */
+public final class QueryHint {
+
+    private final String       table;
+    private final List<String> indexes;
+    private final String       text;
+
+    private QueryHint(String table, List<String> indexes, String text) {
+        this.table = table;
+        this.indexes = indexes;
+        this.text = text;
+    }
+
+    /**
+     * Create an index hint.
+     *
+     * @param table   Alias of the table owning the indexes, may be empty.
+     * @param indexes Names of the suggested indexes.
+     * @return Index hint.
+     */
+    public static QueryHint index(String table, String... indexes) {
+        return new QueryHint(table, Collections.unmodifiableList(Arrays.asList(indexes.clone())), null);
+    }
+
+    /**
+     * Create a raw optimizer hint.
+     *
+     * @param text Hint text, rendered as is.
+     * @return Raw optimizer hint.
+     */
+    public static QueryHint optimizer(String text) {
+        return new QueryHint(null, Collections.emptyList(), text);
+    }
+
+    /**
+     * Check if this hint suggests indexes.
+     *
+     * @return <code>true</code> if this is an index hint; <code>false</code> if this is a raw optimizer hint.
+     */
+    public boolean isIndexHint() {
+        return text == null;
+    }
+
+    /**
+     * Alias of the table owning the suggested indexes.
+     *
+     * @return Table alias, may be empty; <code>null</code> for raw optimizer hints.
+     */
+    public String table() {
+        return table;
+    }
+
+    /**
+     * Names of the suggested indexes.
+     *
+     * @return Unmodifiable list of index names; empty for raw optimizer hints.
+     */
+    public List<String> indexes() {
+        return indexes;
+    }
+
+    /**
+     * Text of a raw optimizer hint.
+     *
+     * @return Hint text; <code>null</code> for index hints.
+     */
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof QueryHint)) {
+            return false;
+        }
+
+        QueryHint hint = (QueryHint) other;
+
+        return Objects.equals(table, hint.table) && indexes.equals(hint.indexes) && Objects.equals(text, hint.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(table, indexes, text);
+    }
+
+    @Override
+    public String toString() {
+        return isIndexHint() ? "INDEX(" + table + " " + String.join(" ", indexes) + ")" : text;
+    }
+}
@@ -0,0 +1,23 @@
+package com.vulinh.data;
+
+/**
+ * Kinds of queries built from the same filter. Each kind is rendered from the same predicates and parameters, with its own preset query, and has its own
+ * shape cache so that kinds do not evict each other.
+ */
+public enum QueryKind {
+
+    /**
+     * Data query, for example <code>select e from Entity e where 1 = 1</code>.
+     */
+    SELECT,
+
+    /**
+     * Count query, for example <code>select count(e) from Entity e where 1 = 1</code>.
+     */
+    COUNT,
+
+    /**
+     * Existence check, limited to a single row by the dialect so that the database can stop at the first match.
+     */
+    EXISTS
+}
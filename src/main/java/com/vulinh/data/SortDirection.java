@@ -0,0 +1,46 @@
+package com.vulinh.data;
+
+/**
+ * Sort directions of keyset pagination.
+ */
+public enum SortDirection {
+    ASC("asc", ComparisonType.GREATER_THAN, ComparisonType.GREATER_THAN_OR_EQUAL_TO),
+    DESC("desc", ComparisonType.LESS_THAN, ComparisonType.LESS_THAN_OR_EQUAL_TO);
+
+    private final String         sign;
+    private final ComparisonType after;
+    private final ComparisonType afterOrEqual;
+
+    SortDirection(String sign, ComparisonType after, ComparisonType afterOrEqual) {
+        this.sign = sign;
+        this.after = after;
+        this.afterOrEqual = afterOrEqual;
+    }
+
+    /**
+     * Return the 'sign' used in order by clause.
+     *
+     * @return Sign used in order by clause.
+     */
+    public String sign() {
+        return sign;
+    }
+
+    /**
+     * Comparison matching rows that come after a value in this direction.
+     *
+     * @return Strict comparison in this direction.
+     */
+    public ComparisonType after() {
+        return after;
+    }
+
+    /**
+     * Comparison matching rows that come after or equal to a value in this direction.
+     *
+     * @return Non-strict comparison in this direction.
+     */
+    public ComparisonType afterOrEqual() {
+        return afterOrEqual;
+    }
+}
@@ -0,0 +1,142 @@
+package com.vulinh.dialect;
+
+import static com.vulinh.util.StringUtils.COMMA;
+import static com.vulinh.util.StringUtils.EMPTY;
+import static com.vulinh.util.StringUtils.SPACE;
+import static com.vulinh.util.StringUtils.isBlank;
+import static com.vulinh.util.StringUtils.isNotBlank;
+
+import com.vulinh.data.QueryHint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * How optimizer hints are rendered into the preset query. Hints need somewhere to attach to, so a blank preset query is never hinted.
+ */
+public enum HintStyle {
+
+    /**
+     * Hints are not rendered.
+     */
+    NONE {
+        @Override
+        String hint(String presetHql, Collection<QueryHint> hints) {
+            return presetHql;
+        }
+    },
+
+    /**
+     * MySQL: index hints are rendered as <code>USE INDEX (...)</code> after the table of the same alias (or the first table if there is no alias), raw hints
+     * as a <code>/*+ ... *&#47;</code> comment after the leading <code>select</code>. Index hints whose table cannot be found fall back to the
+     * <code>INDEX(alias index, ...)</code> optimizer hint of MySQL 8.
+     */
+    MYSQL {
+        @Override
+        String hint(String presetHql, Collection<QueryHint> hints) {
+            String query = presetHql;
+            List<String> comment = new ArrayList<>();
+
+            for (QueryHint hint : hints) {
+                if (!hint.isIndexHint()) {
+                    comment.add(hint.text());
+
+                    continue;
+                }
+
+                Matcher table = tablePattern(hint.table()).matcher(query);
+
+                if (table.find()) {
+                    query = query.substring(0, table.end()) + " USE INDEX (" + String.join(COMMA, hint.indexes()) + ")" + query.substring(table.end());
+                } else {
+                    comment.add("INDEX(" + tableSpace(hint) + String.join(COMMA, hint.indexes()) + ")");
+                }
+            }
+
+            return afterSelect(query, comment);
+        }
+    },
+
+    /**
+     * Oracle: every hint is rendered in a <code>/*+ ... *&#47;</code> comment after the leading <code>select</code>, index hints as
+     * <code>INDEX(alias index ...)</code>.
+     */
+    ORACLE {
+        @Override
+        String hint(String presetHql, Collection<QueryHint> hints) {
+            return afterSelect(presetHql, render(hints, "INDEX("));
+        }
+    },
+
+    /**
+     * PostgreSQL with the pg_hint_plan extension: every hint is rendered in a <code>/*+ ... *&#47;</code> comment at the very beginning of the query, index
+     * hints as <code>IndexScan(alias index ...)</code>.
+     */
+    PG_HINT_PLAN {
+        @Override
+        String hint(String presetHql, Collection<QueryHint> hints) {
+            return comment(render(hints, "IndexScan(")) + SPACE + presetHql;
+        }
+    };
+
+    private static final Pattern SELECT   = Pattern.compile("^\\s*select\\b", Pattern.CASE_INSENSITIVE);
+    private static final String  TABLE    = "\\b(?:from|join)\\s+[\\w.`\"\\[\\]]+";
+    private static final String  KEYWORDS = "(?:where|join|inner|left|right|full|cross|on|order|group|having|limit|use|force|ignore)\\b";
+
+    /**
+     * Render hints into a preset query.
+     *
+     * @param presetHql The preset query to hint.
+     * @param hints     Hints to render, without duplicates.
+     * @return Hinted query, or said query as is if it is blank or there is no hint.
+     */
+    public String apply(String presetHql, Collection<QueryHint> hints) {
+        if (isBlank(presetHql) || hints.isEmpty()) {
+            return presetHql;
+        }
+
+        return hint(presetHql, hints);
+    }
+
+    abstract String hint(String presetHql, Collection<QueryHint> hints);
+
+    private static List<String> render(Collection<QueryHint> hints, String indexHintPrefix) {
+        List<String> rendered = new ArrayList<>(hints.size());
+
+        for (QueryHint hint : hints) {
+            rendered.add(hint.isIndexHint() ? indexHintPrefix + tableSpace(hint) + String.join(SPACE, hint.indexes()) + ")" : hint.text());
+        }
+
+        return rendered;
+    }
+
+    private static String tableSpace(QueryHint hint) {
+        return isNotBlank(hint.table()) ? hint.table() + SPACE : EMPTY;
+    }
+
+    private static String comment(List<String> hints) {
+        return "/*+ " + String.join(SPACE, hints) + " */";
+    }
+
+    private static String afterSelect(String query, List<String> hints) {
+        Matcher select = SELECT.matcher(query);
+
+        // Such hints are only read right after the select keyword, other queries are left as is
+        if (hints.isEmpty() || !select.find()) {
+            return query;
+        }
+
+        return query.substring(0, select.end()) + SPACE + comment(hints) + query.substring(select.end());
+    }
+
+    private static Pattern tablePattern(String alias) {
+        if (isNotBlank(alias)) {
+            return Pattern.compile(TABLE + "(?:\\s+as)?\\s+" + Pattern.quote(alias) + "(?![\\w])", Pattern.CASE_INSENSITIVE);
+        }
+
+        // Without alias, the first table and its own alias, if any
+        return Pattern.compile(TABLE + "(?:\\s+(?:as\\s+)?(?!" + KEYWORDS + ")\\w+)?", Pattern.CASE_INSENSITIVE);
+    }
+}
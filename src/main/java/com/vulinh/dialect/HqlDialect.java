@@ -0,0 +1,30 @@
+package com.vulinh.dialect;
+
+import static com.vulinh.util.StringUtils.COLON;
+
+/**
+ * HQL/JPQL dialect: identifiers are rendered as is and parameters as named placeholders, for example <code>:name</code>.
+ */
+public final class HqlDialect implements QueryDialect {
+
+    public static final HqlDialect INSTANCE = new HqlDialect();
+
+    private HqlDialect() {
+    }
+
+    @Override
+    public void appendIdentifier(StringBuilder query, String identifier) {
+        query.append(identifier);
+    }
+
+    @Override
+    public void appendParameter(StringBuilder query, String parameterName) {
+        query.append(COLON)
+             .append(parameterName);
+    }
+
+    @Override
+    public String toString() {
+        return "HQL";
+    }
+}
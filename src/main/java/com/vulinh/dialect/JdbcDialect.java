@@ -0,0 +1,154 @@
+package com.vulinh.dialect;
+
+import com.vulinh.data.QueryHint;
+import java.util.Collection;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Native SQL dialect for plain JDBC: parameters are rendered as positional <code>?</code> placeholders, bound in order of appearance, and identifiers are
+ * quoted segment by segment, so <code>e.name</code> becomes <code>"e"."name"</code>. Quoted identifiers are case-sensitive in most databases, use
+ * {@link #UNQUOTED} to keep the case folding of the database. Optimizer hints are not rendered, unless a hint style is given by
+ * {@link #withHints(HintStyle)}. Existence checks are limited to one row with the syntax of the database.
+ */
+public final class JdbcDialect implements QueryDialect {
+
+    /**
+     * Identifiers quoted by double quotes, as defined by ANSI SQL (PostgreSQL, Oracle, H2, ...).
+     */
+    public static final JdbcDialect ANSI = new JdbcDialect("ANSI", "\"", "\"", true, RowLimit.FETCH_FIRST, HintStyle.NONE);
+
+    /**
+     * Identifiers quoted by backticks (MySQL, MariaDB).
+     */
+    public static final JdbcDialect MYSQL = new JdbcDialect("MYSQL", "`", "`", true, RowLimit.LIMIT, HintStyle.NONE);
+
+    /**
+     * Identifiers quoted by square brackets (SQL Server), which does not support row value comparisons.
+     */
+    public static final JdbcDialect SQL_SERVER = new JdbcDialect("SQL_SERVER", "[", "]", false, RowLimit.TOP, HintStyle.NONE);
+
+    /**
+     * Identifiers rendered as is.
+     */
+    public static final JdbcDialect UNQUOTED = new JdbcDialect("UNQUOTED", "", "", true, RowLimit.FETCH_FIRST, HintStyle.NONE);
+
+    private static final char   SEPARATOR   = '.';
+    private static final String PLACEHOLDER = "?";
+
+    private final String    name;
+    private final String    openQuote;
+    private final String    closeQuote;
+    private final boolean   rowValues;
+    private final RowLimit  rowLimit;
+    private final HintStyle hintStyle;
+
+    private JdbcDialect(String name, String openQuote, String closeQuote, boolean rowValues, RowLimit rowLimit, HintStyle hintStyle) {
+        this.name = name;
+        this.openQuote = openQuote;
+        this.closeQuote = closeQuote;
+        this.rowValues = rowValues;
+        this.rowLimit = rowLimit;
+        this.hintStyle = hintStyle;
+    }
+
+    /**
+     * Create a dialect quoting identifiers with custom quotes. Row limits are rendered as <code>fetch first 1 rows only</code>, as defined by ANSI SQL.
+     *
+     * @param openQuote  Opening quote of identifiers.
+     * @param closeQuote Closing quote of identifiers.
+     * @param rowValues  Whether the database supports row value comparisons.
+     * @return Dialect using said quotes.
+     */
+    public static JdbcDialect quotedBy(String openQuote, String closeQuote, boolean rowValues) {
+        return new JdbcDialect("JDBC(" + openQuote + closeQuote + ")", openQuote, closeQuote, rowValues, RowLimit.FETCH_FIRST, HintStyle.NONE);
+    }
+
+    /**
+     * Create a dialect rendering identifiers and parameters like this one, and optimizer hints in the given style.
+     *
+     * @param hintStyle How to render optimizer hints, for example {@link HintStyle#MYSQL}.
+     * @return Dialect rendering hints in said style.
+     */
+    public JdbcDialect withHints(HintStyle hintStyle) {
+        return new JdbcDialect(name, openQuote, closeQuote, rowValues, rowLimit, hintStyle);
+    }
+
+    @Override
+    public void appendIdentifier(StringBuilder query, String identifier) {
+        int start = 0;
+
+        // Each segment of a qualified identifier is quoted on its own
+        for (int end = identifier.indexOf(SEPARATOR); end >= 0; end = identifier.indexOf(SEPARATOR, start)) {
+            appendQuoted(query, identifier, start, end).append(SEPARATOR);
+            start = end + 1;
+        }
+
+        appendQuoted(query, identifier, start, identifier.length());
+    }
+
+    @Override
+    public void appendParameter(StringBuilder query, String parameterName) {
+        query.append(PLACEHOLDER);
+    }
+
+    @Override
+    public boolean supportsRowValues() {
+        return rowValues;
+    }
+
+    @Override
+    public String applyHints(String presetHql, Collection<QueryHint> hints) {
+        return hintStyle.apply(presetHql, hints);
+    }
+
+    @Override
+    public String limitToOneRow(String query) {
+        return rowLimit.apply(query);
+    }
+
+    private StringBuilder appendQuoted(StringBuilder query, String identifier, int start, int end) {
+        return query.append(openQuote)
+                    .append(identifier, start, end)
+                    .append(closeQuote);
+    }
+
+    /**
+     * Syntax of row limits.
+     */
+    private enum RowLimit {
+
+        FETCH_FIRST {
+            @Override
+            String apply(String query) {
+                return query + " fetch first 1 rows only";
+            }
+        },
+
+        LIMIT {
+            @Override
+            String apply(String query) {
+                return query + " limit 1";
+            }
+        },
+
+        TOP {
+            @Override
+            String apply(String query) {
+                Matcher select = SELECT.matcher(query);
+
+                // 'top' follows the leading select keyword, and 'distinct' if any
+                return select.find() ? query.substring(0, select.end()) + " top 1" + query.substring(select.end()) : query;
+            }
+        };
+
+        private static final Pattern SELECT = Pattern.compile("^\\s*select(\\s+distinct)?\\b", Pattern.CASE_INSENSITIVE);
+
+        abstract String apply(String query);
+    }
+
+    @Override
+    public String toString() {
+        return hintStyle == HintStyle.NONE ? name : name + "+" + hintStyle;
+    }
+}
@@ -0,0 +1,68 @@
+package com.vulinh.dialect;
+
+import com.vulinh.data.QueryHint;
+import java.util.Collection;
+
+/**
+ * Dialect deciding how identifiers and parameter placeholders are rendered. Implement this interface to render queries for another query language.
+ * Rendering must be deterministic, so that the same shape always renders to the same query and hits the statement cache of the driver.
+ */
+public interface QueryDialect {
+
+    /**
+     * Append an identifier, such as a table alias or a column name, to the query.
+     *
+     * @param query      The query being rendered.
+     * @param identifier The identifier to append.
+     */
+    void appendIdentifier(StringBuilder query, String identifier);
+
+    /**
+     * Append the placeholder of a parameter to the query.
+     *
+     * @param query         The query being rendered.
+     * @param parameterName The name of the parameter.
+     */
+    void appendParameter(StringBuilder query, String parameterName);
+
+    /**
+     * Check if this dialect supports row value comparisons, such as <code>(a, b) &lt; (:a, :b)</code>.
+     *
+     * @return <code>true</code> if row value comparisons are supported; <code>false</code> if otherwise.
+     */
+    default boolean supportsRowValues() {
+        return false;
+    }
+
+    /**
+     * Render optimizer hints (<code>@IndexHint</code>, <code>@OptimizerHint</code>) into the preset query. Only hints of the class and of fields present in
+     * the shape being rendered are passed. By default, hints are not rendered.
+     *
+     * @param presetHql The preset query to hint, may be blank.
+     * @param hints     Hints to render, without duplicates.
+     * @return Hinted preset query.
+     */
+    default String applyHints(String presetHql, Collection<QueryHint> hints) {
+        return presetHql;
+    }
+
+    /**
+     * Limit a query to its first row, for existence checks. HQL/JPQL has no portable row limit, so by default queries are left as is and must be limited on
+     * the query itself, for example with <code>setMaxResults(1)</code>.
+     *
+     * @param query The query to limit.
+     * @return Query returning at most one row.
+     */
+    default String limitToOneRow(String query) {
+        return query;
+    }
+
+    /**
+     * Default dialect used by this library, which renders HQL/JPQL named parameters.
+     *
+     * @return Default dialect.
+     */
+    static QueryDialect defaultDialect() {
+        return HqlDialect.INSTANCE;
+    }
+}
@@ -0,0 +1,76 @@
+package com.vulinh.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Listener writing every query building event to a <code>java.util.logging</code> logger. Events are only formatted if the logger accepts the level.
+ */
+public class LoggingQueryBuilderListener implements QueryBuilderListener {
+
+    private final Logger logger;
+    private final Level  level;
+
+    /**
+     * Create a listener logging to the logger of this library at level <code>FINE</code>.
+     */
+    public LoggingQueryBuilderListener() {
+        this(Logger.getLogger("com.vulinh.QueryBuilder"), Level.FINE);
+    }
+
+    /**
+     * Create a listener logging to the provided logger.
+     *
+     * @param logger The logger to write events to.
+     * @param level  The level to write events at.
+     */
+    public LoggingQueryBuilderListener(Logger logger, Level level) {
+        this.logger = requireNonNull(logger, "logger");
+        this.level = requireNonNull(level, "level");
+    }
+
+    @Override
+    public void onQueryBuilt(Class<?> type, long durationNanos, int fieldsInspected, int queryLength) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, "Built query of {0} in {1} ns, inspected {2} fields, query length {3}",
+                       new Object[]{type.getName(), durationNanos, fieldsInspected, queryLength});
+        }
+    }
+
+    @Override
+    public void onBatchBuilt(int queryCount, long durationNanos) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, "Built {0} queries in {1} ns", new Object[]{queryCount, durationNanos});
+        }
+    }
+
+    @Override
+    public void onPrewarm(int classCount, long durationNanos) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, "Pre-warmed {0} classes in {1} ms", new Object[]{classCount, durationNanos / 1_000_000});
+        }
+    }
+
+    @Override
+    public void onCacheHit(Class<?> type) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, "Query cache hit for {0}", type.getName());
+        }
+    }
+
+    @Override
+    public void onCacheMiss(Class<?> type) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, "Query cache miss for {0}", type.getName());
+        }
+    }
+
+    @Override
+    public void onNewShape(Class<?> type, int shapeCardinality) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, "Class {0} now has {1} distinct query shapes", new Object[]{type.getName(), shapeCardinality});
+        }
+    }
+}
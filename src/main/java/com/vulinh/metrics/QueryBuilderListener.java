@@ -0,0 +1,66 @@
+package com.vulinh.metrics;
+
+/**
+ * Callback receiving metrics of query building, for example to feed a metrics registry or tracing system. Every method does nothing by default, so
+ * implementations only override the events they need.
+ * <p>
+ * Listeners are called on the building thread, so they must be thread-safe and cheap. A builder without listener does not even read the clock.
+ */
+public interface QueryBuilderListener {
+
+    /**
+     * Called after a query was built from a single object.
+     *
+     * @param type            Class of the object.
+     * @param durationNanos   Time taken to build the query, in nanoseconds.
+     * @param fieldsInspected Number of fields inspected for value.
+     * @param queryLength     Length of the rendered query, preset query included.
+     */
+    default void onQueryBuilt(Class<?> type, long durationNanos, int fieldsInspected, int queryLength) {
+    }
+
+    /**
+     * Called after queries were built for many objects at once.
+     *
+     * @param queryCount    Number of built queries.
+     * @param durationNanos Time taken to build all queries, in nanoseconds.
+     */
+    default void onBatchBuilt(int queryCount, long durationNanos) {
+    }
+
+    /**
+     * Called after classes were compiled ahead of time.
+     *
+     * @param classCount    Number of compiled classes.
+     * @param durationNanos Time taken to scan, compile and validate them, in nanoseconds.
+     */
+    default void onPrewarm(int classCount, long durationNanos) {
+    }
+
+    /**
+     * Called when the rendered query of a shape was found in cache.
+     *
+     * @param type Class whose query was looked up.
+     */
+    default void onCacheHit(Class<?> type) {
+    }
+
+    /**
+     * Called when the rendered query of a shape had to be rendered.
+     *
+     * @param type Class whose query was looked up.
+     */
+    default void onCacheMiss(Class<?> type) {
+    }
+
+    /**
+     * Called the first time a class renders a query of a new shape, that is a new combination of present fields, whatever the preset query and the kind
+     * of query. Shapes are counted whether or not they are cached, so the cardinality keeps growing past the cache limit, up to
+     * {@link com.vulinh.plan.QueryPlan#MAX_TRACKED_SHAPES} shapes per class.
+     *
+     * @param type             Class whose query was rendered.
+     * @param shapeCardinality Number of distinct shapes of said class so far.
+     */
+    default void onNewShape(Class<?> type, int shapeCardinality) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.vulinh.metrics;
+
+import com.vulinh.data.BuilderException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Listener aggregating query building events into counters, which can be read directly or exposed as a JMX MBean through {@link #registerMBean(String)}.
+ * Counters are contention-free, so a single instance can be shared by all threads.
+ */
+public class QueryBuilderMetrics implements QueryBuilderListener, QueryBuilderMetricsMBean {
+
+    /**
+     * Default JMX object name of registered metrics.
+     */
+    public static final String DEFAULT_OBJECT_NAME = "com.vulinh:type=QueryBuilderMetrics";
+
+    private final LongAdder                      buildCount       = new LongAdder();
+    private final LongAdder                      totalBuildTime   = new LongAdder();
+    private final LongAccumulator                maxBuildTime     = new LongAccumulator(Math::max, 0L);
+    private final LongAdder                      fieldsInspected  = new LongAdder();
+    private final LongAdder                      singleBuildCount = new LongAdder();
+    private final LongAdder                      totalQueryLength = new LongAdder();
+    private final LongAdder                      cacheHits        = new LongAdder();
+    private final LongAdder                      cacheMisses      = new LongAdder();
+    private final ConcurrentMap<String, Integer> shapeCardinality = new ConcurrentHashMap<>();
+
+    @Override
+    public void onQueryBuilt(Class<?> type, long durationNanos, int fieldsInspected, int queryLength) {
+        buildCount.increment();
+        singleBuildCount.increment();
+        totalBuildTime.add(durationNanos);
+        maxBuildTime.accumulate(durationNanos);
+        this.fieldsInspected.add(fieldsInspected);
+        totalQueryLength.add(queryLength);
+    }
+
+    @Override
+    public void onBatchBuilt(int queryCount, long durationNanos) {
+        buildCount.add(queryCount);
+        totalBuildTime.add(durationNanos);
+    }
+
+    @Override
+    public void onCacheHit(Class<?> type) {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void onCacheMiss(Class<?> type) {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public void onNewShape(Class<?> type, int shapeCardinality) {
+        // Keyed by name, so that metrics do not keep classes from being unloaded
+        this.shapeCardinality.merge(type.getName(), shapeCardinality, Math::max);
+    }
+
+    @Override
+    public long getBuildCount() {
+        return buildCount.sum();
+    }
+
+    @Override
+    public long getTotalBuildTimeNanos() {
+        return totalBuildTime.sum();
+    }
+
+    @Override
+    public double getAverageBuildTimeNanos() {
+        long count = buildCount.sum();
+
+        return count == 0 ? 0.0 : (double) totalBuildTime.sum() / count;
+    }
+
+    @Override
+    public long getMaxBuildTimeNanos() {
+        return maxBuildTime.get();
+    }
+
+    @Override
+    public long getFieldsInspected() {
+        return fieldsInspected.sum();
+    }
+
+    @Override
+    public double getAverageQueryLength() {
+        long count = singleBuildCount.sum();
+
+        return count == 0 ? 0.0 : (double) totalQueryLength.sum() / count;
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public Map<String, Integer> getShapeCardinality() {
+        return Collections.unmodifiableMap(new TreeMap<>(shapeCardinality));
+    }
+
+    @Override
+    public int getMaxShapeCardinality() {
+        return shapeCardinality.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    @Override
+    public void reset() {
+        buildCount.reset();
+        singleBuildCount.reset();
+        totalBuildTime.reset();
+        maxBuildTime.reset();
+        fieldsInspected.reset();
+        totalQueryLength.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+    }
+
+    /**
+     * Register these metrics to the platform MBean server under {@link #DEFAULT_OBJECT_NAME}.
+     *
+     * @return Name of the registered MBean.
+     */
+    public ObjectName registerMBean() {
+        return registerMBean(DEFAULT_OBJECT_NAME);
+    }
+
+    /**
+     * Register these metrics to the platform MBean server.
+     *
+     * @param objectName JMX object name to register under, for example <code>com.vulinh:type=QueryBuilderMetrics,name=orders</code>.
+     * @return Name of the registered MBean.
+     */
+    public ObjectName registerMBean(String objectName) {
+        try {
+            ObjectName name = new ObjectName(objectName);
+
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+
+            return name;
+        } catch (JMException ex) {
+            throw new BuilderException(String.format("Cannot register query builder metrics as %s", objectName), ex);
+        }
+    }
+}
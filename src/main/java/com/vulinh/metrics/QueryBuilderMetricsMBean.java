@@ -0,0 +1,85 @@
+package com.vulinh.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link QueryBuilderMetrics}.
+ */
+public interface QueryBuilderMetricsMBean {
+
+    /**
+     * Number of queries built, batches included.
+     *
+     * @return Number of queries built.
+     */
+    long getBuildCount();
+
+    /**
+     * Total time spent building queries, batches included.
+     *
+     * @return Total build time, in nanoseconds.
+     */
+    long getTotalBuildTimeNanos();
+
+    /**
+     * Average time spent building a single query.
+     *
+     * @return Average build time, in nanoseconds; <code>0</code> if no query was built.
+     */
+    double getAverageBuildTimeNanos();
+
+    /**
+     * Longest time spent building a single query, batches excluded.
+     *
+     * @return Longest build time, in nanoseconds.
+     */
+    long getMaxBuildTimeNanos();
+
+    /**
+     * Total number of fields inspected for value, batches excluded.
+     *
+     * @return Total number of fields inspected.
+     */
+    long getFieldsInspected();
+
+    /**
+     * Average length of rendered queries, batches excluded.
+     *
+     * @return Average query length; <code>0</code> if no query was built.
+     */
+    double getAverageQueryLength();
+
+    /**
+     * Number of rendered query lookups answered from cache.
+     *
+     * @return Number of cache hits.
+     */
+    long getCacheHitCount();
+
+    /**
+     * Number of rendered query lookups that had to render a new query.
+     *
+     * @return Number of cache misses.
+     */
+    long getCacheMissCount();
+
+    /**
+     * Number of distinct query shapes per class, cached or not, see
+     * {@link QueryBuilderListener#onNewShape(Class, int)}.
+     *
+     * @return Shape cardinality, keyed by class name.
+     */
+    Map<String, Integer> getShapeCardinality();
+
+    /**
+     * Highest number of distinct query shapes over all classes.
+     *
+     * @return Highest shape cardinality.
+     */
+    int getMaxShapeCardinality();
+
+    /**
+     * Reset all counters. Shape cardinality is kept, since cached shapes are not reported again.
+     */
+    void reset();
+}
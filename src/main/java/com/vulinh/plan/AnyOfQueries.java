@@ -0,0 +1,305 @@
+package com.vulinh.plan;
+
+import static com.vulinh.util.StringUtils.CLOSE_PARENTHESIS;
+import static com.vulinh.util.StringUtils.COMMA;
+import static com.vulinh.util.StringUtils.OPEN_PARENTHESIS;
+import static com.vulinh.util.StringUtils.SPACE;
+import static com.vulinh.util.StringUtils.SPACED_AND;
+import static com.vulinh.util.StringUtils.SPACED_OR;
+import static com.vulinh.util.StringUtils.isNotBlank;
+
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.ComparisonType;
+import com.vulinh.data.QueryHint;
+import com.vulinh.dialect.QueryDialect;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds 'match any of these filters' queries: the predicate groups of many objects joined by OR, with parameter names suffixed by the index of their object,
+ * for example <code>:name__3</code>. Objects of the same shape whose predicates are all equalities collapse into a single IN list, or a row value IN list
+ * when the dialect supports row values. Queries are split so that none binds more than a given number of parameters.
+ */
+public final class AnyOfQueries {
+
+    /**
+     * Separates parameter names from the index of their object.
+     */
+    public static final String SUFFIX_SEPARATOR = "__";
+
+    /**
+     * Default maximum number of parameters bound by a single query, leaving room for preset parameters below the 2100 parameters limit of SQL Server, the
+     * lowest of common databases.
+     */
+    public static final int DEFAULT_MAX_PARAMETERS = 2000;
+
+    private static final String ALWAYS_TRUE = "1 = 1";
+
+    private final QueryDialect        dialect;
+    private final String              presetHql;
+    private final int                 maxParameters;
+    private final List<BuiltQuery>    queries    = new ArrayList<>();
+    private final List<StringBuilder> predicates = new ArrayList<>();
+    private final List<String>        names      = new ArrayList<>();
+    private final List<Object>        values     = new ArrayList<>();
+    private final Set<QueryHint>      hints      = new LinkedHashSet<>();
+
+    private AnyOfQueries(QueryDialect dialect, String presetHql, int maxParameters) {
+        this.dialect = dialect;
+        this.presetHql = presetHql;
+        this.maxParameters = maxParameters;
+    }
+
+    /**
+     * Build queries matching any of the given objects.
+     *
+     * @param cache         The plan cache to get plans from.
+     * @param objects       Input objects, may be of different classes.
+     * @param presetHql     Pre-built query to concatenate with results. Its own parameters are not counted.
+     * @param maxParameters Maximum number of parameters bound by a single query.
+     * @return Queries with their parameters; empty if there is no input object, or if no object can match any row.
+     */
+    public static List<BuiltQuery> build(QueryPlanCache cache, List<?> objects, String presetHql, int maxParameters) {
+        if (maxParameters < 1) {
+            throw new IllegalArgumentException("maxParameters must be positive");
+        }
+
+        // Objects are grouped by class and shape, in order of first appearance
+        Map<Object, List<Integer>> shapes = new LinkedHashMap<>();
+        Map<Object, GroupTemplate> templates = new HashMap<>();
+        Capture[] captures = new Capture[objects.size()];
+
+        for (int i = 0; i < captures.length; i++) {
+            Object object = objects.get(i);
+            QueryPlan plan = cache.get(object.getClass());
+
+            captures[i] = plan.capture(presetHql, object);
+
+            // Objects matching no row add nothing to a disjunction
+            if (captures[i].isAlwaysEmpty()) {
+                continue;
+            }
+
+            // Plans that are not maskable have no shape key, so each of their objects stands alone
+            Object shapeKey = plan.isMaskable() ? Arrays.asList(plan, captures[i].presenceMask()) : Integer.valueOf(i);
+
+            if (!templates.containsKey(shapeKey)) {
+                templates.put(shapeKey, GroupTemplate.of(plan, captures[i].presenceMask(), plan.isMaskable() ? null : object));
+            }
+
+            shapes.computeIfAbsent(shapeKey, key -> new ArrayList<>()).add(i);
+        }
+
+        AnyOfQueries anyOf = new AnyOfQueries(cache.dialect(), presetHql, maxParameters);
+
+        for (Map.Entry<Object, List<Integer>> shape : shapes.entrySet()) {
+            GroupTemplate template = templates.get(shape.getKey());
+            List<Integer> indexes = shape.getValue();
+
+            if (indexes.size() > 1 && template.isCollapsible(cache.dialect())) {
+                anyOf.appendInList(template, captures, indexes);
+            } else {
+                for (int index : indexes) {
+                    anyOf.appendGroup(template, captures[index], index);
+                }
+            }
+        }
+
+        anyOf.flush();
+
+        return anyOf.queries;
+    }
+
+    private void appendGroup(GroupTemplate template, Capture capture, int index) {
+        makeRoom(template.parameterNames.length);
+        hints.addAll(template.hints);
+
+        StringBuilder predicate = new StringBuilder(OPEN_PARENTHESIS);
+
+        for (int i = 0; i < template.parameterNames.length; i++) {
+            predicate.append(template.texts[i]);
+            appendParameter(predicate, template.parameterNames[i], index, capture.parameterValue(i));
+        }
+
+        predicates.add(predicate.append(template.texts[template.parameterNames.length]).append(CLOSE_PARENTHESIS));
+    }
+
+    private void appendInList(GroupTemplate template, Capture[] captures, List<Integer> indexes) {
+        int rowSize = template.parameterNames.length;
+
+        for (int start = 0; start < indexes.size(); ) {
+            makeRoom(rowSize);
+            hints.addAll(template.hints);
+
+            // At least one row per query, even if a single row is over the limit
+            int rows = Math.max(1, Math.min(indexes.size() - start, (maxParameters - names.size()) / rowSize));
+            boolean rowValue = rowSize > 1;
+
+            StringBuilder predicate = new StringBuilder(OPEN_PARENTHESIS);
+
+            if (rowValue) {
+                predicate.append(OPEN_PARENTHESIS);
+            }
+
+            predicate.append(String.join(COMMA, template.expressions));
+
+            if (rowValue) {
+                predicate.append(CLOSE_PARENTHESIS);
+            }
+
+            predicate.append(SPACE)
+                     .append(ComparisonType.IN.sign())
+                     .append(SPACE)
+                     .append(OPEN_PARENTHESIS);
+
+            for (int row = 0; row < rows; row++) {
+                int index = indexes.get(start + row);
+
+                if (row > 0) {
+                    predicate.append(COMMA);
+                }
+
+                if (rowValue) {
+                    predicate.append(OPEN_PARENTHESIS);
+                }
+
+                for (int i = 0; i < rowSize; i++) {
+                    if (i > 0) {
+                        predicate.append(COMMA);
+                    }
+
+                    appendParameter(predicate, template.parameterNames[i], index, captures[index].parameterValue(i));
+                }
+
+                if (rowValue) {
+                    predicate.append(CLOSE_PARENTHESIS);
+                }
+            }
+
+            predicates.add(predicate.append(CLOSE_PARENTHESIS).append(CLOSE_PARENTHESIS));
+            start += rows;
+        }
+    }
+
+    private void appendParameter(StringBuilder predicate, String parameterName, int index, Object value) {
+        String suffixedName = parameterName + SUFFIX_SEPARATOR + index;
+
+        dialect.appendParameter(predicate, suffixedName);
+        names.add(suffixedName);
+        values.add(value);
+    }
+
+    private void makeRoom(int parameterCount) {
+        if (!predicates.isEmpty() && names.size() + parameterCount > maxParameters) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (predicates.isEmpty()) {
+            return;
+        }
+
+        StringBuilder query = new StringBuilder();
+
+        // Each query is hinted by the groups it holds
+        String preset = dialect.applyHints(presetHql, hints);
+
+        if (isNotBlank(preset)) {
+            query.append(preset);
+        }
+
+        query.append(SPACED_AND)
+             .append(OPEN_PARENTHESIS);
+
+        for (int i = 0; i < predicates.size(); i++) {
+            if (i > 0) {
+                query.append(SPACED_OR);
+            }
+
+            query.append(predicates.get(i));
+        }
+
+        query.append(CLOSE_PARENTHESIS);
+
+        queries.add(new BuiltQuery(query.toString(), names.toArray(new String[0]), values.toArray(), names.size()));
+
+        predicates.clear();
+        names.clear();
+        values.clear();
+        hints.clear();
+    }
+
+    /**
+     * Predicate group of a shape, split around its parameters: <code>texts[i]</code> comes before parameter <code>i</code>, and the last text comes after
+     * the last parameter.
+     */
+    private static final class GroupTemplate {
+
+        final String[]       texts;
+        final String[]       parameterNames;
+        final String[]       expressions;
+        final boolean        equalitiesOnly;
+        final Set<QueryHint> hints;
+
+        private GroupTemplate(String[] texts, String[] parameterNames, String[] expressions, boolean equalitiesOnly, Set<QueryHint> hints) {
+            this.texts = texts;
+            this.parameterNames = parameterNames;
+            this.expressions = expressions;
+            this.equalitiesOnly = equalitiesOnly;
+            this.hints = hints;
+        }
+
+        static GroupTemplate of(QueryPlan plan, long presenceMask, Object object) {
+            StringBuilder group = new StringBuilder();
+            List<String> expressions = new ArrayList<>();
+            boolean equalitiesOnly = true;
+
+            for (int i = 0; i < plan.fields().size(); i++) {
+                FieldPlan fieldPlan = plan.fields().get(i);
+                int slot = plan.slot(presenceMask, object, i);
+
+                if (slot == 0) {
+                    continue;
+                }
+
+                String fragment = fieldPlan.recordingFragment(slot);
+
+                // Fragments start with ' and ', which is dropped for the first one
+                group.append(group.length() == 0 ? fragment.substring(SPACED_AND.length()) : fragment);
+                expressions.add(fieldPlan.definition().expression());
+                equalitiesOnly &= fieldPlan.definition().isEquality();
+            }
+
+            if (group.length() == 0) {
+                // An object without any present field matches every row
+                return new GroupTemplate(new String[]{ALWAYS_TRUE}, new String[0], new String[0], false, plan.hints(presenceMask, object));
+            }
+
+            // Marked text alternates between plain text and parameter names
+            String[] parts = group.toString().split(String.valueOf(RecordingDialect.MARKER), -1);
+            String[] texts = new String[parts.length / 2 + 1];
+            String[] parameterNames = new String[parts.length / 2];
+
+            for (int i = 0; i < parts.length; i++) {
+                if (i % 2 == 0) {
+                    texts[i / 2] = parts[i];
+                } else {
+                    parameterNames[i / 2] = parts[i];
+                }
+            }
+
+            return new GroupTemplate(texts, parameterNames, expressions.toArray(new String[0]), equalitiesOnly, plan.hints(presenceMask, object));
+        }
+
+        boolean isCollapsible(QueryDialect dialect) {
+            return equalitiesOnly && (expressions.length == 1 || dialect.supportsRowValues());
+        }
+    }
+}
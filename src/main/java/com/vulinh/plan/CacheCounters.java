@@ -0,0 +1,25 @@
+package com.vulinh.plan;
+
+import com.vulinh.data.CacheStatistics;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counters shared by all shape caches of a plan cache.
+ */
+final class CacheCounters {
+
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    CacheStatistics snapshot() {
+        return new CacheStatistics(hits.sum(), misses.sum());
+    }
+}
@@ -0,0 +1,79 @@
+package com.vulinh.plan;
+
+import com.vulinh.data.BuiltQuery;
+
+/**
+ * Values captured from an object in a single pass over its query plan: the presence bitmask and the parameters. Turning a capture into a
+ * {@link BuiltQuery} only needs the rendered query of its shape.
+ */
+public final class Capture {
+
+    private final QueryPlan plan;
+    private final long      presenceMask;
+    private final String    renderedQuery;
+    private final String[]  parameterNames;
+    private final Object[]  parameterValues;
+    private final int       parameterCount;
+    private final boolean   alwaysEmpty;
+
+    Capture(QueryPlan plan, long presenceMask, String renderedQuery, String[] parameterNames, Object[] parameterValues, int parameterCount,
+            boolean alwaysEmpty) {
+        this.plan = plan;
+        this.presenceMask = presenceMask;
+        this.renderedQuery = renderedQuery;
+        this.parameterNames = parameterNames;
+        this.parameterValues = parameterValues;
+        this.parameterCount = parameterCount;
+        this.alwaysEmpty = alwaysEmpty;
+    }
+
+    /**
+     * The plan this capture was made with.
+     *
+     * @return Query plan.
+     */
+    public QueryPlan plan() {
+        return plan;
+    }
+
+    /**
+     * Presence bitmask of the captured object. Only meaningful if the plan is maskable.
+     *
+     * @return Presence bitmask.
+     */
+    public long presenceMask() {
+        return presenceMask;
+    }
+
+    /**
+     * Query already rendered during capture, which is the case when the plan is not maskable.
+     *
+     * @return Rendered query, or <code>null</code> if the query of the shape still has to be looked up.
+     */
+    public String renderedQuery() {
+        return renderedQuery;
+    }
+
+    /**
+     * Check if the captured values contradict each other, see {@link BuiltQuery#isAlwaysEmpty()}. Only detected if the plan cache detects contradictions.
+     *
+     * @return <code>true</code> if the captured object matches no row; <code>false</code> if otherwise.
+     */
+    public boolean isAlwaysEmpty() {
+        return alwaysEmpty;
+    }
+
+    Object parameterValue(int index) {
+        return parameterValues[index];
+    }
+
+    /**
+     * Combine this capture with the query of its shape.
+     *
+     * @param query Query of the captured shape.
+     * @return Query and its parameters.
+     */
+    public BuiltQuery toBuiltQuery(String query) {
+        return new BuiltQuery(query, parameterNames, parameterValues, parameterCount, alwaysEmpty);
+    }
+}
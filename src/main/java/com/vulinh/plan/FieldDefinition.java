@@ -0,0 +1,827 @@
+package com.vulinh.plan;
+
+import static com.vulinh.data.ComparisonType.*;
+import static com.vulinh.util.StringUtils.CLOSE_PARENTHESIS;
+import static com.vulinh.util.StringUtils.COMMA;
+import static com.vulinh.util.StringUtils.DOT;
+import static com.vulinh.util.StringUtils.OPEN_PARENTHESIS;
+import static com.vulinh.util.StringUtils.SPACE;
+import static com.vulinh.util.StringUtils.SPACED_AND;
+import static com.vulinh.util.StringUtils.SPACED_OR;
+import static com.vulinh.util.StringUtils.UNDERSCORE;
+import static com.vulinh.util.StringUtils.isNotBlank;
+import static java.lang.String.format;
+import static java.util.Objects.nonNull;
+
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.annotation.UseWrapMethod;
+import com.vulinh.annotation.comparison.*;
+import com.vulinh.data.BuilderException;
+import com.vulinh.data.ComparisonType;
+import com.vulinh.data.InListMode;
+import com.vulinh.data.InvalidAnnotationCombinationException;
+import com.vulinh.dialect.QueryDialect;
+import com.vulinh.util.AnnotationSource;
+import com.vulinh.util.AnnotationUtils;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rendered, immutable definition of a single field: its resolved column, column expression and clause fragment. A definition only depends on the field name
+ * and its annotations, so it can be created from a reflected field at runtime as well as from a source element during annotation processing.
+ */
+public final class FieldDefinition {
+
+    /**
+     * Largest exponent of padded IN lists, so that padded lists hold at most 2<sup>29</sup> values.
+     */
+    public static final int MAX_PADDING_EXPONENT = 29;
+
+    /**
+     * Clause fragment of an empty <code>@In</code> list, which holds for no row: <code>in ()</code> is not valid, and dropping the comparison would widen the
+     * filter to every row.
+     */
+    public static final String EMPTY_IN_FRAGMENT = SPACED_AND + OPEN_PARENTHESIS + "1 = 0" + CLOSE_PARENTHESIS;
+
+    /**
+     * Suffix of the inclusive lower bound parameter of a sargable field, for example <code>createdStart</code>.
+     */
+    public static final String START_SUFFIX = "Start";
+
+    /**
+     * Suffix of the exclusive upper bound parameter of a sargable field, for example <code>createdEnd</code>.
+     */
+    public static final String END_SUFFIX = "End";
+
+    private final String                        name;
+    private final String                        column;
+    private final String                        expression;
+    private final String                        fragment;
+    private final List<String>                  parameterNames;
+    private final boolean                       bindsFieldValue;
+    private final boolean                       equality;
+    private final Class<? extends Annotation>[] invalidCombination;
+    private final ListComparison                listComparison;
+    private final SargableRange                 sargableRange;
+    private final RangeBounds                   rangeBounds;
+    private final QueryDialect                  dialect;
+    private final PaddedList[]                  paddedLists;
+
+    private FieldDefinition(String name, String column, String expression, String fragment, List<String> parameterNames, boolean bindsFieldValue,
+                            boolean equality, Class<? extends Annotation>[] invalidCombination, ListComparison listComparison,
+                            SargableRange sargableRange, RangeBounds rangeBounds, QueryDialect dialect) {
+        this.name = name;
+        this.column = column;
+        this.expression = expression;
+        this.fragment = fragment;
+        this.parameterNames = parameterNames;
+        this.bindsFieldValue = bindsFieldValue;
+        this.equality = equality;
+        this.invalidCombination = invalidCombination;
+        this.listComparison = listComparison;
+        this.sargableRange = sargableRange;
+        this.rangeBounds = rangeBounds;
+        this.dialect = dialect;
+        this.paddedLists = isPadded() ? new PaddedList[MAX_PADDING_EXPONENT + 1] : null;
+    }
+
+    /**
+     * Render the definition of a field.
+     *
+     * @param name   Field name, also used as parameter name.
+     * @param source Annotations of said field.
+     * @return Rendered definition of said field.
+     */
+    public static FieldDefinition of(String name, AnnotationSource source) {
+        return of(name, source, QueryDialect.defaultDialect());
+    }
+
+    /**
+     * Render the definition of a field in a dialect.
+     *
+     * @param name    Field name, also used as parameter name.
+     * @param source  Annotations of said field.
+     * @param dialect The dialect to render identifiers and parameters in.
+     * @return Rendered definition of said field.
+     */
+    public static FieldDefinition of(String name, AnnotationSource source, QueryDialect dialect) {
+        String column = actuallyBuildFieldName(source, name, new StringBuilder(), dialect).toString();
+
+        StringBuilder expression = new StringBuilder();
+
+        // Field manipulations
+        realizeFieldManipulation(expression, source, column);
+
+        ListComparison listComparison = ListComparison.of(name, source);
+        SargableRange sargableRange = SargableRange.of(name, source);
+
+        StringBuilder fragment;
+        List<String> parameterNames;
+
+        if (nonNull(sargableRange)) {
+            // Truncation is rewritten into a range on the bare column
+            fragment = renderSargableRange(name, column, sargableRange, dialect);
+            parameterNames = sargableRange.parameterNames(name);
+        } else if (nonNull(listComparison) && listComparison.mode == InListMode.PADDING) {
+            // Padded lists render one fragment per bucket, the single value bucket is the default one
+            fragment = renderPaddedList(name, expression, listComparison, dialect, new String[1]);
+            parameterNames = realizeParameterNames(name, source);
+        } else {
+            fragment = new StringBuilder(SPACED_AND).append(OPEN_PARENTHESIS)
+                                                    .append(expression);
+
+            // Comparisons
+            realizeComparisonType(fragment, name, source, column, dialect);
+
+            fragment.append(CLOSE_PARENTHESIS);
+            parameterNames = realizeParameterNames(name, source);
+        }
+
+        return new FieldDefinition(
+            name,
+            column,
+            expression.toString(),
+            fragment.toString(),
+            parameterNames,
+            // Only binary comparisons and array lists have a single parameter, range bounds are computed from the field value
+            parameterNames.size() == 1 && sargableRange == null,
+            // Without comparison annotation, fields are compared using '='
+            AnnotationUtils.comparisonMask(source) == 0 && !source.isAnnotationPresent(NotLike.class) && sargableRange == null,
+            AnnotationUtils.findInvalidAnnotationCombination(source),
+            listComparison,
+            sargableRange,
+            RangeBounds.of(source),
+            dialect
+        );
+    }
+
+    /**
+     * Throw <code>InvalidAnnotationCombinationException</code> if this field was annotated with an invalid combination of annotations.
+     *
+     * @param field The field to report in exception message.
+     */
+    public void checkInvalidAnnotationCombination(Object field) {
+        if (nonNull(invalidCombination)) {
+            throw new InvalidAnnotationCombinationException(field, invalidCombination[0], invalidCombination[1]);
+        }
+    }
+
+    /**
+     * Field name, also used as parameter name.
+     *
+     * @return Field name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Resolved column name, with table alias (<code>@UseTableAlias</code>) and custom name (<code>@UseCustomName</code>) applied.
+     *
+     * @return Resolved column name.
+     */
+    public String column() {
+        return column;
+    }
+
+    /**
+     * Resolved column expression, which is the column name wrapped by method (<code>@UseWrapMethod</code>) if any.
+     *
+     * @return Resolved column expression.
+     */
+    public String expression() {
+        return expression;
+    }
+
+    /**
+     * Pre-rendered clause fragment for this field, for example <code> and (e.name like :name)</code>.
+     *
+     * @return Pre-rendered clause fragment.
+     */
+    public String fragment() {
+        return fragment;
+    }
+
+    /**
+     * Names of the parameters used by the clause fragment, in order of appearance. Binary comparisons use the field name itself, while range comparisons
+     * (<code>@Between</code>, <code>@InRange</code>, <code>@OutRange</code>) use their 'from' and 'to' parameter names.
+     *
+     * @return Unmodifiable list of parameter names.
+     */
+    public List<String> parameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Check if the only parameter of the clause fragment is bound to the field value itself, which is the case for binary comparisons. Otherwise, parameters
+     * are bound to the bean properties of the same names.
+     *
+     * @return <code>true</code> if the field value is the only parameter; <code>false</code> if otherwise.
+     */
+    public boolean bindsFieldValue() {
+        return bindsFieldValue;
+    }
+
+    /**
+     * Check if this field is compared using '=' against its own value, which is the case when it has no comparison annotation.
+     *
+     * @return <code>true</code> if this field is an equality comparison; <code>false</code> if otherwise.
+     */
+    public boolean isEquality() {
+        return equality;
+    }
+
+    /**
+     * Check if the truncation of this field is rewritten into a half-open range on the bare column (<code>@UseWrapMethod(sargable = true)</code>). The
+     * parameters of such field are bounds computed by {@link #sargableBound(Object, int)}.
+     *
+     * @return <code>true</code> if this field is rewritten into a range; <code>false</code> if otherwise.
+     */
+    public boolean isSargable() {
+        return nonNull(sargableRange);
+    }
+
+    /**
+     * Compute the value of a range bound parameter of a sargable field.
+     *
+     * @param value Field value, not <code>null</code>.
+     * @param index Index of the parameter in {@link #parameterNames()}.
+     * @return Inclusive lower bound or exclusive upper bound of the range truncated to the same value as said field value.
+     */
+    public Object sargableBound(Object value, int index) {
+        return sargableRange.upperBounds[index] ? sargableRange.truncation.end(value) : sargableRange.truncation.start(value);
+    }
+
+    /**
+     * Check if the values of this field contradict each other, so that its comparison holds for no row at all: range bounds that are inverted, or
+     * <code>null</code> as no comparison with <code>null</code> is true, and empty <code>@In</code> lists, see {@link #EMPTY_IN_FRAGMENT}.
+     *
+     * @param value      Field value.
+     * @param parameters Captured parameter values, see {@link #parameterNames()}.
+     * @param offset     Index of the first parameter of this field in said values, ignored if said field value is absent.
+     * @return <code>true</code> if this field matches no row; <code>false</code> if it may match some.
+     */
+    public boolean isContradiction(Object value, Object[] parameters, int offset) {
+        if (nonNull(listComparison)) {
+            return !listComparison.negated && value instanceof Collection && ((Collection<?>) value).isEmpty();
+        }
+
+        if (rangeBounds == null || value == null) {
+            return false;
+        }
+
+        Object from = parameters[offset];
+        Object to = parameters[offset + 1];
+
+        // Either side of an outer range may hold on its own
+        if (rangeBounds.outside) {
+            return from == null && to == null;
+        }
+
+        if (from == null || to == null) {
+            return true;
+        }
+
+        if (!SqlSemantics.isOrderable(from, to)) {
+            return false;
+        }
+
+        int comparison = SqlSemantics.compare(from, to);
+
+        return rangeBounds.inclusive ? comparison > 0 : comparison >= 0;
+    }
+
+    /**
+     * The dialect this definition was rendered in.
+     *
+     * @return The dialect.
+     */
+    public QueryDialect dialect() {
+        return dialect;
+    }
+
+    /**
+     * Check if this field is compared against a collection, using <code>@In</code> or <code>@NotIn</code>.
+     *
+     * @return <code>true</code> if this field is compared against a collection; <code>false</code> if otherwise.
+     */
+    public boolean isListComparison() {
+        return nonNull(listComparison);
+    }
+
+    /**
+     * Check if an empty collection of this field still takes part in the query, as {@link #EMPTY_IN_FRAGMENT}. This is the case for <code>@In</code>, while
+     * an empty <code>@NotIn</code> holds for every row, so it is treated as absent.
+     *
+     * @return <code>true</code> if this field is an <code>@In</code> comparison; <code>false</code> if otherwise.
+     */
+    public boolean matchesNothingWhenEmpty() {
+        return nonNull(listComparison) && !listComparison.negated;
+    }
+
+    /**
+     * Check if this field is compared against a collection padded to power-of-two buckets. Such field has no fixed fragment: see
+     * {@link #paddedFragment(int)}.
+     *
+     * @return <code>true</code> if this field is a padded list comparison; <code>false</code> if otherwise.
+     */
+    public boolean isPadded() {
+        return nonNull(listComparison) && listComparison.mode == InListMode.PADDING;
+    }
+
+    /**
+     * Clause fragment of a padded list comparison for a bucket of <code>2<sup>exponent</sup></code> values, for example
+     * <code> and (e.id in (:ids_0, :ids_1))</code>. Lists longer than the parameter limit are split into chunks.
+     *
+     * @param exponent Bucket exponent, between <code>0</code> and {@link #MAX_PADDING_EXPONENT}.
+     * @return Rendered clause fragment.
+     */
+    public String paddedFragment(int exponent) {
+        return paddedList(exponent).fragment;
+    }
+
+    /**
+     * Name of a parameter of a padded list comparison, for example <code>ids_0</code>.
+     *
+     * @param exponent Bucket exponent, between <code>0</code> and {@link #MAX_PADDING_EXPONENT}.
+     * @param index    Index of the value in the padded list.
+     * @return Parameter name.
+     */
+    public String paddedParameterName(int exponent, int index) {
+        return paddedList(exponent).parameterNames[index];
+    }
+
+    private PaddedList paddedList(int exponent) {
+        PaddedList paddedList = paddedLists[exponent];
+
+        if (paddedList == null) {
+            // Buckets are rendered on first use; rendering twice on a race is harmless as both renders are equal
+            String[] parameterNames = new String[1 << exponent];
+            String paddedFragment = renderPaddedList(name, new StringBuilder(expression), listComparison, dialect, parameterNames).toString();
+
+            paddedList = new PaddedList(paddedFragment, parameterNames);
+            paddedLists[exponent] = paddedList;
+        }
+
+        return paddedList;
+    }
+
+    private static StringBuilder renderPaddedList(String name, CharSequence expression, ListComparison listComparison, QueryDialect dialect,
+                                                  String[] parameterNames) {
+        StringBuilder fragment = new StringBuilder(SPACED_AND).append(OPEN_PARENTHESIS);
+
+        for (int start = 0; start < parameterNames.length; start += listComparison.maxParameters) {
+            // Lists over the parameter limit are split, IN chunks are joined by OR while NOT IN chunks are joined by AND
+            if (start > 0) {
+                fragment.append(listComparison.negated ? SPACED_AND : SPACED_OR);
+            }
+
+            fragment.append(expression)
+                    .append(SPACE)
+                    .append(listComparison.negated ? NOT_IN.sign() : IN.sign())
+                    .append(SPACE)
+                    .append(OPEN_PARENTHESIS);
+
+            int end = Math.min(parameterNames.length, start + listComparison.maxParameters);
+
+            for (int i = start; i < end; i++) {
+                if (i > start) {
+                    fragment.append(COMMA);
+                }
+
+                parameterNames[i] = name + UNDERSCORE + i;
+                dialect.appendParameter(fragment, parameterNames[i]);
+            }
+
+            fragment.append(CLOSE_PARENTHESIS);
+        }
+
+        return fragment.append(CLOSE_PARENTHESIS);
+    }
+
+    private static List<String> realizeParameterNames(String name, AnnotationSource source) {
+        if (source.isAnnotationPresent(IsNull.class) || source.isAnnotationPresent(IsNotNull.class)) {
+            return Collections.emptyList();
+        }
+
+        ListComparison listComparison = ListComparison.of(name, source);
+
+        // Padded lists have one parameter per value, named after their bucket
+        if (nonNull(listComparison) && listComparison.mode == InListMode.PADDING) {
+            return Collections.emptyList();
+        }
+
+        if (source.isAnnotationPresent(Between.class)) {
+            Between betweenAnnotation = source.getAnnotation(Between.class);
+
+            return Collections.unmodifiableList(Arrays.asList(betweenAnnotation.fromInclusive(), betweenAnnotation.toInclusive()));
+        }
+
+        if (source.isAnnotationPresent(InRange.class)) {
+            InRange inRangeAnnotation = source.getAnnotation(InRange.class);
+
+            return Collections.unmodifiableList(Arrays.asList(inRangeAnnotation.fromField(), inRangeAnnotation.toField()));
+        }
+
+        if (source.isAnnotationPresent(OutRange.class)) {
+            OutRange outRangeAnnotation = source.getAnnotation(OutRange.class);
+
+            return Collections.unmodifiableList(Arrays.asList(outRangeAnnotation.fromField(), outRangeAnnotation.toField()));
+        }
+
+        return Collections.singletonList(name);
+    }
+
+    private static void realizeFieldManipulation(StringBuilder query, AnnotationSource source, String column) {
+        UseWrapMethod useWrapMethod = source.getAnnotation(UseWrapMethod.class);
+
+        // Opening method wrap
+        if (nonNull(useWrapMethod)) {
+            query.append(useWrapMethod.value())
+                 .append(OPEN_PARENTHESIS);
+        }
+
+        // Table alias
+        query.append(column);
+
+        // Closing method wrap
+        if (nonNull(useWrapMethod)) {
+            String afterWrapMethod = useWrapMethod.after();
+
+            if (isNotBlank(afterWrapMethod)) {
+                query.append(SPACE)
+                     .append(afterWrapMethod);
+            }
+
+            query.append(CLOSE_PARENTHESIS);
+        }
+    }
+
+    private static void realizeComparisonType(StringBuilder query, String name, AnnotationSource source, String column, QueryDialect dialect) {
+        if (isNullComparison(query, source)) {
+            return;
+        }
+
+        if (isRangeComparison(query, source, column, dialect)) {
+            return;
+        }
+
+        if (isArrayComparison(query, name, source, dialect)) {
+            return;
+        }
+
+        processBinaryComparison(query, name, source, dialect);
+    }
+
+    private static void processBinaryComparison(StringBuilder query, String name, AnnotationSource source, QueryDialect dialect) {
+        if (source.isAnnotationPresent(GreaterThan.class)) {
+            fillBinaryOperator(query, name, GREATER_THAN, dialect);
+
+            return;
+        }
+
+        if (source.isAnnotationPresent(GreaterThanOrEqualTo.class)) {
+            fillBinaryOperator(query, name, GREATER_THAN_OR_EQUAL_TO, dialect);
+
+            return;
+        }
+
+        if (source.isAnnotationPresent(LessThan.class)) {
+            fillBinaryOperator(query, name, LESS_THAN, dialect);
+
+            return;
+        }
+
+        if (source.isAnnotationPresent(LessThanOrEqualTo.class)) {
+            fillBinaryOperator(query, name, LESS_THAN_OR_EQUAL_TO, dialect);
+
+            return;
+        }
+
+        if (source.isAnnotationPresent(NotEqual.class)) {
+            fillBinaryOperator(query, name, NOT_EQUAL, dialect);
+
+            return;
+        }
+
+        if (source.isAnnotationPresent(Like.class)) {
+            fillBinaryOperator(query, name, LIKE, dialect);
+
+            return;
+        }
+
+        if (source.isAnnotationPresent(NotLike.class)) {
+            fillBinaryOperator(query, name, NOT_LIKE, dialect);
+
+            return;
+        }
+
+        fillBinaryOperator(query, name, EQUAL_TO, dialect);
+    }
+
+    private static boolean isNullComparison(StringBuilder query, AnnotationSource source) {
+        if (source.isAnnotationPresent(IsNull.class)) {
+            query.append(SPACE)
+                 .append(IS_NULL.sign());
+
+            return true;
+        }
+
+        if (source.isAnnotationPresent(IsNotNull.class)) {
+            query.append(SPACE)
+                 .append(IS_NOT_NULL.sign());
+
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isRangeComparison(StringBuilder query, AnnotationSource source, String column, QueryDialect dialect) {
+        if (source.isAnnotationPresent(Between.class)) {
+            Between betweenAnnotation = source.getAnnotation(Between.class);
+            query.append(SPACE)
+                 .append(BETWEEN.sign())
+                 .append(SPACE);
+            dialect.appendParameter(query, betweenAnnotation.fromInclusive());
+            query.append(SPACED_AND);
+            dialect.appendParameter(query, betweenAnnotation.toInclusive());
+
+            return true;
+        }
+
+        if (source.isAnnotationPresent(InRange.class)) {
+            InRange inRangeAnnotation = source.getAnnotation(InRange.class);
+
+            query.append(SPACE)
+                 .append(inRangeAnnotation.inclusivity() ? GREATER_THAN_OR_EQUAL_TO.sign() : GREATER_THAN.sign())
+                 .append(SPACE);
+            dialect.appendParameter(query, inRangeAnnotation.fromField());
+            query.append(SPACED_AND)
+                 .append(column)
+                 .append(SPACE)
+                 .append(inRangeAnnotation.inclusivity() ? LESS_THAN_OR_EQUAL_TO.sign() : LESS_THAN.sign())
+                 .append(SPACE);
+            dialect.appendParameter(query, inRangeAnnotation.toField());
+
+            return true;
+        }
+
+        if (source.isAnnotationPresent(OutRange.class)) {
+            OutRange inRangeAnnotation = source.getAnnotation(OutRange.class);
+
+            query.append(SPACE)
+                 .append(inRangeAnnotation.inclusivity() ? LESS_THAN_OR_EQUAL_TO.sign() : LESS_THAN.sign())
+                 .append(SPACE);
+            dialect.appendParameter(query, inRangeAnnotation.fromField());
+            query.append(SPACED_OR)
+                 .append(column)
+                 .append(SPACE)
+                 .append(inRangeAnnotation.inclusivity() ? GREATER_THAN_OR_EQUAL_TO.sign() : GREATER_THAN.sign())
+                 .append(SPACE);
+            dialect.appendParameter(query, inRangeAnnotation.toField());
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private static boolean isArrayComparison(StringBuilder query, String name, AnnotationSource source, QueryDialect dialect) {
+        ListComparison listComparison = ListComparison.of(name, source);
+
+        if (listComparison == null || listComparison.mode != InListMode.ARRAY) {
+            return false;
+        }
+
+        query.append(SPACE)
+             .append(listComparison.negated ? NOT_EQUAL.sign() : EQUAL_TO.sign())
+             .append(SPACE)
+             .append(listComparison.negated ? ALL.sign() : ANY.sign())
+             .append(OPEN_PARENTHESIS);
+
+        dialect.appendParameter(query, name);
+
+        query.append(CLOSE_PARENTHESIS);
+
+        return true;
+    }
+
+    private static StringBuilder actuallyBuildFieldName(AnnotationSource source, String fieldName, StringBuilder fieldNameBuilder, QueryDialect dialect) {
+        if (source.isAnnotationPresent(UseTableAlias.class)) {
+            dialect.appendIdentifier(fieldNameBuilder, source.getAnnotation(UseTableAlias.class).value());
+            fieldNameBuilder.append(DOT);
+        }
+
+        if (source.isAnnotationPresent(UseCustomName.class)) {
+            dialect.appendIdentifier(fieldNameBuilder, source.getAnnotation(UseCustomName.class).value());
+        } else {
+            dialect.appendIdentifier(fieldNameBuilder, fieldName);
+        }
+
+        return fieldNameBuilder;
+    }
+
+    private static StringBuilder renderSargableRange(String name, String column, SargableRange sargableRange, QueryDialect dialect) {
+        StringBuilder fragment = new StringBuilder(SPACED_AND).append(OPEN_PARENTHESIS);
+        String start = name + START_SUFFIX;
+        String end = name + END_SUFFIX;
+
+        switch (sargableRange.comparisonType) {
+            case EQUAL_TO:
+                fillBinaryOperator(fragment.append(column), start, GREATER_THAN_OR_EQUAL_TO, dialect);
+                fillBinaryOperator(fragment.append(SPACED_AND).append(column), end, LESS_THAN, dialect);
+                break;
+            case NOT_EQUAL:
+                fillBinaryOperator(fragment.append(column), start, LESS_THAN, dialect);
+                fillBinaryOperator(fragment.append(SPACED_OR).append(column), end, GREATER_THAN_OR_EQUAL_TO, dialect);
+                break;
+            case LESS_THAN:
+                fillBinaryOperator(fragment.append(column), start, LESS_THAN, dialect);
+                break;
+            case LESS_THAN_OR_EQUAL_TO:
+                fillBinaryOperator(fragment.append(column), end, LESS_THAN, dialect);
+                break;
+            case GREATER_THAN:
+                fillBinaryOperator(fragment.append(column), end, GREATER_THAN_OR_EQUAL_TO, dialect);
+                break;
+            default:
+                fillBinaryOperator(fragment.append(column), start, GREATER_THAN_OR_EQUAL_TO, dialect);
+        }
+
+        return fragment.append(CLOSE_PARENTHESIS);
+    }
+
+    private static void fillBinaryOperator(StringBuilder query, String name, ComparisonType comparisonType, QueryDialect dialect) {
+        query.append(SPACE)
+             .append(comparisonType.sign())
+             .append(SPACE);
+
+        dialect.appendParameter(query, name);
+    }
+
+    /**
+     * Settings of an <code>@In</code> or <code>@NotIn</code> comparison.
+     */
+    private static final class ListComparison {
+
+        final boolean    negated;
+        final InListMode mode;
+        final int        maxParameters;
+
+        private ListComparison(boolean negated, InListMode mode, int maxParameters) {
+            this.negated = negated;
+            this.mode = mode;
+            this.maxParameters = maxParameters;
+        }
+
+        static ListComparison of(String name, AnnotationSource source) {
+            In in = source.getAnnotation(In.class);
+            NotIn notIn = source.getAnnotation(NotIn.class);
+
+            if (in == null && notIn == null) {
+                return null;
+            }
+
+            ListComparison listComparison = nonNull(in)
+                                            ? new ListComparison(false, in.mode(), in.maxParameters())
+                                            : new ListComparison(true, notIn.mode(), notIn.maxParameters());
+
+            if (listComparison.maxParameters < 1) {
+                throw new BuilderException(format("Field %s must allow at least one parameter per list", name));
+            }
+
+            return listComparison;
+        }
+    }
+
+    /**
+     * Settings of a truncation rewritten into a half-open range, see <code>@UseWrapMethod(sargable = true)</code>.
+     */
+    private static final class SargableRange {
+
+        final Truncation     truncation;
+        final ComparisonType comparisonType;
+        final boolean[]      upperBounds;
+
+        private SargableRange(Truncation truncation, ComparisonType comparisonType) {
+            this.truncation = truncation;
+            this.comparisonType = comparisonType;
+
+            switch (comparisonType) {
+                case EQUAL_TO:
+                case NOT_EQUAL:
+                    this.upperBounds = new boolean[]{false, true};
+                    break;
+                case LESS_THAN_OR_EQUAL_TO:
+                case GREATER_THAN:
+                    this.upperBounds = new boolean[]{true};
+                    break;
+                default:
+                    this.upperBounds = new boolean[]{false};
+            }
+        }
+
+        static SargableRange of(String name, AnnotationSource source) {
+            UseWrapMethod useWrapMethod = source.getAnnotation(UseWrapMethod.class);
+
+            if (useWrapMethod == null || !useWrapMethod.sargable()) {
+                return null;
+            }
+
+            Truncation truncation = isNotBlank(useWrapMethod.after()) ? null : Truncation.of(useWrapMethod.value());
+
+            if (truncation == null) {
+                throw new BuilderException(format("Field %s cannot be rewritten into a range, %s is not a known truncation method", name, useWrapMethod.value()));
+            }
+
+            return new SargableRange(truncation, sargableComparisonType(name, source));
+        }
+
+        List<String> parameterNames(String name) {
+            List<String> parameterNames = new ArrayList<>(upperBounds.length);
+
+            for (boolean upperBound : upperBounds) {
+                parameterNames.add(name + (upperBound ? END_SUFFIX : START_SUFFIX));
+            }
+
+            return Collections.unmodifiableList(parameterNames);
+        }
+
+        private static ComparisonType sargableComparisonType(String name, AnnotationSource source) {
+            if (source.isAnnotationPresent(NotEqual.class)) {
+                return NOT_EQUAL;
+            }
+
+            if (source.isAnnotationPresent(LessThan.class)) {
+                return LESS_THAN;
+            }
+
+            if (source.isAnnotationPresent(LessThanOrEqualTo.class)) {
+                return LESS_THAN_OR_EQUAL_TO;
+            }
+
+            if (source.isAnnotationPresent(GreaterThan.class)) {
+                return GREATER_THAN;
+            }
+
+            if (source.isAnnotationPresent(GreaterThanOrEqualTo.class)) {
+                return GREATER_THAN_OR_EQUAL_TO;
+            }
+
+            if (AnnotationUtils.comparisonMask(source) == 0 && !source.isAnnotationPresent(NotLike.class)) {
+                return EQUAL_TO;
+            }
+
+            throw new BuilderException(format("Field %s cannot be rewritten into a range, only binary comparisons can be", name));
+        }
+    }
+
+    /**
+     * Settings of a <code>@Between</code>, <code>@InRange</code> or <code>@OutRange</code> comparison.
+     */
+    private static final class RangeBounds {
+
+        final boolean outside;
+        final boolean inclusive;
+
+        private RangeBounds(boolean outside, boolean inclusive) {
+            this.outside = outside;
+            this.inclusive = inclusive;
+        }
+
+        static RangeBounds of(AnnotationSource source) {
+            if (source.isAnnotationPresent(Between.class)) {
+                return new RangeBounds(false, true);
+            }
+
+            if (source.isAnnotationPresent(InRange.class)) {
+                return new RangeBounds(false, source.getAnnotation(InRange.class).inclusivity());
+            }
+
+            if (source.isAnnotationPresent(OutRange.class)) {
+                return new RangeBounds(true, source.getAnnotation(OutRange.class).inclusivity());
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Rendered bucket of a padded list comparison.
+     */
+    private static final class PaddedList {
+
+        final String   fragment;
+        final String[] parameterNames;
+
+        PaddedList(String fragment, String[] parameterNames) {
+            this.fragment = fragment;
+            this.parameterNames = parameterNames;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.vulinh.plan;
+
+import static com.vulinh.plan.FieldDefinition.EMPTY_IN_FRAGMENT;
+import static com.vulinh.plan.FieldDefinition.MAX_PADDING_EXPONENT;
+import static com.vulinh.util.RetrospectionUtils.createAccessor;
+import static com.vulinh.util.RetrospectionUtils.getValue;
+import static com.vulinh.util.StringUtils.EMPTY;
+import static java.lang.String.format;
+import static java.util.Objects.nonNull;
+
+import com.vulinh.accessor.AccessorFactory;
+import com.vulinh.accessor.PropertyAccessor;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.data.BuilderException;
+import com.vulinh.data.QueryHint;
+import com.vulinh.dialect.QueryDialect;
+import com.vulinh.util.AnnotationUtils;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compiled, immutable form of a single field that takes part in query building. Every annotation lookup and getter resolution is done once when the plan is
+ * created, so that the only things left to do at build time are reading the value and appending the pre-rendered fragment.
+ */
+public final class FieldPlan {
+
+    /**
+     * Number of bits taken by a padded list comparison in a shape key, enough to hold every bucket exponent.
+     */
+    public static final int PADDED_SLOT_WIDTH = 5;
+
+    private final Field              field;
+    private final PropertyAccessor   accessor;
+    private final FieldDefinition    definition;
+    private final PropertyAccessor[] parameterAccessors;
+    private final List<QueryHint>    hints;
+    private final Presence           presence;
+    private final int                emptySlot;
+    private final Class<?>           elementType;
+
+    private volatile FieldDefinition recordingDefinition;
+
+    private FieldPlan(Field field, PropertyAccessor accessor, FieldDefinition definition, PropertyAccessor[] parameterAccessors, List<QueryHint> hints,
+                      Presence presence) {
+        this.field = field;
+        this.accessor = accessor;
+        this.definition = definition;
+        this.parameterAccessors = parameterAccessors;
+        this.hints = hints;
+        this.presence = presence;
+
+        // Empty @In lists take the last slot value, which no bucket exponent reaches
+        this.emptySlot = definition.matchesNothingWhenEmpty() ? (1 << slotWidth()) - 1 : -1;
+        this.elementType = definition.isListComparison() ? declaredElementType(field) : null;
+    }
+
+    /**
+     * Compile a field into its plan. Will throw <code>InvalidAnnotationCombinationException</code> if said field is annotated with an invalid combination of
+     * annotations.
+     *
+     * @param type            The class being compiled.
+     * @param field           The field to compile.
+     * @param accessorFactory The factory creating accessor for said field.
+     * @param dialect         The dialect to render said field in.
+     * @return Compiled plan of said field.
+     */
+    static FieldPlan compile(Class<?> type, Field field, AccessorFactory accessorFactory, QueryDialect dialect) {
+        PropertyAccessor accessor = createAccessor(type, field, accessorFactory);
+        FieldDefinition definition = FieldDefinition.of(field.getName(), field::getAnnotation, dialect);
+
+        // Check single comparison annotation, once per class instead of on every build
+        definition.checkInvalidAnnotationCombination(field);
+
+        if (definition.isListComparison() && !Collection.class.isAssignableFrom(field.getType())) {
+            throw new BuilderException(format("Field %s is compared using IN operator, it must be a Collection", field));
+        }
+
+        PropertyAccessor[] parameterAccessors = new PropertyAccessor[definition.parameterNames().size()];
+
+        // Parameters of range comparisons are read from bean properties of the same names, if there are such properties
+        if (!definition.bindsFieldValue() && !definition.isSargable()) {
+            for (int i = 0; i < parameterAccessors.length; i++) {
+                try {
+                    parameterAccessors[i] = createAccessor(type, definition.parameterNames().get(i), accessorFactory);
+                } catch (BuilderException ex) {
+                    parameterAccessors[i] = null;
+                }
+            }
+        }
+
+        // Index hints of a field belong to the table of said field, unless they name their own
+        UseTableAlias useTableAlias = field.getAnnotation(UseTableAlias.class);
+        List<QueryHint> hints = AnnotationUtils.findQueryHints(field, nonNull(useTableAlias) ? useTableAlias.value() : EMPTY);
+
+        // Primitive, flagged and optional fields decide their presence on their own
+        Presence presence = Presence.of(type, field, accessor, accessorFactory);
+
+        return new FieldPlan(field, accessor, definition, parameterAccessors, hints, presence);
+    }
+
+    /**
+     * Read value of this field from an object, as bound to its parameter: <code>null</code> if absent according to <code>@AbsentWhen</code>, and the value
+     * held by <code>Optional</code> fields.
+     *
+     * @param object The object that contains this field.
+     * @return Field value, can be <code>null</code>.
+     */
+    public Object value(Object object) {
+        return presence == null ? getValue(accessor, field, object) : presence.value(object);
+    }
+
+    /**
+     * Read what decides the slot of this field, without boxing primitive values: <code>null</code> if absent, otherwise the field value, or a shared token
+     * standing for present primitive values. Both {@link #captureParameters(Object, Object, int, String[], Object[], int)} and
+     * {@link #valueHash(Object, Object)} accept said token.
+     *
+     * @param object The object that contains this field.
+     * @return Field value, token or <code>null</code>.
+     */
+    Object read(Object object) {
+        return presence == null ? getValue(accessor, field, object) : presence.read(object);
+    }
+
+    /**
+     * Check if this field of an object contains value.
+     *
+     * @param object The object that contains this field.
+     * @return <code>true</code> if said field has non-null value (non-empty for <code>@NotIn</code>, not absent according to <code>@AbsentWhen</code>);
+     * <code>false</code> if otherwise.
+     */
+    public boolean isValuePresent(Object object) {
+        return slot(read(object)) != 0;
+    }
+
+    /**
+     * Number of bits this field takes in a shape key: one presence bit, two bits for <code>@In</code> comparisons, which are also rendered when empty, or
+     * {@link #PADDED_SLOT_WIDTH} bits for padded list comparisons, whose queries also depend on the bucket of the list.
+     *
+     * @return Width of the slot of this field.
+     */
+    public int slotWidth() {
+        if (definition.isPadded()) {
+            return PADDED_SLOT_WIDTH;
+        }
+
+        return definition.matchesNothingWhenEmpty() ? 2 : 1;
+    }
+
+    /**
+     * Shape slot of a value of this field: <code>0</code> if absent, <code>1</code> if present, or bucket exponent plus one for padded list comparisons.
+     * Empty <code>@In</code> lists take the highest slot of the field, rendered as {@link FieldDefinition#EMPTY_IN_FRAGMENT}, while empty
+     * <code>@NotIn</code> lists are absent.
+     *
+     * @param value Value of this field.
+     * @return Slot of said value.
+     */
+    public int slot(Object value) {
+        if (value == null) {
+            return 0;
+        }
+
+        if (!definition.isListComparison()) {
+            return 1;
+        }
+
+        int size = ((Collection<?>) value).size();
+
+        // An empty @In matches no row, while an empty @NotIn matches every row, which is the same as leaving it out
+        if (size == 0) {
+            return Math.max(emptySlot, 0);
+        }
+
+        return definition.isPadded() ? paddingExponent(size) + 1 : 1;
+    }
+
+    /**
+     * Clause fragment of this field for a slot.
+     *
+     * @param slot Slot as returned by {@link #slot(Object)}, not <code>0</code>.
+     * @return Pre-rendered clause fragment.
+     */
+    public String fragment(int slot) {
+        if (slot == emptySlot) {
+            return EMPTY_IN_FRAGMENT;
+        }
+
+        return definition.isPadded() ? definition.paddedFragment(slot - 1) : definition.fragment();
+    }
+
+    /**
+     * Number of parameters of this field for a slot.
+     *
+     * @param slot Slot as returned by {@link #slot(Object)}, not <code>0</code>.
+     * @return Number of parameters.
+     */
+    public int parameterCount(int slot) {
+        if (slot == emptySlot) {
+            return 0;
+        }
+
+        return definition.isPadded() ? 1 << (slot - 1) : definition.parameterNames().size();
+    }
+
+    private int paddingExponent(int size) {
+        int exponent = Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+
+        if (exponent > MAX_PADDING_EXPONENT) {
+            throw new BuilderException(format("Field %s holds %d values, which is too many to pad", field, size));
+        }
+
+        return exponent;
+    }
+
+    /**
+     * Capture parameters of this field into the given arrays, which must have room for {@link #parameterCount(int)} more parameters.
+     *
+     * @param object The object that contains this field.
+     * @param value  Value of this field, already read from said object, or the token returned by {@link #read(Object)}.
+     * @param slot   Slot of said value, as returned by {@link #slot(Object)}.
+     * @param names  Array receiving parameter names.
+     * @param values Array receiving parameter values.
+     * @param offset Index of the first array slot to fill.
+     * @return Index of the next free array slot.
+     */
+    public int captureParameters(Object object, Object value, int slot, String[] names, Object[] values, int offset) {
+        List<String> parameterNames = definition.parameterNames();
+
+        if (slot == emptySlot) {
+            return offset;
+        }
+
+        // Primitive values are only boxed once actually bound
+        if (value == Presence.PRESENT) {
+            value = presence.value(object);
+        }
+
+        if (definition.isPadded()) {
+            return capturePaddedList((Collection<?>) value, slot - 1, names, values, offset);
+        }
+
+        if (definition.isListComparison()) {
+            names[offset] = parameterNames.get(0);
+            values[offset] = toArray((Collection<?>) value);
+
+            return offset + 1;
+        }
+
+        if (definition.isSargable()) {
+            // Range bounds are computed from the field value
+            for (int i = 0; i < parameterNames.size(); i++) {
+                names[offset + i] = parameterNames.get(i);
+                values[offset + i] = definition.sargableBound(value, i);
+            }
+
+            return offset + parameterNames.size();
+        }
+
+        if (definition.bindsFieldValue()) {
+            names[offset] = parameterNames.get(0);
+            values[offset] = value;
+
+            return offset + 1;
+        }
+
+        for (int i = 0; i < parameterAccessors.length; i++) {
+            names[offset + i] = parameterNames.get(i);
+            values[offset + i] = parameterValue(object, i);
+        }
+
+        return offset + parameterAccessors.length;
+    }
+
+    private Object parameterValue(Object object, int index) {
+        if (parameterAccessors[index] == null) {
+            throw new BuilderException(
+                format(
+                    "Cannot capture parameter %s of field %s, class %s has no such property", definition.parameterNames().get(index), field, object.getClass()
+                )
+            );
+        }
+
+        return getValue(parameterAccessors[index], field, object);
+    }
+
+    /**
+     * Hash of what this field binds, without capturing it: the field value, or the values of the 'from' and 'to' properties for range comparisons. Equal
+     * bindings always hash the same, see {@link QueryPlan#cacheKey(String, Object, com.vulinh.data.QueryKind)}.
+     *
+     * @param object The object that contains this field.
+     * @param value  Value of this field, already read from said object, or the token returned by {@link #read(Object)}, not absent.
+     * @return Hash of the bindings of this field.
+     */
+    long valueHash(Object object, Object value) {
+        // Sargable bounds and padding are computed from the field value, so they need no hashing of their own
+        if (definition.bindsFieldValue() || definition.isListComparison() || definition.isSargable()) {
+            return value == Presence.PRESENT ? presence.valueHash(object) : Fingerprints.valueHash(value);
+        }
+
+        long hash = 1L;
+
+        for (int i = 0; i < parameterAccessors.length; i++) {
+            hash = Fingerprints.mix(hash * 31 + Fingerprints.valueHash(parameterValue(object, i)));
+        }
+
+        return hash;
+    }
+
+    private int capturePaddedList(Collection<?> list, int exponent, String[] names, Object[] values, int offset) {
+        int index = 0;
+        Object last = null;
+
+        for (Object element : list) {
+            names[offset + index] = definition.paddedParameterName(exponent, index);
+            values[offset + index] = element;
+            last = element;
+            index++;
+        }
+
+        // Padding repeats the last value, which does not change the result of IN nor NOT IN
+        for (int bucketSize = 1 << exponent; index < bucketSize; index++) {
+            names[offset + index] = definition.paddedParameterName(exponent, index);
+            values[offset + index] = last;
+        }
+
+        return offset + index;
+    }
+
+    private Object toArray(Collection<?> list) {
+        // Typed arrays, such as Long[], let JDBC drivers infer the array type
+        Object[] array = (Object[]) Array.newInstance(nonNull(elementType) ? elementType : commonElementType(list), list.size());
+
+        return list.toArray(array);
+    }
+
+    private static Class<?> declaredElementType(Field field) {
+        Type type = field.getGenericType();
+
+        if (!(type instanceof ParameterizedType) || ((ParameterizedType) type).getActualTypeArguments().length != 1) {
+            return null;
+        }
+
+        Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+
+        // Collection<? extends Number> holds numbers of any class
+        if (elementType instanceof WildcardType) {
+            elementType = ((WildcardType) elementType).getUpperBounds()[0];
+        }
+
+        if (elementType instanceof ParameterizedType) {
+            elementType = ((ParameterizedType) elementType).getRawType();
+        }
+
+        // Type variables and generic arrays are resolved from the values instead
+        return elementType instanceof Class ? (Class<?>) elementType : null;
+    }
+
+    private static Class<?> commonElementType(Collection<?> list) {
+        Class<?> commonType = null;
+
+        for (Object element : list) {
+            if (element == null) {
+                continue;
+            }
+
+            // Enum constants with a body are subclasses of their enum
+            Class<?> type = element instanceof Enum ? ((Enum<?>) element).getDeclaringClass() : element.getClass();
+
+            if (commonType == null) {
+                commonType = type;
+            }
+
+            while (!commonType.isAssignableFrom(type)) {
+                commonType = commonType.getSuperclass();
+            }
+        }
+
+        return nonNull(commonType) ? commonType : Object.class;
+    }
+
+    /**
+     * Clause fragment of this field for a slot, with parameters rendered as {@link RecordingDialect} markers.
+     *
+     * @param slot Slot as returned by {@link #slot(Object)}, not <code>0</code>.
+     * @return Clause fragment with parameter markers.
+     */
+    String recordingFragment(int slot) {
+        if (slot == emptySlot) {
+            return EMPTY_IN_FRAGMENT;
+        }
+
+        FieldDefinition recording = recordingDefinition;
+
+        // Rendered on first use only, as few fields ever take part in any-of queries; rendering twice on a race is harmless
+        if (recording == null) {
+            recording = FieldDefinition.of(field.getName(), field::getAnnotation, new RecordingDialect(definition.dialect()));
+            recordingDefinition = recording;
+        }
+
+        return recording.isPadded() ? recording.paddedFragment(slot - 1) : recording.fragment();
+    }
+
+    /**
+     * The underlying field.
+     *
+     * @return The underlying field.
+     */
+    public Field field() {
+        return field;
+    }
+
+    /**
+     * Rendered definition of the underlying field.
+     *
+     * @return Rendered definition of the underlying field.
+     */
+    public FieldDefinition definition() {
+        return definition;
+    }
+
+    /**
+     * Optimizer hints of the underlying field, rendered only when it is present.
+     *
+     * @return Unmodifiable list of hints, empty if there is none.
+     */
+    public List<QueryHint> hints() {
+        return hints;
+    }
+
+    /**
+     * Name of the underlying field, also used as parameter name.
+     *
+     * @return Name of the underlying field.
+     */
+    public String name() {
+        return definition.name();
+    }
+
+    /**
+     * Pre-rendered clause fragment for this field, for example <code> and (e.name like :name)</code>. Padded list comparisons have one fragment per bucket,
+     * see {@link #fragment(int)}.
+     *
+     * @return Pre-rendered clause fragment.
+     */
+    public String fragment() {
+        return definition.fragment();
+    }
+}
@@ -0,0 +1,434 @@
+package com.vulinh.plan;
+
+import static com.vulinh.plan.SqlSemantics.compareNormalized;
+import static com.vulinh.plan.SqlSemantics.equalNormalized;
+import static com.vulinh.plan.SqlSemantics.normalize;
+import static com.vulinh.util.StringUtils.isNotBlank;
+import static java.lang.String.format;
+import static java.util.Objects.nonNull;
+
+import com.vulinh.accessor.PropertyAccessor;
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.UseWrapMethod;
+import com.vulinh.annotation.comparison.*;
+import com.vulinh.data.BuilderException;
+import com.vulinh.util.RetrospectionUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory equivalent of the queries built from a filter class, to filter entities that are already loaded, for example from a local cache. Each field
+ * reads the entity property of the same name (or <code>@UseCustomName</code>, dotted paths included) and compares it the way the database would: absent
+ * filter fields are skipped, and comparisons against <code>null</code> never match, except <code>@IsNull</code>. Table aliases are ignored, so every
+ * property is read from the entity itself. Intermediate segments of dotted paths are associations, which queries join implicitly as inner joins: an entity
+ * whose association is <code>null</code> matches no condition on it, not even <code>@IsNull</code>.
+ * <p>
+ * Wrap methods are only supported if they have an in-memory equivalent: <code>lower</code>, <code>upper</code>, <code>trim</code>, <code>date</code>,
+ * <code>trunc</code> and <code>year</code>, without additional info. They apply where rendered queries apply them, which for <code>@InRange</code> and
+ * <code>@OutRange</code> is the lower bound only. <code>LIKE</code> is case-sensitive, and backslash escapes the next character of a pattern.
+ * <p>
+ * Instances are immutable and thread-safe.
+ *
+ * @param <F> Filter type.
+ * @param <E> Entity type.
+ */
+public final class FilterPredicate<F, E> implements BiPredicate<F, E> {
+
+    /**
+     * Value read through a <code>null</code> association, which rows joined in the database never hold.
+     */
+    private static final Object UNREACHABLE = new Object();
+
+    private final QueryPlan   plan;
+    private final Class<E>    entityType;
+    private final Condition[] conditions;
+
+    private FilterPredicate(QueryPlan plan, Class<E> entityType, Condition[] conditions) {
+        this.plan = plan;
+        this.entityType = entityType;
+        this.conditions = conditions;
+    }
+
+    /**
+     * Compile the in-memory predicate of a filter class against an entity class.
+     *
+     * @param cache      The plan cache to get the plan of said filter class from.
+     * @param filterType The filter class.
+     * @param entityType The entity class.
+     * @param <F>        Filter type.
+     * @param <E>        Entity type.
+     * @return Compiled predicate.
+     * @throws BuilderException If a field has no matching entity property, or uses a wrap method without in-memory equivalent.
+     */
+    public static <F, E> FilterPredicate<F, E> compile(QueryPlanCache cache, Class<F> filterType, Class<E> entityType) {
+        QueryPlan plan = cache.get(filterType);
+        Condition[] conditions = new Condition[plan.fields().size()];
+
+        for (int i = 0; i < conditions.length; i++) {
+            conditions[i] = Condition.compile(plan.fields().get(i), entityType, cache);
+        }
+
+        return new FilterPredicate<>(plan, entityType, conditions);
+    }
+
+    /**
+     * Bind a filter, reading its field values once, into a predicate on entities.
+     *
+     * @param filter The filter object.
+     * @return Predicate matching the same entities as the query built from said filter.
+     */
+    public Predicate<E> bind(F filter) {
+        List<BoundCondition> boundConditions = new ArrayList<>();
+
+        for (int i = 0; i < conditions.length; i++) {
+            FieldPlan fieldPlan = plan.fields().get(i);
+            Object value = fieldPlan.value(filter);
+            int slot = fieldPlan.slot(value);
+
+            // Absent fields take no part in the query, nor in the predicate
+            if (slot == 0) {
+                continue;
+            }
+
+            // Parameters are captured exactly as for the query, so that range bounds and padded lists bind the same values
+            Object[] parameters = new Object[fieldPlan.parameterCount(slot)];
+
+            fieldPlan.captureParameters(filter, value, slot, new String[parameters.length], parameters, 0);
+
+            boundConditions.add(new BoundCondition(conditions[i], conditions[i].matcher.bind(parameters)));
+        }
+
+        BoundCondition[] bound = boundConditions.toArray(new BoundCondition[0]);
+
+        return entity -> {
+            for (BoundCondition boundCondition : bound) {
+                if (!boundCondition.test(entity)) {
+                    return false;
+                }
+            }
+
+            return true;
+        };
+    }
+
+    /**
+     * Check if an entity matches a filter. Prefer {@link #bind(Object)} to test many entities against the same filter.
+     *
+     * @param filter The filter object.
+     * @param entity The entity to test.
+     * @return <code>true</code> if the query built from said filter would return said entity; <code>false</code> if otherwise.
+     */
+    @Override
+    public boolean test(F filter, E entity) {
+        return bind(filter).test(entity);
+    }
+
+    /**
+     * The entity class this predicate was compiled against.
+     *
+     * @return The entity class.
+     */
+    public Class<E> entityType() {
+        return entityType;
+    }
+
+    private static Object read(PropertyAccessor[] path, Object entity) {
+        Object value = entity;
+
+        for (int i = 0; i < path.length; i++) {
+            // A null association drops the row in the database, where it is an inner join
+            if (value == null) {
+                return UNREACHABLE;
+            }
+
+            value = path[i].get(value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Condition of a single field, bound to the parameters of a filter.
+     */
+    private static final class BoundCondition {
+
+        final Condition                   condition;
+        final BiPredicate<Object, Object> test;
+
+        BoundCondition(Condition condition, BiPredicate<Object, Object> test) {
+            this.condition = condition;
+            this.test = test;
+        }
+
+        boolean test(Object entity) {
+            Object column = read(condition.path, entity);
+
+            if (column == UNREACHABLE) {
+                return false;
+            }
+
+            Object expression = nonNull(column) && nonNull(condition.wrap) ? condition.wrap.apply(column) : column;
+
+            return test.test(expression, column);
+        }
+    }
+
+    /**
+     * Predicate on the expression of an entity, which is its column wrapped by <code>@UseWrapMethod</code> if any, and on its bare column, given the
+     * parameters captured from a filter. Parameters are normalized once when bound, so that testing an entity only normalizes its own value.
+     */
+    @FunctionalInterface
+    private interface Matcher {
+
+        BiPredicate<Object, Object> bind(Object[] parameters);
+    }
+
+    /**
+     * Comparison of a normalized expression against normalized parameters.
+     */
+    @FunctionalInterface
+    private interface Comparison {
+
+        boolean test(Object value, Object[] bounds);
+    }
+
+    /**
+     * Compiled comparison of a single filter field.
+     */
+    private static final class Condition {
+
+        final PropertyAccessor[]    path;
+        final UnaryOperator<Object> wrap;
+        final Matcher               matcher;
+
+        private Condition(PropertyAccessor[] path, UnaryOperator<Object> wrap, Matcher matcher) {
+            this.path = path;
+            this.wrap = wrap;
+            this.matcher = matcher;
+        }
+
+        static Condition compile(FieldPlan fieldPlan, Class<?> entityType, QueryPlanCache cache) {
+            Field field = fieldPlan.field();
+            FieldDefinition definition = fieldPlan.definition();
+            UseCustomName useCustomName = field.getAnnotation(UseCustomName.class);
+            String propertyPath = nonNull(useCustomName) ? useCustomName.value() : field.getName();
+
+            String[] propertyNames = propertyPath.split("\\.");
+            PropertyAccessor[] path = new PropertyAccessor[propertyNames.length];
+            Class<?> type = entityType;
+
+            for (int i = 0; i < propertyNames.length; i++) {
+                path[i] = RetrospectionUtils.createAccessor(type, propertyNames[i], cache.accessorFactory());
+                type = RetrospectionUtils.getPropertyType(type, propertyNames[i]);
+            }
+
+            // Sargable fields compare the bare column against computed bounds
+            if (definition.isSargable()) {
+                return new Condition(path, null, sargableMatcher(field));
+            }
+
+            return new Condition(path, wrap(field), matcher(field, definition));
+        }
+
+        private static UnaryOperator<Object> wrap(Field field) {
+            UseWrapMethod useWrapMethod = field.getAnnotation(UseWrapMethod.class);
+
+            if (useWrapMethod == null) {
+                return null;
+            }
+
+            UnaryOperator<Object> wrap = isNotBlank(useWrapMethod.after()) ? null : SqlSemantics.wrapFunction(useWrapMethod.value());
+
+            if (wrap == null) {
+                throw new BuilderException(format("Field %s is wrapped by %s, which cannot be evaluated in memory", field, useWrapMethod.value()));
+            }
+
+            return wrap;
+        }
+
+        private static Matcher sargableMatcher(Field field) {
+            if (field.isAnnotationPresent(NotEqual.class)) {
+                return comparing((value, bounds) -> compareNormalized(value, bounds[0]) < 0 || compareNormalized(value, bounds[1]) >= 0);
+            }
+
+            // Single bounds are lower bounds for '>=' and '<', upper bounds for '>' and '<='
+            if (field.isAnnotationPresent(LessThan.class) || field.isAnnotationPresent(LessThanOrEqualTo.class)) {
+                return comparing((value, bounds) -> compareNormalized(value, bounds[0]) < 0);
+            }
+
+            if (field.isAnnotationPresent(GreaterThan.class) || field.isAnnotationPresent(GreaterThanOrEqualTo.class)) {
+                return comparing((value, bounds) -> compareNormalized(value, bounds[0]) >= 0);
+            }
+
+            return comparing((value, bounds) -> compareNormalized(value, bounds[0]) >= 0 && compareNormalized(value, bounds[1]) < 0);
+        }
+
+        private static Matcher matcher(Field field, FieldDefinition definition) {
+            if (field.isAnnotationPresent(IsNull.class)) {
+                return parameters -> (expression, column) -> expression == null;
+            }
+
+            if (field.isAnnotationPresent(IsNotNull.class)) {
+                return parameters -> (expression, column) -> nonNull(expression);
+            }
+
+            if (definition.isListComparison()) {
+                return listMatcher(field.isAnnotationPresent(NotIn.class));
+            }
+
+            if (field.isAnnotationPresent(Between.class)) {
+                return comparing((value, bounds) -> compareNormalized(value, bounds[0]) >= 0 && compareNormalized(value, bounds[1]) <= 0);
+            }
+
+            if (field.isAnnotationPresent(InRange.class)) {
+                return inRangeMatcher(field.getAnnotation(InRange.class).inclusivity());
+            }
+
+            if (field.isAnnotationPresent(OutRange.class)) {
+                return outRangeMatcher(field.getAnnotation(OutRange.class).inclusivity());
+            }
+
+            return binaryMatcher(field);
+        }
+
+        private static Matcher inRangeMatcher(boolean inclusive) {
+            // As rendered, only the lower bound is compared against the wrapped column, the upper bound is compared against the bare column
+            return parameters -> {
+                Object[] bounds = normalizeAll(parameters);
+
+                if (containsNull(bounds)) {
+                    return (expression, column) -> false;
+                }
+
+                return (expression, column) -> {
+                    if (expression == null || column == null) {
+                        return false;
+                    }
+
+                    int lower = compareNormalized(normalize(expression), bounds[0]);
+                    int upper = compareNormalized(normalize(column), bounds[1]);
+
+                    return inclusive ? lower >= 0 && upper <= 0 : lower > 0 && upper < 0;
+                };
+            };
+        }
+
+        private static Matcher outRangeMatcher(boolean inclusive) {
+            // Either side may hold on its own, as 'unknown or true' is true; the upper side is compared against the bare column, as rendered
+            return parameters -> {
+                Object[] bounds = normalizeAll(parameters);
+
+                return (expression, column) -> isLessThan(nonNull(expression) ? normalize(expression) : null, bounds[0], inclusive)
+                                               || isLessThan(bounds[1], nonNull(column) ? normalize(column) : null, inclusive);
+            };
+        }
+
+        private static Matcher binaryMatcher(Field field) {
+            if (field.isAnnotationPresent(GreaterThan.class)) {
+                return comparing((value, bounds) -> compareNormalized(value, bounds[0]) > 0);
+            }
+
+            if (field.isAnnotationPresent(GreaterThanOrEqualTo.class)) {
+                return comparing((value, bounds) -> compareNormalized(value, bounds[0]) >= 0);
+            }
+
+            if (field.isAnnotationPresent(LessThan.class)) {
+                return comparing((value, bounds) -> compareNormalized(value, bounds[0]) < 0);
+            }
+
+            if (field.isAnnotationPresent(LessThanOrEqualTo.class)) {
+                return comparing((value, bounds) -> compareNormalized(value, bounds[0]) <= 0);
+            }
+
+            if (field.isAnnotationPresent(NotEqual.class)) {
+                return comparing((value, bounds) -> !equalNormalized(value, bounds[0]));
+            }
+
+            if (field.isAnnotationPresent(Like.class) || field.isAnnotationPresent(NotLike.class)) {
+                boolean negated = field.isAnnotationPresent(NotLike.class);
+
+                return parameters -> {
+                    Pattern pattern = SqlSemantics.likePattern(parameters[0].toString());
+
+                    return (expression, column) -> nonNull(expression) && pattern.matcher(expression.toString()).matches() != negated;
+                };
+            }
+
+            return comparing((value, bounds) -> equalNormalized(value, bounds[0]));
+        }
+
+        private static Matcher listMatcher(boolean negated) {
+            return parameters -> {
+                // Array lists bind a single array, padded lists bind each value, and empty @In lists bind none, matching no entity
+                List<Object> values = parameters.length == 1 && parameters[0] instanceof Object[] ? Arrays.asList((Object[]) parameters[0])
+                                                                                                : Arrays.asList(parameters);
+                Set<Object> normalizedValues = new HashSet<>();
+                boolean containsNull = false;
+
+                for (Object element : values) {
+                    if (element == null) {
+                        containsNull = true;
+                    } else {
+                        normalizedValues.add(normalize(element));
+                    }
+                }
+
+                // 'not in' a list holding null is never true
+                boolean alwaysUnknown = negated && containsNull;
+
+                return (expression, column) -> nonNull(expression) && !alwaysUnknown && normalizedValues.contains(normalize(expression)) != negated;
+            };
+        }
+
+        private static Matcher comparing(Comparison comparison) {
+            return parameters -> {
+                Object[] bounds = normalizeAll(parameters);
+
+                // No comparison with null is true
+                if (containsNull(bounds)) {
+                    return (expression, column) -> false;
+                }
+
+                return (expression, column) -> nonNull(expression) && comparison.test(normalize(expression), bounds);
+            };
+        }
+
+        private static Object[] normalizeAll(Object[] parameters) {
+            Object[] normalized = new Object[parameters.length];
+
+            for (int i = 0; i < parameters.length; i++) {
+                normalized[i] = nonNull(parameters[i]) ? normalize(parameters[i]) : null;
+            }
+
+            return normalized;
+        }
+
+        private static boolean containsNull(Object[] values) {
+            for (Object value : values) {
+                if (value == null) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static boolean isLessThan(Object left, Object right, boolean orEqual) {
+            if (left == null || right == null) {
+                return false;
+            }
+
+            int comparison = compareNormalized(left, right);
+
+            return orEqual ? comparison <= 0 : comparison < 0;
+        }
+    }
+}
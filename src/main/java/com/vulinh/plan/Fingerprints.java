@@ -0,0 +1,112 @@
+package com.vulinh.plan;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 64-bit hashing of shapes and values. Every hash only depends on specified behaviour, such as <code>String.hashCode</code> and enum names, so that equal
+ * inputs hash the same on every JVM and across restarts, which lets the hashes key a shared result cache.
+ */
+final class Fingerprints {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME        = 0x100000001b3L;
+
+    private Fingerprints() {
+        throw new UnsupportedOperationException("Cannot instantiate utility class!");
+    }
+
+    /**
+     * Scramble all bits of a value, using the finalizer of MurmurHash3.
+     *
+     * @param value The value to scramble.
+     * @return Scrambled value.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+
+        return value;
+    }
+
+    /**
+     * Continue a 64-bit FNV-1a hash with the characters of a string.
+     *
+     * @param hash   Hash so far, {@link #seed()} to start a new one.
+     * @param string The string to hash, can be <code>null</code>.
+     * @return Continued hash.
+     */
+    static long hash(long hash, String string) {
+        if (string == null) {
+            return hash * FNV_PRIME;
+        }
+
+        for (int i = 0; i < string.length(); i++) {
+            hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+        }
+
+        // Separates consecutive strings, so that "ab" then "c" differs from "a" then "bc"
+        return (hash ^ 0xffff) * FNV_PRIME;
+    }
+
+    /**
+     * Start value of {@link #hash(long, String)}.
+     *
+     * @return Start value.
+     */
+    static long seed() {
+        return FNV_OFFSET_BASIS;
+    }
+
+    /**
+     * Hash of a value that is stable across JVMs: enums hash by name, collections and arrays by their elements, and sets regardless of iteration order.
+     * Other values hash by their own <code>hashCode</code>, which must therefore depend on their content.
+     *
+     * @param value The value to hash, can be <code>null</code>.
+     * @return Hash of said value.
+     */
+    static long valueHash(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+
+        if (value instanceof Enum) {
+            return mix(((Enum<?>) value).name().hashCode());
+        }
+
+        if (value instanceof Set) {
+            long hash = 0L;
+
+            for (Object element : (Set<?>) value) {
+                hash += valueHash(element);
+            }
+
+            return mix(hash);
+        }
+
+        if (value instanceof Collection) {
+            long hash = 1L;
+
+            for (Object element : (Collection<?>) value) {
+                hash = mix(hash * 31 + valueHash(element));
+            }
+
+            return hash;
+        }
+
+        if (value instanceof Object[]) {
+            long hash = 1L;
+
+            for (Object element : (Object[]) value) {
+                hash = mix(hash * 31 + valueHash(element));
+            }
+
+            return hash;
+        }
+
+        return mix(value.hashCode());
+    }
+}
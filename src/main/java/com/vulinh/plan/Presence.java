@@ -0,0 +1,302 @@
+package com.vulinh.plan;
+
+import static com.vulinh.util.RetrospectionUtils.createBooleanAccessor;
+import static com.vulinh.util.RetrospectionUtils.createDoubleAccessor;
+import static com.vulinh.util.RetrospectionUtils.createLongAccessor;
+import static com.vulinh.util.RetrospectionUtils.getValue;
+import static com.vulinh.util.StringUtils.isNotBlank;
+import static java.lang.String.format;
+import static java.util.Objects.nonNull;
+
+import com.vulinh.accessor.AccessorFactory;
+import com.vulinh.accessor.BooleanPropertyAccessor;
+import com.vulinh.accessor.DoublePropertyAccessor;
+import com.vulinh.accessor.LongPropertyAccessor;
+import com.vulinh.accessor.PropertyAccessor;
+import com.vulinh.annotation.AbsentWhen;
+import com.vulinh.data.BuilderException;
+import java.lang.reflect.Field;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Rule deciding whether a field is present when that is not simply whether its value is <code>null</code>: primitive fields, optionally with a sentinel
+ * value (<code>@AbsentWhen</code>), fields with a companion boolean flag, and <code>Optional</code> fields. Primitive fields are checked without boxing:
+ * reading them yields {@link #PRESENT} instead of their value, which is only boxed when captured as a parameter.
+ */
+abstract class Presence {
+
+    /**
+     * Stands for the value of a present field that is only boxed when actually bound.
+     */
+    static final Object PRESENT = new Object() {
+
+        @Override
+        public String toString() {
+            return "PRESENT";
+        }
+    };
+
+    final Field            field;
+    final PropertyAccessor accessor;
+
+    private Presence(Field field, PropertyAccessor accessor) {
+        this.field = field;
+        this.accessor = accessor;
+    }
+
+    /**
+     * Find the presence rule of a field.
+     *
+     * @param type            The class being compiled.
+     * @param field           The field to find rule.
+     * @param accessor        The accessor of said field.
+     * @param accessorFactory The factory creating primitive accessors.
+     * @return Presence rule of said field, or <code>null</code> if said field is present whenever its value is not <code>null</code>.
+     */
+    static Presence of(Class<?> type, Field field, PropertyAccessor accessor, AccessorFactory accessorFactory) {
+        AbsentWhen absentWhen = field.getAnnotation(AbsentWhen.class);
+        Class<?> fieldType = field.getType();
+        BooleanPropertyAccessor flag = nonNull(absentWhen) && isNotBlank(absentWhen.flag()) ? createBooleanAccessor(type, absentWhen.flag(), accessorFactory)
+                                                                                              : null;
+        boolean sentinel = nonNull(absentWhen) && flag == null;
+
+        if (fieldType == long.class || fieldType == int.class || fieldType == short.class || fieldType == byte.class || fieldType == char.class) {
+            if (sentinel && fieldType == char.class) {
+                throw new BuilderException(format("Field %s is a char, it cannot be absent when holding a sentinel value", field));
+            }
+
+            return new IntegralPresence(field, accessor, createLongAccessor(type, field, accessorFactory), flag, sentinel, absentWhen);
+        }
+
+        if (fieldType == double.class || fieldType == float.class) {
+            return new FloatingPresence(field, accessor, createDoubleAccessor(type, field, accessorFactory), flag, sentinel, absentWhen);
+        }
+
+        if (fieldType == boolean.class) {
+            if (sentinel) {
+                throw new BuilderException(format("Field %s is a boolean, it cannot be absent when holding a sentinel value", field));
+            }
+
+            return new BooleanPresence(field, accessor, flag);
+        }
+
+        if (sentinel) {
+            throw new BuilderException(format("Field %s is not a numeric primitive, it cannot be absent when holding a sentinel value", field));
+        }
+
+        if (fieldType == OptionalInt.class || fieldType == OptionalLong.class || fieldType == OptionalDouble.class || fieldType == Optional.class) {
+            if (nonNull(flag)) {
+                throw new BuilderException(format("Field %s is optional, it cannot also have a presence flag", field));
+            }
+
+            return new OptionalPresence(field, accessor);
+        }
+
+        return nonNull(flag) ? new FlaggedPresence(field, accessor, flag) : null;
+    }
+
+    /**
+     * Read what decides whether this field is present.
+     *
+     * @param bean The object that contains this field.
+     * @return <code>null</code> if absent, otherwise either {@link #PRESENT} or the value to bind.
+     */
+    abstract Object read(Object bean);
+
+    /**
+     * Read the value to bind of this field.
+     *
+     * @param bean The object that contains this field.
+     * @return Value to bind, boxed if primitive, or <code>null</code> if absent.
+     */
+    Object value(Object bean) {
+        return nonNull(read(bean)) ? getValue(accessor, field, bean) : null;
+    }
+
+    /**
+     * Hash of the value of this field, equal to {@link Fingerprints#valueHash(Object)} of said value once boxed, without boxing it.
+     *
+     * @param bean The object that contains this field, which must be present.
+     * @return Hash of the value of this field.
+     */
+    abstract long valueHash(Object bean);
+
+    private static final class IntegralPresence extends Presence {
+
+        private final LongPropertyAccessor    primitiveAccessor;
+        private final BooleanPropertyAccessor flag;
+        private final boolean                 sentinel;
+        private final long                    sentinelValue;
+        private final boolean                 wide;
+
+        IntegralPresence(Field field, PropertyAccessor accessor, LongPropertyAccessor primitiveAccessor, BooleanPropertyAccessor flag, boolean sentinel,
+                         AbsentWhen absentWhen) {
+            super(field, accessor);
+            this.primitiveAccessor = primitiveAccessor;
+            this.flag = flag;
+            this.sentinel = sentinel;
+            this.sentinelValue = sentinel ? absentWhen.value() : 0L;
+            this.wide = field.getType() == long.class;
+        }
+
+        @Override
+        Object read(Object bean) {
+            if (nonNull(flag) && !flag.getAsBoolean(bean)) {
+                return null;
+            }
+
+            return sentinel && primitiveAccessor.getAsLong(bean) == sentinelValue ? null : PRESENT;
+        }
+
+        @Override
+        long valueHash(Object bean) {
+            long value = primitiveAccessor.getAsLong(bean);
+
+            // Same as the hash code of Integer, Short, Byte and Character for narrower types
+            return Fingerprints.mix(wide ? Long.hashCode(value) : (int) value);
+        }
+    }
+
+    private static final class FloatingPresence extends Presence {
+
+        private final DoublePropertyAccessor  primitiveAccessor;
+        private final BooleanPropertyAccessor flag;
+        private final boolean                 sentinel;
+        private final double                  sentinelValue;
+        private final boolean                 single;
+
+        FloatingPresence(Field field, PropertyAccessor accessor, DoublePropertyAccessor primitiveAccessor, BooleanPropertyAccessor flag, boolean sentinel,
+                         AbsentWhen absentWhen) {
+            super(field, accessor);
+            this.primitiveAccessor = primitiveAccessor;
+            this.flag = flag;
+            this.sentinel = sentinel;
+            this.sentinelValue = sentinel ? absentWhen.value() : 0.0;
+            this.single = field.getType() == float.class;
+        }
+
+        @Override
+        Object read(Object bean) {
+            if (nonNull(flag) && !flag.getAsBoolean(bean)) {
+                return null;
+            }
+
+            return sentinel && primitiveAccessor.getAsDouble(bean) == sentinelValue ? null : PRESENT;
+        }
+
+        @Override
+        long valueHash(Object bean) {
+            double value = primitiveAccessor.getAsDouble(bean);
+
+            return Fingerprints.mix(single ? Float.hashCode((float) value) : Double.hashCode(value));
+        }
+    }
+
+    private static final class BooleanPresence extends Presence {
+
+        private final BooleanPropertyAccessor flag;
+
+        BooleanPresence(Field field, PropertyAccessor accessor, BooleanPropertyAccessor flag) {
+            super(field, accessor);
+            this.flag = flag;
+        }
+
+        @Override
+        Object read(Object bean) {
+            return nonNull(flag) && !flag.getAsBoolean(bean) ? null : PRESENT;
+        }
+
+        @Override
+        long valueHash(Object bean) {
+            return Fingerprints.mix(getValue(accessor, field, bean).hashCode());
+        }
+    }
+
+    private static final class FlaggedPresence extends Presence {
+
+        private final BooleanPropertyAccessor flag;
+
+        FlaggedPresence(Field field, PropertyAccessor accessor, BooleanPropertyAccessor flag) {
+            super(field, accessor);
+            this.flag = flag;
+        }
+
+        @Override
+        Object read(Object bean) {
+            return flag.getAsBoolean(bean) ? getValue(accessor, field, bean) : null;
+        }
+
+        @Override
+        Object value(Object bean) {
+            return read(bean);
+        }
+
+        @Override
+        long valueHash(Object bean) {
+            return Fingerprints.valueHash(read(bean));
+        }
+    }
+
+    private static final class OptionalPresence extends Presence {
+
+        OptionalPresence(Field field, PropertyAccessor accessor) {
+            super(field, accessor);
+        }
+
+        @Override
+        Object read(Object bean) {
+            Object optional = getValue(accessor, field, bean);
+
+            if (optional == null) {
+                return null;
+            }
+
+            // Optional holds a reference, which is bound as is
+            if (optional instanceof Optional) {
+                return ((Optional<?>) optional).orElse(null);
+            }
+
+            return isPresent(optional) ? PRESENT : null;
+        }
+
+        @Override
+        Object value(Object bean) {
+            Object optional = getValue(accessor, field, bean);
+
+            if (optional == null) {
+                return null;
+            }
+
+            if (optional instanceof Optional) {
+                return ((Optional<?>) optional).orElse(null);
+            }
+
+            if (!isPresent(optional)) {
+                return null;
+            }
+
+            if (optional instanceof OptionalInt) {
+                return ((OptionalInt) optional).getAsInt();
+            }
+
+            return optional instanceof OptionalLong ? (Object) ((OptionalLong) optional).getAsLong() : (Object) ((OptionalDouble) optional).getAsDouble();
+        }
+
+        @Override
+        long valueHash(Object bean) {
+            // Hash code of a present primitive optional is the hash code of its value
+            return Fingerprints.mix(getValue(accessor, field, bean).hashCode());
+        }
+
+        private static boolean isPresent(Object optional) {
+            if (optional instanceof OptionalInt) {
+                return ((OptionalInt) optional).isPresent();
+            }
+
+            return optional instanceof OptionalLong ? ((OptionalLong) optional).isPresent() : ((OptionalDouble) optional).isPresent();
+        }
+    }
+}
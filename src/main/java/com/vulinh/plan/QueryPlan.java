@@ -0,0 +1,596 @@
+package com.vulinh.plan;
+
+import static com.vulinh.util.StringUtils.EMPTY;
+import static com.vulinh.util.StringUtils.isNotBlank;
+import static java.lang.String.format;
+import static java.lang.reflect.Modifier.isStatic;
+import static java.util.Objects.nonNull;
+
+import com.vulinh.annotation.IgnoreField;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.QueryHint;
+import com.vulinh.data.QueryKind;
+import com.vulinh.dialect.QueryDialect;
+import com.vulinh.metrics.QueryBuilderListener;
+import com.vulinh.util.AnnotationUtils;
+import com.vulinh.util.ClassFileUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiled, immutable query plan of a class. A plan is built once per class and then cached, so that building a query only needs to walk the plan instead of
+ * reflecting on the class again.
+ */
+public final class QueryPlan {
+
+    /**
+     * Maximum number of bits of a presence bitmask. Each field takes one bit, except padded list comparisons which take
+     * {@link FieldPlan#PADDED_SLOT_WIDTH} bits.
+     */
+    public static final int MAX_MASK_BITS = Long.SIZE;
+
+    /**
+     * Maximum number of distinct shapes tracked per class for {@link QueryBuilderListener#onNewShape(Class, int)}, well above any sensible number of
+     * cached shapes.
+     */
+    public static final int MAX_TRACKED_SHAPES = 4096;
+
+    private final Class<?>        type;
+    private final List<FieldPlan> fields;
+    private final List<QueryHint> typeHints;
+    private final boolean         hinted;
+    private final QueryDialect    dialect;
+    private final int[]           shifts;
+    private final long[]          slotMasks;
+    private final int             parameterCapacity;
+    private final int             fragmentsLength;
+    private final long            seed;
+    private final boolean         detectContradictions;
+    private final ShapeCache[]    shapeCaches;
+    private final ShapeCounter    shapeCounter;
+
+    private QueryPlan(Class<?> type, List<FieldPlan> fields, QueryPlanCache cache) {
+        this.type = type;
+        this.fields = fields;
+        this.typeHints = AnnotationUtils.findQueryHints(type, EMPTY);
+        this.hinted = !typeHints.isEmpty() || fields.stream().anyMatch(fieldPlan -> !fieldPlan.hints().isEmpty());
+        this.dialect = cache.dialect();
+        this.detectContradictions = cache.detectsContradictions();
+        this.shifts = new int[fields.size()];
+        this.slotMasks = new long[fields.size()];
+
+        int maskBits = 0;
+
+        for (int i = 0; i < fields.size(); i++) {
+            int slotWidth = fields.get(i).slotWidth();
+
+            shifts[i] = maskBits;
+            slotMasks[i] = (1L << slotWidth) - 1;
+            maskBits += slotWidth;
+        }
+
+        this.parameterCapacity = fields.stream().mapToInt(fieldPlan -> fieldPlan.definition().parameterNames().size()).sum();
+        this.fragmentsLength = fields.stream().mapToInt(fieldPlan -> fieldPlan.fragment().length()).sum();
+
+        long fieldsHash = Fingerprints.hash(Fingerprints.seed(), type.getName());
+
+        // Fingerprints change whenever a field is added, removed or compared differently, as stale cached results must not be reused
+        for (FieldPlan fieldPlan : fields) {
+            fieldsHash = Fingerprints.hash(fieldsHash, fieldPlan.fragment());
+        }
+
+        this.seed = fieldsHash;
+
+        // Shapes are only tracked for listeners, which count them over all kinds of query
+        this.shapeCounter = nonNull(cache.listener()) ? new ShapeCounter(type, cache.listener()) : null;
+
+        if (maskBits > MAX_MASK_BITS) {
+            this.shapeCaches = null;
+
+            return;
+        }
+
+        this.shapeCaches = new ShapeCache[QueryKind.values().length];
+
+        // Each kind of query has its own cache, so that count queries do not evict data queries
+        for (QueryKind kind : QueryKind.values()) {
+            shapeCaches[kind.ordinal()] = new ShapeCache(this, kind, cache.maxShapes(), cache.counters(), cache.listener());
+        }
+    }
+
+    /**
+     * Get the query plan of a class from the default plan cache, compiling it on first use.
+     *
+     * @param type The class to get query plan.
+     * @return Query plan of said class.
+     */
+    public static QueryPlan of(Class<?> type) {
+        return QueryPlanCache.defaultCache().get(type);
+    }
+
+    static QueryPlan compile(Class<?> type, QueryPlanCache cache) {
+        List<FieldPlan> fields = new ArrayList<>();
+        Field[] declaredFields = ClassFileUtils.declaredFields(type);
+        Set<String> presenceFlags = AnnotationUtils.findPresenceFlags(Arrays.asList(declaredFields), field -> field::getAnnotation);
+
+        // Fields are read in declaration order, as reflection order is not guaranteed to be the same across JVMs
+        for (Field field : declaredFields) {
+            // Static fields, fields marked as @IgnoreField and presence flags never take part in query building
+            if (isStatic(field.getModifiers()) || field.isAnnotationPresent(IgnoreField.class) || presenceFlags.contains(field.getName())) {
+                continue;
+            }
+
+            fields.add(FieldPlan.compile(type, field, cache.accessorFactory(), cache.dialect()));
+        }
+
+        // Predicates are emitted in canonical order, so that equal shapes always render to equal queries
+        AnnotationUtils.sortByPredicateOrder(fields, fieldPlan -> fieldPlan.field()::getAnnotation);
+
+        return new QueryPlan(type, Collections.unmodifiableList(fields), cache);
+    }
+
+    /**
+     * Compute the presence bitmask of an object, where the slot of each field holds whether it contains value, and for padded list comparisons, the bucket
+     * of said list. For plans without padded lists, bit <code>i</code> is simply set if field <code>i</code> contains value.
+     *
+     * @param object The object to inspect, must be an instance of the planned class.
+     * @return Presence bitmask of said object.
+     * @throws IllegalStateException If the slots of this plan need more than {@link #MAX_MASK_BITS} bits.
+     */
+    public long presenceMask(Object object) {
+        if (!isMaskable()) {
+            throw new IllegalStateException(format("Class %s has too many fields to use presence mask", type));
+        }
+
+        long mask = 0L;
+
+        for (int i = 0; i < fields.size(); i++) {
+            FieldPlan fieldPlan = fields.get(i);
+
+            mask |= (long) fieldPlan.slot(fieldPlan.read(object)) << shifts[i];
+        }
+
+        return mask;
+    }
+
+    /**
+     * Compute the exact length of the query of a shape from the pre-rendered fragment lengths, without rendering it.
+     *
+     * @param presetHql    Pre-built query to concatenate with result.
+     * @param presenceMask Presence bitmask, as returned by {@link #presenceMask(Object)}.
+     * @return Length of the rendered query.
+     */
+    public int length(String presetHql, long presenceMask) {
+        String preset = hint(presetHql, presenceMask, null);
+
+        return (isNotBlank(preset) ? preset.length() : 0) + fragmentsLength(presenceMask);
+    }
+
+    private int fragmentsLength(long presenceMask) {
+        int length = 0;
+
+        for (int i = 0; i < fields.size(); i++) {
+            int slot = slot(presenceMask, i);
+
+            if (slot != 0) {
+                length += fields.get(i).fragment(slot).length();
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Render the query of a shape into a buffer presized to its exact length.
+     *
+     * @param presetHql    Pre-built query to concatenate with result.
+     * @param presenceMask Presence bitmask, as returned by {@link #presenceMask(Object)}.
+     * @return Rendered query.
+     */
+    public String render(String presetHql, long presenceMask) {
+        String preset = hint(presetHql, presenceMask, null);
+        StringBuilder query = new StringBuilder((isNotBlank(preset) ? preset.length() : 0) + fragmentsLength(presenceMask));
+
+        if (isNotBlank(preset)) {
+            query.append(preset);
+        }
+
+        for (int i = 0; i < fields.size(); i++) {
+            int slot = slot(presenceMask, i);
+
+            // Field manipulations and comparisons are pre-rendered
+            if (slot != 0) {
+                query.append(fields.get(i).fragment(slot));
+            }
+        }
+
+        return query.toString();
+    }
+
+    /**
+     * Render the query of a shape for some kind of query.
+     *
+     * @param presetHql    Pre-built query to concatenate with result.
+     * @param presenceMask Presence bitmask, as returned by {@link #presenceMask(Object)}.
+     * @param kind         The kind of query.
+     * @return Rendered query.
+     */
+    String render(String presetHql, long presenceMask, QueryKind kind) {
+        return finish(render(presetHql, presenceMask), kind);
+    }
+
+    String finish(String query, QueryKind kind) {
+        return kind == QueryKind.EXISTS ? dialect.limitToOneRow(query) : query;
+    }
+
+    /**
+     * Render the query of an object directly into a buffer, without computing its presence bitmask.
+     *
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param object    The object to render.
+     * @param query     The buffer to render into.
+     * @return The same buffer.
+     */
+    public StringBuilder render(String presetHql, Object object, StringBuilder query) {
+        String preset = hint(presetHql, 0L, object);
+
+        // At most every fragment is appended, so a single resize is enough unless padded lists are long
+        query.ensureCapacity(query.length() + (isNotBlank(preset) ? preset.length() : 0) + fragmentsLength);
+
+        if (isNotBlank(preset)) {
+            query.append(preset);
+        }
+
+        long shapeHash = seed;
+
+        for (int i = 0; i < fields.size(); i++) {
+            FieldPlan fieldPlan = fields.get(i);
+            int slot = fieldPlan.slot(fieldPlan.read(object));
+
+            if (slot != 0) {
+                // Field manipulations and comparisons are pre-rendered
+                query.append(fieldPlan.fragment(slot));
+                shapeHash = fingerprint(shapeHash, i, slot);
+            }
+        }
+
+        // Shapes of maskable plans are recorded by their shape cache
+        if (!isMaskable()) {
+            recordShape(shapeHash);
+        }
+
+        return query;
+    }
+
+    /**
+     * Build the query of an object together with its parameters, reading every field value only once.
+     *
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param object    The object to build, must be an instance of the planned class.
+     * @return Query and its parameters.
+     */
+    public BuiltQuery build(String presetHql, Object object) {
+        return build(presetHql, object, QueryKind.SELECT);
+    }
+
+    /**
+     * Build a query of some kind from an object together with its parameters, as {@link #build(String, Object)} would. Every kind shares the same predicates
+     * and parameters; existence checks are also limited to one row by the dialect.
+     *
+     * @param presetHql Pre-built query of said kind to concatenate with result, for example <code>select count(e) from Entity e where 1 = 1</code>.
+     * @param object    The object to build, must be an instance of the planned class.
+     * @param kind      The kind of query.
+     * @return Query and its parameters.
+     */
+    public BuiltQuery build(String presetHql, Object object, QueryKind kind) {
+        Capture capture = capture(presetHql, object);
+
+        if (capture.renderedQuery() != null) {
+            return capture.toBuiltQuery(finish(capture.renderedQuery(), kind));
+        }
+
+        return capture.toBuiltQuery(shapeCaches[kind.ordinal()].get(presetHql, capture.presenceMask()));
+    }
+
+    /**
+     * Read every field value of an object only once, capturing its presence bitmask and parameters. Plans that are not maskable render their query in the
+     * same pass. Capturing touches no shared state, so objects can be captured concurrently.
+     *
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param object    The object to capture, must be an instance of the planned class.
+     * @return Captured presence bitmask and parameters.
+     */
+    public Capture capture(String presetHql, Object object) {
+        String[] names = new String[parameterCapacity];
+        Object[] values = new Object[parameterCapacity];
+        int parameterCount = 0;
+
+        long mask = 0L;
+        long shapeHash = seed;
+        StringBuilder query = null;
+        boolean alwaysEmpty = false;
+
+        // Plans that cannot be keyed by a presence bitmask are rendered in the same pass
+        if (!isMaskable()) {
+            String preset = hint(presetHql, 0L, object);
+
+            query = new StringBuilder((isNotBlank(preset) ? preset.length() : 0) + fragmentsLength);
+
+            if (isNotBlank(preset)) {
+                query.append(preset);
+            }
+        }
+
+        for (int i = 0; i < fields.size(); i++) {
+            FieldPlan fieldPlan = fields.get(i);
+            Object value = fieldPlan.read(object);
+            int slot = fieldPlan.slot(value);
+
+            if (slot == 0) {
+                // Empty lists are absent, yet 'in' an empty list matches no row
+                alwaysEmpty |= detectContradictions && nonNull(value) && fieldPlan.definition().isContradiction(value, values, parameterCount);
+
+                continue;
+            }
+
+            int requiredCapacity = parameterCount + fieldPlan.parameterCount(slot);
+
+            // Only padded lists can outgrow the capacity computed from fixed parameters
+            if (requiredCapacity > names.length) {
+                names = Arrays.copyOf(names, Math.max(requiredCapacity, names.length * 2));
+                values = Arrays.copyOf(values, names.length);
+            }
+
+            int offset = parameterCount;
+
+            parameterCount = fieldPlan.captureParameters(object, value, slot, names, values, offset);
+            alwaysEmpty |= detectContradictions && fieldPlan.definition().isContradiction(value, values, offset);
+
+            if (query == null) {
+                mask |= (long) slot << shifts[i];
+            } else {
+                query.append(fieldPlan.fragment(slot));
+                shapeHash = fingerprint(shapeHash, i, slot);
+            }
+        }
+
+        if (nonNull(query)) {
+            recordShape(shapeHash);
+        }
+
+        return new Capture(this, mask, query == null ? null : query.toString(), names, values, parameterCount, alwaysEmpty);
+    }
+
+    /**
+     * Record a rendered shape for {@link QueryBuilderListener#onNewShape(Class, int)}, if there is a listener.
+     *
+     * @param shapeKey Presence bitmask of said shape for maskable plans, or hash of its slots for other plans.
+     */
+    void recordShape(long shapeKey) {
+        if (nonNull(shapeCounter)) {
+            shapeCounter.record(shapeKey);
+        }
+    }
+
+    int slot(long presenceMask, int index) {
+        return (int) ((presenceMask >>> shifts[index]) & slotMasks[index]);
+    }
+
+    /**
+     * Slot of a field, either from a presence bitmask or, if an object is given, from the value of said object.
+     */
+    int slot(long presenceMask, Object object, int index) {
+        if (object == null) {
+            return slot(presenceMask, index);
+        }
+
+        FieldPlan fieldPlan = fields.get(index);
+
+        return fieldPlan.slot(fieldPlan.read(object));
+    }
+
+    /**
+     * Optimizer hints of a shape: those of the class, then those of each present field, without duplicates.
+     *
+     * @param presenceMask Presence bitmask, ignored if an object is given.
+     * @param object       The object whose fields are checked, or <code>null</code> to check said bitmask.
+     * @return Hints of said shape, in order.
+     */
+    Set<QueryHint> hints(long presenceMask, Object object) {
+        Set<QueryHint> hints = new LinkedHashSet<>(typeHints);
+
+        if (!hinted) {
+            return hints;
+        }
+
+        for (int i = 0; i < fields.size(); i++) {
+            if (!fields.get(i).hints().isEmpty() && slot(presenceMask, object, i) != 0) {
+                hints.addAll(fields.get(i).hints());
+            }
+        }
+
+        return hints;
+    }
+
+    private String hint(String presetHql, long presenceMask, Object object) {
+        // Plans without hints, which is most of them, keep the preset query as is
+        return hinted ? dialect.applyHints(presetHql, hints(presenceMask, object)) : presetHql;
+    }
+
+    /**
+     * Compute the fingerprint of a shape, a 64-bit hash of the planned class, the preset query, the kind of query and which fields are present. Queries of
+     * equal fingerprints return the same rows for the same parameters. Fingerprints are stable across JVMs and restarts as long as the planned class and
+     * its annotations do not change.
+     *
+     * @param presetHql    Pre-built query to concatenate with result.
+     * @param presenceMask Presence bitmask, as returned by {@link #presenceMask(Object)}.
+     * @param kind         The kind of query.
+     * @return Fingerprint of said shape.
+     * @throws IllegalStateException If the slots of this plan need more than {@link #MAX_MASK_BITS} bits.
+     */
+    public long fingerprint(String presetHql, long presenceMask, QueryKind kind) {
+        if (!isMaskable()) {
+            throw new IllegalStateException(format("Class %s has too many fields to use presence mask", type));
+        }
+
+        long fingerprint = initialFingerprint(presetHash(presetHql, kind));
+
+        for (int i = 0; i < fields.size(); i++) {
+            int slot = slot(presenceMask, i);
+
+            if (slot != 0) {
+                fingerprint = fingerprint(fingerprint, i, slot);
+            }
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Compute the fingerprint of the shape of an object, as {@link #fingerprint(String, long, QueryKind)} would. Unlike presence bitmasks, this works for
+     * plans of any size.
+     *
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param object    The object to inspect, must be an instance of the planned class.
+     * @param kind      The kind of query.
+     * @return Fingerprint of the shape of said object.
+     */
+    public long fingerprint(String presetHql, Object object, QueryKind kind) {
+        return fingerprint(presetHash(presetHql, kind), object);
+    }
+
+    /**
+     * Compute the fingerprint of the shape of an object for a preset query already hashed, see {@link #fingerprint(String, Object, QueryKind)}.
+     *
+     * @param presetHash Hash of the preset query and kind of query, as returned by {@link #presetHash(String, QueryKind)}.
+     * @param object     The object to inspect, must be an instance of the planned class.
+     * @return Fingerprint of the shape of said object.
+     */
+    long fingerprint(long presetHash, Object object) {
+        long fingerprint = initialFingerprint(presetHash);
+
+        for (int i = 0; i < fields.size(); i++) {
+            FieldPlan fieldPlan = fields.get(i);
+            int slot = fieldPlan.slot(fieldPlan.read(object));
+
+            if (slot != 0) {
+                fingerprint = fingerprint(fingerprint, i, slot);
+            }
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Compute a value-aware key of the query of an object: its shape fingerprint combined with hashes of what each present field binds. Objects of equal
+     * keys build queries returning the same rows, so the key can directly key a result cache, without rendering the query nor capturing its parameters. It
+     * reads every field value once, as {@link #presenceMask(Object)} does, and allocates nothing of its own.
+     * <p>
+     * Values hash by their <code>hashCode</code>, except enums which hash by name, so bound values must have content-based hash codes. Being a hash, two
+     * different queries may share a key, however unlikely: caches that cannot tolerate it must also compare the built queries on hit.
+     *
+     * @param presetHql Pre-built query to concatenate with result.
+     * @param object    The object to inspect, must be an instance of the planned class.
+     * @param kind      The kind of query.
+     * @return Value-aware key of the query of said object.
+     */
+    public long cacheKey(String presetHql, Object object, QueryKind kind) {
+        return cacheKey(presetHash(presetHql, kind), object);
+    }
+
+    /**
+     * Compute a value-aware key of the query of an object for a preset query already hashed, see {@link #cacheKey(String, Object, QueryKind)}.
+     *
+     * @param presetHash Hash of the preset query and kind of query, as returned by {@link #presetHash(String, QueryKind)}.
+     * @param object     The object to inspect, must be an instance of the planned class.
+     * @return Value-aware key of the query of said object.
+     */
+    long cacheKey(long presetHash, Object object) {
+        long fingerprint = initialFingerprint(presetHash);
+        long valuesHash = 1L;
+
+        for (int i = 0; i < fields.size(); i++) {
+            FieldPlan fieldPlan = fields.get(i);
+            Object value = fieldPlan.read(object);
+            int slot = fieldPlan.slot(value);
+
+            if (slot != 0) {
+                fingerprint = fingerprint(fingerprint, i, slot);
+                valuesHash = Fingerprints.mix(valuesHash * 31 + fieldPlan.valueHash(object, value));
+            }
+        }
+
+        return Fingerprints.mix(fingerprint ^ Long.rotateLeft(valuesHash, 32));
+    }
+
+    /**
+     * Hash a preset query together with the kind of query, for fingerprints and cache keys. Every character of said preset query is hashed, so that
+     * different presets never collide as often as their 32-bit hash codes do; query templates hash their preset query once.
+     *
+     * @param presetHql Pre-built query to concatenate with result, blank ones hashing the same as empty ones as they render the same.
+     * @param kind      The kind of query.
+     * @return Hash of said preset query and kind.
+     */
+    static long presetHash(String presetHql, QueryKind kind) {
+        return Fingerprints.hash(Fingerprints.hash(Fingerprints.seed(), kind.name()), isNotBlank(presetHql) ? presetHql : EMPTY);
+    }
+
+    private long initialFingerprint(long presetHash) {
+        return Fingerprints.mix(seed ^ presetHash);
+    }
+
+    private static long fingerprint(long fingerprint, int index, int slot) {
+        return Fingerprints.mix(fingerprint ^ ((long) index << 32 | slot));
+    }
+
+    /**
+     * Check if this plan is small enough to be keyed by a presence bitmask, so its rendered queries can be cached.
+     *
+     * @return <code>true</code> if the slots of this plan take at most {@link #MAX_MASK_BITS} bits; <code>false</code> if otherwise.
+     */
+    public boolean isMaskable() {
+        return shapeCaches != null;
+    }
+
+    /**
+     * Cache of rendered data queries of this plan.
+     *
+     * @return Shape cache of this plan, or <code>null</code> if this plan is not maskable.
+     */
+    public ShapeCache shapeCache() {
+        return shapeCache(QueryKind.SELECT);
+    }
+
+    /**
+     * Cache of rendered queries of some kind of this plan.
+     *
+     * @param kind The kind of query.
+     * @return Shape cache of said kind, or <code>null</code> if this plan is not maskable.
+     */
+    public ShapeCache shapeCache(QueryKind kind) {
+        return isMaskable() ? shapeCaches[kind.ordinal()] : null;
+    }
+
+    /**
+     * The class this plan was compiled from.
+     *
+     * @return The class this plan was compiled from.
+     */
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * Plans of all fields that take part in query building, in declared order.
+     *
+     * @return Unmodifiable list of field plans.
+     */
+    public List<FieldPlan> fields() {
+        return fields;
+    }
+}
@@ -0,0 +1,187 @@
+package com.vulinh.plan;
+
+import static java.util.Objects.requireNonNull;
+
+import com.vulinh.accessor.AccessorFactory;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.CacheStatistics;
+import com.vulinh.dialect.QueryDialect;
+import com.vulinh.metrics.QueryBuilderListener;
+
+/**
+ * Thread-safe cache of compiled query plans. Plans are kept in a <code>ClassValue</code>, so they are released together with the class itself and will not
+ * leak class loaders.
+ */
+public final class QueryPlanCache {
+
+    /**
+     * Default maximum number of rendered queries cached per class.
+     */
+    public static final int DEFAULT_MAX_SHAPES = 256;
+
+    private static final QueryPlanCache DEFAULT_CACHE = new QueryPlanCache(AccessorFactory.defaultFactory());
+
+    private final AccessorFactory       accessorFactory;
+    private final QueryDialect          dialect;
+    private final int                   maxShapes;
+    private final QueryBuilderListener  listener;
+    private final boolean               detectContradictions;
+    private final CacheCounters         counters = new CacheCounters();
+    private final ClassValue<QueryPlan> plans;
+    private final ClassValue<SeekPlan>  seekPlans;
+
+    /**
+     * Create an empty plan cache, caching at most {@link #DEFAULT_MAX_SHAPES} rendered queries per class.
+     *
+     * @param accessorFactory The factory creating field accessors for compiled plans.
+     */
+    public QueryPlanCache(AccessorFactory accessorFactory) {
+        this(accessorFactory, DEFAULT_MAX_SHAPES);
+    }
+
+    /**
+     * Create an empty plan cache.
+     *
+     * @param accessorFactory The factory creating field accessors for compiled plans.
+     * @param maxShapes       Maximum number of rendered queries cached per class.
+     */
+    public QueryPlanCache(AccessorFactory accessorFactory, int maxShapes) {
+        this(accessorFactory, maxShapes, null);
+    }
+
+    /**
+     * Create an empty plan cache reporting to a listener.
+     *
+     * @param accessorFactory The factory creating field accessors for compiled plans.
+     * @param maxShapes       Maximum number of rendered queries cached per class.
+     * @param listener        The listener to report cache events to, or <code>null</code> for none.
+     */
+    public QueryPlanCache(AccessorFactory accessorFactory, int maxShapes, QueryBuilderListener listener) {
+        this(accessorFactory, QueryDialect.defaultDialect(), maxShapes, listener);
+    }
+
+    /**
+     * Create an empty plan cache rendering queries in a dialect. Rendered queries depend on the dialect, so each dialect needs its own plan cache.
+     *
+     * @param accessorFactory The factory creating field accessors for compiled plans.
+     * @param dialect         The dialect to render queries in.
+     * @param maxShapes       Maximum number of rendered queries cached per class.
+     * @param listener        The listener to report cache events to, or <code>null</code> for none.
+     */
+    public QueryPlanCache(AccessorFactory accessorFactory, QueryDialect dialect, int maxShapes, QueryBuilderListener listener) {
+        this(accessorFactory, dialect, maxShapes, listener, false);
+    }
+
+    /**
+     * Create an empty plan cache rendering queries in a dialect, whose plans may also detect filters that cannot match any row, see
+     * {@link BuiltQuery#isAlwaysEmpty()}.
+     *
+     * @param accessorFactory      The factory creating field accessors for compiled plans.
+     * @param dialect              The dialect to render queries in.
+     * @param maxShapes            Maximum number of rendered queries cached per class.
+     * @param listener             The listener to report cache events to, or <code>null</code> for none.
+     * @param detectContradictions Whether built queries are checked for contradicting values, such as inverted range bounds.
+     */
+    public QueryPlanCache(AccessorFactory accessorFactory, QueryDialect dialect, int maxShapes, QueryBuilderListener listener, boolean detectContradictions) {
+        if (maxShapes < 0) {
+            throw new IllegalArgumentException("maxShapes must not be negative");
+        }
+
+        this.accessorFactory = requireNonNull(accessorFactory, "accessorFactory");
+        this.dialect = requireNonNull(dialect, "dialect");
+        this.maxShapes = maxShapes;
+        this.listener = listener;
+        this.detectContradictions = detectContradictions;
+        this.plans = new ClassValue<QueryPlan>() {
+
+            @Override
+            protected QueryPlan computeValue(Class<?> type) {
+                return QueryPlan.compile(type, QueryPlanCache.this);
+            }
+        };
+        this.seekPlans = new ClassValue<SeekPlan>() {
+
+            @Override
+            protected SeekPlan computeValue(Class<?> type) {
+                return SeekPlan.compile(type, QueryPlanCache.this);
+            }
+        };
+    }
+
+    /**
+     * The shared plan cache, using the default accessor factory.
+     *
+     * @return The shared plan cache.
+     */
+    public static QueryPlanCache defaultCache() {
+        return DEFAULT_CACHE;
+    }
+
+    /**
+     * Get the query plan of a class, compiling it on first use.
+     *
+     * @param type The class to get query plan.
+     * @return Query plan of said class.
+     */
+    public QueryPlan get(Class<?> type) {
+        return plans.get(type);
+    }
+
+    /**
+     * Get the keyset pagination plan of a cursor class, compiling it on first use.
+     *
+     * @param type The cursor class to get seek plan.
+     * @return Seek plan of said class.
+     */
+    public SeekPlan seekPlan(Class<?> type) {
+        return seekPlans.get(type);
+    }
+
+    /**
+     * The dialect queries of this cache are rendered in.
+     *
+     * @return The dialect.
+     */
+    public QueryDialect dialect() {
+        return dialect;
+    }
+
+    /**
+     * The listener this cache reports to.
+     *
+     * @return The listener, or <code>null</code> if there is none.
+     */
+    public QueryBuilderListener listener() {
+        return listener;
+    }
+
+    /**
+     * Check if plans of this cache detect filters that cannot match any row.
+     *
+     * @return <code>true</code> if contradictions are detected; <code>false</code> if otherwise.
+     */
+    public boolean detectsContradictions() {
+        return detectContradictions;
+    }
+
+    AccessorFactory accessorFactory() {
+        return accessorFactory;
+    }
+
+    int maxShapes() {
+        return maxShapes;
+    }
+
+    CacheCounters counters() {
+        return counters;
+    }
+
+    /**
+     * Hit and miss counts of rendered query lookups, over all classes of this cache.
+     *
+     * @return Snapshot of cache statistics.
+     */
+    public CacheStatistics statistics() {
+        return counters.snapshot();
+    }
+}
@@ -0,0 +1,193 @@
+package com.vulinh.plan;
+
+import static java.lang.String.format;
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.QueryKind;
+import com.vulinh.metrics.QueryBuilderListener;
+
+/**
+ * Query of a class compiled once for a fixed preset query, for example a long <code>select ... from ... join ...</code> block. The plan of the class, the
+ * preset query and its table of rendered queries are all resolved when the template is compiled, so that rendering only looks up or appends the predicates
+ * of the present fields. Templates compile the plan eagerly, so that invalid classes fail at startup rather than on first use.
+ * <p>
+ * Instances are immutable and thread-safe.
+ *
+ * @param <T> Object type.
+ */
+public final class QueryTemplate<T> {
+
+    private final Class<T>             type;
+    private final String               presetHql;
+    private final QueryKind            kind;
+    private final QueryPlan            plan;
+    private final ShapeCache           shapeCache;
+    private final ShapeTable           shapes;
+    private final long                 presetHash;
+    private final QueryBuilderListener listener;
+
+    private QueryTemplate(Class<T> type, String presetHql, QueryKind kind, QueryPlan plan, QueryBuilderListener listener) {
+        this.type = type;
+        this.presetHql = presetHql;
+        this.kind = kind;
+        this.plan = plan;
+        this.shapeCache = plan.shapeCache(kind);
+        this.shapes = nonNull(shapeCache) ? shapeCache.table(presetHql) : null;
+        this.presetHash = QueryPlan.presetHash(presetHql, kind);
+        this.listener = listener;
+    }
+
+    /**
+     * Compile the template of a class for a preset query.
+     *
+     * @param cache     The plan cache to get the plan of said class from.
+     * @param type      The class whose objects are rendered.
+     * @param presetHql Pre-built query to concatenate with results.
+     * @param kind      The kind of query said preset query starts.
+     * @param <T>       Object type.
+     * @return Compiled template.
+     */
+    public static <T> QueryTemplate<T> compile(QueryPlanCache cache, Class<T> type, String presetHql, QueryKind kind) {
+        return new QueryTemplate<>(requireNonNull(type, "type"), presetHql, requireNonNull(kind, "kind"), cache.get(type), cache.listener());
+    }
+
+    /**
+     * Render the query of an object.
+     *
+     * @param object Input object, an instance of exactly the class of this template.
+     * @return Rendered query, the same <code>String</code> instance for objects of the same shape while it is cached.
+     */
+    public String render(T object) {
+        checkType(object);
+
+        if (listener == null) {
+            return doRender(object);
+        }
+
+        long start = System.nanoTime();
+        String query = doRender(object);
+
+        listener.onQueryBuilt(type, System.nanoTime() - start, plan.fields().size(), query.length());
+
+        return query;
+    }
+
+    private String doRender(T object) {
+        if (shapes == null) {
+            return plan.finish(plan.render(presetHql, object, new StringBuilder()).toString(), kind);
+        }
+
+        return shapeCache.get(presetHql, shapes, plan.presenceMask(object));
+    }
+
+    /**
+     * Build the query of an object together with its parameters, reading every field value only once.
+     *
+     * @param object Input object, an instance of exactly the class of this template.
+     * @return Query and its parameters.
+     */
+    public BuiltQuery build(T object) {
+        checkType(object);
+
+        if (listener == null) {
+            return doBuild(object);
+        }
+
+        long start = System.nanoTime();
+        BuiltQuery builtQuery = doBuild(object);
+
+        listener.onQueryBuilt(type, System.nanoTime() - start, plan.fields().size(), builtQuery.query().length());
+
+        return builtQuery;
+    }
+
+    private BuiltQuery doBuild(T object) {
+        Capture capture = plan.capture(presetHql, object);
+
+        if (nonNull(capture.renderedQuery())) {
+            return capture.toBuiltQuery(plan.finish(capture.renderedQuery(), kind));
+        }
+
+        return capture.toBuiltQuery(shapeCache.get(presetHql, shapes, capture.presenceMask()));
+    }
+
+    /**
+     * Compute the fingerprint of the shape of an object, as {@link QueryPlan#fingerprint(String, Object, QueryKind)} would, without hashing the preset query
+     * again.
+     *
+     * @param object Input object, an instance of exactly the class of this template.
+     * @return Fingerprint of the query of said object.
+     */
+    public long fingerprint(T object) {
+        checkType(object);
+
+        return plan.fingerprint(presetHash, object);
+    }
+
+    /**
+     * Compute a value-aware key of the query of an object, as {@link QueryPlan#cacheKey(String, Object, QueryKind)} would, without hashing the preset query
+     * again.
+     *
+     * @param object Input object, an instance of exactly the class of this template.
+     * @return Value-aware key of the query of said object.
+     */
+    public long cacheKey(T object) {
+        checkType(object);
+
+        return plan.cacheKey(presetHash, object);
+    }
+
+    private void checkType(T object) {
+        // Subclasses have plans of their own, which this template was not compiled for
+        if (object.getClass() != type) {
+            throw new IllegalArgumentException(format("Template of %s cannot render object of %s", type, object.getClass()));
+        }
+    }
+
+    /**
+     * The class this template renders.
+     *
+     * @return The class this template renders.
+     */
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * The preset query results are concatenated with.
+     *
+     * @return The preset query.
+     */
+    public String presetHql() {
+        return presetHql;
+    }
+
+    /**
+     * The kind of queries this template renders.
+     *
+     * @return The kind of queries.
+     */
+    public QueryKind kind() {
+        return kind;
+    }
+
+    /**
+     * Compiled plan of the class of this template, holding its field metadata.
+     *
+     * @return Query plan of said class.
+     */
+    public QueryPlan plan() {
+        return plan;
+    }
+
+    /**
+     * Cache of queries rendered by this template, shared with queries of the same class and kind built without it.
+     *
+     * @return Shape cache of this template, or <code>null</code> if its plan is not maskable.
+     */
+    public ShapeCache shapeCache() {
+        return shapeCache;
+    }
+}
@@ -0,0 +1,38 @@
+package com.vulinh.plan;
+
+import com.vulinh.dialect.QueryDialect;
+
+/**
+ * Dialect rendering parameters as markers instead of placeholders, so that a rendered fragment can later be split into a template and rendered again with
+ * other parameter names. Identifiers are rendered by the wrapped dialect.
+ */
+final class RecordingDialect implements QueryDialect {
+
+    /**
+     * Marks both ends of a parameter name. Identifiers and parameter names never contain it.
+     */
+    static final char MARKER = '\0';
+
+    private final QueryDialect dialect;
+
+    RecordingDialect(QueryDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    @Override
+    public void appendIdentifier(StringBuilder query, String identifier) {
+        dialect.appendIdentifier(query, identifier);
+    }
+
+    @Override
+    public void appendParameter(StringBuilder query, String parameterName) {
+        query.append(MARKER)
+             .append(parameterName)
+             .append(MARKER);
+    }
+
+    @Override
+    public boolean supportsRowValues() {
+        return dialect.supportsRowValues();
+    }
+}
@@ -0,0 +1,302 @@
+package com.vulinh.plan;
+
+import static com.vulinh.util.RetrospectionUtils.createAccessor;
+import static com.vulinh.util.RetrospectionUtils.getValue;
+import static com.vulinh.util.StringUtils.CLOSE_PARENTHESIS;
+import static com.vulinh.util.StringUtils.COMMA;
+import static com.vulinh.util.StringUtils.OPEN_PARENTHESIS;
+import static com.vulinh.util.StringUtils.SPACE;
+import static com.vulinh.util.StringUtils.SPACED_AND;
+import static com.vulinh.util.StringUtils.SPACED_OR;
+import static java.lang.String.format;
+import static java.lang.reflect.Modifier.isStatic;
+
+import com.vulinh.accessor.PropertyAccessor;
+import com.vulinh.annotation.SeekKey;
+import com.vulinh.data.BuilderException;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.ComparisonType;
+import com.vulinh.data.SortDirection;
+import com.vulinh.dialect.QueryDialect;
+import com.vulinh.util.ClassFileUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compiled, immutable keyset (seek) pagination plan of a cursor class, whose fields marked by <code>@SeekKey</code> hold the sort keys of the last seen row.
+ * The seek predicate and the order by clause are rendered once per class. The predicate is rendered as a row value comparison when the dialect supports it
+ * and all keys share the same direction, otherwise it is expanded, for example <code>a &lt;= :seek_a and (a &lt; :seek_a or (a = :seek_a and b &lt;
+ * :seek_b))</code>, where the leading range lets the database use an index range scan.
+ */
+public final class SeekPlan {
+
+    /**
+     * Prefix of seek parameter names, so that they never clash with filter parameters.
+     */
+    public static final String PARAMETER_PREFIX = "seek_";
+
+    private static final String SPACED_ORDER_BY = " order by ";
+
+    private final Class<?>           type;
+    private final Field[]            fields;
+    private final PropertyAccessor[] accessors;
+    private final String             predicate;
+    private final String             orderBy;
+    private final String[]           parameterNames;
+    private final int[]              parameterKeys;
+
+    private SeekPlan(Class<?> type, Field[] fields, PropertyAccessor[] accessors, String predicate, String orderBy, String[] parameterNames,
+                     int[] parameterKeys) {
+        this.type = type;
+        this.fields = fields;
+        this.accessors = accessors;
+        this.predicate = predicate;
+        this.orderBy = orderBy;
+        this.parameterNames = parameterNames;
+        this.parameterKeys = parameterKeys;
+    }
+
+    static SeekPlan compile(Class<?> type, QueryPlanCache cache) {
+        List<Field> keyFields = new ArrayList<>();
+
+        // Read in declaration order, as query plans do, so that errors about duplicate orders name the same fields on every JVM
+        for (Field field : ClassFileUtils.declaredFields(type)) {
+            if (!isStatic(field.getModifiers()) && field.isAnnotationPresent(SeekKey.class)) {
+                keyFields.add(field);
+            }
+        }
+
+        if (keyFields.isEmpty()) {
+            throw new BuilderException(format("Class %s has no field marked as @SeekKey", type));
+        }
+
+        keyFields.sort(Comparator.comparingInt(field -> field.getAnnotation(SeekKey.class).order()));
+
+        int keyCount = keyFields.size();
+        Field[] fields = keyFields.toArray(new Field[0]);
+        PropertyAccessor[] accessors = new PropertyAccessor[keyCount];
+        String[] expressions = new String[keyCount];
+        SortDirection[] directions = new SortDirection[keyCount];
+
+        for (int i = 0; i < keyCount; i++) {
+            SeekKey seekKey = fields[i].getAnnotation(SeekKey.class);
+
+            if (i > 0 && seekKey.order() == fields[i - 1].getAnnotation(SeekKey.class).order()) {
+                throw new BuilderException(format("Fields %s and %s have the same seek key order %d", fields[i - 1], fields[i], seekKey.order()));
+            }
+
+            accessors[i] = createAccessor(type, fields[i], cache.accessorFactory());
+            expressions[i] = FieldDefinition.of(fields[i].getName(), fields[i]::getAnnotation, cache.dialect()).expression();
+            directions[i] = seekKey.direction();
+        }
+
+        StringBuilder orderBy = new StringBuilder(SPACED_ORDER_BY);
+
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) {
+                orderBy.append(COMMA);
+            }
+
+            orderBy.append(expressions[i])
+                   .append(SPACE)
+                   .append(directions[i].sign());
+        }
+
+        PredicateRenderer renderer = new PredicateRenderer(fields, expressions, cache.dialect());
+
+        if (cache.dialect().supportsRowValues() && keyCount > 1 && isUniform(directions)) {
+            renderer.renderRowValue(directions[0]);
+        } else {
+            renderer.renderExpanded(directions);
+        }
+
+        return new SeekPlan(
+            type,
+            fields,
+            accessors,
+            renderer.predicate.toString(),
+            orderBy.toString(),
+            renderer.parameterNames.toArray(new String[0]),
+            renderer.parameterKeys.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    private static boolean isUniform(SortDirection[] directions) {
+        for (SortDirection direction : directions) {
+            if (direction != directions[0]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Append seek predicate and order by clause to a built filter query. Without cursor, which is the case of the first page, only the order by clause is
+     * appended.
+     *
+     * @param filterQuery The built filter query.
+     * @param cursor      The last seen row, an instance of the planned class; or <code>null</code> for the first page.
+     * @return Query with seek predicate and order by clause, and the parameters of both.
+     */
+    public BuiltQuery append(BuiltQuery filterQuery, Object cursor) {
+        int filterCount = filterQuery.parameterCount();
+        int seekCount = cursor == null ? 0 : parameterNames.length;
+
+        String[] names = new String[filterCount + seekCount];
+        Object[] values = new Object[filterCount + seekCount];
+
+        for (int i = 0; i < filterCount; i++) {
+            names[i] = filterQuery.parameterName(i);
+            values[i] = filterQuery.parameterValue(i);
+        }
+
+        if (cursor == null) {
+            return new BuiltQuery(filterQuery.query() + orderBy, names, values, filterCount, filterQuery.isAlwaysEmpty());
+        }
+
+        Object[] keyValues = new Object[fields.length];
+
+        for (int i = 0; i < fields.length; i++) {
+            keyValues[i] = getValue(accessors[i], fields[i], cursor);
+
+            // Rows cannot be compared to a missing key
+            if (keyValues[i] == null) {
+                throw new BuilderException(format("Seek key %s of cursor %s must not be null", fields[i], type));
+            }
+        }
+
+        for (int i = 0; i < seekCount; i++) {
+            names[filterCount + i] = parameterNames[i];
+            values[filterCount + i] = keyValues[parameterKeys[i]];
+        }
+
+        return new BuiltQuery(filterQuery.query() + predicate + orderBy, names, values, filterCount + seekCount, filterQuery.isAlwaysEmpty());
+    }
+
+    /**
+     * Pre-rendered seek predicate, for example <code> and ((e.id &lt; :seek_id))</code>.
+     *
+     * @return Pre-rendered seek predicate.
+     */
+    public String predicate() {
+        return predicate;
+    }
+
+    /**
+     * Pre-rendered order by clause, for example <code> order by e.id desc</code>.
+     *
+     * @return Pre-rendered order by clause.
+     */
+    public String orderBy() {
+        return orderBy;
+    }
+
+    /**
+     * The cursor class this plan was compiled from.
+     *
+     * @return The cursor class.
+     */
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * Renders a seek predicate, recording each parameter occurrence so that positional dialects bind them in order.
+     */
+    private static final class PredicateRenderer {
+
+        final Field[]       fields;
+        final String[]      expressions;
+        final QueryDialect  dialect;
+        final StringBuilder predicate      = new StringBuilder(SPACED_AND).append(OPEN_PARENTHESIS);
+        final List<String>  parameterNames = new ArrayList<>();
+        final List<Integer> parameterKeys  = new ArrayList<>();
+
+        PredicateRenderer(Field[] fields, String[] expressions, QueryDialect dialect) {
+            this.fields = fields;
+            this.expressions = expressions;
+            this.dialect = dialect;
+        }
+
+        void renderRowValue(SortDirection direction) {
+            predicate.append(OPEN_PARENTHESIS);
+
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    predicate.append(COMMA);
+                }
+
+                predicate.append(expressions[i]);
+            }
+
+            predicate.append(CLOSE_PARENTHESIS)
+                     .append(SPACE)
+                     .append(direction.after().sign())
+                     .append(SPACE)
+                     .append(OPEN_PARENTHESIS);
+
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    predicate.append(COMMA);
+                }
+
+                appendParameter(i);
+            }
+
+            predicate.append(CLOSE_PARENTHESIS)
+                     .append(CLOSE_PARENTHESIS);
+        }
+
+        void renderExpanded(SortDirection[] directions) {
+            // The leading range is redundant, but lets the database seek into the index of the first key
+            if (fields.length > 1) {
+                appendComparison(0, directions[0].afterOrEqual());
+                predicate.append(SPACED_AND)
+                         .append(OPEN_PARENTHESIS);
+            }
+
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    predicate.append(SPACED_OR);
+                }
+
+                predicate.append(OPEN_PARENTHESIS);
+
+                // All previous keys are equal, and this key comes after
+                for (int j = 0; j < i; j++) {
+                    appendComparison(j, ComparisonType.EQUAL_TO);
+                    predicate.append(SPACED_AND);
+                }
+
+                appendComparison(i, directions[i].after());
+                predicate.append(CLOSE_PARENTHESIS);
+            }
+
+            if (fields.length > 1) {
+                predicate.append(CLOSE_PARENTHESIS);
+            }
+
+            predicate.append(CLOSE_PARENTHESIS);
+        }
+
+        private void appendComparison(int key, ComparisonType comparisonType) {
+            predicate.append(expressions[key])
+                     .append(SPACE)
+                     .append(comparisonType.sign())
+                     .append(SPACE);
+
+            appendParameter(key);
+        }
+
+        private void appendParameter(int key) {
+            String parameterName = PARAMETER_PREFIX + fields[key].getName();
+
+            dialect.appendParameter(predicate, parameterName);
+            parameterNames.add(parameterName);
+            parameterKeys.add(key);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.vulinh.plan;
+
+import static java.util.Objects.nonNull;
+
+import com.vulinh.data.QueryKind;
+import com.vulinh.metrics.QueryBuilderListener;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of rendered queries of a single class. A rendered query only depends on the preset query and which fields are present, so it is
+ * keyed by the preset query and a presence bitmask, one slot per field of the plan. Equal shapes always get the identical <code>String</code> instance back,
+ * which also helps the query plan cache of Hibernate or the database driver. Each kind of query has its own shape cache, which never holds more than the
+ * maximum number of shapes, even under concurrent misses.
+ */
+public final class ShapeCache {
+
+    private final QueryPlan                         plan;
+    private final QueryKind                         kind;
+    private final int                               maxShapes;
+    private final CacheCounters                     counters;
+    private final QueryBuilderListener              listener;
+    private final ConcurrentMap<String, ShapeTable> queries = new ConcurrentHashMap<>();
+    private final AtomicInteger                     size    = new AtomicInteger();
+    private final LongAdder                         hits    = new LongAdder();
+    private final LongAdder                         misses  = new LongAdder();
+
+    ShapeCache(QueryPlan plan, QueryKind kind, int maxShapes, CacheCounters counters, QueryBuilderListener listener) {
+        this.plan = plan;
+        this.kind = kind;
+        this.maxShapes = maxShapes;
+        this.counters = counters;
+        this.listener = listener;
+    }
+
+    /**
+     * Get the rendered query of a shape, rendering it on cache miss. Once the cache is full, new shapes are rendered without being cached.
+     *
+     * @param presetHql    Pre-built query to concatenate with result.
+     * @param presenceMask Presence bitmask, as returned by {@link QueryPlan#presenceMask(Object)}.
+     * @return Rendered query.
+     */
+    public String get(String presetHql, long presenceMask) {
+        return get(presetHql, queries.get(presetKey(presetHql)), presenceMask);
+    }
+
+    /**
+     * Get the table of rendered queries of a preset query, creating it if needed, so that repeated lookups of said preset query skip hashing it.
+     *
+     * @param presetHql Pre-built query to concatenate with result.
+     * @return Table of rendered queries of said preset query.
+     */
+    ShapeTable table(String presetHql) {
+        return queries.computeIfAbsent(presetKey(presetHql), key -> new ShapeTable());
+    }
+
+    /**
+     * Get the rendered query of a shape from a table already looked up, see {@link #get(String, long)}.
+     *
+     * @param presetHql    Pre-built query to concatenate with result.
+     * @param shapes       Table of rendered queries of said preset query, or <code>null</code> if there is none yet.
+     * @param presenceMask Presence bitmask, as returned by {@link QueryPlan#presenceMask(Object)}.
+     * @return Rendered query.
+     */
+    String get(String presetHql, ShapeTable shapes, long presenceMask) {
+        if (nonNull(shapes)) {
+            String query = shapes.get(presenceMask);
+
+            if (nonNull(query)) {
+                hits.increment();
+                counters.hit();
+
+                if (nonNull(listener)) {
+                    listener.onCacheHit(plan.type());
+                }
+
+                return query;
+            }
+        }
+
+        misses.increment();
+        counters.miss();
+
+        if (nonNull(listener)) {
+            listener.onCacheMiss(plan.type());
+        }
+
+        String query = plan.render(presetHql, presenceMask, kind);
+
+        // Every cached shape was missed once, so shapes are only recorded on miss, whether or not they get cached
+        plan.recordShape(presenceMask);
+
+        if (!reserveSlot()) {
+            return query;
+        }
+
+        if (shapes == null) {
+            shapes = table(presetHql);
+        }
+
+        String existingQuery = shapes.putIfAbsent(presenceMask, query);
+
+        if (nonNull(existingQuery)) {
+            size.decrementAndGet();
+
+            return existingQuery;
+        }
+
+        return query;
+    }
+
+    private boolean reserveSlot() {
+        // Full caches are checked first, so that misses past the limit do not contend on the counter
+        if (size.get() >= maxShapes) {
+            return false;
+        }
+
+        // Slots are reserved before inserting, so that concurrent misses never cache more than the maximum number of shapes
+        if (size.incrementAndGet() > maxShapes) {
+            size.decrementAndGet();
+
+            return false;
+        }
+
+        return true;
+    }
+
+    private static String presetKey(String presetHql) {
+        return nonNull(presetHql) ? presetHql : "";
+    }
+
+    /**
+     * The kind of queries cached.
+     *
+     * @return The kind of queries cached.
+     */
+    public QueryKind kind() {
+        return kind;
+    }
+
+    /**
+     * Number of cached shapes.
+     *
+     * @return Number of cached shapes.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Number of lookups answered from this cache.
+     *
+     * @return Number of cache hits.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of lookups that had to render a new query.
+     *
+     * @return Number of cache misses.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,38 @@
+package com.vulinh.plan;
+
+import com.vulinh.metrics.QueryBuilderListener;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe counter of the distinct shapes a class renders, whatever the preset query, the kind of query, and whether shapes are cached. Each shape is
+ * reported to the listener once, the first time it is rendered. Shapes are counted exactly up to {@link QueryPlan#MAX_TRACKED_SHAPES}, past which no new
+ * shape is tracked, so that classes producing unbounded shapes do not retain unbounded memory.
+ */
+final class ShapeCounter {
+
+    private final Class<?>             type;
+    private final QueryBuilderListener listener;
+    private final Set<Long>            shapes      = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger        cardinality = new AtomicInteger();
+
+    ShapeCounter(Class<?> type, QueryBuilderListener listener) {
+        this.type = type;
+        this.listener = listener;
+    }
+
+    /**
+     * Record a rendered shape, reporting it if it was never rendered before.
+     *
+     * @param shapeKey Key of said shape: its presence bitmask for maskable plans, or its hash for other plans.
+     */
+    void record(long shapeKey) {
+        // Concurrent threads may each add a shape right at the limit, which only overshoots it by a few shapes
+        if (cardinality.get() >= QueryPlan.MAX_TRACKED_SHAPES || !shapes.add(shapeKey)) {
+            return;
+        }
+
+        listener.onNewShape(type, cardinality.incrementAndGet());
+    }
+}
@@ -0,0 +1,98 @@
+package com.vulinh.plan;
+
+/**
+ * Copy-on-write hash table from presence bitmask to rendered query. Lookups are lock-free and do not box the <code>long</code> key, so a cache hit makes no
+ * allocation at all; inserts are synchronized and copy the table, which is fine because they only happen on cache misses and the number of shapes is bounded.
+ */
+final class ShapeTable {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private volatile Entries entries = new Entries(new long[INITIAL_CAPACITY], new String[INITIAL_CAPACITY], 0);
+
+    /**
+     * Get the query of a shape.
+     *
+     * @param presenceMask Presence bitmask.
+     * @return Rendered query, or <code>null</code> if absent.
+     */
+    String get(long presenceMask) {
+        return entries.get(presenceMask);
+    }
+
+    /**
+     * Put the query of a shape unless a query is already present.
+     *
+     * @param presenceMask Presence bitmask.
+     * @param query        Rendered query.
+     * @return The query already present, or <code>null</code> if the given query was put.
+     */
+    synchronized String putIfAbsent(long presenceMask, String query) {
+        Entries current = entries;
+        String existingQuery = current.get(presenceMask);
+
+        if (existingQuery != null) {
+            return existingQuery;
+        }
+
+        // Keep load factor at most 0.5 so that probing stays short
+        int capacity = (current.size + 1) * 2 > current.keys.length ? current.keys.length * 2 : current.keys.length;
+
+        Entries next = new Entries(new long[capacity], new String[capacity], current.size + 1);
+
+        for (int i = 0; i < current.keys.length; i++) {
+            if (current.queries[i] != null) {
+                next.insert(current.keys[i], current.queries[i]);
+            }
+        }
+
+        next.insert(presenceMask, query);
+
+        entries = next;
+
+        return null;
+    }
+
+    private static final class Entries {
+
+        final long[]   keys;
+        final String[] queries;
+        final int      size;
+
+        Entries(long[] keys, String[] queries, int size) {
+            this.keys = keys;
+            this.queries = queries;
+            this.size = size;
+        }
+
+        String get(long key) {
+            int mask = keys.length - 1;
+
+            for (int i = indexOf(key, mask); ; i = (i + 1) & mask) {
+                String query = queries[i];
+
+                if (query == null || keys[i] == key) {
+                    return query;
+                }
+            }
+        }
+
+        void insert(long key, String query) {
+            int mask = keys.length - 1;
+            int i = indexOf(key, mask);
+
+            while (queries[i] != null) {
+                i = (i + 1) & mask;
+            }
+
+            keys[i] = key;
+            queries[i] = query;
+        }
+
+        private static int indexOf(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+
+            return (int) (hash ^ hash >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.vulinh.plan;
+
+import static java.lang.String.format;
+
+import com.vulinh.data.BuilderException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Comparisons with the semantics of a database rather than of Java: numbers compare by value whatever their type, dates compare with timestamps, and
+ * <code>LIKE</code> patterns are matched as such. Callers handle <code>null</code>, which never compares as true in SQL.
+ */
+final class SqlSemantics {
+
+    private SqlSemantics() {
+        throw new UnsupportedOperationException("Cannot instantiate utility class!");
+    }
+
+    /**
+     * Turn a value into a canonical form that compares and hashes like the database would: integral and decimal numbers become <code>BigDecimal</code>
+     * without trailing zeros, and legacy dates become <code>java.time</code> values in the default time zone.
+     *
+     * @param value The value to normalize, not <code>null</code>.
+     * @return Normalized value.
+     */
+    static Object normalize(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).stripTrailingZeros();
+        }
+
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value).stripTrailingZeros();
+        }
+
+        if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue()).stripTrailingZeros();
+        }
+
+        if (value instanceof Number) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+
+        if (value instanceof Character) {
+            return value.toString();
+        }
+
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+
+        if (value instanceof Date) {
+            return LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault());
+        }
+
+        return value;
+    }
+
+    /**
+     * Check if two values already normalized are equal, as <code>=</code> would.
+     *
+     * @param left  Left value, normalized by {@link #normalize(Object)}.
+     * @param right Right value, normalized by {@link #normalize(Object)}.
+     * @return <code>true</code> if said values are equal; <code>false</code> if otherwise.
+     */
+    static boolean equalNormalized(Object left, Object right) {
+        if (left instanceof Comparable && isComparable(left, right)) {
+            return compareNormalized(left, right) == 0;
+        }
+
+        return left.equals(right);
+    }
+
+    /**
+     * Compare two values, as <code>&lt;</code> and <code>&gt;</code> would. A date compares with a timestamp as its start of day.
+     *
+     * @param left  Left value, not <code>null</code>.
+     * @param right Right value, not <code>null</code>.
+     * @return Negative, zero or positive as said left value is less than, equal to or greater than said right value.
+     */
+    static int compare(Object left, Object right) {
+        return compareNormalized(normalize(left), normalize(right));
+    }
+
+    /**
+     * Check if two values can be compared, as {@link #compare(Object, Object)} would.
+     *
+     * @param left  Left value, not <code>null</code>.
+     * @param right Right value, not <code>null</code>.
+     * @return <code>true</code> if said values can be compared; <code>false</code> if otherwise.
+     */
+    static boolean isOrderable(Object left, Object right) {
+        Object normalizedLeft = normalize(left);
+        Object normalizedRight = normalize(right);
+
+        if (normalizedLeft instanceof LocalDate && normalizedRight instanceof LocalDateTime
+            || normalizedLeft instanceof LocalDateTime && normalizedRight instanceof LocalDate) {
+            return true;
+        }
+
+        return isComparable(normalizedLeft, normalizedRight);
+    }
+
+    /**
+     * Compare two values already normalized, see {@link #compare(Object, Object)}.
+     *
+     * @param left  Left value, normalized by {@link #normalize(Object)}.
+     * @param right Right value, normalized by {@link #normalize(Object)}.
+     * @return Negative, zero or positive as said left value is less than, equal to or greater than said right value.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareNormalized(Object left, Object right) {
+        if (left instanceof LocalDate && right instanceof LocalDateTime) {
+            left = ((LocalDate) left).atStartOfDay();
+        } else if (left instanceof LocalDateTime && right instanceof LocalDate) {
+            right = ((LocalDate) right).atStartOfDay();
+        }
+
+        if (!isComparable(left, right)) {
+            throw new BuilderException(format("Cannot compare %s with %s", left.getClass(), right.getClass()));
+        }
+
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private static boolean isComparable(Object left, Object right) {
+        return left instanceof Comparable && (left.getClass().isInstance(right) || right.getClass().isInstance(left));
+    }
+
+    /**
+     * Compile a <code>LIKE</code> pattern, where <code>%</code> matches any sequence of characters and <code>_</code> matches a single one. A backslash
+     * escapes the next character, which is the default of PostgreSQL, MySQL and H2.
+     *
+     * @param likePattern The pattern to compile.
+     * @return Equivalent regular expression.
+     */
+    static Pattern likePattern(String likePattern) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+
+        for (int i = 0; i < likePattern.length(); i++) {
+            char c = likePattern.charAt(i);
+
+            if (c == '\\' && i + 1 < likePattern.length()) {
+                literal.append(likePattern.charAt(++i));
+
+                continue;
+            }
+
+            if (c != '%' && c != '_') {
+                literal.append(c);
+
+                continue;
+            }
+
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+
+            regex.append(c == '%' ? ".*" : ".");
+        }
+
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * Find the in-memory equivalent of a wrap method.
+     *
+     * @param wrapMethod Name of the wrap method, case-insensitive: <code>lower</code>, <code>upper</code>, <code>trim</code>, <code>date</code>,
+     *                   <code>trunc</code> or <code>year</code>.
+     * @return Function computing said method, or <code>null</code> if it has no known equivalent.
+     */
+    static UnaryOperator<Object> wrapFunction(String wrapMethod) {
+        switch (wrapMethod.toLowerCase(Locale.ENGLISH)) {
+            case "lower":
+                return value -> value.toString().toLowerCase(Locale.ROOT);
+            case "upper":
+                return value -> value.toString().toUpperCase(Locale.ROOT);
+            case "trim":
+                return value -> value.toString().trim();
+            case "date":
+            case "trunc":
+                return SqlSemantics::toLocalDate;
+            case "year":
+                return value -> toLocalDate(value).getYear();
+            default:
+                return null;
+        }
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        Object normalized = normalize(value);
+
+        if (normalized instanceof LocalDate) {
+            return (LocalDate) normalized;
+        }
+
+        if (normalized instanceof LocalDateTime) {
+            return ((LocalDateTime) normalized).toLocalDate();
+        }
+
+        if (normalized instanceof OffsetDateTime) {
+            return ((OffsetDateTime) normalized).toLocalDate();
+        }
+
+        if (normalized instanceof ZonedDateTime) {
+            return ((ZonedDateTime) normalized).toLocalDate();
+        }
+
+        throw new BuilderException(format("Cannot truncate value of %s, it must be a date or a timestamp", value.getClass()));
+    }
+}
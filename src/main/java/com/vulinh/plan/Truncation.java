@@ -0,0 +1,182 @@
+package com.vulinh.plan;
+
+import static java.lang.String.format;
+
+import com.vulinh.data.BuilderException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Truncation done by a known wrap method, used to rewrite <code>date(e.created) = :created</code> into a half-open range on the bare column. Bounds keep
+ * the type of the compared value, and <code>java.util.Date</code> values are truncated in the default time zone.
+ */
+enum Truncation {
+
+    /**
+     * <code>date(x)</code> and <code>trunc(x)</code>: the day of a timestamp.
+     */
+    DAY {
+        @Override
+        Object start(Object value) {
+            if (value instanceof LocalDate) {
+                return value;
+            }
+
+            if (value instanceof LocalDateTime) {
+                return ((LocalDateTime) value).truncatedTo(ChronoUnit.DAYS);
+            }
+
+            if (value instanceof OffsetDateTime) {
+                return ((OffsetDateTime) value).truncatedTo(ChronoUnit.DAYS);
+            }
+
+            if (value instanceof ZonedDateTime) {
+                return ((ZonedDateTime) value).truncatedTo(ChronoUnit.DAYS);
+            }
+
+            if (value instanceof Date) {
+                return startOf((Date) value, false);
+            }
+
+            throw unsupported(value);
+        }
+    },
+
+    /**
+     * <code>year(x)</code>: the year of a timestamp. Values may also be a year number, whose bounds are <code>LocalDate</code> values.
+     */
+    YEAR {
+        @Override
+        Object start(Object value) {
+            if (value instanceof Number) {
+                return LocalDate.of(((Number) value).intValue(), 1, 1);
+            }
+
+            if (value instanceof LocalDate) {
+                return ((LocalDate) value).withDayOfYear(1);
+            }
+
+            if (value instanceof LocalDateTime) {
+                return ((LocalDateTime) value).withDayOfYear(1).truncatedTo(ChronoUnit.DAYS);
+            }
+
+            if (value instanceof OffsetDateTime) {
+                return ((OffsetDateTime) value).withDayOfYear(1).truncatedTo(ChronoUnit.DAYS);
+            }
+
+            if (value instanceof ZonedDateTime) {
+                return ((ZonedDateTime) value).withDayOfYear(1).truncatedTo(ChronoUnit.DAYS);
+            }
+
+            if (value instanceof Date) {
+                return startOf((Date) value, true);
+            }
+
+            throw unsupported(value);
+        }
+    };
+
+    /**
+     * Find the truncation done by a wrap method.
+     *
+     * @param wrapMethod Name of the wrap method, case-insensitive.
+     * @return Truncation of said method, or <code>null</code> if it is not a known truncation.
+     */
+    static Truncation of(String wrapMethod) {
+        switch (wrapMethod.toLowerCase(Locale.ENGLISH)) {
+            case "date":
+            case "trunc":
+                return DAY;
+            case "year":
+                return YEAR;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Inclusive lower bound of the range truncated to the same value as a given value.
+     *
+     * @param value The compared value.
+     * @return Lower bound, of the same type as said value (or <code>LocalDate</code> for year numbers).
+     */
+    abstract Object start(Object value);
+
+    /**
+     * Exclusive upper bound of the range truncated to the same value as a given value.
+     *
+     * @param value The compared value.
+     * @return Upper bound, of the same type as its lower bound.
+     */
+    Object end(Object value) {
+        Object start = start(value);
+        ChronoUnit unit = this == DAY ? ChronoUnit.DAYS : ChronoUnit.YEARS;
+
+        if (start instanceof LocalDate) {
+            return ((LocalDate) start).plus(1, unit);
+        }
+
+        if (start instanceof LocalDateTime) {
+            return ((LocalDateTime) start).plus(1, unit);
+        }
+
+        if (start instanceof OffsetDateTime) {
+            return ((OffsetDateTime) start).plus(1, unit);
+        }
+
+        if (start instanceof ZonedDateTime) {
+            return ((ZonedDateTime) start).plus(1, unit);
+        }
+
+        return plus((Date) start, this == DAY ? Calendar.DAY_OF_MONTH : Calendar.YEAR);
+    }
+
+    private static Date startOf(Date value, boolean year) {
+        Calendar calendar = Calendar.getInstance();
+
+        calendar.setTime(value);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+
+        if (year) {
+            calendar.set(Calendar.DAY_OF_YEAR, 1);
+        }
+
+        return sameType(value, calendar.getTimeInMillis());
+    }
+
+    private static Date plus(Date start, int calendarField) {
+        Calendar calendar = Calendar.getInstance();
+
+        calendar.setTime(start);
+        calendar.add(calendarField, 1);
+
+        return sameType(start, calendar.getTimeInMillis());
+    }
+
+    private static Date sameType(Date value, long millis) {
+        // Keep the JDBC type of the value, so that it binds the same way
+        if (value instanceof Timestamp) {
+            return new Timestamp(millis);
+        }
+
+        if (value instanceof java.sql.Date) {
+            return new java.sql.Date(millis);
+        }
+
+        return new Date(millis);
+    }
+
+    private static BuilderException unsupported(Object value) {
+        return new BuilderException(format("Cannot truncate value of %s, it must be a date or a timestamp", value.getClass()));
+    }
+}
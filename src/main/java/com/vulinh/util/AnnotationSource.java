@@ -0,0 +1,29 @@
+package com.vulinh.util;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Anything annotations can be read from. This lets the same inspection logic run on reflected fields (<code>Field::getAnnotation</code>) as well as on
+ * source elements during annotation processing (<code>Element::getAnnotation</code>).
+ */
+public interface AnnotationSource {
+
+    /**
+     * Get an annotation of the given type.
+     *
+     * @param annotationType The annotation type.
+     * @param <A>            Annotation type.
+     * @return The annotation, or <code>null</code> if not present.
+     */
+    <A extends Annotation> A getAnnotation(Class<A> annotationType);
+
+    /**
+     * Check if an annotation of the given type is present.
+     *
+     * @param annotationType The annotation type.
+     * @return <code>true</code> if said annotation is present; <code>false</code> if otherwise.
+     */
+    default boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
+        return getAnnotation(annotationType) != null;
+    }
+}
@@ -1,14 +1,29 @@
 package com.vulinh.util;
 
-import static java.util.Objects.isNull;
-
+import static com.vulinh.util.StringUtils.isNotBlank;
+import static java.lang.String.format;
+import static java.util.Objects.nonNull;
+
+import com.vulinh.annotation.AbsentWhen;
+import com.vulinh.annotation.IndexHint;
+import com.vulinh.annotation.OptimizerHint;
+import com.vulinh.annotation.Order;
+import com.vulinh.annotation.Selectivity;
 import com.vulinh.annotation.comparison.*;
+import com.vulinh.data.BuilderException;
 import com.vulinh.data.InvalidAnnotationCombinationException;
+import com.vulinh.data.QueryHint;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Utility class for doing some inspection on the annotations used by this library.
@@ -27,92 +42,203 @@ public final class AnnotationUtils {
      * @param field The field to check.
      */
     public static void checkInvalidAnnotationCombination(Field field) {
-        Annotation[] annotations = field.getAnnotations();
+        Class<? extends Annotation>[] invalidCombination = findInvalidAnnotationCombination(field::getAnnotation);
 
-        for (int i = 0; i < annotations.length; i++) {
-            Class<? extends Annotation> type = annotations[i].annotationType();
+        if (nonNull(invalidCombination)) {
+            throw new InvalidAnnotationCombinationException(field, invalidCombination[0], invalidCombination[1]);
+        }
+    }
 
-            for (int j = i + 1; j < annotations.length; j++) {
-                Class<? extends Annotation> innerType = annotations[j].annotationType();
+    /**
+     * Find the first pair of annotations that forms an 'invalid' combination, as described in {@link #checkInvalidAnnotationCombination(Field)}.
+     *
+     * @param source Annotations to check, for example those of a field.
+     * @return An array of the two offending annotation types, or <code>null</code> if the combination is valid.
+     */
+    public static Class<? extends Annotation>[] findInvalidAnnotationCombination(AnnotationSource source) {
+        return findInvalidAnnotationCombination(comparisonMask(source));
+    }
 
-                if (INVALID_COMBINATIONS.contains(new Combination(type, innerType))) {
-                    throw new InvalidAnnotationCombinationException(field, type, innerType);
-                }
+    /**
+     * Find the first pair of annotations that forms an 'invalid' combination in a comparison mask, as returned by {@link #comparisonMask(AnnotationSource)}.
+     * Checking each annotation is a single mask test against the annotations it cannot be paired with.
+     *
+     * @param comparisonMask The comparison mask to check.
+     * @return An array of the two offending annotation types, or <code>null</code> if the combination is valid.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Class<? extends Annotation>[] findInvalidAnnotationCombination(int comparisonMask) {
+        for (int remaining = comparisonMask; remaining != 0; remaining &= remaining - 1) {
+            int ordinal = Integer.numberOfTrailingZeros(remaining);
+            int conflicts = comparisonMask & INVALID_PARTNERS[ordinal];
+
+            if (conflicts != 0) {
+                return new Class[]{COMPARISON_ANNOTATIONS.get(ordinal), COMPARISON_ANNOTATIONS.get(Integer.numberOfTrailingZeros(conflicts))};
             }
         }
+
+        return null;
     }
 
-    private static final Set<Combination> INVALID_COMBINATIONS;
+    /**
+     * Compute the comparison mask of some annotations, where bit <code>i</code> is set if the comparison annotation of ordinal <code>i</code> in
+     * {@link #comparisonAnnotations()} is present.
+     *
+     * @param source Annotations to inspect, for example those of a field.
+     * @return Comparison mask of said annotations.
+     */
+    public static int comparisonMask(AnnotationSource source) {
+        int mask = 0;
 
-    static {
-        INVALID_COMBINATIONS = new HashSet<>();
-
-        Class<?>[] comparisonAnnotations = new Class<?>[]{
-            Between.class,
-            GreaterThan.class,
-            GreaterThanOrEqualTo.class,
-            LessThan.class,
-            LessThanOrEqualTo.class,
-            IsNull.class,
-            IsNotNull.class,
-            NotEqual.class,
-            Like.class,
-            InRange.class,
-            OutRange.class
-        };
-
-        for (Class<?> clazz : comparisonAnnotations) {
-            for (Class<?> innerClazz : comparisonAnnotations) {
-                // Same annotation cannot be used multiple times on a single field, as such, it doesn't matter
-                if (!clazz.equals(innerClazz)) {
-                    addSet(clazz, innerClazz);
-                }
+        for (int ordinal = 0; ordinal < COMPARISON_ANNOTATIONS.size(); ordinal++) {
+            if (source.isAnnotationPresent(COMPARISON_ANNOTATIONS.get(ordinal))) {
+                mask |= 1 << ordinal;
             }
         }
+
+        return mask;
     }
 
-    private static void addSet(Class<?> annotation1, Class<?> annotation2) {
-        INVALID_COMBINATIONS.add(new Combination(annotation1, annotation2));
+    /**
+     * Comparison annotations that are checked for invalid combinations, in ordinal order.
+     *
+     * @return Unmodifiable list of comparison annotations.
+     */
+    public static List<Class<? extends Annotation>> comparisonAnnotations() {
+        return COMPARISON_ANNOTATIONS;
+    }
+
+    /**
+     * Find the optimizer hints (<code>@IndexHint</code>, <code>@OptimizerHint</code>) of a class or a field.
+     *
+     * @param element      The class or field to inspect.
+     * @param defaultTable Table alias of index hints that do not name their own, may be empty.
+     * @return Unmodifiable list of hints, index hint first; empty if there is none.
+     */
+    public static List<QueryHint> findQueryHints(AnnotatedElement element, String defaultTable) {
+        return findQueryHints(element::getAnnotation, defaultTable);
     }
 
     /**
-     * Inner class Combination, consists of a pair of 'comparison' annotations. As private inner class, nothing outside this class can access it.
+     * Find the optimizer hints of a class or a field from its annotations, see {@link #findQueryHints(AnnotatedElement, String)}.
+     *
+     * @param source       Annotations of the class or field to inspect, for example of a source element.
+     * @param defaultTable Table alias of index hints that do not name their own, may be empty.
+     * @return Unmodifiable list of hints, index hint first; empty if there is none.
      */
-    private static class Combination {
+    public static List<QueryHint> findQueryHints(AnnotationSource source, String defaultTable) {
+        IndexHint indexHint = source.getAnnotation(IndexHint.class);
+        OptimizerHint optimizerHint = source.getAnnotation(OptimizerHint.class);
 
-        private final Class<?> annotation1;
-        private final Class<?> annotation2;
+        if (indexHint == null && optimizerHint == null) {
+            return Collections.emptyList();
+        }
 
-        Combination(Class<?> annotation1, Class<?> annotation2) {
-            this.annotation1 = annotation1;
-            this.annotation2 = annotation2;
+        List<QueryHint> hints = new ArrayList<>();
+
+        if (nonNull(indexHint)) {
+            hints.add(QueryHint.index(isNotBlank(indexHint.table()) ? indexHint.table() : defaultTable, indexHint.value()));
         }
 
-        @Override
-        public boolean equals(Object other) {
-            if (this == other) {
-                return true;
+        if (nonNull(optimizerHint)) {
+            for (String text : optimizerHint.value()) {
+                hints.add(QueryHint.optimizer(text));
             }
+        }
+
+        return Collections.unmodifiableList(hints);
+    }
+
+    /**
+     * Sort fields into the canonical order of their predicates: by <code>@Order</code> first (unordered fields last), then by <code>@Selectivity</code>
+     * (most selective first, fields without it last). The sort is stable, so fields that compare equal keep their order, which should be declaration order.
+     *
+     * @param fields      Fields to sort, in declaration order.
+     * @param annotations Function getting the annotations of a field.
+     * @param <T>         Field type, for example a reflected field or a source element.
+     */
+    public static <T> void sortByPredicateOrder(List<T> fields, Function<T, AnnotationSource> annotations) {
+        // Sorting may not compare every field, for example a single one, so that hints are checked beforehand
+        for (T field : fields) {
+            selectivity(annotations.apply(field));
+        }
+
+        fields.sort(Comparator.comparingInt((T field) -> predicateOrder(annotations.apply(field)))
+                              .thenComparingDouble(field -> selectivity(annotations.apply(field))));
+    }
 
-            if (isNull(other) || getClass() != other.getClass()) {
-                return false;
+    /**
+     * Find the names of the boolean properties that tell whether other fields are present, see <code>@AbsentWhen(flag = ...)</code>. Such properties are
+     * bookkeeping of the filter rather than predicates of their own.
+     *
+     * @param fields      Fields to inspect.
+     * @param annotations Function getting the annotations of a field.
+     * @param <T>         Field type, for example a reflected field or a source element.
+     * @return Names of presence flags, empty if there is none.
+     */
+    public static <T> Set<String> findPresenceFlags(List<T> fields, Function<T, AnnotationSource> annotations) {
+        Set<String> presenceFlags = new HashSet<>();
+
+        for (T field : fields) {
+            AbsentWhen absentWhen = annotations.apply(field).getAnnotation(AbsentWhen.class);
+
+            if (nonNull(absentWhen) && isNotBlank(absentWhen.flag())) {
+                presenceFlags.add(absentWhen.flag());
             }
+        }
 
-            Combination that = (Combination) other;
-            return Objects.equals(annotation1, that.annotation1) && Objects.equals(annotation2, that.annotation2);
+        return presenceFlags;
+    }
+
+    private static int predicateOrder(AnnotationSource source) {
+        Order order = source.getAnnotation(Order.class);
+
+        return nonNull(order) ? order.value() : Integer.MAX_VALUE;
+    }
+
+    private static double selectivity(AnnotationSource source) {
+        Selectivity selectivity = source.getAnnotation(Selectivity.class);
+
+        if (selectivity == null) {
+            return 1.0;
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(annotation1, annotation2);
+        if (!(selectivity.value() >= 0.0 && selectivity.value() <= 1.0)) {
+            throw new BuilderException(format("Selectivity %s is not a fraction between 0 and 1", selectivity.value()));
         }
 
-        @Override
-        public String toString() {
-            return "Combination{" +
-                "annotation1=" + annotation1 +
-                ", annotation2=" + annotation2 +
-                '}';
+        return selectivity.value();
+    }
+
+    private static final List<Class<? extends Annotation>> COMPARISON_ANNOTATIONS = Collections.unmodifiableList(Arrays.asList(
+        Between.class,
+        GreaterThan.class,
+        GreaterThanOrEqualTo.class,
+        LessThan.class,
+        LessThanOrEqualTo.class,
+        IsNull.class,
+        IsNotNull.class,
+        NotEqual.class,
+        Like.class,
+        InRange.class,
+        OutRange.class,
+        In.class,
+        NotIn.class
+    ));
+
+    /**
+     * For each ordinal, the mask of annotations it cannot be paired with.
+     */
+    private static final int[] INVALID_PARTNERS;
+
+    static {
+        INVALID_PARTNERS = new int[COMPARISON_ANNOTATIONS.size()];
+
+        int allComparisons = (1 << COMPARISON_ANNOTATIONS.size()) - 1;
+
+        for (int ordinal = 0; ordinal < INVALID_PARTNERS.length; ordinal++) {
+            // Same annotation cannot be used multiple times on a single field, as such, it doesn't matter
+            INVALID_PARTNERS[ordinal] = allComparisons & ~(1 << ordinal);
         }
     }
-}
\ No newline at end of file
+}
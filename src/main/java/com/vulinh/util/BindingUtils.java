@@ -0,0 +1,30 @@
+package com.vulinh.util;
+
+import com.vulinh.data.BuiltQuery;
+import javax.persistence.Query;
+
+/**
+ * Utility class for binding built queries to persistence queries. JPA is an optional dependency of this library, so this class must only be used when it is
+ * present on the classpath.
+ */
+public final class BindingUtils {
+
+    private BindingUtils() {
+        throw new UnsupportedOperationException("Cannot instantiate utility class!");
+    }
+
+    /**
+     * Bind all parameters of a built query to a JPA query. Hibernate 5.2+ <code>org.hibernate.query.Query</code> is a JPA query as well, so it can be bound
+     * the same way; for older Hibernate queries, use <code>builtQuery.bind(query::setParameter)</code> instead.
+     *
+     * @param query      The JPA query, created from {@link BuiltQuery#query()}.
+     * @param builtQuery The built query holding parameters.
+     * @param <Q>        Query type.
+     * @return The same JPA query, for chaining.
+     */
+    public static <Q extends Query> Q bind(Q query, BuiltQuery builtQuery) {
+        builtQuery.bind(query::setParameter);
+
+        return query;
+    }
+}
@@ -0,0 +1,154 @@
+package com.vulinh.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for reading class metadata that reflection does not guarantee. <code>Class.getDeclaredFields()</code> returns fields in no particular
+ * order, while the class file lists them in declaration order, which compilers keep from source code.
+ */
+public final class ClassFileUtils {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private ClassFileUtils() {
+        throw new UnsupportedOperationException("Cannot instantiate utility class!");
+    }
+
+    /**
+     * Get the declared fields of a class in declaration order, as read from its class file. If the class file cannot be read, for example for classes
+     * generated at runtime or compiled into a native image, fields are sorted by name instead, which is still the same on every run.
+     *
+     * @param type The class to inspect.
+     * @return Declared fields of said class, in declaration order.
+     */
+    public static Field[] declaredFields(Class<?> type) {
+        Field[] fields = type.getDeclaredFields();
+        List<String> names = readFieldNames(type);
+
+        if (names == null) {
+            Arrays.sort(fields, Comparator.comparing(Field::getName));
+
+            return fields;
+        }
+
+        Map<String, Integer> positions = new HashMap<>();
+
+        for (int i = 0; i < names.size(); i++) {
+            positions.put(names.get(i), i);
+        }
+
+        // Fields unknown to the class file, if any, come last in name order
+        Arrays.sort(fields, Comparator.comparing((Field field) -> positions.getOrDefault(field.getName(), Integer.MAX_VALUE))
+                                      .thenComparing(Field::getName));
+
+        return fields;
+    }
+
+    private static List<String> readFieldNames(Class<?> type) {
+        String resourceName = type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class";
+
+        try (InputStream resource = type.getResourceAsStream(resourceName)) {
+            if (resource == null) {
+                return null;
+            }
+
+            DataInputStream input = new DataInputStream(new BufferedInputStream(resource));
+
+            if (input.readInt() != MAGIC) {
+                return null;
+            }
+
+            // Minor and major versions
+            input.skipBytes(4);
+
+            String[] utf8Constants = readUtf8Constants(input);
+
+            // Access flags, this class and super class
+            input.skipBytes(6);
+            input.skipBytes(2 * input.readUnsignedShort());
+
+            int fieldCount = input.readUnsignedShort();
+            List<String> names = new ArrayList<>(fieldCount);
+
+            for (int i = 0; i < fieldCount; i++) {
+                // Access flags
+                input.skipBytes(2);
+                names.add(utf8Constants[input.readUnsignedShort()]);
+                // Descriptor
+                input.skipBytes(2);
+                skipAttributes(input);
+            }
+
+            return names;
+        } catch (IOException | RuntimeException ex) {
+            // Unreadable class files fall back to name order
+            return null;
+        }
+    }
+
+    private static String[] readUtf8Constants(DataInputStream input) throws IOException {
+        int count = input.readUnsignedShort();
+        String[] utf8Constants = new String[count];
+
+        // Constant pool indexes start at 1
+        for (int i = 1; i < count; i++) {
+            int tag = input.readUnsignedByte();
+
+            switch (tag) {
+                case 1:
+                    utf8Constants[i] = input.readUTF();
+                    break;
+                case 5:
+                case 6:
+                    // Long and double constants take two entries
+                    input.skipBytes(8);
+                    i++;
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    input.skipBytes(4);
+                    break;
+                case 15:
+                    input.skipBytes(3);
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    input.skipBytes(2);
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        return utf8Constants;
+    }
+
+    private static void skipAttributes(DataInputStream input) throws IOException {
+        int attributeCount = input.readUnsignedShort();
+
+        for (int i = 0; i < attributeCount; i++) {
+            // Attribute name
+            input.skipBytes(2);
+            input.skipBytes(input.readInt());
+        }
+    }
+}
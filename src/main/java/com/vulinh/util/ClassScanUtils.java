@@ -0,0 +1,130 @@
+package com.vulinh.util;
+
+import static java.lang.String.format;
+
+import com.vulinh.data.BuilderException;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for finding classes that use the annotations of this library on the classpath, without any third party scanning library. Directories and
+ * jar files are supported.
+ */
+public final class ClassScanUtils {
+
+    private static final String ANNOTATION_PACKAGE = "com.vulinh.annotation.";
+    private static final String CLASS_SUFFIX       = ".class";
+
+    private ClassScanUtils() {
+        throw new UnsupportedOperationException("Cannot instantiate utility class!");
+    }
+
+    /**
+     * Find classes in a package and its sub-packages that have at least one field annotated by this library. Classes are loaded without being initialized,
+     * and classes that cannot be loaded are skipped.
+     *
+     * @param classLoader The class loader to scan.
+     * @param basePackage The package to scan, for example <code>com.example.dto</code>.
+     * @return Names of found classes, in alphabetical order.
+     */
+    public static Set<String> findAnnotatedClassNames(ClassLoader classLoader, String basePackage) {
+        String basePath = basePackage.replace('.', '/');
+        Set<String> classNames = new TreeSet<>();
+
+        try {
+            Enumeration<URL> resources = classLoader.getResources(basePath);
+
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+
+                if ("file".equals(resource.getProtocol())) {
+                    scanDirectory(Paths.get(resource.toURI()), basePackage, classNames);
+                } else if ("jar".equals(resource.getProtocol())) {
+                    scanJar(resource, basePath, classNames);
+                }
+            }
+        } catch (IOException | URISyntaxException ex) {
+            throw new BuilderException(format("Cannot scan package %s", basePackage), ex);
+        }
+
+        classNames.removeIf(className -> !isAnnotated(classLoader, className));
+
+        return classNames;
+    }
+
+    /**
+     * Check if a class has at least one field annotated by this library.
+     *
+     * @param type The class to check.
+     * @return <code>true</code> if said class uses annotations of this library; <code>false</code> if otherwise.
+     */
+    public static boolean isAnnotated(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            for (Annotation annotation : field.getDeclaredAnnotations()) {
+                if (annotation.annotationType().getName().startsWith(ANNOTATION_PACKAGE)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isAnnotated(ClassLoader classLoader, String className) {
+        try {
+            Class<?> type = Class.forName(className, false, classLoader);
+
+            return !type.isAnnotation() && !type.isInterface() && isAnnotated(type);
+        } catch (ClassNotFoundException | LinkageError ex) {
+            // Classes with missing dependencies cannot be query objects of the running application
+            return false;
+        }
+    }
+
+    private static void scanDirectory(Path directory, String basePackage, Set<String> classNames) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(path -> isClassFile(path.getFileName().toString()))
+                 .forEach(path -> {
+                     String relativeName = directory.relativize(path).toString().replace(path.getFileSystem().getSeparator(), ".");
+
+                     classNames.add(basePackage + "." + relativeName.substring(0, relativeName.length() - CLASS_SUFFIX.length()));
+                 });
+        }
+    }
+
+    private static void scanJar(URL resource, String basePath, Set<String> classNames) throws IOException {
+        JarURLConnection connection = (JarURLConnection) resource.openConnection();
+
+        // A cached jar file would be shared with, and closed under, other users of the same URL
+        connection.setUseCaches(false);
+
+        try (JarFile jarFile = connection.getJarFile()) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+
+            while (entries.hasMoreElements()) {
+                String entryName = entries.nextElement().getName();
+
+                if (entryName.startsWith(basePath + "/") && isClassFile(entryName.substring(entryName.lastIndexOf('/') + 1))) {
+                    classNames.add(entryName.substring(0, entryName.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+                }
+            }
+        }
+    }
+
+    private static boolean isClassFile(String fileName) {
+        return fileName.endsWith(CLASS_SUFFIX) && !"module-info.class".equals(fileName) && !"package-info.class".equals(fileName);
+    }
+}
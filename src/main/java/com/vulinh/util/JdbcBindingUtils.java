@@ -0,0 +1,97 @@
+package com.vulinh.util;
+
+import com.vulinh.data.BuiltQuery;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Utility class for binding built queries to JDBC statements. Queries must be rendered by a positional dialect such as
+ * {@link com.vulinh.dialect.JdbcDialect}, where parameters are bound in order of appearance.
+ */
+public final class JdbcBindingUtils {
+
+    private JdbcBindingUtils() {
+        throw new UnsupportedOperationException("Cannot instantiate utility class!");
+    }
+
+    /**
+     * Bind all parameter occurrences of a built query to a prepared statement, in order of appearance. Common value types are bound through their typed
+     * setters (<code>setLong</code>, <code>setInt</code>, <code>setTimestamp</code>, ...), so the driver does not have to inspect them as it would for
+     * <code>setObject</code>.
+     *
+     * @param statement  The statement, prepared from {@link BuiltQuery#query()}.
+     * @param builtQuery The built query holding parameters.
+     * @param <S>        Statement type.
+     * @return The same statement, for chaining.
+     * @throws SQLException If a parameter cannot be bound.
+     */
+    public static <S extends PreparedStatement> S bind(S statement, BuiltQuery builtQuery) throws SQLException {
+        for (int i = 0; i < builtQuery.parameterCount(); i++) {
+            // JDBC parameter indexes start at 1
+            bindValue(statement, i + 1, builtQuery.parameterValue(i));
+        }
+
+        return statement;
+    }
+
+    /**
+     * Bind a single value through its typed setter, falling back to <code>setObject</code> for other types. Absent fields bind no parameter, but
+     * <code>null</code> can still be bound, for example as an element of an <code>@In</code> list; it is bound by <code>setNull</code> with the untyped
+     * {@link Types#NULL}, as its type cannot be told from the value.
+     *
+     * @param statement The prepared statement.
+     * @param index     One-based parameter index.
+     * @param value     The value to bind, may be <code>null</code>.
+     * @throws SQLException If the value cannot be bound.
+     */
+    public static void bindValue(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.NULL);
+        } else if (value instanceof String) {
+            statement.setString(index, (String) value);
+        } else if (value instanceof Long) {
+            statement.setLong(index, (Long) value);
+        } else if (value instanceof Integer) {
+            statement.setInt(index, (Integer) value);
+        } else if (value instanceof Short) {
+            statement.setShort(index, (Short) value);
+        } else if (value instanceof Byte) {
+            statement.setByte(index, (Byte) value);
+        } else if (value instanceof Double) {
+            statement.setDouble(index, (Double) value);
+        } else if (value instanceof Float) {
+            statement.setFloat(index, (Float) value);
+        } else if (value instanceof Boolean) {
+            statement.setBoolean(index, (Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            statement.setBigDecimal(index, (BigDecimal) value);
+        } else if (value instanceof Timestamp) {
+            statement.setTimestamp(index, (Timestamp) value);
+        } else if (value instanceof Date) {
+            statement.setDate(index, (Date) value);
+        } else if (value instanceof Time) {
+            statement.setTime(index, (Time) value);
+        } else if (value instanceof java.util.Date) {
+            statement.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+        } else if (value instanceof LocalDateTime) {
+            statement.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+        } else if (value instanceof LocalDate) {
+            statement.setDate(index, Date.valueOf((LocalDate) value));
+        } else if (value instanceof LocalTime) {
+            statement.setTime(index, Time.valueOf((LocalTime) value));
+        } else if (value instanceof Instant) {
+            statement.setTimestamp(index, Timestamp.from((Instant) value));
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+}
@@ -3,22 +3,39 @@ package com.vulinh.util;
 import static java.lang.String.format;
 import static java.util.Objects.nonNull;
 
+import com.vulinh.accessor.AccessorFactory;
+import com.vulinh.accessor.BooleanPropertyAccessor;
+import com.vulinh.accessor.DoublePropertyAccessor;
+import com.vulinh.accessor.LongPropertyAccessor;
+import com.vulinh.accessor.PropertyAccessor;
 import com.vulinh.data.BuilderException;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Utility class for doing some retrospection by this library.
  */
 public final class RetrospectionUtils {
 
+    private static final ClassValue<ConcurrentMap<String, PropertyAccessor>> ACCESSORS = new ClassValue<ConcurrentMap<String, PropertyAccessor>>() {
+
+        @Override
+        protected ConcurrentMap<String, PropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private RetrospectionUtils() {
         throw new UnsupportedOperationException("Cannot instantiate utility class!");
     }
 
     /**
      * Invoke field's getter method to see if field contains value. Will throw exception if the provided object is not a valid Java object, or getter method is
-     * missing.
+     * missing. The getter is resolved only once per class and field, using the default {@link AccessorFactory}.
      *
      * @param field  The field to test.
      * @param object The object that contains said field.
@@ -26,13 +43,193 @@ public final class RetrospectionUtils {
      * @return <code>true</code> if said field has non-null value; <code>false</code> if otherwise.
      */
     public static <T> boolean isValuePresent(Field field, T object) {
+        Class<?> type = object.getClass();
+        ConcurrentMap<String, PropertyAccessor> accessors = ACCESSORS.get(type);
+
+        // Plain lookup first, computeIfAbsent locks the bin even when the key is present
+        PropertyAccessor accessor = accessors.get(field.getName());
+
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(field.getName(), name -> createAccessor(type, field, AccessorFactory.defaultFactory()));
+        }
+
+        return nonNull(getValue(accessor, field, object));
+    }
+
+    /**
+     * Read a field value through its accessor, wrapping any failure in <code>BuilderException</code>.
+     *
+     * @param accessor The accessor of said field.
+     * @param field    The field to read.
+     * @param object   The object that contains said field.
+     * @return Field value, can be <code>null</code>.
+     */
+    public static Object getValue(PropertyAccessor accessor, Field field, Object object) {
+        try {
+            return accessor.get(object);
+        } catch (RuntimeException ex) {
+            throw invalidBean(object.getClass(), field, ex);
+        }
+    }
+
+    /**
+     * Resolve the getter of a field and turn it into an accessor. The same rules as <code>java.beans.PropertyDescriptor</code> apply: the property must have
+     * a public <code>get</code> method (or <code>is</code> method for <code>boolean</code> properties) returning the type of said field, and a matching
+     * public <code>set</code> method.
+     *
+     * @param type    The bean class.
+     * @param field   The field to resolve.
+     * @param factory The factory creating accessor.
+     * @return Accessor of said field.
+     */
+    public static PropertyAccessor createAccessor(Class<?> type, Field field, AccessorFactory factory) {
+        try {
+            return factory.create(findGetter(type, field.getName(), field.getType()));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw invalidBean(type, field, ex);
+        }
+    }
+
+    /**
+     * Resolve the getter of a bean property that is not necessarily backed by a field, with the same rules as
+     * {@link #createAccessor(Class, Field, AccessorFactory)}.
+     *
+     * @param type         The bean class.
+     * @param propertyName The property to resolve.
+     * @param factory      The factory creating accessor.
+     * @return Accessor of said property.
+     */
+    public static PropertyAccessor createAccessor(Class<?> type, String propertyName, AccessorFactory factory) {
+        try {
+            return factory.create(findGetter(type, propertyName, null));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw new BuilderException(format("Either class %s is not a valid bean or getter method not present for property %s", type, propertyName), ex);
+        }
+    }
+
+    /**
+     * Resolve the getter of an integral primitive field and turn it into an accessor reading it as a <code>long</code>, without boxing, with the same rules
+     * as {@link #createAccessor(Class, Field, AccessorFactory)}.
+     *
+     * @param type    The bean class.
+     * @param field   The field to resolve.
+     * @param factory The factory creating accessor.
+     * @return Accessor of said field.
+     */
+    public static LongPropertyAccessor createLongAccessor(Class<?> type, Field field, AccessorFactory factory) {
+        return linkAccessor(type, field, factory::createLong);
+    }
+
+    /**
+     * Resolve the getter of a floating point primitive field and turn it into an accessor reading it as a <code>double</code>, without boxing, with the same
+     * rules as {@link #createAccessor(Class, Field, AccessorFactory)}.
+     *
+     * @param type    The bean class.
+     * @param field   The field to resolve.
+     * @param factory The factory creating accessor.
+     * @return Accessor of said field.
+     */
+    public static DoublePropertyAccessor createDoubleAccessor(Class<?> type, Field field, AccessorFactory factory) {
+        return linkAccessor(type, field, factory::createDouble);
+    }
+
+    /**
+     * Resolve the getter of a <code>boolean</code> bean property and turn it into an accessor reading it without boxing, with the same rules as
+     * {@link #createAccessor(Class, Field, AccessorFactory)}.
+     *
+     * @param type         The bean class.
+     * @param propertyName The property to resolve.
+     * @param factory      The factory creating accessor.
+     * @return Accessor of said property.
+     */
+    public static BooleanPropertyAccessor createBooleanAccessor(Class<?> type, String propertyName, AccessorFactory factory) {
         try {
-            PropertyDescriptor descriptor = new PropertyDescriptor(field.getName(), object.getClass());
-            return nonNull(descriptor.getReadMethod().invoke(object));
-        } catch (Exception ex) {
-            throw new BuilderException(
-                format("Either class %s is not a valid bean or getter method not present for field %s", object.getClass(), field), ex
-            );
+            Method getter = findGetter(type, propertyName, null);
+
+            if (getter.getReturnType() != boolean.class) {
+                throw new BuilderException(format("Property %s of class %s must be a boolean", propertyName, type));
+            }
+
+            return factory.createBoolean(getter);
+        } catch (ReflectiveOperationException ex) {
+            throw new BuilderException(format("Either class %s is not a valid bean or getter method not present for property %s", type, propertyName), ex);
         }
     }
-}
\ No newline at end of file
+
+    private static <A> A linkAccessor(Class<?> type, Field field, GetterLinker<A> linker) {
+        try {
+            return linker.link(findGetter(type, field.getName(), field.getType()));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw invalidBean(type, field, ex);
+        }
+    }
+
+    /**
+     * Resolve the type of a bean property, with the same rules as {@link #createAccessor(Class, Field, AccessorFactory)}.
+     *
+     * @param type         The bean class.
+     * @param propertyName The property to resolve.
+     * @return Return type of the getter of said property.
+     */
+    public static Class<?> getPropertyType(Class<?> type, String propertyName) {
+        try {
+            return findGetter(type, propertyName, null).getReturnType();
+        } catch (NoSuchMethodException ex) {
+            throw new BuilderException(format("Either class %s is not a valid bean or getter method not present for property %s", type, propertyName), ex);
+        }
+    }
+
+    private static Method findGetter(Class<?> type, String propertyName, Class<?> propertyType) throws NoSuchMethodException {
+        String capitalizedName = capitalize(propertyName);
+
+        // Like java.beans.Introspector, 'is' methods only read boolean properties
+        Method getter = findPublicMethod(type, "is" + capitalizedName);
+
+        if (getter == null || getter.getReturnType() != boolean.class || propertyType != null && propertyType != boolean.class) {
+            getter = findPublicMethod(type, "get" + capitalizedName);
+        }
+
+        if (getter == null || getter.getReturnType() == void.class) {
+            throw new NoSuchMethodException("Method not found: get" + capitalizedName);
+        }
+
+        // Properties backed by a field must be read as the type of said field
+        if (propertyType != null && getter.getReturnType() != propertyType) {
+            throw new NoSuchMethodException(format("Method %s does not return %s", getter, propertyType.getName()));
+        }
+
+        // Setter is also required for a valid bean property
+        if (findPublicMethod(type, "set" + capitalizedName, getter.getReturnType()) == null) {
+            throw new NoSuchMethodException("Method not found: set" + capitalizedName);
+        }
+
+        return getter;
+    }
+
+    private static Method findPublicMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getMethod(name, parameterTypes);
+
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return name.substring(0, 1).toUpperCase(Locale.ENGLISH) + name.substring(1);
+    }
+
+    private static BuilderException invalidBean(Class<?> type, Field field, Exception ex) {
+        return new BuilderException(format("Either class %s is not a valid bean or getter method not present for field %s", type, field), ex);
+    }
+
+    /**
+     * Link of a getter into an accessor of some kind.
+     */
+    @FunctionalInterface
+    private interface GetterLinker<A> {
+
+        A link(Method getter) throws ReflectiveOperationException;
+    }
+}
@@ -0,0 +1,170 @@
+package com.vulinh;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.vulinh.annotation.comparison.In;
+import com.vulinh.annotation.comparison.NotIn;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.InListMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Rendering and binding of <code>@In</code> and <code>@NotIn</code> lists: padded to power-of-two buckets, chunked past their parameter limit, or bound
+ * as a single array.
+ */
+class InListTest {
+
+    private static final QueryBuilder QUERY_BUILDER = QueryBuilder.builder().build();
+
+    @Test
+    void padsListsToPowerOfTwoBuckets() {
+        assertEquals(" and (ids in (:ids_0))", build(ids(1)).query());
+        assertEquals(" and (ids in (:ids_0, :ids_1))", build(ids(2)).query());
+        assertEquals(" and (ids in (:ids_0, :ids_1, :ids_2, :ids_3))", build(ids(3)).query());
+        assertEquals(" and (ids in (:ids_0, :ids_1, :ids_2, :ids_3, :ids_4, :ids_5, :ids_6, :ids_7))", build(ids(5)).query());
+
+        // Padding repeats the last value, which does not change the result
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 5L, 5L, 5L), build(ids(5)).parameterValues());
+    }
+
+    @Test
+    void sharesQueriesOfListsInTheSameBucket() {
+        Filter three = filter(f -> f.setIds(ids(3)));
+        Filter four = filter(f -> f.setIds(Arrays.asList(5L, 6L, 7L, 8L)));
+
+        assertSame(QUERY_BUILDER.buildQueryString(three, ""), QUERY_BUILDER.buildQueryString(four, ""));
+    }
+
+    @Test
+    void rendersEmptyInListsAsNoRow() {
+        BuiltQuery builtQuery = build(Collections.emptyList());
+
+        assertEquals(" and (1 = 0)", builtQuery.query());
+        assertEquals(0, builtQuery.parameterCount());
+    }
+
+    @Test
+    void skipsEmptyNotInLists() {
+        assertEquals("", QUERY_BUILDER.build(filter(f -> f.setExcludedNames(new LinkedHashSet<>())), "").query());
+
+        BuiltQuery builtQuery = QUERY_BUILDER.build(filter(f -> f.setExcludedNames(new LinkedHashSet<>(Arrays.asList("a", "b", "c")))), "");
+
+        assertEquals(" and (excludedNames not in (:excludedNames_0, :excludedNames_1, :excludedNames_2, :excludedNames_3))", builtQuery.query());
+        assertEquals(Arrays.asList("a", "b", "c", "c"), builtQuery.parameterValues());
+    }
+
+    @Test
+    void splitsListsPastMaxParametersIntoChunks() {
+        BuiltQuery builtQuery = QUERY_BUILDER.build(filter(f -> f.setSmallIds(Arrays.asList(1, 2, 3, 4, 5))), "");
+
+        assertEquals(" and (smallIds in (:smallIds_0, :smallIds_1) or smallIds in (:smallIds_2, :smallIds_3)"
+                     + " or smallIds in (:smallIds_4, :smallIds_5) or smallIds in (:smallIds_6, :smallIds_7))", builtQuery.query());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 5, 5, 5), builtQuery.parameterValues());
+    }
+
+    @Test
+    void bindsArraysAsSingleParameter() {
+        BuiltQuery builtQuery = QUERY_BUILDER.build(filter(f -> f.setCodes(Arrays.asList(1L, 2L))), "");
+
+        assertEquals(" and (codes = any(:codes))", builtQuery.query());
+        assertEquals(1, builtQuery.parameterCount());
+
+        // Arrays are typed by the declared element type, so that drivers bind them as arrays of said type
+        assertArrayEquals(new Long[] {1L, 2L}, (Long[]) builtQuery.parameterValue(0));
+    }
+
+    @Test
+    void bindsEveryPaddedValueByName() {
+        Map<String, Object> expected = new LinkedHashMap<>();
+
+        expected.put("ids_0", 1L);
+        expected.put("ids_1", 2L);
+        expected.put("ids_2", 3L);
+        expected.put("ids_3", 3L);
+
+        assertEquals(expected, build(ids(3)).parameters());
+    }
+
+    private static BuiltQuery build(List<Long> ids) {
+        return QUERY_BUILDER.build(filter(f -> f.setIds(ids)), "");
+    }
+
+    private static List<Long> ids(int size) {
+        List<Long> ids = new ArrayList<>();
+
+        for (long id = 1; id <= size; id++) {
+            ids.add(id);
+        }
+
+        return ids;
+    }
+
+    private static Filter filter(Consumer<Filter> setup) {
+        Filter filter = new Filter();
+
+        setup.accept(filter);
+
+        return filter;
+    }
+
+    /**
+     * Filter with lists of every mode.
+     */
+    public static class Filter {
+
+        @In
+        private List<Long> ids;
+
+        @In(mode = InListMode.ARRAY)
+        private List<Long> codes;
+
+        @NotIn
+        private Set<String> excludedNames;
+
+        @In(maxParameters = 2)
+        private List<Integer> smallIds;
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public List<Long> getCodes() {
+            return codes;
+        }
+
+        public void setCodes(List<Long> codes) {
+            this.codes = codes;
+        }
+
+        public Set<String> getExcludedNames() {
+            return excludedNames;
+        }
+
+        public void setExcludedNames(Set<String> excludedNames) {
+            this.excludedNames = excludedNames;
+        }
+
+        public List<Integer> getSmallIds() {
+            return smallIds;
+        }
+
+        public void setSmallIds(List<Integer> smallIds) {
+            this.smallIds = smallIds;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.vulinh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.annotation.comparison.In;
+import com.vulinh.annotation.comparison.LessThan;
+import com.vulinh.annotation.comparison.Like;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.CacheStatistics;
+import com.vulinh.metrics.QueryBuilderMetrics;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Many threads sharing a single query builder with cold caches, released at once so that plan compilation and shape caching race. Every result must be
+ * identical to the result of a builder used by a single thread, every thread must get the same cached instance of a shape, and cache statistics must
+ * account for every lookup. Once every shape is cached, building must not block on any monitor.
+ */
+class QueryBuilderConcurrencyTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final int FIELDS = 6;
+    private static final int SHAPES = 1 << FIELDS;
+
+    private static final int PLATFORM_THREADS = 64;
+    private static final int VIRTUAL_THREADS  = 1024;
+    private static final int ITERATIONS       = 2_000;
+
+    @Test
+    void platformThreadsShareOneBuilder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+
+        try {
+            stress(executor, PLATFORM_THREADS, true);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void virtualThreadsShareOneBuilder() throws Exception {
+        ExecutorService executor = virtualThreadExecutor();
+
+        assumeTrue(executor != null, "Virtual threads need JDK 21 or later");
+
+        try {
+            // Monitors of virtual threads are not reported by ThreadMXBean
+            stress(executor, VIRTUAL_THREADS, false);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentMissesNeverExceedMaxShapes() throws Exception {
+        int maxShapes = 8;
+
+        QueryBuilderMetrics metrics = new QueryBuilderMetrics();
+        QueryBuilder shared = QueryBuilder.builder().maxShapes(maxShapes).listener(metrics).build();
+        List<Filter> filters = filters();
+        List<BuiltQuery> expected = expected(filters);
+
+        ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+
+        try {
+            // Shapes past the limit are rendered anew on every lookup, so they have no canonical instance
+            run(executor, PLATFORM_THREADS, shared, filters, expected, null, false);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(maxShapes, shared.compile(Filter.class, PRESET_HQL).shapeCache().size());
+
+        // Shapes past the limit still count, each of them once
+        assertEquals(SHAPES, metrics.getMaxShapeCardinality(), "Shape cardinality " + metrics.getShapeCardinality());
+    }
+
+    private static void stress(ExecutorService executor, int threads, boolean checkContention) throws Exception {
+        QueryBuilder shared = QueryBuilder.builder().build();
+        List<Filter> filters = filters();
+        List<BuiltQuery> expected = expected(filters);
+        AtomicReferenceArray<String> canonicalQueries = new AtomicReferenceArray<>(SHAPES);
+
+        // Cold caches: every thread misses on every shape at about the same time
+        long blockedWhileCaching = run(executor, threads, shared, filters, expected, canonicalQueries, checkContention);
+        CacheStatistics cached = shared.cacheStatistics();
+        long lookups = (long) threads * (SHAPES + ITERATIONS);
+
+        assertEquals(lookups, cached.hitCount() + cached.missCount(), cached.toString());
+
+        // A thread misses a shape at most once, as it finds it cached afterwards
+        assertTrue(cached.missCount() >= SHAPES && cached.missCount() <= (long) SHAPES * threads, cached.toString());
+        assertEquals(SHAPES, shared.compile(Filter.class, PRESET_HQL).shapeCache().size());
+
+        // Warm caches: every lookup hits, without blocking
+        long blockedWhenCached = run(executor, threads, shared, filters, expected, canonicalQueries, checkContention);
+        CacheStatistics warm = shared.cacheStatistics();
+
+        assertEquals(cached.missCount(), warm.missCount(), warm.toString());
+        assertEquals(cached.hitCount() + lookups, warm.hitCount(), warm.toString());
+
+        if (checkContention) {
+            assertEquals(0, blockedWhenCached, "Blocked on monitors " + blockedWhenCached + " times, " + blockedWhileCaching + " times while caching");
+        }
+    }
+
+    // Build every shape once in a random order, then random shapes, on every thread at once, and count how many times they blocked on a monitor
+    private static long run(ExecutorService executor, int threads, QueryBuilder shared, List<Filter> filters, List<BuiltQuery> expected,
+                            AtomicReferenceArray<String> canonicalQueries, boolean checkContention) throws Exception {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        CountDownLatch startGate = new CountDownLatch(1);
+        LongAdder mismatches = new LongAdder();
+        LongAdder nonCanonical = new LongAdder();
+        LongAdder blocked = new LongAdder();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                List<Integer> order = new ArrayList<>();
+
+                for (int i = 0; i < SHAPES; i++) {
+                    order.add(i);
+                }
+
+                Collections.shuffle(order, ThreadLocalRandom.current());
+
+                for (int i = 0; i < ITERATIONS; i++) {
+                    order.add(ThreadLocalRandom.current().nextInt(SHAPES));
+                }
+
+                long blockedBefore = checkContention ? blockedCount(threadBean) : 0;
+
+                startGate.await();
+
+                for (int i = 0; i < order.size(); i++) {
+                    int index = order.get(i);
+
+                    if ((i & 1) == 0) {
+                        BuiltQuery builtQuery = shared.build(filters.get(index), PRESET_HQL);
+
+                        if (!builtQuery.query().equals(expected.get(index).query())
+                            || !builtQuery.parameters().equals(expected.get(index).parameters())) {
+                            mismatches.increment();
+                        }
+                    } else {
+                        String query = shared.buildQueryString(filters.get(index), PRESET_HQL);
+
+                        if (!query.equals(expected.get(index).query())) {
+                            mismatches.increment();
+                        }
+
+                        // Every thread must get the identical cached instance of a shape
+                        if (canonicalQueries != null && !canonicalQueries.compareAndSet(index, null, query) && canonicalQueries.get(index) != query) {
+                            nonCanonical.increment();
+                        }
+                    }
+                }
+
+                if (checkContention) {
+                    blocked.add(blockedCount(threadBean) - blockedBefore);
+                }
+
+                return null;
+            }));
+        }
+
+        startGate.countDown();
+
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+
+        assertEquals(0, mismatches.sum(), "Results differ from the single-threaded builder");
+        assertEquals(0, nonCanonical.sum(), "Threads got different instances of a cached query");
+
+        return blocked.sum();
+    }
+
+    private static long blockedCount(ThreadMXBean threadBean) {
+        ThreadInfo threadInfo = threadBean.getThreadInfo(Thread.currentThread().getId());
+
+        assertNotNull(threadInfo);
+
+        return threadInfo.getBlockedCount();
+    }
+
+    private static List<Filter> filters() {
+        List<Filter> filters = new ArrayList<>();
+
+        // One filter per combination of present fields, so threads race to cache different shapes
+        for (int i = 0; i < SHAPES; i++) {
+            Filter filter = new Filter();
+
+            filter.setName((i & 1) != 0 ? "name" + i : null);
+            filter.setTitle((i & 2) != 0 ? "%title" + i + "%" : null);
+            filter.setMinAge((i & 4) != 0 ? i : null);
+            filter.setCreatedBefore((i & 8) != 0 ? LocalDate.of(2024, 1, 1).plusDays(i) : null);
+            filter.setIds((i & 16) != 0 ? Arrays.asList((long) i, i + 1L, i + 2L) : null);
+            filter.setStatus((i & 32) != 0 ? "status" + i : null);
+
+            filters.add(filter);
+        }
+
+        return filters;
+    }
+
+    private static List<BuiltQuery> expected(List<Filter> filters) {
+        List<BuiltQuery> expected = new ArrayList<>();
+
+        // Expected results come from a builder that never sees concurrent access
+        QueryBuilder reference = QueryBuilder.builder().build();
+
+        for (Filter filter : filters) {
+            expected.add(reference.build(filter, PRESET_HQL));
+        }
+
+        return expected;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        // This module targets Java 8, so virtual threads are only reachable reflectively
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Filter with {@value #FIELDS} optional fields, rendering {@value #SHAPES} shapes.
+     */
+    public static class Filter {
+
+        private String name;
+
+        @Like
+        private String title;
+
+        @GreaterThanOrEqualTo
+        @UseCustomName("age")
+        private Integer minAge;
+
+        @LessThan
+        @UseCustomName("created")
+        private LocalDate createdBefore;
+
+        @In
+        @UseCustomName("id")
+        private List<Long> ids;
+
+        private String status;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public Integer getMinAge() {
+            return minAge;
+        }
+
+        public void setMinAge(Integer minAge) {
+            this.minAge = minAge;
+        }
+
+        public LocalDate getCreatedBefore() {
+            return createdBefore;
+        }
+
+        public void setCreatedBefore(LocalDate createdBefore) {
+            this.createdBefore = createdBefore;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.vulinh.dialect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.IndexHint;
+import com.vulinh.annotation.OptimizerHint;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.data.QueryHint;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Placement of optimizer hints in the preset query for each {@link HintStyle}, with hints of fields rendered only when said fields are present.
+ */
+class HintStyleTest {
+
+    private static final String PRESET = "select e.id from entity e join owner o on o.id = e.owner_id where 1 = 1";
+
+    @Test
+    void noneLeavesPresetAsIs() {
+        assertEquals(PRESET + " and (age = ?)", build(HintStyle.NONE, filter(null)));
+        assertEquals(PRESET + " and (o.name = ?) and (age = ?)", build(HintStyle.NONE, filter("Ann")));
+    }
+
+    @Test
+    void mysqlRendersIndexHintsAfterTables() {
+        assertEquals("select /*+ NO_MERGE FIRST_ROWS(10) */ e.id from entity e USE INDEX (idx_e) join owner o on o.id = e.owner_id where 1 = 1"
+                     + " and (age = ?)", build(HintStyle.MYSQL, filter(null)));
+
+        assertEquals("select /*+ NO_MERGE FIRST_ROWS(10) */ e.id from entity e USE INDEX (idx_e) join owner o USE INDEX (idx_name) on o.id = e.owner_id"
+                     + " where 1 = 1 and (o.name = ?) and (age = ?)", build(HintStyle.MYSQL, filter("Ann")));
+    }
+
+    @Test
+    void mysqlFallsBackToOptimizerHintForUnknownTables() {
+        assertEquals("select /*+ INDEX(x idx_x) */ e.id from entity e",
+                     HintStyle.MYSQL.apply("select e.id from entity e", Collections.singletonList(QueryHint.index("x", "idx_x"))));
+
+        assertEquals("select e.id from entity e USE INDEX (idx_a, idx_b)",
+                     HintStyle.MYSQL.apply("select e.id from entity e", Collections.singletonList(QueryHint.index("", "idx_a", "idx_b"))));
+    }
+
+    @Test
+    void oracleRendersEveryHintAfterSelect() {
+        assertEquals("select /*+ INDEX(e idx_e) NO_MERGE FIRST_ROWS(10) */ e.id from entity e join owner o on o.id = e.owner_id where 1 = 1"
+                     + " and (age = ?)", build(HintStyle.ORACLE, filter(null)));
+
+        assertEquals("select /*+ INDEX(e idx_e) NO_MERGE INDEX(o idx_name) FIRST_ROWS(10) */ e.id from entity e join owner o on o.id = e.owner_id"
+                     + " where 1 = 1 and (o.name = ?) and (age = ?)", build(HintStyle.ORACLE, filter("Ann")));
+    }
+
+    @Test
+    void pgHintPlanRendersEveryHintBeforeQuery() {
+        assertEquals("/*+ IndexScan(e idx_e) NO_MERGE FIRST_ROWS(10) */ " + PRESET + " and (age = ?)", build(HintStyle.PG_HINT_PLAN, filter(null)));
+
+        assertEquals("/*+ IndexScan(e idx_e) NO_MERGE IndexScan(o idx_name) FIRST_ROWS(10) */ " + PRESET + " and (o.name = ?) and (age = ?)",
+                     build(HintStyle.PG_HINT_PLAN, filter("Ann")));
+    }
+
+    @Test
+    void blankPresetsAndQueriesWithoutSelectAreNeverHinted() {
+        for (HintStyle hintStyle : HintStyle.values()) {
+            QueryBuilder queryBuilder = QueryBuilder.builder().dialect(JdbcDialect.UNQUOTED.withHints(hintStyle)).build();
+
+            assertEquals(" and (age = ?)", queryBuilder.buildQueryString(filter(null), ""));
+        }
+
+        assertEquals("delete from entity e", HintStyle.ORACLE.apply("delete from entity e", Collections.singletonList(QueryHint.optimizer("PARALLEL"))));
+    }
+
+    @Test
+    void defaultDialectIgnoresHints() {
+        assertEquals(PRESET + " and (o.name = :name) and (age = :age)", QueryBuilder.builder().build().buildQueryString(filter("Ann"), PRESET));
+    }
+
+    private static String build(HintStyle hintStyle, Filter filter) {
+        return QueryBuilder.builder().dialect(JdbcDialect.UNQUOTED.withHints(hintStyle)).build().buildQueryString(filter, PRESET);
+    }
+
+    private static Filter filter(String name) {
+        Filter filter = new Filter();
+
+        filter.setName(name);
+
+        return filter;
+    }
+
+    /**
+     * Filter with hints on the class, on an optional field and on an always present field.
+     */
+    @OptimizerHint("NO_MERGE")
+    @IndexHint(table = "e", value = "idx_e")
+    public static class Filter {
+
+        @IndexHint("idx_name")
+        @UseTableAlias("o")
+        private String name;
+
+        @OptimizerHint("FIRST_ROWS(10)")
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
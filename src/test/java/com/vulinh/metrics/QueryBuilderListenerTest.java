@@ -0,0 +1,96 @@
+package com.vulinh.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vulinh.QueryBuilder;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Every overload building a query reports it to the listener exactly once, with the length of said query.
+ */
+class QueryBuilderListenerTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private final RecordingListener listener = new RecordingListener();
+
+    private final QueryBuilder queryBuilder = QueryBuilder.builder().listener(listener).build();
+
+    @Test
+    void reportsQueriesBuiltIntoAppendable() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        writer.write("-- ");
+        queryBuilder.buildQuery(filter(), PRESET_HQL, writer);
+
+        assertReported(writer.toString().length() - 3);
+    }
+
+    @Test
+    void reportsQueriesBuiltIntoStringBuilder() {
+        StringBuilder query = new StringBuilder("-- ");
+
+        queryBuilder.buildQuery(filter(), PRESET_HQL, query);
+
+        assertReported(query.length() - 3);
+    }
+
+    @Test
+    void reportsQueriesBuiltAsString() {
+        assertReported(queryBuilder.buildQueryString(filter(), PRESET_HQL).length());
+        assertReported(queryBuilder.buildQuery(filter(), PRESET_HQL).length());
+    }
+
+    private void assertReported(int queryLength) {
+        assertEquals(1, listener.queryLengths.size(), "Queries reported " + listener.queryLengths);
+        assertEquals(queryLength, (int) listener.queryLengths.get(0));
+        assertTrue(listener.durationNanos >= 0);
+
+        listener.queryLengths.clear();
+    }
+
+    private static Filter filter() {
+        Filter filter = new Filter();
+
+        filter.setName("name");
+
+        return filter;
+    }
+
+    /**
+     * Listener recording the length of every query built.
+     */
+    private static class RecordingListener implements QueryBuilderListener {
+
+        private final List<Integer> queryLengths = new ArrayList<>();
+
+        private long durationNanos;
+
+        @Override
+        public void onQueryBuilt(Class<?> type, long durationNanos, int fieldsInspected, int queryLength) {
+            this.durationNanos = durationNanos;
+            queryLengths.add(queryLength);
+        }
+    }
+
+    /**
+     * Filter of a single field.
+     */
+    public static class Filter {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.vulinh.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.comparison.In;
+import com.vulinh.plan.QueryPlanCache;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shape cardinality reported by {@link QueryBuilderMetrics}, which counts distinct shapes whether or not they are cached.
+ */
+class QueryBuilderMetricsTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final int SHAPES = 8;
+
+    @Test
+    void countsShapesPastCacheLimitOnce() {
+        QueryBuilderMetrics metrics = new QueryBuilderMetrics();
+        QueryBuilder queryBuilder = QueryBuilder.builder().maxShapes(2).listener(metrics).build();
+
+        // Every shape is rendered many times, and most of them are never cached
+        for (int i = 0; i < 10; i++) {
+            renderAllShapes(queryBuilder);
+        }
+
+        assertEquals(SHAPES, metrics.getMaxShapeCardinality());
+        assertEquals(2, queryBuilder.compile(Filter.class, PRESET_HQL).shapeCache().size());
+    }
+
+    @Test
+    void countsShapesWithoutCache() {
+        QueryBuilderMetrics metrics = new QueryBuilderMetrics();
+        QueryBuilder queryBuilder = QueryBuilder.builder().maxShapes(0).listener(metrics).build();
+
+        renderAllShapes(queryBuilder);
+        renderAllShapes(queryBuilder);
+
+        assertEquals(SHAPES, metrics.getMaxShapeCardinality());
+    }
+
+    @Test
+    void countsShapesOncePerClassOverPresetsAndKinds() {
+        QueryBuilderMetrics metrics = new QueryBuilderMetrics();
+        QueryBuilder queryBuilder = QueryBuilder.builder().listener(metrics).build();
+        Filter filter = filter(3);
+
+        queryBuilder.buildQueryString(filter, PRESET_HQL);
+        queryBuilder.buildQueryString(filter, "select e from Other e where 1 = 1");
+        queryBuilder.buildCountQuery(filter, "select count(e) from Entity e where 1 = 1");
+        queryBuilder.buildExistsQuery(filter, PRESET_HQL);
+
+        assertEquals(Collections.singletonMap(Filter.class.getName(), 1), metrics.getShapeCardinality());
+    }
+
+    @Test
+    void countsShapesOfPlansWithoutPresenceMask() {
+        QueryBuilderMetrics metrics = new QueryBuilderMetrics();
+        QueryBuilder queryBuilder = QueryBuilder.builder().listener(metrics).build();
+
+        assertFalse(new QueryPlanCache(com.vulinh.accessor.AccessorFactory.defaultFactory()).get(WideFilter.class).isMaskable());
+
+        WideFilter empty = new WideFilter();
+        WideFilter first = new WideFilter();
+        WideFilter padded = new WideFilter();
+
+        first.setIds01(Collections.singletonList(1L));
+        padded.setIds01(Arrays.asList(1L, 2L, 3L));
+
+        for (int i = 0; i < 3; i++) {
+            queryBuilder.buildQueryString(empty, PRESET_HQL);
+            queryBuilder.build(first, PRESET_HQL);
+            queryBuilder.buildCountQuery(padded, PRESET_HQL);
+        }
+
+        // Padded lists of different buckets render different queries, hence different shapes
+        assertEquals(3, metrics.getMaxShapeCardinality());
+    }
+
+    private static void renderAllShapes(QueryBuilder queryBuilder) {
+        for (int i = 0; i < SHAPES; i++) {
+            queryBuilder.buildQueryString(filter(i), PRESET_HQL);
+        }
+    }
+
+    private static Filter filter(int shape) {
+        Filter filter = new Filter();
+
+        filter.setName((shape & 1) != 0 ? "name" : null);
+        filter.setCode((shape & 2) != 0 ? "code" : null);
+        filter.setStatus((shape & 4) != 0 ? "status" : null);
+
+        return filter;
+    }
+
+    /**
+     * Filter of {@value #SHAPES} shapes.
+     */
+    public static class Filter {
+
+        private String name;
+
+        private String code;
+
+        private String status;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+    }
+
+    /**
+     * Filter of padded lists taking more slots than a presence bitmask has bits.
+     */
+    public static class WideFilter {
+
+        @In
+        private List<Long> ids01;
+
+        @In
+        private List<Long> ids02;
+
+        @In
+        private List<Long> ids03;
+
+        @In
+        private List<Long> ids04;
+
+        @In
+        private List<Long> ids05;
+
+        @In
+        private List<Long> ids06;
+
+        @In
+        private List<Long> ids07;
+
+        @In
+        private List<Long> ids08;
+
+        @In
+        private List<Long> ids09;
+
+        @In
+        private List<Long> ids10;
+
+        @In
+        private List<Long> ids11;
+
+        @In
+        private List<Long> ids12;
+
+        @In
+        private List<Long> ids13;
+
+        public List<Long> getIds01() {
+            return ids01;
+        }
+
+        public void setIds01(List<Long> ids01) {
+            this.ids01 = ids01;
+        }
+
+        public List<Long> getIds02() {
+            return ids02;
+        }
+
+        public void setIds02(List<Long> ids02) {
+            this.ids02 = ids02;
+        }
+
+        public List<Long> getIds03() {
+            return ids03;
+        }
+
+        public void setIds03(List<Long> ids03) {
+            this.ids03 = ids03;
+        }
+
+        public List<Long> getIds04() {
+            return ids04;
+        }
+
+        public void setIds04(List<Long> ids04) {
+            this.ids04 = ids04;
+        }
+
+        public List<Long> getIds05() {
+            return ids05;
+        }
+
+        public void setIds05(List<Long> ids05) {
+            this.ids05 = ids05;
+        }
+
+        public List<Long> getIds06() {
+            return ids06;
+        }
+
+        public void setIds06(List<Long> ids06) {
+            this.ids06 = ids06;
+        }
+
+        public List<Long> getIds07() {
+            return ids07;
+        }
+
+        public void setIds07(List<Long> ids07) {
+            this.ids07 = ids07;
+        }
+
+        public List<Long> getIds08() {
+            return ids08;
+        }
+
+        public void setIds08(List<Long> ids08) {
+            this.ids08 = ids08;
+        }
+
+        public List<Long> getIds09() {
+            return ids09;
+        }
+
+        public void setIds09(List<Long> ids09) {
+            this.ids09 = ids09;
+        }
+
+        public List<Long> getIds10() {
+            return ids10;
+        }
+
+        public void setIds10(List<Long> ids10) {
+            this.ids10 = ids10;
+        }
+
+        public List<Long> getIds11() {
+            return ids11;
+        }
+
+        public void setIds11(List<Long> ids11) {
+            this.ids11 = ids11;
+        }
+
+        public List<Long> getIds12() {
+            return ids12;
+        }
+
+        public void setIds12(List<Long> ids12) {
+            this.ids12 = ids12;
+        }
+
+        public List<Long> getIds13() {
+            return ids13;
+        }
+
+        public void setIds13(List<Long> ids13) {
+            this.ids13 = ids13;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.dialect.JdbcDialect;
+import com.vulinh.util.JdbcBindingUtils;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Queries matching any of many filters, compared with the union of the rows matched by each filter on its own, on an in-memory H2 database.
+ */
+class AnyOfQueriesTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final String SELECT_IDS = "select \"id\" from \"entity\" e where 1 = 1";
+
+    private static final List<Filter> FILTERS = Arrays.asList(
+        filter("a", 1, null),
+        filter("b", 2, null),
+        filter("c", null, 5),
+        filter("d", 3, null),
+        filter("b", 2, null),
+        filter(null, null, 40),
+        filter("e", 4, 4)
+    );
+
+    private Connection connection;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table \"entity\" (\"id\" bigint, \"name\" varchar(50), \"age\" int)");
+            statement.execute("insert into \"entity\" values (1, 'a', 1), (2, 'a', 2), (3, 'b', 2), (4, 'c', 4), (5, 'c', 6), (6, 'd', 3), (7, 'e', 4),"
+                              + " (8, 'e', 5), (9, 'f', 40), (10, 'g', 50), (11, null, 3)");
+        }
+    }
+
+    @AfterEach
+    void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void suffixesParametersByObjectIndex() {
+        List<BuiltQuery> builtQueries = QueryBuilder.builder().build().buildAnyOf(FILTERS.subList(0, 4), PRESET_HQL);
+
+        assertEquals(1, builtQueries.size());
+        assertEquals(PRESET_HQL + " and (((name = :name__0) and (age = :age__0)) or ((name = :name__1) and (age = :age__1))"
+                     + " or ((name = :name__3) and (age = :age__3)) or ((name = :name__2) and (age >= :minAge__2)))", builtQueries.get(0).query());
+        assertEquals(Arrays.asList("a", 1, "b", 2, "d", 3, "c", 5), builtQueries.get(0).parameterValues());
+    }
+
+    @Test
+    void collapsesSingleEqualitiesIntoInList() {
+        List<BuiltQuery> builtQueries = QueryBuilder.builder().build().buildAnyOf(Arrays.asList(filter("a", null, null), filter("b", null, null)), PRESET_HQL);
+
+        assertEquals(Collections.singletonList(PRESET_HQL + " and ((name in (:name__0, :name__1)))"), queries(builtQueries));
+    }
+
+    @Test
+    void collapsesEqualitiesIntoRowValuesWhenSupported() {
+        List<BuiltQuery> builtQueries = QueryBuilder.builder().dialect(JdbcDialect.ANSI).build().buildAnyOf(FILTERS.subList(0, 4), PRESET_HQL);
+
+        assertEquals(Collections.singletonList(PRESET_HQL + " and (((\"name\", \"age\") in ((?, ?), (?, ?), (?, ?))) or ((\"name\" = ?) and (\"age\" >= ?)))"),
+                     queries(builtQueries));
+    }
+
+    @Test
+    void splitsQueriesPastMaxParameters() {
+        List<BuiltQuery> builtQueries = QueryBuilder.builder().build().buildAnyOf(FILTERS, PRESET_HQL, 5);
+        int parameterCount = 0;
+
+        for (BuiltQuery builtQuery : builtQueries) {
+            assertTrue(builtQuery.parameterCount() <= 5, builtQuery::toString);
+            parameterCount += builtQuery.parameterCount();
+        }
+
+        assertTrue(builtQueries.size() > 1);
+        assertEquals(14, parameterCount);
+    }
+
+    @Test
+    void buildsNothingWithoutObjects() {
+        assertEquals(Collections.emptyList(), QueryBuilder.builder().build().buildAnyOf(Collections.emptyList(), PRESET_HQL));
+        assertThrows(IllegalArgumentException.class, () -> QueryBuilder.builder().build().buildAnyOf(FILTERS, PRESET_HQL, 0));
+    }
+
+    @Test
+    void matchesUnionOfEachFilter() throws SQLException {
+        Set<Long> expected = new TreeSet<>();
+        QueryBuilder reference = QueryBuilder.builder().dialect(JdbcDialect.ANSI).build();
+
+        for (Filter filter : FILTERS) {
+            expected.addAll(ids(reference.build(filter, SELECT_IDS)));
+        }
+
+        assertEquals(new TreeSet<>(Arrays.asList(1L, 3L, 5L, 6L, 7L, 9L, 10L)), expected);
+
+        for (QueryBuilder queryBuilder : Arrays.asList(reference, QueryBuilder.builder().dialect(JdbcDialect.quotedBy("\"", "\"", false)).build())) {
+            for (int maxParameters : new int[] {3, 5, 1000}) {
+                Set<Long> actual = new TreeSet<>();
+
+                for (BuiltQuery builtQuery : queryBuilder.buildAnyOf(FILTERS, SELECT_IDS, maxParameters)) {
+                    actual.addAll(ids(builtQuery));
+                }
+
+                assertEquals(expected, actual, "At most " + maxParameters + " parameters");
+            }
+        }
+    }
+
+    private Set<Long> ids(BuiltQuery builtQuery) throws SQLException {
+        Set<Long> ids = new TreeSet<>();
+
+        try (PreparedStatement statement = JdbcBindingUtils.bind(connection.prepareStatement(builtQuery.query()), builtQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+
+        return ids;
+    }
+
+    private static List<String> queries(List<BuiltQuery> builtQueries) {
+        String[] queries = new String[builtQueries.size()];
+
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = builtQueries.get(i).query();
+        }
+
+        return Arrays.asList(queries);
+    }
+
+    private static Filter filter(String name, Integer age, Integer minAge) {
+        Filter filter = new Filter();
+
+        filter.setName(name);
+        filter.setAge(age);
+        filter.setMinAge(minAge);
+
+        return filter;
+    }
+
+    /**
+     * Filter of equalities and a range.
+     */
+    public static class Filter {
+
+        private String name;
+
+        private Integer age;
+
+        @GreaterThanOrEqualTo
+        @UseCustomName("age")
+        private Integer minAge;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public Integer getMinAge() {
+            return minAge;
+        }
+
+        public void setMinAge(Integer minAge) {
+            this.minAge = minAge;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.IgnoreField;
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.comparison.Between;
+import com.vulinh.annotation.comparison.In;
+import com.vulinh.annotation.comparison.InRange;
+import com.vulinh.annotation.comparison.NotIn;
+import com.vulinh.annotation.comparison.OutRange;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.dialect.JdbcDialect;
+import com.vulinh.util.JdbcBindingUtils;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Queries known to match no row (<code>detectContradictions(true)</code>), checked to select nothing on an in-memory H2 database, while queries that may
+ * match some row are not flagged.
+ */
+class ContradictionTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final String SELECT_IDS = "select \"id\" from \"entity\" e where 1 = 1";
+
+    private static final QueryBuilder QUERY_BUILDER = QueryBuilder.builder().detectContradictions(true).build();
+
+    private Connection connection;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table \"entity\" (\"id\" bigint, \"age\" int, \"score\" int)");
+            statement.execute("insert into \"entity\" values (1, 1, 10), (2, 3, 30), (3, 5, 50), (4, 7, 70), (5, null, null)");
+        }
+    }
+
+    @AfterEach
+    void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void detectsInvertedBetweenBounds() {
+        assertTrue(QUERY_BUILDER.build(age(5, 3), PRESET_HQL).isAlwaysEmpty());
+        assertFalse(QUERY_BUILDER.build(age(3, 5), PRESET_HQL).isAlwaysEmpty());
+
+        // Both bounds of BETWEEN are inclusive, so that equal bounds still match their own value
+        assertFalse(QUERY_BUILDER.build(age(5, 5), PRESET_HQL).isAlwaysEmpty());
+    }
+
+    @Test
+    void detectsEmptyExclusiveRanges() {
+        assertTrue(QUERY_BUILDER.build(score(50, 50, false), PRESET_HQL).isAlwaysEmpty());
+        assertTrue(QUERY_BUILDER.build(score(70, 30, false), PRESET_HQL).isAlwaysEmpty());
+        assertFalse(QUERY_BUILDER.build(score(30, 70, false), PRESET_HQL).isAlwaysEmpty());
+
+        // Inclusive ranges of equal bounds match their own value
+        assertFalse(QUERY_BUILDER.build(score(50, 50, true), PRESET_HQL).isAlwaysEmpty());
+    }
+
+    @Test
+    void detectsNullBounds() {
+        assertTrue(QUERY_BUILDER.build(age(null, 5), PRESET_HQL).isAlwaysEmpty());
+
+        // Either side of an outer range holds on its own, so that only both bounds missing match nothing
+        assertFalse(QUERY_BUILDER.build(outside(null, 30), PRESET_HQL).isAlwaysEmpty());
+        assertTrue(QUERY_BUILDER.build(outside(null, null), PRESET_HQL).isAlwaysEmpty());
+    }
+
+    @Test
+    void detectsEmptyInLists() {
+        Filter emptyIn = new Filter();
+        Filter emptyNotIn = new Filter();
+
+        emptyIn.setIds(Collections.emptyList());
+        emptyNotIn.setExcludedIds(Collections.emptyList());
+
+        assertTrue(QUERY_BUILDER.build(emptyIn, PRESET_HQL).isAlwaysEmpty());
+
+        // An empty NOT IN list holds for every row
+        assertFalse(QUERY_BUILDER.build(emptyNotIn, PRESET_HQL).isAlwaysEmpty());
+    }
+
+    @Test
+    void detectsNothingWhenDisabled() {
+        Filter emptyIn = new Filter();
+
+        emptyIn.setIds(Collections.emptyList());
+
+        for (Filter filter : Arrays.asList(age(5, 3), score(50, 50, false), emptyIn)) {
+            BuiltQuery builtQuery = QueryBuilder.builder().build().build(filter, PRESET_HQL);
+
+            assertFalse(builtQuery.isAlwaysEmpty(), builtQuery::toString);
+            assertEquals(QUERY_BUILDER.build(filter, PRESET_HQL).query(), builtQuery.query());
+        }
+    }
+
+    @Test
+    void leavesAlwaysEmptyObjectsOutOfAnyOf() {
+        List<BuiltQuery> builtQueries = QUERY_BUILDER.buildAnyOf(Arrays.asList(age(5, 3), score(30, 70, false), age(1, 3)), PRESET_HQL);
+
+        assertEquals(1, builtQueries.size());
+        assertEquals(PRESET_HQL + " and (((score > :lo__1 and score < :hi__1)) or ((age between :fromValue__2 and :toValue__2)))",
+                     builtQueries.get(0).query());
+        assertEquals(Arrays.asList(30, 70, 1, 3), builtQueries.get(0).parameterValues());
+
+        assertEquals(Collections.emptyList(), QUERY_BUILDER.buildAnyOf(Arrays.asList(age(5, 3), score(50, 50, false)), PRESET_HQL));
+    }
+
+    @Test
+    void alwaysEmptyQueriesSelectNoRow() throws SQLException {
+        QueryBuilder queryBuilder = QueryBuilder.builder().dialect(JdbcDialect.ANSI).detectContradictions(true).build();
+        Filter emptyIn = new Filter();
+
+        emptyIn.setIds(Collections.emptyList());
+
+        for (Filter filter : Arrays.asList(age(5, 3), age(null, 5), score(50, 50, false), score(70, 30, true), outside(null, null), emptyIn)) {
+            BuiltQuery builtQuery = queryBuilder.build(filter, SELECT_IDS);
+
+            assertTrue(builtQuery.isAlwaysEmpty(), builtQuery::toString);
+            assertEquals(0, count(builtQuery), builtQuery::toString);
+        }
+
+        for (Filter filter : Arrays.asList(age(5, 5), age(3, 7), score(50, 50, true), score(10, 70, false), outside(null, 30))) {
+            BuiltQuery builtQuery = queryBuilder.build(filter, SELECT_IDS);
+
+            assertFalse(builtQuery.isAlwaysEmpty(), builtQuery::toString);
+            assertTrue(count(builtQuery) > 0, builtQuery::toString);
+        }
+    }
+
+    private int count(BuiltQuery builtQuery) throws SQLException {
+        int count = 0;
+
+        try (PreparedStatement statement = JdbcBindingUtils.bind(connection.prepareStatement(builtQuery.query()), builtQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static Filter age(Integer from, Integer to) {
+        Filter filter = new Filter();
+
+        filter.setAge(0);
+        filter.setFromValue(from);
+        filter.setToValue(to);
+
+        return filter;
+    }
+
+    private static Filter score(Integer lo, Integer hi, boolean inclusive) {
+        Filter filter = new Filter();
+
+        if (inclusive) {
+            filter.setInclusiveScore(0);
+        } else {
+            filter.setScore(0);
+        }
+
+        filter.setLo(lo);
+        filter.setHi(hi);
+
+        return filter;
+    }
+
+    private static Filter outside(Integer lo, Integer hi) {
+        Filter filter = new Filter();
+
+        filter.setOutsideScore(0);
+        filter.setLo(lo);
+        filter.setHi(hi);
+
+        return filter;
+    }
+
+    /**
+     * Filter of ranges on the same column, whose bounds are bound from ignored properties, and lists.
+     */
+    public static class Filter {
+
+        @Between
+        private Integer age;
+
+        @InRange(fromField = "lo", toField = "hi")
+        private Integer score;
+
+        @UseCustomName("score")
+        @InRange(fromField = "lo", toField = "hi", inclusivity = true)
+        private Integer inclusiveScore;
+
+        @UseCustomName("score")
+        @OutRange(fromField = "lo", toField = "hi")
+        private Integer outsideScore;
+
+        @IgnoreField
+        private Integer fromValue;
+
+        @IgnoreField
+        private Integer toValue;
+
+        @IgnoreField
+        private Integer lo;
+
+        @IgnoreField
+        private Integer hi;
+
+        @In
+        private List<Long> ids;
+
+        @NotIn
+        private List<Long> excludedIds;
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public Integer getScore() {
+            return score;
+        }
+
+        public void setScore(Integer score) {
+            this.score = score;
+        }
+
+        public Integer getInclusiveScore() {
+            return inclusiveScore;
+        }
+
+        public void setInclusiveScore(Integer inclusiveScore) {
+            this.inclusiveScore = inclusiveScore;
+        }
+
+        public Integer getOutsideScore() {
+            return outsideScore;
+        }
+
+        public void setOutsideScore(Integer outsideScore) {
+            this.outsideScore = outsideScore;
+        }
+
+        public Integer getFromValue() {
+            return fromValue;
+        }
+
+        public void setFromValue(Integer fromValue) {
+            this.fromValue = fromValue;
+        }
+
+        public Integer getToValue() {
+            return toValue;
+        }
+
+        public void setToValue(Integer toValue) {
+            this.toValue = toValue;
+        }
+
+        public Integer getLo() {
+            return lo;
+        }
+
+        public void setLo(Integer lo) {
+            this.lo = lo;
+        }
+
+        public Integer getHi() {
+            return hi;
+        }
+
+        public void setHi(Integer hi) {
+            this.hi = hi;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public List<Long> getExcludedIds() {
+            return excludedIds;
+        }
+
+        public void setExcludedIds(List<Long> excludedIds) {
+            this.excludedIds = excludedIds;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.annotation.comparison.In;
+import com.vulinh.annotation.comparison.IsNotNull;
+import com.vulinh.annotation.comparison.IsNull;
+import com.vulinh.annotation.comparison.LessThan;
+import com.vulinh.annotation.comparison.Like;
+import com.vulinh.annotation.comparison.NotEqual;
+import com.vulinh.annotation.comparison.NotIn;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.dialect.JdbcDialect;
+import com.vulinh.util.JdbcBindingUtils;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Entities matched by {@link FilterPredicate} compared with the rows returned by the queries built from the same filters. Queries run against an in-memory
+ * H2 database, joining the owner table as an inner join whenever a query reads it, as HQL does for implicit joins such as <code>e.owner.name</code>.
+ */
+class FilterPredicateTest {
+
+    private static final String SELECT_IDS = "select e.\"id\" from \"entity\" e";
+
+    private static final String JOIN_OWNER = " join \"owner\" \"owner\" on \"owner\".\"id\" = e.\"owner_id\"";
+
+    private static final String WHERE = " where 1 = 1";
+
+    private static final QueryBuilder QUERY_BUILDER = QueryBuilder.builder().dialect(JdbcDialect.ANSI).build();
+
+    private static final FilterPredicate<Filter, Entity> PREDICATE = QUERY_BUILDER.compilePredicate(Filter.class, Entity.class);
+
+    private final List<Entity> entities = new ArrayList<>();
+
+    private Connection connection;
+
+    @BeforeEach
+    void createTables() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table \"owner\" (\"id\" bigint, \"name\" varchar(50))");
+            statement.execute("create table \"entity\" (\"id\" bigint, \"title\" varchar(50), \"age\" int, \"created\" date, \"owner_id\" bigint)");
+        }
+
+        Owner ann = owner(1L, "Ann");
+        Owner nameless = owner(2L, null);
+        Owner bob = owner(3L, "Bob");
+
+        entity(1L, "alpha", 10, LocalDate.of(2024, 1, 1), ann);
+        entity(2L, "beta", 20, LocalDate.of(2024, 2, 1), nameless);
+        entity(3L, "gamma", null, null, null);
+        entity(4L, null, 40, LocalDate.of(2024, 4, 1), bob);
+        entity(5L, "alphabet", 50, LocalDate.of(2024, 5, 1), null);
+        entity(6L, "delta", 60, LocalDate.of(2024, 6, 1), ann);
+    }
+
+    @AfterEach
+    void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void isNullDoesNotMatchNullAssociation() throws SQLException {
+        Filter filter = filter(f -> f.setOwnerNameMissing(true));
+
+        // Entities 3 and 5 have no owner, which the implicit inner join drops
+        assertEquals(Collections.singletonList(2L), matchingIds(filter));
+        assertEquals(selectIds(filter), matchingIds(filter));
+    }
+
+    @Test
+    void conditionsOnNullAssociationNeverMatch() {
+        Entity orphan = entities.get(2);
+
+        List<Filter> filters = Arrays.asList(
+            filter(f -> f.setOwnerNameMissing(true)),
+            filter(f -> f.setOwnerNamePresent(true)),
+            filter(f -> f.setNotOwnerName("Bob")),
+            filter(f -> f.setNotOwnerIds(Collections.singletonList(3L)))
+        );
+
+        for (Filter filter : filters) {
+            assertFalse(PREDICATE.test(filter, orphan));
+        }
+    }
+
+    @Test
+    void matchesRowsOfBuiltQueries() throws SQLException {
+        List<Filter> filters = Arrays.asList(
+            filter(f -> { }),
+            filter(f -> f.setOwnerNameMissing(true)),
+            filter(f -> f.setOwnerNamePresent(true)),
+            filter(f -> f.setOwnerName("Ann")),
+            filter(f -> f.setNotOwnerName("Ann")),
+            filter(f -> f.setTitle("alpha%")),
+            filter(f -> f.setMinAge(20)),
+            filter(f -> f.setCreatedBefore(LocalDate.of(2024, 4, 1))),
+            filter(f -> f.setOwnerIds(Arrays.asList(1L, 3L))),
+            filter(f -> f.setNotOwnerIds(Arrays.asList(1L, 2L, 3L))),
+            filter(f -> f.setNotOwnerIds(Collections.singletonList(1L))),
+            filter(f -> {
+                f.setTitle("%a");
+                f.setOwnerNamePresent(true);
+            }),
+            filter(f -> {
+                f.setMinAge(30);
+                f.setNotOwnerName("Ann");
+            }),
+            filter(f -> {
+                f.setCreatedBefore(LocalDate.of(2024, 12, 31));
+                f.setOwnerNameMissing(true);
+                f.setMinAge(10);
+            })
+        );
+
+        for (Filter filter : filters) {
+            assertEquals(selectIds(filter), matchingIds(filter), () -> QUERY_BUILDER.build(filter, SELECT_IDS + WHERE).query());
+        }
+    }
+
+    private List<Long> matchingIds(Filter filter) {
+        Predicate<Entity> predicate = PREDICATE.bind(filter);
+        List<Long> ids = new ArrayList<>();
+
+        for (Entity entity : entities) {
+            if (predicate.test(entity)) {
+                ids.add(entity.getId());
+            }
+        }
+
+        return ids;
+    }
+
+    private List<Long> selectIds(Filter filter) throws SQLException {
+        String predicates = QUERY_BUILDER.build(filter, WHERE).query();
+
+        // Like HQL, only queries reading the association join it
+        BuiltQuery builtQuery = QUERY_BUILDER.build(filter, SELECT_IDS + (predicates.contains("\"owner\".") ? JOIN_OWNER : "") + WHERE);
+        List<Long> ids = new ArrayList<>();
+
+        try (PreparedStatement statement = JdbcBindingUtils.bind(connection.prepareStatement(builtQuery.query() + " order by 1"), builtQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+
+        return ids;
+    }
+
+    private Owner owner(Long id, String name) throws SQLException {
+        Owner owner = new Owner();
+
+        owner.setId(id);
+        owner.setName(name);
+
+        try (PreparedStatement statement = connection.prepareStatement("insert into \"owner\" values (?, ?)")) {
+            JdbcBindingUtils.bindValue(statement, 1, id);
+            JdbcBindingUtils.bindValue(statement, 2, name);
+            statement.executeUpdate();
+        }
+
+        return owner;
+    }
+
+    private void entity(Long id, String title, Integer age, LocalDate created, Owner owner) throws SQLException {
+        Entity entity = new Entity();
+
+        entity.setId(id);
+        entity.setTitle(title);
+        entity.setAge(age);
+        entity.setCreated(created);
+        entity.setOwner(owner);
+        entities.add(entity);
+
+        try (PreparedStatement statement = connection.prepareStatement("insert into \"entity\" values (?, ?, ?, ?, ?)")) {
+            JdbcBindingUtils.bindValue(statement, 1, id);
+            JdbcBindingUtils.bindValue(statement, 2, title);
+            JdbcBindingUtils.bindValue(statement, 3, age);
+            JdbcBindingUtils.bindValue(statement, 4, created);
+            JdbcBindingUtils.bindValue(statement, 5, owner == null ? null : owner.getId());
+            statement.executeUpdate();
+        }
+    }
+
+    private static Filter filter(Consumer<Filter> setup) {
+        Filter filter = new Filter();
+
+        setup.accept(filter);
+
+        return filter;
+    }
+
+    /**
+     * Filter on entities and on their owner, through implicit joins.
+     */
+    public static class Filter {
+
+        @IsNull
+        @UseCustomName("owner.name")
+        private Boolean ownerNameMissing;
+
+        @IsNotNull
+        @UseCustomName("owner.name")
+        private Boolean ownerNamePresent;
+
+        @UseCustomName("owner.name")
+        private String ownerName;
+
+        @NotEqual
+        @UseCustomName("owner.name")
+        private String notOwnerName;
+
+        @In
+        @UseCustomName("owner.id")
+        private List<Long> ownerIds;
+
+        @NotIn
+        @UseCustomName("owner.id")
+        private List<Long> notOwnerIds;
+
+        @Like
+        private String title;
+
+        @GreaterThanOrEqualTo
+        @UseCustomName("age")
+        private Integer minAge;
+
+        @LessThan
+        @UseCustomName("created")
+        private LocalDate createdBefore;
+
+        public Boolean getOwnerNameMissing() {
+            return ownerNameMissing;
+        }
+
+        public void setOwnerNameMissing(Boolean ownerNameMissing) {
+            this.ownerNameMissing = ownerNameMissing;
+        }
+
+        public Boolean getOwnerNamePresent() {
+            return ownerNamePresent;
+        }
+
+        public void setOwnerNamePresent(Boolean ownerNamePresent) {
+            this.ownerNamePresent = ownerNamePresent;
+        }
+
+        public String getOwnerName() {
+            return ownerName;
+        }
+
+        public void setOwnerName(String ownerName) {
+            this.ownerName = ownerName;
+        }
+
+        public String getNotOwnerName() {
+            return notOwnerName;
+        }
+
+        public void setNotOwnerName(String notOwnerName) {
+            this.notOwnerName = notOwnerName;
+        }
+
+        public List<Long> getOwnerIds() {
+            return ownerIds;
+        }
+
+        public void setOwnerIds(List<Long> ownerIds) {
+            this.ownerIds = ownerIds;
+        }
+
+        public List<Long> getNotOwnerIds() {
+            return notOwnerIds;
+        }
+
+        public void setNotOwnerIds(List<Long> notOwnerIds) {
+            this.notOwnerIds = notOwnerIds;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public Integer getMinAge() {
+            return minAge;
+        }
+
+        public void setMinAge(Integer minAge) {
+            this.minAge = minAge;
+        }
+
+        public LocalDate getCreatedBefore() {
+            return createdBefore;
+        }
+
+        public void setCreatedBefore(LocalDate createdBefore) {
+            this.createdBefore = createdBefore;
+        }
+    }
+
+    /**
+     * Entity with an optional owner.
+     */
+    public static class Entity {
+
+        private Long      id;
+        private String    title;
+        private Integer   age;
+        private LocalDate created;
+        private Owner     owner;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public LocalDate getCreated() {
+            return created;
+        }
+
+        public void setCreated(LocalDate created) {
+            this.created = created;
+        }
+
+        public Owner getOwner() {
+            return owner;
+        }
+
+        public void setOwner(Owner owner) {
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Owner of entities.
+     */
+    public static class Owner {
+
+        private Long   id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
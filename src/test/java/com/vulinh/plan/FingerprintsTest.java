@@ -0,0 +1,139 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.accessor.AccessorFactory;
+import com.vulinh.annotation.comparison.In;
+import com.vulinh.data.QueryKind;
+import com.vulinh.data.SortDirection;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shape fingerprints and value-aware cache keys: equal for objects building the same query, different otherwise.
+ */
+class FingerprintsTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final QueryBuilder QUERY_BUILDER = QueryBuilder.builder().build();
+
+    @Test
+    void distinguishesPresetsOfSameStringHashCode() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        Filter filter = filter("name", null, null);
+
+        assertNotEquals(QUERY_BUILDER.fingerprint(filter, "Aa"), QUERY_BUILDER.fingerprint(filter, "BB"));
+        assertNotEquals(QUERY_BUILDER.cacheKey(filter, "Aa"), QUERY_BUILDER.cacheKey(filter, "BB"));
+
+        // Whole presets are hashed, not only their hash codes
+        assertNotEquals(QUERY_BUILDER.fingerprint(filter, "select e from Entity e where e.Aa = 1"),
+                        QUERY_BUILDER.fingerprint(filter, "select e from Entity e where e.BB = 1"));
+    }
+
+    @Test
+    void fingerprintsShapesRegardlessOfValues() {
+        long fingerprint = QUERY_BUILDER.fingerprint(filter("name", null, null), PRESET_HQL);
+
+        assertEquals(fingerprint, QUERY_BUILDER.fingerprint(filter("other", null, null), PRESET_HQL));
+        assertNotEquals(fingerprint, QUERY_BUILDER.fingerprint(filter(null, SortDirection.ASC, null), PRESET_HQL));
+        assertNotEquals(fingerprint, QUERY_BUILDER.fingerprint(filter("name", SortDirection.ASC, null), PRESET_HQL));
+        assertNotEquals(fingerprint, QUERY_BUILDER.fingerprint(filter("name", null, null), PRESET_HQL, QueryKind.COUNT));
+        assertNotEquals(fingerprint, QUERY_BUILDER.fingerprint(filter("name", null, null), PRESET_HQL + " "));
+    }
+
+    @Test
+    void fingerprintsPaddingBuckets() {
+        long two = QUERY_BUILDER.fingerprint(filter(null, null, Arrays.asList(1L, 2L)), PRESET_HQL);
+
+        assertNotEquals(two, QUERY_BUILDER.fingerprint(filter(null, null, Arrays.asList(1L, 2L, 3L)), PRESET_HQL));
+        assertEquals(QUERY_BUILDER.fingerprint(filter(null, null, Arrays.asList(1L, 2L, 3L)), PRESET_HQL),
+                     QUERY_BUILDER.fingerprint(filter(null, null, Arrays.asList(5L, 6L, 7L, 8L)), PRESET_HQL));
+    }
+
+    @Test
+    void fingerprintsOfMaskedAndUnmaskedPathsAgree() {
+        Filter filter = filter("name", SortDirection.DESC, Arrays.asList(1L, 2L, 3L));
+        QueryPlan plan = new QueryPlanCache(AccessorFactory.defaultFactory()).get(Filter.class);
+
+        assertEquals(plan.fingerprint(PRESET_HQL, plan.presenceMask(filter), QueryKind.SELECT), plan.fingerprint(PRESET_HQL, filter, QueryKind.SELECT));
+        assertEquals(QUERY_BUILDER.fingerprint(filter, PRESET_HQL), plan.fingerprint(PRESET_HQL, filter, QueryKind.SELECT));
+    }
+
+    @Test
+    void keysQueriesByValues() {
+        long key = QUERY_BUILDER.cacheKey(filter("name", SortDirection.ASC, Arrays.asList(1L, 2L)), PRESET_HQL);
+
+        assertEquals(key, QueryBuilder.builder().build().cacheKey(filter("name", SortDirection.ASC, Arrays.asList(1L, 2L)), PRESET_HQL));
+        assertNotEquals(key, QUERY_BUILDER.cacheKey(filter("other", SortDirection.ASC, Arrays.asList(1L, 2L)), PRESET_HQL));
+        assertNotEquals(key, QUERY_BUILDER.cacheKey(filter("name", SortDirection.DESC, Arrays.asList(1L, 2L)), PRESET_HQL));
+        assertNotEquals(key, QUERY_BUILDER.cacheKey(filter("name", SortDirection.ASC, Arrays.asList(2L, 1L)), PRESET_HQL));
+        assertNotEquals(key, QUERY_BUILDER.cacheKey(filter("name", SortDirection.ASC, Arrays.asList(1L, 2L)), PRESET_HQL, QueryKind.EXISTS));
+    }
+
+    @Test
+    void hashesValuesByContent() {
+        Set<String> ab = new LinkedHashSet<>(Arrays.asList("a", "b"));
+        Set<String> ba = new LinkedHashSet<>(Arrays.asList("b", "a"));
+
+        // Sets hash regardless of iteration order, lists and arrays by their elements in order, enums by name
+        assertEquals(Fingerprints.valueHash(ab), Fingerprints.valueHash(ba));
+        assertNotEquals(Fingerprints.valueHash(Arrays.asList("a", "b")), Fingerprints.valueHash(Arrays.asList("b", "a")));
+        assertEquals(Fingerprints.valueHash(Arrays.asList("a", "b")), Fingerprints.valueHash(new String[] {"a", "b"}));
+        assertEquals(Fingerprints.mix("ASC".hashCode()), Fingerprints.valueHash(SortDirection.ASC));
+        assertNotEquals(Fingerprints.hash(Fingerprints.seed(), null), Fingerprints.hash(Fingerprints.seed(), ""));
+    }
+
+    private static Filter filter(String name, SortDirection direction, List<Long> ids) {
+        Filter filter = new Filter();
+
+        filter.setName(name);
+        filter.setDirection(direction);
+        filter.setIds(ids);
+
+        return filter;
+    }
+
+    /**
+     * Filter of a string, an enum and a padded list.
+     */
+    public static class Filter {
+
+        private String name;
+
+        private SortDirection direction;
+
+        @In
+        private List<Long> ids;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public SortDirection getDirection() {
+            return direction;
+        }
+
+        public void setDirection(SortDirection direction) {
+            this.direction = direction;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.Order;
+import com.vulinh.annotation.Selectivity;
+import com.vulinh.data.BuilderException;
+import com.vulinh.util.ClassFileUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Canonical order of predicates: declaration order as read from the class file, reordered by <code>@Order</code> then <code>@Selectivity</code>.
+ */
+class PredicateOrderTest {
+
+    @Test
+    void readsFieldsInDeclarationOrder() {
+        List<String> names = new ArrayList<>();
+
+        for (Field field : ClassFileUtils.declaredFields(Unordered.class)) {
+            names.add(field.getName());
+        }
+
+        // Constants of long and double types take two constant pool entries each, which must not shift the names read after them
+        assertEquals(Arrays.asList("LONG_CONSTANT", "zeta", "DOUBLE_CONSTANT", "alpha", "STRING_CONSTANT", "mid", "beta"), names);
+    }
+
+    @Test
+    void rendersPredicatesInDeclarationOrder() {
+        assertEquals(" and (zeta = :zeta) and (alpha = :alpha) and (mid = :mid) and (beta = :beta)",
+                     QueryBuilder.builder().build().buildQueryString(new Unordered(), ""));
+    }
+
+    @Test
+    void ordersPredicatesByOrderThenSelectivity() {
+        assertEquals(" and (first = :first) and (last = :last) and (rare = :rare) and (common = :common) and (unknown = :unknown)",
+                     QueryBuilder.builder().build().buildQueryString(new Hinted(), ""));
+    }
+
+    @Test
+    void rendersTheSameQueryOnEveryBuilder() {
+        Hinted hinted = new Hinted();
+
+        assertEquals(QueryBuilder.builder().build().buildQueryString(hinted, ""), QueryBuilder.builder().maxShapes(0).build().buildQueryString(hinted, ""));
+    }
+
+    @Test
+    void rejectsSelectivityOutsideFraction() {
+        assertThrows(BuilderException.class, () -> QueryBuilder.builder().build().validate(InvalidSelectivity.class));
+    }
+
+    /**
+     * Filter whose declaration order is neither alphabetical nor grouped by kind.
+     */
+    public static class Unordered {
+
+        public static final long LONG_CONSTANT = 1L << 40;
+
+        private String zeta = "z";
+
+        public static final double DOUBLE_CONSTANT = 0.5;
+
+        private String alpha = "a";
+
+        public static final String STRING_CONSTANT = "constant";
+
+        private String mid = "m";
+
+        private String beta = "b";
+
+        public String getZeta() {
+            return zeta;
+        }
+
+        public void setZeta(String zeta) {
+            this.zeta = zeta;
+        }
+
+        public String getAlpha() {
+            return alpha;
+        }
+
+        public void setAlpha(String alpha) {
+            this.alpha = alpha;
+        }
+
+        public String getMid() {
+            return mid;
+        }
+
+        public void setMid(String mid) {
+            this.mid = mid;
+        }
+
+        public String getBeta() {
+            return beta;
+        }
+
+        public void setBeta(String beta) {
+            this.beta = beta;
+        }
+    }
+
+    /**
+     * Filter whose predicates are reordered by hints.
+     */
+    public static class Hinted {
+
+        @Order(2)
+        private String last = "l";
+
+        private String unknown = "u";
+
+        @Selectivity(0.5)
+        private String common = "c";
+
+        @Order(1)
+        private String first = "f";
+
+        @Selectivity(0.01)
+        private String rare = "r";
+
+        public String getLast() {
+            return last;
+        }
+
+        public void setLast(String last) {
+            this.last = last;
+        }
+
+        public String getUnknown() {
+            return unknown;
+        }
+
+        public void setUnknown(String unknown) {
+            this.unknown = unknown;
+        }
+
+        public String getCommon() {
+            return common;
+        }
+
+        public void setCommon(String common) {
+            this.common = common;
+        }
+
+        public String getFirst() {
+            return first;
+        }
+
+        public void setFirst(String first) {
+            this.first = first;
+        }
+
+        public String getRare() {
+            return rare;
+        }
+
+        public void setRare(String rare) {
+            this.rare = rare;
+        }
+    }
+
+    /**
+     * Filter with a selectivity that is not a fraction.
+     */
+    public static class InvalidSelectivity {
+
+        @Selectivity(2)
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
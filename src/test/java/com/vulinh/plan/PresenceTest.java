@@ -0,0 +1,317 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.accessor.AccessorFactory;
+import com.vulinh.accessor.MethodHandleAccessorFactory;
+import com.vulinh.annotation.AbsentWhen;
+import com.vulinh.annotation.IgnoreField;
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.annotation.comparison.LessThanOrEqualTo;
+import com.vulinh.data.BuilderException;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.QueryKind;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Presence of primitive fields, with or without <code>@AbsentWhen</code>, and of <code>Optional</code> fields, on every accessor factory.
+ */
+class PresenceTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final List<QueryBuilder> QUERY_BUILDERS = Arrays.asList(
+        QueryBuilder.builder().build(),
+        QueryBuilder.builder().accessorFactory(MethodHandleAccessorFactory.INSTANCE).build()
+    );
+
+    @Test
+    void keepsPrimitivesWithoutSentinelPresent() {
+        for (QueryBuilder queryBuilder : QUERY_BUILDERS) {
+            BuiltQuery builtQuery = queryBuilder.build(new Filter(), PRESET_HQL);
+
+            assertEquals(PRESET_HQL + " and (count = :count) and (active = :active)", builtQuery.query());
+            assertEquals(Arrays.asList(0, false), builtQuery.parameterValues());
+        }
+    }
+
+    @Test
+    void leavesOutSentinelsAndUnsetFlags() {
+        Filter filter = new Filter();
+
+        filter.setMinAge(0);
+        filter.setMaxAge(9L);
+        filter.setRatio(0.5);
+
+        for (QueryBuilder queryBuilder : QUERY_BUILDERS) {
+            // The sentinel is -1, so that zero is a present value, while the flag is still unset
+            assertEquals(PRESET_HQL + " and (count = :count) and (age >= :minAge) and (ratio = :ratio) and (active = :active)",
+                         queryBuilder.buildQueryString(filter, PRESET_HQL));
+        }
+
+        filter.setMaxAgeSet(true);
+        filter.setRatio(-1);
+
+        for (QueryBuilder queryBuilder : QUERY_BUILDERS) {
+            assertEquals(PRESET_HQL + " and (count = :count) and (age >= :minAge) and (age <= :maxAge) and (active = :active)",
+                         queryBuilder.buildQueryString(filter, PRESET_HQL));
+        }
+    }
+
+    @Test
+    void bindsPrimitivesAndOptionalsAsTheirBoxedValues() {
+        Filter filter = new Filter();
+
+        filter.setMinAge(18);
+        filter.setMaxAge(65L);
+        filter.setMaxAgeSet(true);
+        filter.setLevel(OptionalInt.of(3));
+        filter.setRank(OptionalLong.of(4L));
+        filter.setName(Optional.of("name"));
+
+        for (QueryBuilder queryBuilder : QUERY_BUILDERS) {
+            BuiltQuery builtQuery = queryBuilder.build(filter, PRESET_HQL);
+            List<Class<?>> types = new ArrayList<>();
+
+            builtQuery.parameterValues().forEach(value -> types.add(value.getClass()));
+
+            assertEquals(Arrays.asList("count", "minAge", "maxAge", "active", "level", "rank", "name"), builtQuery.parameterNames());
+            assertEquals(Arrays.asList(0, 18, 65L, false, 3, 4L, "name"), builtQuery.parameterValues());
+            assertEquals(Arrays.asList(Integer.class, Integer.class, Long.class, Boolean.class, Integer.class, Long.class, String.class), types);
+        }
+    }
+
+    @Test
+    void leavesOutEmptyAndNullOptionals() {
+        Filter filter = new Filter();
+
+        filter.setLevel(null);
+        filter.setName(Optional.empty());
+
+        for (QueryBuilder queryBuilder : QUERY_BUILDERS) {
+            assertEquals(PRESET_HQL + " and (count = :count) and (active = :active)", queryBuilder.buildQueryString(filter, PRESET_HQL));
+        }
+    }
+
+    @Test
+    void keysQueriesByPrimitiveValues() {
+        Filter filter = new Filter();
+        Filter other = new Filter();
+
+        filter.setMinAge(18);
+        other.setMinAge(21);
+
+        for (QueryBuilder queryBuilder : QUERY_BUILDERS) {
+            assertEquals(queryBuilder.fingerprint(filter, PRESET_HQL), queryBuilder.fingerprint(other, PRESET_HQL));
+            assertNotEquals(queryBuilder.cacheKey(filter, PRESET_HQL), queryBuilder.cacheKey(other, PRESET_HQL));
+            assertNotEquals(queryBuilder.fingerprint(filter, PRESET_HQL), queryBuilder.fingerprint(new Filter(), PRESET_HQL));
+        }
+
+        // Primitive values are hashed the same whichever accessor factory reads them
+        assertEquals(QUERY_BUILDERS.get(0).cacheKey(filter, PRESET_HQL), QUERY_BUILDERS.get(1).cacheKey(filter, PRESET_HQL));
+
+        QueryPlan plan = new QueryPlanCache(AccessorFactory.defaultFactory()).get(Filter.class);
+
+        assertEquals(plan.fingerprint(PRESET_HQL, plan.presenceMask(filter), QueryKind.SELECT), plan.fingerprint(PRESET_HQL, filter, QueryKind.SELECT));
+    }
+
+    @Test
+    void rejectsSentinelsOnNonNumericFields() {
+        for (Class<?> type : Arrays.asList(SentinelBoolean.class, SentinelChar.class, SentinelString.class, FlaggedOptional.class)) {
+            assertThrows(BuilderException.class, () -> QueryBuilder.builder().build().validate(type), type::getSimpleName);
+        }
+    }
+
+    /**
+     * Filter of primitives always present, primitives absent when holding a sentinel or when a flag is unset, and optionals.
+     */
+    public static class Filter {
+
+        private int count;
+
+        @AbsentWhen(-1)
+        @GreaterThanOrEqualTo
+        @UseCustomName("age")
+        private int minAge = -1;
+
+        @AbsentWhen(flag = "maxAgeSet")
+        @LessThanOrEqualTo
+        @UseCustomName("age")
+        private long maxAge;
+
+        @IgnoreField
+        private boolean maxAgeSet;
+
+        @AbsentWhen(-1)
+        private double ratio = -1;
+
+        private boolean active;
+
+        private OptionalInt level = OptionalInt.empty();
+
+        private OptionalLong rank = OptionalLong.empty();
+
+        private Optional<String> name = Optional.empty();
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public int getMinAge() {
+            return minAge;
+        }
+
+        public void setMinAge(int minAge) {
+            this.minAge = minAge;
+        }
+
+        public long getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(long maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public boolean isMaxAgeSet() {
+            return maxAgeSet;
+        }
+
+        public void setMaxAgeSet(boolean maxAgeSet) {
+            this.maxAgeSet = maxAgeSet;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double ratio) {
+            this.ratio = ratio;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public OptionalInt getLevel() {
+            return level;
+        }
+
+        public void setLevel(OptionalInt level) {
+            this.level = level;
+        }
+
+        public OptionalLong getRank() {
+            return rank;
+        }
+
+        public void setRank(OptionalLong rank) {
+            this.rank = rank;
+        }
+
+        public Optional<String> getName() {
+            return name;
+        }
+
+        public void setName(Optional<String> name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Filter with a sentinel on a boolean.
+     */
+    public static class SentinelBoolean {
+
+        @AbsentWhen
+        private boolean active;
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+
+    /**
+     * Filter with a sentinel on a char.
+     */
+    public static class SentinelChar {
+
+        @AbsentWhen
+        private char code;
+
+        public char getCode() {
+            return code;
+        }
+
+        public void setCode(char code) {
+            this.code = code;
+        }
+    }
+
+    /**
+     * Filter with a sentinel on a reference.
+     */
+    public static class SentinelString {
+
+        @AbsentWhen
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Filter with a presence flag on an optional.
+     */
+    public static class FlaggedOptional {
+
+        @AbsentWhen(flag = "levelSet")
+        private OptionalInt level;
+
+        @IgnoreField
+        private boolean levelSet;
+
+        public OptionalInt getLevel() {
+            return level;
+        }
+
+        public void setLevel(OptionalInt level) {
+            this.level = level;
+        }
+
+        public boolean isLevelSet() {
+            return levelSet;
+        }
+
+        public void setLevelSet(boolean levelSet) {
+            this.levelSet = levelSet;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.accessor.AccessorFactory;
+import com.vulinh.annotation.comparison.In;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.QueryKind;
+import com.vulinh.data.SortDirection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Query templates compiled for a fixed preset query, which must render, build, fingerprint and key queries exactly as the query builder does, sharing its
+ * cache of rendered queries.
+ */
+class QueryTemplateTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final List<Filter> FILTERS = Arrays.asList(
+        filter(null, null, null),
+        filter("name", null, null),
+        filter("name", SortDirection.ASC, null),
+        filter(null, SortDirection.DESC, Arrays.asList(1L, 2L, 3L)),
+        filter("other", SortDirection.ASC, Collections.singletonList(4L)),
+        filter(null, null, Collections.emptyList())
+    );
+
+    @Test
+    void rendersAsQueryBuilder() {
+        QueryBuilder queryBuilder = QueryBuilder.builder().build();
+        QueryTemplate<Filter> template = queryBuilder.compile(Filter.class, PRESET_HQL);
+
+        for (Filter filter : FILTERS) {
+            assertEquals(queryBuilder.buildQueryString(filter, PRESET_HQL), template.render(filter));
+
+            BuiltQuery expected = queryBuilder.build(filter, PRESET_HQL);
+            BuiltQuery actual = template.build(filter);
+
+            assertEquals(expected.query(), actual.query());
+            assertEquals(expected.parameterNames(), actual.parameterNames());
+            assertEquals(expected.parameterValues(), actual.parameterValues());
+        }
+    }
+
+    @Test
+    void buildsEveryKindAsQueryBuilder() {
+        QueryBuilder queryBuilder = QueryBuilder.builder().build();
+
+        assertBuildsAs(queryBuilder.compile(Filter.class, "select count(e) from Entity e where 1 = 1", QueryKind.COUNT), queryBuilder::buildCountQuery);
+        assertBuildsAs(queryBuilder.compile(Filter.class, PRESET_HQL, QueryKind.EXISTS), queryBuilder::buildExistsQuery);
+    }
+
+    @Test
+    void fingerprintsAndKeysAsQueryBuilder() {
+        QueryBuilder queryBuilder = QueryBuilder.builder().build();
+
+        for (QueryKind kind : QueryKind.values()) {
+            QueryTemplate<Filter> template = queryBuilder.compile(Filter.class, PRESET_HQL, kind);
+
+            for (Filter filter : FILTERS) {
+                assertEquals(queryBuilder.fingerprint(filter, PRESET_HQL, kind), template.fingerprint(filter), kind::name);
+                assertEquals(queryBuilder.cacheKey(filter, PRESET_HQL, kind), template.cacheKey(filter), kind::name);
+                assertEquals(template.plan().fingerprint(PRESET_HQL, filter, kind), template.fingerprint(filter), kind::name);
+                assertEquals(template.plan().cacheKey(PRESET_HQL, filter, kind), template.cacheKey(filter), kind::name);
+            }
+        }
+    }
+
+    @Test
+    void sharesShapeCacheWithQueryBuilder() {
+        QueryPlanCache cache = new QueryPlanCache(AccessorFactory.defaultFactory());
+        QueryBuilder queryBuilder = new QueryBuilder(cache);
+        QueryTemplate<Filter> template = queryBuilder.compile(Filter.class, PRESET_HQL);
+        ShapeCache shapeCache = template.shapeCache();
+
+        assertSame(cache.get(Filter.class).shapeCache(QueryKind.SELECT), shapeCache);
+
+        // Queries rendered by the builder are found by the template, as the same instances
+        String query = queryBuilder.buildQueryString(FILTERS.get(2), PRESET_HQL);
+        long hits = shapeCache.hitCount();
+
+        assertSame(query, template.render(FILTERS.get(2)));
+        assertEquals(hits + 1, shapeCache.hitCount());
+        assertEquals(1, shapeCache.missCount());
+    }
+
+    @Test
+    void rendersWithoutCachingAsQueryBuilder() {
+        QueryBuilder queryBuilder = QueryBuilder.builder().maxShapes(0).build();
+        QueryTemplate<Filter> template = queryBuilder.compile(Filter.class, PRESET_HQL);
+
+        for (Filter filter : FILTERS) {
+            assertEquals(queryBuilder.buildQueryString(filter, PRESET_HQL), template.render(filter));
+            assertEquals(QueryBuilder.builder().build().buildQueryString(filter, PRESET_HQL), template.render(filter));
+        }
+    }
+
+    @Test
+    void rejectsSubclassObjects() {
+        QueryTemplate<Filter> template = QueryBuilder.builder().build().compile(Filter.class, PRESET_HQL);
+
+        assertThrows(IllegalArgumentException.class, () -> template.render(new Filter() {}));
+    }
+
+    private static void assertBuildsAs(QueryTemplate<Filter> template, BiFunction<Filter, String, BuiltQuery> builder) {
+        for (Filter filter : FILTERS) {
+            BuiltQuery expected = builder.apply(filter, template.presetHql());
+
+            assertEquals(expected.query(), template.render(filter), template.kind()::name);
+            assertEquals(expected.query(), template.build(filter).query(), template.kind()::name);
+            assertEquals(expected.parameterValues(), template.build(filter).parameterValues(), template.kind()::name);
+        }
+    }
+
+    private static Filter filter(String name, SortDirection direction, List<Long> ids) {
+        Filter filter = new Filter();
+
+        filter.setName(name);
+        filter.setDirection(direction);
+        filter.setIds(ids);
+
+        return filter;
+    }
+
+    /**
+     * Filter of a string, an enum and a padded list.
+     */
+    public static class Filter {
+
+        private String name;
+
+        private SortDirection direction;
+
+        @In
+        private List<Long> ids;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public SortDirection getDirection() {
+            return direction;
+        }
+
+        public void setDirection(SortDirection direction) {
+            this.direction = direction;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+    }
+}
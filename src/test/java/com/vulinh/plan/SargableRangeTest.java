@@ -0,0 +1,343 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.UseWrapMethod;
+import com.vulinh.annotation.comparison.GreaterThan;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.annotation.comparison.LessThan;
+import com.vulinh.annotation.comparison.LessThanOrEqualTo;
+import com.vulinh.annotation.comparison.NotEqual;
+import com.vulinh.data.BuilderException;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.dialect.JdbcDialect;
+import com.vulinh.util.JdbcBindingUtils;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Truncated comparisons rewritten into half-open ranges on the bare column (<code>@UseWrapMethod(sargable = true)</code>), compared on an in-memory H2
+ * database with the same comparisons on the truncated column.
+ */
+class SargableRangeTest {
+
+    private static final String SELECT_IDS = "select \"id\" from \"entity\" e where 1 = 1";
+
+    private static final String[] OPERATORS = {"=", "<>", "<", "<=", ">", ">="};
+
+    private static final String[] SUFFIXES = {"Eq", "Ne", "Lt", "Le", "Gt", "Ge"};
+
+    private static final QueryBuilder QUERY_BUILDER = QueryBuilder.builder().dialect(JdbcDialect.ANSI).build();
+
+    private Connection connection;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table \"entity\" (\"id\" bigint, \"created\" timestamp)");
+            statement.execute("insert into \"entity\" values (1, timestamp '2023-12-31 23:59:59.999'), (2, timestamp '2024-01-01 00:00:00'),"
+                              + " (3, timestamp '2024-03-05 00:00:00'), (4, timestamp '2024-03-05 13:30:00'), (5, timestamp '2024-03-06 00:00:00'),"
+                              + " (6, timestamp '2024-12-31 23:59:59.999'), (7, timestamp '2025-01-01 00:00:00'), (8, null)");
+        }
+    }
+
+    @AfterEach
+    void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void rewritesDayEqualityIntoRange() {
+        BuiltQuery builtQuery = QueryBuilder.builder().build().build(filter("dayEq", LocalDateTime.of(2024, 3, 5, 8, 15)), "");
+
+        assertEquals(" and (created >= :dayEqStart and created < :dayEqEnd)", builtQuery.query());
+        assertEquals(Arrays.asList(LocalDateTime.of(2024, 3, 5, 0, 0), LocalDateTime.of(2024, 3, 6, 0, 0)), builtQuery.parameterValues());
+    }
+
+    @Test
+    void rewritesYearNumbersIntoDateRange() {
+        BuiltQuery builtQuery = QueryBuilder.builder().build().build(filter("yearNe", 2024), "");
+
+        assertEquals(" and (created < :yearNeStart or created >= :yearNeEnd)", builtQuery.query());
+        assertEquals(Arrays.asList(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1)), builtQuery.parameterValues());
+    }
+
+    @Test
+    void keepsTypeOfTimestampBounds() {
+        Timestamp value = Timestamp.valueOf("2024-03-05 13:30:00");
+        BuiltQuery builtQuery = QueryBuilder.builder().build().build(filter("timestampLt", value), "");
+
+        assertEquals(" and (created < :timestampLtStart)", builtQuery.query());
+        assertEquals(Timestamp.valueOf("2024-03-05 00:00:00"), builtQuery.parameterValue(0));
+        assertEquals(Timestamp.class, builtQuery.parameterValue(0).getClass());
+    }
+
+    @Test
+    void rejectsValuesThatCannotBeTruncated() {
+        assertThrows(BuilderException.class, () -> QueryBuilder.builder().build().build(filter("dayText", "2024-03-05"), ""));
+    }
+
+    @Test
+    void matchesRowsOfTruncatedComparisons() throws SQLException {
+        for (LocalDateTime value : Arrays.asList(LocalDateTime.of(2024, 3, 5, 8, 15), LocalDateTime.of(2024, 1, 1, 0, 0))) {
+            for (int i = 0; i < OPERATORS.length; i++) {
+                List<Long> expected = ids("select \"id\" from \"entity\" where cast(\"created\" as date) " + OPERATORS[i] + " date '" + value.toLocalDate()
+                                          + "' order by 1");
+
+                assertEquals(expected, ids(QUERY_BUILDER.build(filter("day" + SUFFIXES[i], value), SELECT_IDS)), "day" + SUFFIXES[i] + " " + value);
+            }
+        }
+
+        for (int year : new int[] {2023, 2024}) {
+            for (int i = 0; i < OPERATORS.length; i++) {
+                List<Long> expected = ids("select \"id\" from \"entity\" where year(\"created\") " + OPERATORS[i] + " " + year + " order by 1");
+
+                assertEquals(expected, ids(QUERY_BUILDER.build(filter("year" + SUFFIXES[i], year), SELECT_IDS)), "year" + SUFFIXES[i] + " " + year);
+            }
+        }
+    }
+
+    private List<Long> ids(String query) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            return ids(resultSet);
+        }
+    }
+
+    private List<Long> ids(BuiltQuery builtQuery) throws SQLException {
+        try (PreparedStatement statement = JdbcBindingUtils.bind(connection.prepareStatement(builtQuery.query() + " order by 1"), builtQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+            return ids(resultSet);
+        }
+    }
+
+    private static List<Long> ids(ResultSet resultSet) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+
+        while (resultSet.next()) {
+            ids.add(resultSet.getLong(1));
+        }
+
+        return ids;
+    }
+
+    private static Filter filter(String fieldName, Object value) {
+        Filter filter = new Filter();
+
+        // Only one comparison at a time, so that each is checked on its own
+        try {
+            Field field = Filter.class.getDeclaredField(fieldName);
+
+            field.setAccessible(true);
+            field.set(filter, value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return filter;
+    }
+
+    /**
+     * Filter of every rewritable comparison, on days and on years of the same column.
+     */
+    public static class Filter {
+
+        @UseCustomName("created")
+        @UseWrapMethod(value = "trunc", sargable = true)
+        private LocalDateTime dayEq;
+
+        @NotEqual
+        @UseCustomName("created")
+        @UseWrapMethod(value = "trunc", sargable = true)
+        private LocalDateTime dayNe;
+
+        @LessThan
+        @UseCustomName("created")
+        @UseWrapMethod(value = "trunc", sargable = true)
+        private LocalDateTime dayLt;
+
+        @LessThanOrEqualTo
+        @UseCustomName("created")
+        @UseWrapMethod(value = "date", sargable = true)
+        private LocalDateTime dayLe;
+
+        @GreaterThan
+        @UseCustomName("created")
+        @UseWrapMethod(value = "DATE", sargable = true)
+        private LocalDateTime dayGt;
+
+        @GreaterThanOrEqualTo
+        @UseCustomName("created")
+        @UseWrapMethod(value = "trunc", sargable = true)
+        private LocalDateTime dayGe;
+
+        @UseCustomName("created")
+        @UseWrapMethod(value = "year", sargable = true)
+        private Integer yearEq;
+
+        @NotEqual
+        @UseCustomName("created")
+        @UseWrapMethod(value = "year", sargable = true)
+        private Integer yearNe;
+
+        @LessThan
+        @UseCustomName("created")
+        @UseWrapMethod(value = "year", sargable = true)
+        private Integer yearLt;
+
+        @LessThanOrEqualTo
+        @UseCustomName("created")
+        @UseWrapMethod(value = "year", sargable = true)
+        private Integer yearLe;
+
+        @GreaterThan
+        @UseCustomName("created")
+        @UseWrapMethod(value = "year", sargable = true)
+        private Integer yearGt;
+
+        @GreaterThanOrEqualTo
+        @UseCustomName("created")
+        @UseWrapMethod(value = "YEAR", sargable = true)
+        private Integer yearGe;
+
+        @LessThan
+        @UseCustomName("created")
+        @UseWrapMethod(value = "trunc", sargable = true)
+        private Timestamp timestampLt;
+
+        @UseCustomName("created")
+        @UseWrapMethod(value = "trunc", sargable = true)
+        private String dayText;
+
+        public LocalDateTime getDayEq() {
+            return dayEq;
+        }
+
+        public void setDayEq(LocalDateTime dayEq) {
+            this.dayEq = dayEq;
+        }
+
+        public LocalDateTime getDayNe() {
+            return dayNe;
+        }
+
+        public void setDayNe(LocalDateTime dayNe) {
+            this.dayNe = dayNe;
+        }
+
+        public LocalDateTime getDayLt() {
+            return dayLt;
+        }
+
+        public void setDayLt(LocalDateTime dayLt) {
+            this.dayLt = dayLt;
+        }
+
+        public LocalDateTime getDayLe() {
+            return dayLe;
+        }
+
+        public void setDayLe(LocalDateTime dayLe) {
+            this.dayLe = dayLe;
+        }
+
+        public LocalDateTime getDayGt() {
+            return dayGt;
+        }
+
+        public void setDayGt(LocalDateTime dayGt) {
+            this.dayGt = dayGt;
+        }
+
+        public LocalDateTime getDayGe() {
+            return dayGe;
+        }
+
+        public void setDayGe(LocalDateTime dayGe) {
+            this.dayGe = dayGe;
+        }
+
+        public Integer getYearEq() {
+            return yearEq;
+        }
+
+        public void setYearEq(Integer yearEq) {
+            this.yearEq = yearEq;
+        }
+
+        public Integer getYearNe() {
+            return yearNe;
+        }
+
+        public void setYearNe(Integer yearNe) {
+            this.yearNe = yearNe;
+        }
+
+        public Integer getYearLt() {
+            return yearLt;
+        }
+
+        public void setYearLt(Integer yearLt) {
+            this.yearLt = yearLt;
+        }
+
+        public Integer getYearLe() {
+            return yearLe;
+        }
+
+        public void setYearLe(Integer yearLe) {
+            this.yearLe = yearLe;
+        }
+
+        public Integer getYearGt() {
+            return yearGt;
+        }
+
+        public void setYearGt(Integer yearGt) {
+            this.yearGt = yearGt;
+        }
+
+        public Integer getYearGe() {
+            return yearGe;
+        }
+
+        public void setYearGe(Integer yearGe) {
+            this.yearGe = yearGe;
+        }
+
+        public Timestamp getTimestampLt() {
+            return timestampLt;
+        }
+
+        public void setTimestampLt(Timestamp timestampLt) {
+            this.timestampLt = timestampLt;
+        }
+
+        public String getDayText() {
+            return dayText;
+        }
+
+        public void setDayText(String dayText) {
+            this.dayText = dayText;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.vulinh.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.IgnoreField;
+import com.vulinh.annotation.SeekKey;
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.data.SortDirection;
+import com.vulinh.dialect.JdbcDialect;
+import com.vulinh.util.JdbcBindingUtils;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Seek predicates and order by clauses rendered from <code>@SeekKey</code> cursors, and pages they select compared with a plain ordered query on an
+ * in-memory H2 database.
+ */
+class SeekPlanTest {
+
+    private static final String PRESET_HQL = "select e from Entity e where 1 = 1";
+
+    private static final String SELECT_ROWS = "select \"id\", \"score\" from \"entity\" e where 1 = 1";
+
+    private static final int PAGE_SIZE = 3;
+
+    private Connection connection;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table \"entity\" (\"id\" bigint, \"score\" int)");
+
+            // Scores repeat, so that pages break ties on the second key
+            statement.execute("insert into \"entity\" values (1, 50), (2, 70), (3, 50), (4, 90), (5, 70), (6, 50), (7, 10), (8, 70), (9, 90), (10, 30)");
+        }
+    }
+
+    @AfterEach
+    void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void expandsPredicateWithoutRowValues() {
+        BuiltQuery builtQuery = QueryBuilder.builder().build().buildSeekQuery(filter(), PRESET_HQL, CreatedCursor.class, createdCursor("2024", 7L));
+
+        assertEquals(PRESET_HQL + " and (score >= :minScore) and (e.createdAt >= :seek_created and ((e.createdAt > :seek_created)"
+                     + " or (e.createdAt = :seek_created and id > :seek_id))) order by e.createdAt asc, id asc", builtQuery.query());
+        assertEquals(Arrays.asList("minScore", "seek_created", "seek_created", "seek_created", "seek_id"), builtQuery.parameterNames());
+    }
+
+    @Test
+    void rendersRowValuesWhenDialectSupportsThem() {
+        QueryBuilder queryBuilder = QueryBuilder.builder().dialect(JdbcDialect.ANSI).build();
+        BuiltQuery builtQuery = queryBuilder.buildSeekQuery(filter(), PRESET_HQL, CreatedCursor.class, createdCursor("2024", 7L));
+
+        assertEquals(PRESET_HQL + " and (\"score\" >= ?) and ((\"e\".\"createdAt\", \"id\") > (?, ?)) order by \"e\".\"createdAt\" asc, \"id\" asc",
+                     builtQuery.query());
+        assertEquals(Arrays.asList("minScore", "seek_created", "seek_id"), builtQuery.parameterNames());
+    }
+
+    @Test
+    void expandsPredicateOfMixedDirections() {
+        QueryBuilder queryBuilder = QueryBuilder.builder().dialect(JdbcDialect.ANSI).build();
+        BuiltQuery builtQuery = queryBuilder.buildSeekQuery(new Filter(), SELECT_ROWS, ScoreCursor.class, scoreCursor(50, 3L));
+
+        assertEquals(SELECT_ROWS + " and (\"score\" <= ? and ((\"score\" < ?) or (\"score\" = ? and \"id\" > ?))) order by \"score\" desc, \"id\" asc",
+                     builtQuery.query());
+    }
+
+    @Test
+    void firstPageOnlyOrders() {
+        BuiltQuery builtQuery = QueryBuilder.builder().build().buildSeekQuery(filter(), PRESET_HQL, CreatedCursor.class, null);
+
+        assertEquals(PRESET_HQL + " and (score >= :minScore) order by e.createdAt asc, id asc", builtQuery.query());
+        assertEquals(Arrays.asList("minScore"), builtQuery.parameterNames());
+    }
+
+    @Test
+    void keepsSeekKeysAsFilterPredicates() {
+        IdCursor filter = new IdCursor();
+        IdCursor lastSeen = new IdCursor();
+
+        filter.setId(4L);
+        lastSeen.setId(10L);
+
+        BuiltQuery builtQuery = QueryBuilder.builder().build().buildSeekQuery(filter, "", IdCursor.class, lastSeen);
+
+        assertEquals(" and (id = :id) and ((id < :seek_id)) order by id desc", builtQuery.query());
+        assertEquals(Arrays.asList(4L, 10L), builtQuery.parameterValues());
+    }
+
+    @Test
+    void pagesMatchOrderedQuery() throws SQLException {
+        List<Long> descending = ids(SELECT_ROWS + " and \"score\" >= 30 order by \"score\" desc, \"id\" asc");
+        List<Long> ascending = ids(SELECT_ROWS + " and \"score\" >= 30 order by \"score\" asc, \"id\" asc");
+
+        assertEquals(9, descending.size());
+
+        for (QueryBuilder queryBuilder : Arrays.asList(QueryBuilder.builder().dialect(JdbcDialect.ANSI).build(),
+                                                       QueryBuilder.builder().dialect(JdbcDialect.quotedBy("\"", "\"", false)).build())) {
+            assertEquals(descending, paginate(queryBuilder, ScoreCursor.class, SeekPlanTest::scoreCursor));
+
+            // Keys of the same direction are compared as row values when the dialect supports them
+            assertEquals(ascending, paginate(queryBuilder, AscendingCursor.class, SeekPlanTest::ascendingCursor));
+        }
+    }
+
+    // Read every page, each seeking after the last row of the previous one
+    private <C> List<Long> paginate(QueryBuilder queryBuilder, Class<C> cursorType, BiFunction<Integer, Long, C> cursor) throws SQLException {
+        Filter filter = filter();
+        List<Long> ids = new ArrayList<>();
+
+        for (List<long[]> page = page(queryBuilder, filter, cursorType, null); !page.isEmpty(); ) {
+            long[] last = page.get(page.size() - 1);
+
+            page.forEach(row -> ids.add(row[0]));
+            page = page(queryBuilder, filter, cursorType, cursor.apply((int) last[1], last[0]));
+        }
+
+        return ids;
+    }
+
+    private <C> List<long[]> page(QueryBuilder queryBuilder, Filter filter, Class<C> cursorType, C lastSeen) throws SQLException {
+        BuiltQuery builtQuery = queryBuilder.buildSeekQuery(filter, SELECT_ROWS, cursorType, lastSeen);
+        List<long[]> rows = new ArrayList<>();
+
+        try (PreparedStatement statement = JdbcBindingUtils.bind(connection.prepareStatement(builtQuery.query() + " fetch first " + PAGE_SIZE + " rows only"),
+                                                                 builtQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(new long[] {resultSet.getLong(1), resultSet.getLong(2)});
+            }
+        }
+
+        return rows;
+    }
+
+    private List<Long> ids(String query) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+
+        return ids;
+    }
+
+    private static Filter filter() {
+        Filter filter = new Filter();
+
+        filter.setMinScore(30);
+
+        return filter;
+    }
+
+    private static CreatedCursor createdCursor(String created, Long id) {
+        CreatedCursor cursor = new CreatedCursor();
+
+        cursor.setCreated(created);
+        cursor.setId(id);
+
+        return cursor;
+    }
+
+    private static ScoreCursor scoreCursor(Integer score, Long id) {
+        ScoreCursor cursor = new ScoreCursor();
+
+        cursor.setScore(score);
+        cursor.setId(id);
+
+        return cursor;
+    }
+
+    private static AscendingCursor ascendingCursor(Integer score, Long id) {
+        AscendingCursor cursor = new AscendingCursor();
+
+        cursor.setScore(score);
+        cursor.setId(id);
+
+        return cursor;
+    }
+
+    /**
+     * Filter on scores.
+     */
+    public static class Filter {
+
+        @GreaterThanOrEqualTo
+        @UseCustomName("score")
+        private Integer minScore;
+
+        public Integer getMinScore() {
+            return minScore;
+        }
+
+        public void setMinScore(Integer minScore) {
+            this.minScore = minScore;
+        }
+    }
+
+    /**
+     * Cursor of ascending keys, one of them aliased and renamed.
+     */
+    public static class CreatedCursor {
+
+        @IgnoreField
+        @SeekKey(order = 2)
+        private Long id;
+
+        @IgnoreField
+        @SeekKey(order = 1)
+        @UseTableAlias("e")
+        @UseCustomName("createdAt")
+        private String created;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getCreated() {
+            return created;
+        }
+
+        public void setCreated(String created) {
+            this.created = created;
+        }
+    }
+
+    /**
+     * Cursor of descending scores, ties broken by ascending ids.
+     */
+    public static class ScoreCursor {
+
+        @IgnoreField
+        @SeekKey(order = 1, direction = SortDirection.DESC)
+        private Integer score;
+
+        @IgnoreField
+        @SeekKey(order = 2)
+        private Long id;
+
+        public Integer getScore() {
+            return score;
+        }
+
+        public void setScore(Integer score) {
+            this.score = score;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Cursor of ascending scores, ties broken by ascending ids.
+     */
+    public static class AscendingCursor {
+
+        @IgnoreField
+        @SeekKey(order = 1)
+        private Integer score;
+
+        @IgnoreField
+        @SeekKey(order = 2)
+        private Long id;
+
+        public Integer getScore() {
+            return score;
+        }
+
+        public void setScore(Integer score) {
+            this.score = score;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Class used as both filter and cursor, whose seek key also filters.
+     */
+    public static class IdCursor {
+
+        @SeekKey(order = 1, direction = SortDirection.DESC)
+        private Long id;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.vulinh.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.annotation.UseCustomName;
+import com.vulinh.annotation.UseTableAlias;
+import com.vulinh.annotation.comparison.GreaterThanOrEqualTo;
+import com.vulinh.annotation.comparison.In;
+import com.vulinh.annotation.comparison.LessThan;
+import com.vulinh.annotation.comparison.LessThanOrEqualTo;
+import com.vulinh.data.BuiltQuery;
+import com.vulinh.dialect.JdbcDialect;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Queries rendered by {@link JdbcDialect} and bound by {@link JdbcBindingUtils}, run against an in-memory H2 database whose columns are case-sensitive
+ * quoted identifiers.
+ */
+class JdbcBindingUtilsTest {
+
+    private static final String SELECT_IDS = "select \"o\".\"id\" from \"orders\" \"o\" where 1 = 1";
+
+    private static final QueryBuilder QUERY_BUILDER = new QueryBuilder(JdbcDialect.ANSI);
+
+    private Connection connection;
+
+    @BeforeEach
+    void createTables() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                "create table \"orders\" (\"id\" bigint, \"customerName\" varchar(50), \"quantity\" int, \"amount\" decimal(10, 2), "
+                + "\"createdAt\" timestamp, \"order_day\" date)"
+            );
+
+            statement.execute(
+                "insert into \"orders\" values "
+                + "(1, 'Alice', 1, 10.50, timestamp '2024-01-01 10:00:00', date '2024-01-01'), "
+                + "(2, 'Alice', 5, 99.99, timestamp '2024-02-01 10:00:00', date '2024-02-01'), "
+                + "(3, 'Bob', 2, 20.00, timestamp '2024-03-01 10:00:00', date '2024-03-01'), "
+                + "(4, 'alice', 3, 30.00, timestamp '2024-04-01 10:00:00', date '2024-04-01')"
+            );
+
+            statement.execute(
+                "create table \"values\" (\"string\" varchar(50), \"long\" bigint, \"int\" int, \"short\" smallint, \"byte\" tinyint, \"double\" double, "
+                + "\"float\" real, \"boolean\" boolean, \"decimal\" decimal(10, 2), \"timestamp\" timestamp, \"date\" date, \"time\" time, "
+                + "\"legacy\" timestamp, \"localDateTime\" timestamp, \"localDate\" date, \"localTime\" time, \"instant\" timestamp with time zone, "
+                + "\"object\" uuid, \"null\" int)"
+            );
+        }
+    }
+
+    @AfterEach
+    void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void bindsQueryRenderedWithQuotedIdentifiers() throws SQLException {
+        OrderFilter filter = new OrderFilter();
+
+        filter.setCustomerName("Alice");
+        filter.setMinAmount(new BigDecimal("20.00"));
+        filter.setCreatedBefore(LocalDateTime.of(2024, 3, 1, 0, 0));
+        filter.setMaxOrderDay(LocalDate.of(2024, 12, 31));
+        filter.setMaxQuantity(5);
+
+        BuiltQuery builtQuery = QUERY_BUILDER.build(filter, SELECT_IDS);
+
+        assertTrue(builtQuery.query().contains("\"o\".\"customerName\" = ?"), builtQuery.query());
+        assertEquals(Collections.singletonList(2L), selectIds(builtQuery));
+    }
+
+    @Test
+    void bindsPaddedListElements() throws SQLException {
+        OrderFilter filter = new OrderFilter();
+
+        // Three values are padded to four parameters by repeating the last one
+        filter.setIds(Arrays.asList(1L, 3L, 4L));
+
+        BuiltQuery builtQuery = QUERY_BUILDER.build(filter, SELECT_IDS);
+
+        assertEquals(4, builtQuery.parameterCount());
+        assertEquals(Arrays.asList(1L, 3L, 4L), selectIds(builtQuery));
+    }
+
+    @Test
+    void bindsNullListElement() throws SQLException {
+        OrderFilter filter = new OrderFilter();
+
+        // Null never equals a column value, so it only binds without matching
+        filter.setIds(Arrays.asList(2L, null));
+
+        BuiltQuery builtQuery = QUERY_BUILDER.build(filter, SELECT_IDS);
+
+        assertNull(builtQuery.parameterValue(1));
+        assertEquals(Collections.singletonList(2L), selectIds(builtQuery));
+    }
+
+    @Test
+    void bindsEmptyListAsNoRow() throws SQLException {
+        OrderFilter filter = new OrderFilter();
+
+        filter.setIds(Collections.emptyList());
+
+        BuiltQuery builtQuery = QUERY_BUILDER.build(filter, SELECT_IDS);
+
+        assertEquals(0, builtQuery.parameterCount());
+        assertEquals(Collections.emptyList(), selectIds(builtQuery));
+    }
+
+    @Test
+    void bindsValuesThroughTypedSetters() throws SQLException {
+        Object[] values = {
+            "text", 1L, 2, (short) 3, (byte) 4, 5.5D, 6.5F, true, new BigDecimal("7.25"), Timestamp.valueOf("2024-01-01 10:00:00"),
+            java.sql.Date.valueOf("2024-01-02"), Time.valueOf("10:30:00"), new Date(Timestamp.valueOf("2024-01-03 11:00:00").getTime()),
+            LocalDateTime.of(2024, 1, 4, 12, 0), LocalDate.of(2024, 1, 5), LocalTime.of(13, 45), Instant.parse("2024-01-06T14:00:00Z"),
+            java.util.UUID.fromString("123e4567-e89b-12d3-a456-426614174000"), null
+        };
+
+        try (PreparedStatement statement = connection.prepareStatement("insert into \"values\" values (" + placeholders(values.length) + ")")) {
+            for (int i = 0; i < values.length; i++) {
+                JdbcBindingUtils.bindValue(statement, i + 1, values[i]);
+            }
+
+            assertEquals(1, statement.executeUpdate());
+        }
+
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("select * from \"values\"")) {
+            assertTrue(resultSet.next());
+
+            assertEquals("text", resultSet.getString("string"));
+            assertEquals(1L, resultSet.getLong("long"));
+            assertEquals(2, resultSet.getInt("int"));
+            assertEquals(3, resultSet.getShort("short"));
+            assertEquals(4, resultSet.getByte("byte"));
+            assertEquals(5.5D, resultSet.getDouble("double"));
+            assertEquals(6.5F, resultSet.getFloat("float"));
+            assertTrue(resultSet.getBoolean("boolean"));
+            assertEquals(new BigDecimal("7.25"), resultSet.getBigDecimal("decimal"));
+            assertEquals(Timestamp.valueOf("2024-01-01 10:00:00"), resultSet.getTimestamp("timestamp"));
+            assertEquals(java.sql.Date.valueOf("2024-01-02"), resultSet.getDate("date"));
+            assertEquals(Time.valueOf("10:30:00"), resultSet.getTime("time"));
+            assertEquals(Timestamp.valueOf("2024-01-03 11:00:00"), resultSet.getTimestamp("legacy"));
+            assertEquals(Timestamp.valueOf("2024-01-04 12:00:00"), resultSet.getTimestamp("localDateTime"));
+            assertEquals(java.sql.Date.valueOf("2024-01-05"), resultSet.getDate("localDate"));
+            assertEquals(Time.valueOf("13:45:00"), resultSet.getTime("localTime"));
+            assertEquals(Instant.parse("2024-01-06T14:00:00Z"), resultSet.getTimestamp("instant").toInstant());
+            assertEquals(values[17], resultSet.getObject("object"));
+
+            resultSet.getInt("null");
+
+            assertTrue(resultSet.wasNull());
+        }
+    }
+
+    private List<Long> selectIds(BuiltQuery builtQuery) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+
+        try (PreparedStatement statement = JdbcBindingUtils.bind(connection.prepareStatement(builtQuery.query() + " order by 1"), builtQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+
+        return ids;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder("?");
+
+        for (int i = 1; i < count; i++) {
+            placeholders.append(", ?");
+        }
+
+        return placeholders.toString();
+    }
+
+    /**
+     * Filter of orders, one field per typed setter of the columns it filters.
+     */
+    public static class OrderFilter {
+
+        @UseTableAlias("o")
+        private String customerName;
+
+        @In
+        @UseTableAlias("o")
+        @UseCustomName("id")
+        private List<Long> ids;
+
+        @LessThanOrEqualTo
+        @UseTableAlias("o")
+        @UseCustomName("quantity")
+        private Integer maxQuantity;
+
+        @GreaterThanOrEqualTo
+        @UseTableAlias("o")
+        @UseCustomName("amount")
+        private BigDecimal minAmount;
+
+        @LessThan
+        @UseTableAlias("o")
+        @UseCustomName("createdAt")
+        private LocalDateTime createdBefore;
+
+        @LessThanOrEqualTo
+        @UseTableAlias("o")
+        @UseCustomName("order_day")
+        private LocalDate maxOrderDay;
+
+        public String getCustomerName() {
+            return customerName;
+        }
+
+        public void setCustomerName(String customerName) {
+            this.customerName = customerName;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public Integer getMaxQuantity() {
+            return maxQuantity;
+        }
+
+        public void setMaxQuantity(Integer maxQuantity) {
+            this.maxQuantity = maxQuantity;
+        }
+
+        public BigDecimal getMinAmount() {
+            return minAmount;
+        }
+
+        public void setMinAmount(BigDecimal minAmount) {
+            this.minAmount = minAmount;
+        }
+
+        public LocalDateTime getCreatedBefore() {
+            return createdBefore;
+        }
+
+        public void setCreatedBefore(LocalDateTime createdBefore) {
+            this.createdBefore = createdBefore;
+        }
+
+        public LocalDate getMaxOrderDay() {
+            return maxOrderDay;
+        }
+
+        public void setMaxOrderDay(LocalDate maxOrderDay) {
+            this.maxOrderDay = maxOrderDay;
+        }
+    }
+}
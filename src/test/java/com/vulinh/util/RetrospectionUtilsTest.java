@@ -0,0 +1,131 @@
+package com.vulinh.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vulinh.QueryBuilder;
+import com.vulinh.data.BuilderException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Getter resolution, which follows the rules of <code>java.beans.PropertyDescriptor</code> as the annotation processor does.
+ */
+class RetrospectionUtilsTest {
+
+    @Test
+    void readsNonBooleanPropertiesThroughGetMethods() throws ReflectiveOperationException {
+        StatusFilter filter = new StatusFilter();
+
+        assertFalse(RetrospectionUtils.isValuePresent(StatusFilter.class.getDeclaredField("status"), filter));
+
+        filter.setStatus("ACTIVE");
+
+        assertTrue(RetrospectionUtils.isValuePresent(StatusFilter.class.getDeclaredField("status"), filter));
+        assertEquals(" and (status = :status)", QueryBuilder.builder().build().buildQueryString(filter, ""));
+    }
+
+    @Test
+    void readsBooleanPropertiesThroughIsMethods() {
+        FlagFilter filter = new FlagFilter();
+
+        filter.setActive(true);
+
+        assertEquals(" and (active = :active)", QueryBuilder.builder().build().buildQueryString(filter, ""));
+        assertEquals(boolean.class, RetrospectionUtils.getPropertyType(FlagFilter.class, "active"));
+    }
+
+    @Test
+    void rejectsIsMethodsOfNonBooleanProperties() {
+        assertThrows(BuilderException.class, () -> QueryBuilder.builder().build().buildQueryString(new IsOnlyFilter(), ""));
+    }
+
+    @Test
+    void rejectsGettersNotReturningTheFieldType() {
+        assertThrows(BuilderException.class, () -> QueryBuilder.builder().build().buildQueryString(new MismatchedFilter(), ""));
+    }
+
+    @Test
+    void rejectsPropertiesWithoutSetter() {
+        assertThrows(BuilderException.class, () -> RetrospectionUtils.getPropertyType(ReadOnlyBean.class, "name"));
+    }
+
+    /**
+     * Filter whose <code>String</code> field also has an unrelated <code>boolean</code> 'is' method.
+     */
+    public static class StatusFilter {
+
+        private String status;
+
+        public boolean isStatus() {
+            return status != null;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+    }
+
+    /**
+     * Filter with a <code>boolean</code> field read through an 'is' method.
+     */
+    public static class FlagFilter {
+
+        private boolean active;
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+
+    /**
+     * Filter whose <code>String</code> field only has a <code>boolean</code> 'is' method.
+     */
+    public static class IsOnlyFilter {
+
+        private String status;
+
+        public boolean isStatus() {
+            return status != null;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+    }
+
+    /**
+     * Filter whose getter does not return the type of its field.
+     */
+    public static class MismatchedFilter {
+
+        private int age;
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+    }
+
+    /**
+     * Bean with a read-only property.
+     */
+    public static class ReadOnlyBean {
+
+        public String getName() {
+            return "name";
+        }
+    }
+}